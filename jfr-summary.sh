@@ -0,0 +1,11 @@
+#!/bin/bash
+
+# 按URL模式汇总JFR录制中的API Runner事件
+# 用法: ./jfr-summary.sh 录制文件.jfr
+
+if [ ! -d target/classes ]; then
+    echo "正在编译项目..."
+    mvn -q compile || exit 1
+fi
+
+java -cp target/classes com.shrwk.apirunner.tool.JfrSummary "$@"
@@ -0,0 +1,11 @@
+#!/bin/bash
+
+# 导出运行报告为CSV
+# 用法: ./report-cli.sh <报告文件> [起始时间|-] [结束时间|-] [URL模式|-] [输出文件]
+
+if [ ! -d target/classes ]; then
+    echo "正在编译项目..."
+    mvn -q compile || exit 1
+fi
+
+java -cp target/classes com.shrwk.apirunner.tool.RunReportCli "$@"
@@ -1,8 +1,14 @@
 package com.shrwk.apirunner.config;
 
+import com.shrwk.apirunner.model.PushEndpointConfig;
+import com.shrwk.apirunner.model.PushGroupConfig;
+import com.shrwk.apirunner.model.VirtualServiceConfig;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * API配置类
  * 
@@ -58,6 +64,236 @@ public class ApiConfig {
      */
     private int concurrentMonitorInterval = 5;
 
+    /**
+     * 自适应并发限制重算间隔（毫秒）
+     */
+    private long adaptiveLimitTickMs = 100;
+
+    /**
+     * 排队模型响应释放定时器线程数
+     */
+    private int queueModelTimerThreads = 2;
+
+    /**
+     * 是否启用按秒的时间序列统计
+     */
+    private boolean timeseriesEnabled = true;
+
+    /**
+     * 时间序列保留时长（秒），即每个URL模式环形数组的长度
+     */
+    private int timeseriesRetentionSeconds = 600;
+
+    /**
+     * 计数器无访问后的过期时间（毫秒）
+     */
+    private long counterExpiryMs = 300000;
+
+    /**
+     * 计数器过期时间轮刻度（毫秒）
+     */
+    private long counterExpiryTickMs = 1000;
+
+    /**
+     * 是否发布内存映射共享统计区（默认关闭）
+     */
+    private boolean sharedStatsEnabled = false;
+
+    /**
+     * 共享统计文件路径，为空时使用临时目录下的api-runner-stats-<端口>.dat
+     */
+    private String sharedStatsPath = "";
+
+    /**
+     * 共享统计区槽位数（最多可发布的URL模式数）
+     */
+    private int sharedStatsSlots = 64;
+
+    /**
+     * 共享统计区刷新间隔（毫秒）
+     */
+    private long sharedStatsIntervalMs = 100;
+
+    /**
+     * 是否启用绕过DispatcherServlet的模拟接口快速通道
+     */
+    private boolean fastPathEnabled = false;
+
+    /**
+     * 是否在明文连接上启用HTTP/2（h2c升级与先验知识）
+     */
+    private boolean http2Enabled = false;
+
+    /**
+     * HTTP/2每个连接的最大并发流数
+     */
+    private int http2MaxConcurrentStreams = 100;
+
+    /**
+     * 连接空闲保持时间（毫秒），-1表示使用Tomcat默认值
+     */
+    private int keepAliveTimeoutMs = -1;
+
+    /**
+     * 每个HTTP/1.1连接处理的最大请求数，达到后关闭连接，-1表示不限制，0表示使用server.tomcat.max-keep-alive-requests
+     */
+    private int maxKeepAliveRequests = 0;
+
+    /**
+     * 最大连接数，-1表示不限制，0表示使用server.tomcat.max-connections
+     */
+    private int maxConnections = 0;
+
+    /**
+     * 接受新连接前的人为延迟（毫秒）
+     */
+    private long acceptDelayMs = 0;
+
+    /**
+     * 虚拟服务列表，每个虚拟服务监听独立端口
+     */
+    private List<VirtualServiceConfig> virtualServices = new ArrayList<>();
+
+    /**
+     * WebSocket/SSE推送端点列表，挂载在 /push/{name}
+     */
+    private List<PushEndpointConfig> pushEndpoints = new ArrayList<>();
+
+    /**
+     * 推送广播组列表
+     */
+    private List<PushGroupConfig> pushGroups = new ArrayList<>();
+
+    /**
+     * ALLOC模式下每个被控制请求保留的工作集大小（字节）
+     */
+    private int allocBytesPerRequest = 65536;
+
+    /**
+     * ALLOC模式下单个分配对象的大小（字节）
+     */
+    private int allocObjectBytes = 1024;
+
+    /**
+     * ALLOC模式下工作集的保留时间（毫秒），决定对象能否晋升到老年代
+     */
+    private long allocLifetimeMs = 1000;
+
+    /**
+     * ALLOC模式下保留工作集的总量上限（字节），达到上限后新的工作集不再保留；0表示最大堆的四分之一
+     */
+    private long allocMaxRetainedBytes = 0;
+
+    /**
+     * IO模式临时文件路径，为空时使用系统临时目录下的 api-runner-io.dat
+     */
+    private String ioScratchPath = "";
+
+    /**
+     * IO模式临时文件大小（字节），大于可用页缓存时随机读取才会落到磁盘
+     */
+    private long ioScratchFileBytes = 64L * 1024 * 1024;
+
+    /**
+     * IO模式单次读写的块大小（字节）
+     */
+    private int ioBlockBytes = 4096;
+
+    /**
+     * IO模式是否随机写入并fsync（默认）；false时改为随机读取，临时文件小于页缓存时读取不会落到磁盘
+     */
+    private boolean ioSyncWrites = true;
+
+    /**
+     * 是否在模拟接口响应中附加Server-Timing与X-Runner-*阶段耗时头
+     */
+    private boolean serverTimingEnabled = false;
+
+    /**
+     * 是否把按秒统计持久化为运行报告文件（默认关闭，长时间压测时开启）
+     */
+    private boolean runReportEnabled = false;
+
+    /**
+     * 运行报告文件路径（只追加，重启后继续写入）
+     */
+    private String runReportPath = "logs/api-runner-report.dat";
+
+    /**
+     * 运行报告写入周期（秒），每个周期压缩写出一个数据块
+     */
+    private int runReportFlushSeconds = 30;
+
+    /**
+     * 运行报告强制落盘周期（秒）
+     */
+    private int runReportFsyncSeconds = 60;
+
+    /**
+     * 是否允许通过X-Runner-*请求头覆盖单个请求的延迟、状态码、响应体大小和CPU消耗
+     */
+    private boolean requestOverridesEnabled = false;
+
+    /**
+     * 请求头覆盖的附加延迟上限（毫秒）
+     */
+    private long requestOverrideMaxLatencyMs = 60000;
+
+    /**
+     * 请求头覆盖的响应填充上限（字节）
+     */
+    private int requestOverrideMaxBodySize = 1048576;
+
+    /**
+     * 请求头覆盖的CPU消耗上限（微秒）
+     */
+    private long requestOverrideMaxBurnMicros = 1000000;
+
+    /**
+     * 是否在启动时预热请求处理路径，预热完成前就绪探针为DOWN
+     */
+    private boolean warmupEnabled = false;
+
+    /**
+     * 每个URL模式的最大预热次数
+     */
+    private int warmupMaxIterations = 200000;
+
+    /**
+     * 预热最长时间（秒）
+     */
+    private int warmupMaxSeconds = 60;
+
+    /**
+     * JIT编译耗时连续几轮不再增长时提前结束预热
+     */
+    private int warmupStableRounds = 3;
+
+    /**
+     * 响应模板文件的检查间隔（毫秒），0表示不自动重新加载
+     */
+    private long templateReloadIntervalMs = 2000;
+
+    /**
+     * 流式响应分块调度线程数（所有流共享，不为每个流占用线程）
+     */
+    private int streamingTimerThreads = 2;
+
+    /**
+     * 推送消息调度线程数（所有端点和广播组共享）
+     */
+    private int pushTimerThreads = 2;
+
+    /**
+     * SSE写出线程数（所有SSE连接共享，每个连接同一时刻最多占用一个线程）
+     */
+    private int pushSseWriterThreads = 8;
+
+    /**
+     * 逐连接消息的调度粒度（毫秒）
+     */
+    private long pushTickMs = 10;
+
     public boolean isQpsControlEnabled() {
         return qpsControlEnabled;
     }
@@ -129,4 +365,372 @@ public class ApiConfig {
     public void setConcurrentMonitorInterval(int concurrentMonitorInterval) {
         this.concurrentMonitorInterval = concurrentMonitorInterval;
     }
+
+    public long getAdaptiveLimitTickMs() {
+        return adaptiveLimitTickMs;
+    }
+
+    public void setAdaptiveLimitTickMs(long adaptiveLimitTickMs) {
+        this.adaptiveLimitTickMs = adaptiveLimitTickMs;
+    }
+
+    public int getQueueModelTimerThreads() {
+        return queueModelTimerThreads;
+    }
+
+    public void setQueueModelTimerThreads(int queueModelTimerThreads) {
+        this.queueModelTimerThreads = queueModelTimerThreads;
+    }
+
+    public boolean isTimeseriesEnabled() {
+        return timeseriesEnabled;
+    }
+
+    public void setTimeseriesEnabled(boolean timeseriesEnabled) {
+        this.timeseriesEnabled = timeseriesEnabled;
+    }
+
+    public int getTimeseriesRetentionSeconds() {
+        return timeseriesRetentionSeconds;
+    }
+
+    public void setTimeseriesRetentionSeconds(int timeseriesRetentionSeconds) {
+        this.timeseriesRetentionSeconds = timeseriesRetentionSeconds;
+    }
+
+    public long getCounterExpiryMs() {
+        return counterExpiryMs;
+    }
+
+    public void setCounterExpiryMs(long counterExpiryMs) {
+        this.counterExpiryMs = counterExpiryMs;
+    }
+
+    public long getCounterExpiryTickMs() {
+        return counterExpiryTickMs;
+    }
+
+    public void setCounterExpiryTickMs(long counterExpiryTickMs) {
+        this.counterExpiryTickMs = counterExpiryTickMs;
+    }
+
+    public boolean isSharedStatsEnabled() {
+        return sharedStatsEnabled;
+    }
+
+    public void setSharedStatsEnabled(boolean sharedStatsEnabled) {
+        this.sharedStatsEnabled = sharedStatsEnabled;
+    }
+
+    public String getSharedStatsPath() {
+        return sharedStatsPath;
+    }
+
+    public void setSharedStatsPath(String sharedStatsPath) {
+        this.sharedStatsPath = sharedStatsPath;
+    }
+
+    public int getSharedStatsSlots() {
+        return sharedStatsSlots;
+    }
+
+    public void setSharedStatsSlots(int sharedStatsSlots) {
+        this.sharedStatsSlots = sharedStatsSlots;
+    }
+
+    public long getSharedStatsIntervalMs() {
+        return sharedStatsIntervalMs;
+    }
+
+    public void setSharedStatsIntervalMs(long sharedStatsIntervalMs) {
+        this.sharedStatsIntervalMs = sharedStatsIntervalMs;
+    }
+
+    public boolean isFastPathEnabled() {
+        return fastPathEnabled;
+    }
+
+    public void setFastPathEnabled(boolean fastPathEnabled) {
+        this.fastPathEnabled = fastPathEnabled;
+    }
+
+    public boolean isHttp2Enabled() {
+        return http2Enabled;
+    }
+
+    public void setHttp2Enabled(boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+    }
+
+    public int getHttp2MaxConcurrentStreams() {
+        return http2MaxConcurrentStreams;
+    }
+
+    public void setHttp2MaxConcurrentStreams(int http2MaxConcurrentStreams) {
+        this.http2MaxConcurrentStreams = http2MaxConcurrentStreams;
+    }
+
+    public int getKeepAliveTimeoutMs() {
+        return keepAliveTimeoutMs;
+    }
+
+    public void setKeepAliveTimeoutMs(int keepAliveTimeoutMs) {
+        this.keepAliveTimeoutMs = keepAliveTimeoutMs;
+    }
+
+    public int getMaxKeepAliveRequests() {
+        return maxKeepAliveRequests;
+    }
+
+    public void setMaxKeepAliveRequests(int maxKeepAliveRequests) {
+        this.maxKeepAliveRequests = maxKeepAliveRequests;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public long getAcceptDelayMs() {
+        return acceptDelayMs;
+    }
+
+    public void setAcceptDelayMs(long acceptDelayMs) {
+        this.acceptDelayMs = acceptDelayMs;
+    }
+
+    public List<VirtualServiceConfig> getVirtualServices() {
+        return virtualServices;
+    }
+
+    public void setVirtualServices(List<VirtualServiceConfig> virtualServices) {
+        this.virtualServices = virtualServices;
+    }
+
+    public List<PushEndpointConfig> getPushEndpoints() {
+        return pushEndpoints;
+    }
+
+    public void setPushEndpoints(List<PushEndpointConfig> pushEndpoints) {
+        this.pushEndpoints = pushEndpoints;
+    }
+
+    public List<PushGroupConfig> getPushGroups() {
+        return pushGroups;
+    }
+
+    public void setPushGroups(List<PushGroupConfig> pushGroups) {
+        this.pushGroups = pushGroups;
+    }
+
+    public int getAllocBytesPerRequest() {
+        return allocBytesPerRequest;
+    }
+
+    public void setAllocBytesPerRequest(int allocBytesPerRequest) {
+        this.allocBytesPerRequest = allocBytesPerRequest;
+    }
+
+    public int getAllocObjectBytes() {
+        return allocObjectBytes;
+    }
+
+    public void setAllocObjectBytes(int allocObjectBytes) {
+        this.allocObjectBytes = allocObjectBytes;
+    }
+
+    public long getAllocLifetimeMs() {
+        return allocLifetimeMs;
+    }
+
+    public void setAllocLifetimeMs(long allocLifetimeMs) {
+        this.allocLifetimeMs = allocLifetimeMs;
+    }
+
+    public long getAllocMaxRetainedBytes() {
+        return allocMaxRetainedBytes;
+    }
+
+    public void setAllocMaxRetainedBytes(long allocMaxRetainedBytes) {
+        this.allocMaxRetainedBytes = allocMaxRetainedBytes;
+    }
+
+    public String getIoScratchPath() {
+        return ioScratchPath;
+    }
+
+    public void setIoScratchPath(String ioScratchPath) {
+        this.ioScratchPath = ioScratchPath;
+    }
+
+    public long getIoScratchFileBytes() {
+        return ioScratchFileBytes;
+    }
+
+    public void setIoScratchFileBytes(long ioScratchFileBytes) {
+        this.ioScratchFileBytes = ioScratchFileBytes;
+    }
+
+    public int getIoBlockBytes() {
+        return ioBlockBytes;
+    }
+
+    public void setIoBlockBytes(int ioBlockBytes) {
+        this.ioBlockBytes = ioBlockBytes;
+    }
+
+    public boolean isIoSyncWrites() {
+        return ioSyncWrites;
+    }
+
+    public void setIoSyncWrites(boolean ioSyncWrites) {
+        this.ioSyncWrites = ioSyncWrites;
+    }
+
+    public boolean isServerTimingEnabled() {
+        return serverTimingEnabled;
+    }
+
+    public void setServerTimingEnabled(boolean serverTimingEnabled) {
+        this.serverTimingEnabled = serverTimingEnabled;
+    }
+
+    public boolean isRunReportEnabled() {
+        return runReportEnabled;
+    }
+
+    public void setRunReportEnabled(boolean runReportEnabled) {
+        this.runReportEnabled = runReportEnabled;
+    }
+
+    public String getRunReportPath() {
+        return runReportPath;
+    }
+
+    public void setRunReportPath(String runReportPath) {
+        this.runReportPath = runReportPath;
+    }
+
+    public int getRunReportFlushSeconds() {
+        return runReportFlushSeconds;
+    }
+
+    public void setRunReportFlushSeconds(int runReportFlushSeconds) {
+        this.runReportFlushSeconds = runReportFlushSeconds;
+    }
+
+    public int getRunReportFsyncSeconds() {
+        return runReportFsyncSeconds;
+    }
+
+    public void setRunReportFsyncSeconds(int runReportFsyncSeconds) {
+        this.runReportFsyncSeconds = runReportFsyncSeconds;
+    }
+
+    public boolean isRequestOverridesEnabled() {
+        return requestOverridesEnabled;
+    }
+
+    public void setRequestOverridesEnabled(boolean requestOverridesEnabled) {
+        this.requestOverridesEnabled = requestOverridesEnabled;
+    }
+
+    public long getRequestOverrideMaxLatencyMs() {
+        return requestOverrideMaxLatencyMs;
+    }
+
+    public void setRequestOverrideMaxLatencyMs(long requestOverrideMaxLatencyMs) {
+        this.requestOverrideMaxLatencyMs = requestOverrideMaxLatencyMs;
+    }
+
+    public int getRequestOverrideMaxBodySize() {
+        return requestOverrideMaxBodySize;
+    }
+
+    public void setRequestOverrideMaxBodySize(int requestOverrideMaxBodySize) {
+        this.requestOverrideMaxBodySize = requestOverrideMaxBodySize;
+    }
+
+    public long getRequestOverrideMaxBurnMicros() {
+        return requestOverrideMaxBurnMicros;
+    }
+
+    public void setRequestOverrideMaxBurnMicros(long requestOverrideMaxBurnMicros) {
+        this.requestOverrideMaxBurnMicros = requestOverrideMaxBurnMicros;
+    }
+
+    public boolean isWarmupEnabled() {
+        return warmupEnabled;
+    }
+
+    public void setWarmupEnabled(boolean warmupEnabled) {
+        this.warmupEnabled = warmupEnabled;
+    }
+
+    public int getWarmupMaxIterations() {
+        return warmupMaxIterations;
+    }
+
+    public void setWarmupMaxIterations(int warmupMaxIterations) {
+        this.warmupMaxIterations = warmupMaxIterations;
+    }
+
+    public int getWarmupMaxSeconds() {
+        return warmupMaxSeconds;
+    }
+
+    public void setWarmupMaxSeconds(int warmupMaxSeconds) {
+        this.warmupMaxSeconds = warmupMaxSeconds;
+    }
+
+    public int getWarmupStableRounds() {
+        return warmupStableRounds;
+    }
+
+    public void setWarmupStableRounds(int warmupStableRounds) {
+        this.warmupStableRounds = warmupStableRounds;
+    }
+
+    public long getTemplateReloadIntervalMs() {
+        return templateReloadIntervalMs;
+    }
+
+    public void setTemplateReloadIntervalMs(long templateReloadIntervalMs) {
+        this.templateReloadIntervalMs = templateReloadIntervalMs;
+    }
+
+    public int getStreamingTimerThreads() {
+        return streamingTimerThreads;
+    }
+
+    public void setStreamingTimerThreads(int streamingTimerThreads) {
+        this.streamingTimerThreads = streamingTimerThreads;
+    }
+
+    public int getPushTimerThreads() {
+        return pushTimerThreads;
+    }
+
+    public void setPushTimerThreads(int pushTimerThreads) {
+        this.pushTimerThreads = pushTimerThreads;
+    }
+
+    public int getPushSseWriterThreads() {
+        return pushSseWriterThreads;
+    }
+
+    public void setPushSseWriterThreads(int pushSseWriterThreads) {
+        this.pushSseWriterThreads = pushSseWriterThreads;
+    }
+
+    public long getPushTickMs() {
+        return pushTickMs;
+    }
+
+    public void setPushTickMs(long pushTickMs) {
+        this.pushTickMs = pushTickMs;
+    }
 }
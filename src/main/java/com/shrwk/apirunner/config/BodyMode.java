@@ -0,0 +1,29 @@
+package com.shrwk.apirunner.config;
+
+/**
+ * 请求体处理模式枚举
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public enum BodyMode {
+    /**
+     * 不读取请求体，由容器在响应后丢弃（默认）
+     */
+    IGNORE,
+
+    /**
+     * 在处理请求前用线程复用的缓冲区读完并丢弃请求体
+     */
+    DISCARD,
+
+    /**
+     * 读完请求体并计算CRC32C，与请求头中的校验值比较
+     */
+    CHECKSUM,
+
+    /**
+     * 以非阻塞I/O把请求体原样写回作为响应体
+     */
+    ECHO
+}
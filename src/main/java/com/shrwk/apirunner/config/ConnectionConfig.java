@@ -0,0 +1,140 @@
+package com.shrwk.apirunner.config;
+
+import com.shrwk.apirunner.model.VirtualServiceConfig;
+import org.apache.catalina.Lifecycle;
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.ProtocolHandler;
+import org.apache.coyote.http11.AbstractHttp11Protocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.apache.tomcat.util.threads.TaskQueue;
+import org.apache.tomcat.util.threads.TaskThreadFactory;
+import org.apache.tomcat.util.threads.ThreadPoolExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatConnectorCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 连接行为配置
+ * 在内嵌Tomcat上启用h2c，并按配置控制保持连接时间、单连接最大请求数、最大连接数与接受延迟（未设置的项沿用server.tomcat.*），
+ * 用于对比不同客户端连接池参数在受控服务端连接限制下的表现；
+ * 配置了虚拟服务时为每个虚拟服务增加一个连接器，所有连接器共用一个工作线程池
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Configuration
+public class ConnectionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionConfig.class);
+
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> connectionCustomizer(ApiConfig apiConfig) {
+        return factory -> {
+            if (apiConfig.getAcceptDelayMs() > 0) {
+                factory.setProtocol(DelayedAcceptNioProtocol.class.getName());
+            }
+            // 故障注入断开连接使用
+            factory.addContextValves(new ConnectionResetValve());
+            factory.addConnectorCustomizers(connector -> {
+                ProtocolHandler handler = connector.getProtocolHandler();
+                if (handler instanceof AbstractHttp11Protocol) {
+                    AbstractHttp11Protocol<?> protocol = (AbstractHttp11Protocol<?>) handler;
+                    if (apiConfig.getKeepAliveTimeoutMs() >= 0) {
+                        protocol.setKeepAliveTimeout(apiConfig.getKeepAliveTimeoutMs());
+                    }
+                    // 未设置时保留server.tomcat.*的值
+                    if (apiConfig.getMaxKeepAliveRequests() != 0) {
+                        protocol.setMaxKeepAliveRequests(apiConfig.getMaxKeepAliveRequests());
+                    }
+                    if (apiConfig.getMaxConnections() != 0) {
+                        protocol.setMaxConnections(apiConfig.getMaxConnections());
+                    }
+                }
+                if (handler instanceof DelayedAcceptNioProtocol) {
+                    ((DelayedAcceptNioProtocol) handler).setAcceptDelayMs(apiConfig.getAcceptDelayMs());
+                }
+
+                if (apiConfig.isHttp2Enabled()) {
+                    Http2Protocol http2 = new Http2Protocol();
+                    http2.setMaxConcurrentStreams(apiConfig.getHttp2MaxConcurrentStreams());
+                    if (apiConfig.getKeepAliveTimeoutMs() >= 0) {
+                        http2.setKeepAliveTimeout(apiConfig.getKeepAliveTimeoutMs());
+                    }
+                    connector.addUpgradeProtocol(http2);
+                }
+            });
+            logger.info("连接配置 - h2c: {}, 最大并发流: {}, 保持时间: {}ms, 单连接最大请求数: {}, 最大连接数: {}, 接受延迟: {}ms",
+                       apiConfig.isHttp2Enabled(), apiConfig.getHttp2MaxConcurrentStreams(),
+                       apiConfig.getKeepAliveTimeoutMs(), apiConfig.getMaxKeepAliveRequests(),
+                       apiConfig.getMaxConnections(), apiConfig.getAcceptDelayMs());
+        };
+    }
+
+    /**
+     * 虚拟服务连接器
+     * 最后执行，以便复制其他定制器（包括Spring Boot的server.tomcat.*设置）到额外连接器上
+     */
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> virtualServiceConnectorCustomizer(
+            ApiConfig apiConfig, ServerProperties serverProperties) {
+        return factory -> {
+            if (apiConfig.getVirtualServices().isEmpty()) {
+                return;
+            }
+
+            // 所有连接器共用一个工作线程池，虚拟服务数量不增加线程数
+            ThreadPoolExecutor sharedExecutor = createSharedExecutor(serverProperties.getTomcat().getThreads());
+            factory.addProtocolHandlerCustomizers(handler -> handler.setExecutor(sharedExecutor));
+            factory.addContextLifecycleListeners(event -> {
+                if (Lifecycle.AFTER_DESTROY_EVENT.equals(event.getType())) {
+                    sharedExecutor.shutdownNow();
+                }
+            });
+
+            String protocol = apiConfig.getAcceptDelayMs() > 0 ? DelayedAcceptNioProtocol.class.getName()
+                                                               : TomcatServletWebServerFactory.DEFAULT_PROTOCOL;
+            for (VirtualServiceConfig service : apiConfig.getVirtualServices()) {
+                Connector connector = new Connector(protocol);
+                connector.setPort(service.getPort());
+                for (TomcatConnectorCustomizer customizer : factory.getTomcatConnectorCustomizers()) {
+                    customizer.customize(connector);
+                }
+                for (TomcatProtocolHandlerCustomizer<?> customizer : factory.getTomcatProtocolHandlerCustomizers()) {
+                    customizeProtocolHandler(customizer, connector.getProtocolHandler());
+                }
+                factory.addAdditionalTomcatConnectors(connector);
+            }
+            logger.info("虚拟服务连接器 - 数量: {}, 共享线程池: {}-{}", apiConfig.getVirtualServices().size(),
+                       sharedExecutor.getCorePoolSize(), sharedExecutor.getMaximumPoolSize());
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends ProtocolHandler> void customizeProtocolHandler(TomcatProtocolHandlerCustomizer<T> customizer,
+                                                                               ProtocolHandler handler) {
+        customizer.customize((T) handler);
+    }
+
+    /**
+     * 与Tomcat内部线程池相同的构造方式：任务队列优先扩充线程，达到最大线程数后才排队
+     */
+    private static ThreadPoolExecutor createSharedExecutor(ServerProperties.Tomcat.Threads threads) {
+        TaskQueue taskQueue = new TaskQueue();
+        TaskThreadFactory threadFactory = new TaskThreadFactory("http-shared-exec-", true, Thread.NORM_PRIORITY);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads.getMinSpare(), threads.getMax(),
+                60, TimeUnit.SECONDS, taskQueue, threadFactory);
+        taskQueue.setParent(executor);
+        return executor;
+    }
+}
@@ -0,0 +1,54 @@
+package com.shrwk.apirunner.config;
+
+import org.apache.catalina.connector.Request;
+import org.apache.catalina.connector.Response;
+import org.apache.catalina.valves.ValveBase;
+import org.apache.coyote.ActionCode;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+
+/**
+ * 连接断开阀门
+ * 在请求线程上记录当前的容器响应，故障注入需要断开连接时通过它让Tomcat立即关闭连接，
+ * 不再写出（剩余的）响应；Servlet API本身无法做到这一点
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class ConnectionResetValve extends ValveBase {
+
+    /**
+     * 当前请求线程的容器响应，请求结束后置空（不移除，避免每个请求重新创建ThreadLocal条目）
+     */
+    private static final ThreadLocal<Response> CURRENT = new ThreadLocal<>();
+
+    private static final Runnable NO_RESET = () -> { };
+
+    public ConnectionResetValve() {
+        super(true);
+    }
+
+    @Override
+    public void invoke(Request request, Response response) throws IOException, ServletException {
+        CURRENT.set(response);
+        try {
+            getNext().invoke(request, response);
+        } finally {
+            CURRENT.set(null);
+        }
+    }
+
+    /**
+     * 获取断开当前请求连接的操作，必须在容器请求线程上获取，之后可以在任意线程上执行（异步请求结束前）；
+     * 未安装阀门时（如测试环境）返回空操作
+     */
+    public static Runnable currentResetter() {
+        Response response = CURRENT.get();
+        if (response == null) {
+            return NO_RESET;
+        }
+        org.apache.coyote.Response coyoteResponse = response.getCoyoteResponse();
+        return () -> coyoteResponse.action(ActionCode.CLOSE_NOW, null);
+    }
+}
@@ -0,0 +1,50 @@
+package com.shrwk.apirunner.config;
+
+import org.apache.coyote.http11.Http11NioProtocol;
+import org.apache.tomcat.util.net.NioEndpoint;
+
+import java.nio.channels.SocketChannel;
+
+/**
+ * 带接受延迟的NIO协议处理器
+ * 在Acceptor线程交出新连接前等待指定时间，模拟接受缓慢的服务端：
+ * 延迟期间后续连接停留在内核backlog中，客户端表现为建连耗时增加
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class DelayedAcceptNioProtocol extends Http11NioProtocol {
+
+    public DelayedAcceptNioProtocol() {
+        super(new DelayedAcceptEndpoint());
+    }
+
+    public void setAcceptDelayMs(long acceptDelayMs) {
+        ((DelayedAcceptEndpoint) getEndpoint()).acceptDelayMs = acceptDelayMs;
+    }
+
+    public long getAcceptDelayMs() {
+        return ((DelayedAcceptEndpoint) getEndpoint()).acceptDelayMs;
+    }
+
+    /**
+     * 在设置套接字选项（即注册到Poller）之前等待
+     */
+    private static class DelayedAcceptEndpoint extends NioEndpoint {
+        private volatile long acceptDelayMs;
+
+        @Override
+        protected boolean setSocketOptions(SocketChannel socket) {
+            long delay = acceptDelayMs;
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return super.setSocketOptions(socket);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.shrwk.apirunner.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shrwk.apirunner.controller.FastPathFilter;
+import com.shrwk.apirunner.controller.FaultResponseWriter;
+import com.shrwk.apirunner.controller.RequestBodyHandler;
+import com.shrwk.apirunner.service.MockRequestService;
+import com.shrwk.apirunner.service.StreamingService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 快速通道配置
+ * api.fast-path-enabled=true 时注册快速通道过滤器，排在其他过滤器之前
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "api", name = "fast-path-enabled", havingValue = "true")
+public class FastPathConfig {
+
+    @Bean
+    public FilterRegistrationBean<FastPathFilter> fastPathFilter(MockRequestService mockRequestService,
+                                                                 StreamingService streamingService,
+                                                                 ObjectMapper objectMapper,
+                                                                 FaultResponseWriter faultResponseWriter,
+                                                                 RequestBodyHandler requestBodyHandler) {
+        FilterRegistrationBean<FastPathFilter> registration = new FilterRegistrationBean<>(
+                new FastPathFilter(mockRequestService, streamingService, objectMapper, faultResponseWriter,
+                                   requestBodyHandler));
+        registration.setName("fastPathFilter");
+        registration.addUrlPatterns("/*");
+        registration.setAsyncSupported(true);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
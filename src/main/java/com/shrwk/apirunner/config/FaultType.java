@@ -0,0 +1,34 @@
+package com.shrwk.apirunner.config;
+
+/**
+ * 注入故障类型枚举
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public enum FaultType {
+    /**
+     * 返回错误状态码，错误码为状态码加"901"
+     */
+    ERROR,
+
+    /**
+     * 正常响应体按小块缓慢写出
+     */
+    SLOW_DRIP,
+
+    /**
+     * 不写出任何响应，直接断开连接
+     */
+    RESET,
+
+    /**
+     * 声明完整的Content-Length，只写出部分响应体后断开连接
+     */
+    TRUNCATE,
+
+    /**
+     * 不响应，保持连接到超时后断开
+     */
+    HANG
+}
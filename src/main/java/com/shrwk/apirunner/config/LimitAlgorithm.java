@@ -0,0 +1,25 @@
+package com.shrwk.apirunner.config;
+
+/**
+ * 自适应并发限制算法枚举
+ * 
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public enum LimitAlgorithm {
+    /**
+     * 加性增、乘性减：窗口内平均RTT超过阈值时按比例收缩，否则逐步加一；
+     * 自身拒绝的请求不参与计算（达到上限后的拒绝若也收缩，限制会越缩越小）
+     */
+    AIMD,
+
+    /**
+     * Vegas：根据最小RTT与当前RTT估算排队长度，排队过少则增加，过多则减少
+     */
+    VEGAS,
+
+    /**
+     * 梯度：按长期RTT与短期RTT的比值缩放限制，并预留少量排队余量
+     */
+    GRADIENT
+}
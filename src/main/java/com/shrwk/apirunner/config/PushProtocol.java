@@ -0,0 +1,19 @@
+package com.shrwk.apirunner.config;
+
+/**
+ * 推送端点协议枚举
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public enum PushProtocol {
+    /**
+     * WebSocket（文本帧）
+     */
+    WEBSOCKET,
+
+    /**
+     * Server-Sent Events
+     */
+    SSE
+}
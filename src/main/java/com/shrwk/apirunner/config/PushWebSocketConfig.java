@@ -0,0 +1,61 @@
+package com.shrwk.apirunner.config;
+
+import com.shrwk.apirunner.controller.PushWebSocketEndpoint;
+import com.shrwk.apirunner.service.PushService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.ServletContext;
+import javax.websocket.DeploymentException;
+import javax.websocket.server.ServerContainer;
+import javax.websocket.server.ServerEndpointConfig;
+
+/**
+ * WebSocket推送端点注册
+ * 通过Tomcat内置的JSR-356容器把协议为WEBSOCKET的推送端点注册到 /push/{name}；
+ * 非Servlet容器环境（如测试中的模拟Servlet上下文）没有WebSocket容器，跳过注册
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Configuration
+@Lazy(false)
+public class PushWebSocketConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(PushWebSocketConfig.class);
+
+    @Autowired
+    private PushService pushService;
+
+    @Autowired(required = false)
+    private ServletContext servletContext;
+
+    @PostConstruct
+    public void registerEndpoints() throws DeploymentException {
+        ServerContainer container = servletContext != null
+                ? (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName()) : null;
+        for (PushService.PushEndpoint endpoint : pushService.getEndpoints()) {
+            if (endpoint.getConfig().getProtocol() != PushProtocol.WEBSOCKET) {
+                continue;
+            }
+            if (container == null) {
+                logger.warn("没有可用的WebSocket容器，跳过推送端点: {}", endpoint.getConfig().getPath());
+                continue;
+            }
+            container.addEndpoint(ServerEndpointConfig.Builder
+                    .create(PushWebSocketEndpoint.class, endpoint.getConfig().getPath())
+                    .configurator(new ServerEndpointConfig.Configurator() {
+                        @Override
+                        @SuppressWarnings("unchecked")
+                        public <T> T getEndpointInstance(Class<T> endpointClass) {
+                            return (T) new PushWebSocketEndpoint(pushService, endpoint);
+                        }
+                    })
+                    .build());
+        }
+    }
+}
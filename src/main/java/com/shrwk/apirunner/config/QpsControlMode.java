@@ -15,5 +15,15 @@ public enum QpsControlMode {
     /**
      * 通过CPU消耗控制QPS
      */
-    CPU
+    CPU,
+
+    /**
+     * 通过内存分配控制QPS（分配并保留工作集，产生GC压力）
+     */
+    ALLOC,
+
+    /**
+     * 通过磁盘IO控制QPS（对临时文件随机读取或同步写入）
+     */
+    IO
 }
@@ -0,0 +1,24 @@
+package com.shrwk.apirunner.config;
+
+/**
+ * QPS计划分段形状枚举
+ * 
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public enum ScheduleShape {
+    /**
+     * 阶跃：分段内保持固定值
+     */
+    STEP,
+
+    /**
+     * 斜坡：分段内从起始值线性变化到结束值
+     */
+    RAMP,
+
+    /**
+     * 正弦：围绕基准值按振幅和周期波动
+     */
+    SINE
+}
@@ -0,0 +1,29 @@
+package com.shrwk.apirunner.config;
+
+/**
+ * 虚拟服务台服务时间分布枚举
+ * 
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public enum ServiceTimeDistribution {
+    /**
+     * 固定服务时间（M/D/c）
+     */
+    CONSTANT,
+
+    /**
+     * 指数分布（M/M/c）
+     */
+    EXPONENTIAL,
+
+    /**
+     * 区间[min, max]内均匀分布
+     */
+    UNIFORM,
+
+    /**
+     * 对数正态分布，按均值和标准差构造，适合模拟长尾
+     */
+    LOGNORMAL
+}
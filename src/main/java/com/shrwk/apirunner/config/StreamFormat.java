@@ -0,0 +1,34 @@
+package com.shrwk.apirunner.config;
+
+/**
+ * 流式响应格式枚举
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public enum StreamFormat {
+    /**
+     * 换行分隔的JSON，每个分块一行
+     */
+    NDJSON("application/x-ndjson"),
+
+    /**
+     * JSON数组，每个分块一个元素，首块带"["、末块带"]"
+     */
+    JSON_ARRAY("application/json"),
+
+    /**
+     * 纯文本，每个分块为固定字节的文本行
+     */
+    TEXT("text/plain");
+
+    private final String contentType;
+
+    StreamFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
@@ -1,22 +1,51 @@
 package com.shrwk.apirunner.controller;
 
 import com.shrwk.apirunner.config.ApiConfig;
+import com.shrwk.apirunner.config.PushProtocol;
 import com.shrwk.apirunner.model.ApiResponse;
+import com.shrwk.apirunner.model.RequestOverrides;
 import com.shrwk.apirunner.model.UrlConfig;
 import com.shrwk.apirunner.service.QpsControlService;
 import com.shrwk.apirunner.service.UrlValidationService;
 import com.shrwk.apirunner.service.ConcurrentControlService;
+import com.shrwk.apirunner.service.AdaptiveLimitService;
+import com.shrwk.apirunner.service.QueueModelService;
+import com.shrwk.apirunner.service.QpsScheduleService;
+import com.shrwk.apirunner.service.TimeSeriesService;
+import com.shrwk.apirunner.service.StatsSnapshotService;
+import com.shrwk.apirunner.service.MockRequestService;
+import com.shrwk.apirunner.service.PushService;
+import com.shrwk.apirunner.service.RunReportFormat;
+import com.shrwk.apirunner.service.ResponseTemplateService;
+import com.shrwk.apirunner.service.StreamingService;
+import com.shrwk.apirunner.service.FaultInjectionService;
+import com.shrwk.apirunner.service.RequestBodyService;
+import com.shrwk.apirunner.service.RunReportService;
+import com.shrwk.apirunner.service.VirtualServiceRegistry;
+import com.shrwk.apirunner.service.WarmupService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * API控制器
@@ -39,89 +68,145 @@ public class ApiController {
     @Autowired
     private ConcurrentControlService concurrentControlService;
 
+    @Autowired
+    private AdaptiveLimitService adaptiveLimitService;
+
+    @Autowired
+    private QueueModelService queueModelService;
+
+    @Autowired
+    private QpsScheduleService qpsScheduleService;
+
+    @Autowired
+    private TimeSeriesService timeSeriesService;
+
+    @Autowired
+    private StatsSnapshotService statsSnapshotService;
+
+    @Autowired
+    private MockRequestService mockRequestService;
+
+    @Autowired
+    private VirtualServiceRegistry virtualServiceRegistry;
+
+    @Autowired
+    private RunReportService runReportService;
+
+    @Autowired
+    private WarmupService warmupService;
+
+    @Autowired
+    private ResponseTemplateService responseTemplateService;
+
+    @Autowired
+    private StreamingService streamingService;
+
+    @Autowired
+    private PushService pushService;
+
+    @Autowired
+    private FaultResponseWriter faultResponseWriter;
+
+    @Autowired
+    private FaultInjectionService faultInjectionService;
+
+    @Autowired
+    private RequestBodyHandler requestBodyHandler;
+
+    @Autowired
+    private RequestBodyService requestBodyService;
+
     @Autowired
     private ApiConfig apiConfig;
 
     /**
      * 处理所有HTTP请求
+     * 普通模式同步返回ResponseEntity，排队模型下返回由定时器释放的DeferredResult；
+     * 流式响应、注入的故障（错误状态除外）、请求体回显和校验失败直接写出到Servlet响应并返回null
      */
     @RequestMapping(value = "/**", method = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, 
                                            RequestMethod.DELETE, RequestMethod.PATCH, RequestMethod.HEAD, 
                                            RequestMethod.OPTIONS})
-    public ResponseEntity<ApiResponse<Object>> handleAllRequests(HttpServletRequest request) {
+    public Object handleAllRequests(HttpServletRequest request, HttpServletResponse response) throws IOException {
         String method = request.getMethod();
-        return processRequest(request, method);
+        return processRequest(request, response, method);
     }
 
     /**
      * 统一的请求处理方法
      */
-    private ResponseEntity<ApiResponse<Object>> processRequest(HttpServletRequest request, String method) {
-        String requestUri = request.getRequestURI();
-        String fullUrl = request.getRequestURL().toString();
-        long startTime = System.currentTimeMillis();
-        
-        logger.info("收到 {} 请求: {}", method, requestUri);
-
-        // 验证URL是否在允许列表中
-        if (!urlValidationService.isUrlAllowed(requestUri)) {
-            logger.warn("URL不在允许列表中: {}", requestUri);
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(ApiResponse.error("404001", "URL not found: " + requestUri));
+    private Object processRequest(HttpServletRequest request, HttpServletResponse response, String method)
+            throws IOException {
+        UrlConfig bodyConfig = requestBodyHandler.resolve(request);
+        if (bodyConfig != null && !requestBodyHandler.consume(request, response, bodyConfig)) {
+            return null;
         }
-
-        // 获取URL配置
-        Optional<UrlConfig> urlConfig = urlValidationService.getUrlConfig(requestUri);
-        
-        // 获取当前并发数
-        int currentConcurrent = concurrentControlService.getCurrentConcurrent(requestUri);
-        
-        // 根据当前并发数查找对应的目标QPS（支持误差容忍度）
-        int targetQps = urlConfig.map(config -> config.getTargetQpsForConcurrent(currentConcurrent))
-                                .orElse(apiConfig.getDefaultQps());
-        
-        int maxConcurrent = urlConfig.map(UrlConfig::getConcurrent).orElse(apiConfig.getThreadPoolSize());
-
-        // 检查并发数限制
-        if (!concurrentControlService.checkConcurrentLimit(requestUri, maxConcurrent)) {
-            logger.warn("并发数超限: {}", requestUri);
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                    .body(ApiResponse.error("429001", "Too many concurrent requests"));
+        RequestOverrides.HeaderReader headers = request::getHeader;
+        RequestOverrides overrides = mockRequestService.isOverridesEnabled()
+                ? mockRequestService.readOverrides(headers) : null;
+        MockRequestService.MockResult result = mockRequestService.handle(method, request.getRequestURI(),
+                request.getLocalPort(), overrides, headers);
+        if (bodyConfig != null && requestBodyHandler.echo(request, response, bodyConfig, result, method)) {
+            return null;
+        }
+        if (result.isFault()) {
+            faultResponseWriter.write(request, response, result, method);
+            return null;
+        }
+        if (result.isStream()) {
+            startStream(request, response, result);
+            return null;
+        }
+        if (!result.isPending()) {
+            return toResponseEntity(result);
         }
 
-        try {
-            // 应用QPS控制
-            try {
-                qpsControlService.controlQps(requestUri, targetQps);
-            } catch (Exception e) {
-                logger.error("QPS控制失败: {}", e.getMessage(), e);
-                // 即使QPS控制失败，也继续处理请求
+        // 超时时间取自排队模型配置（0表示不超时），不使用容器默认的异步超时
+        String requestUri = request.getRequestURI();
+        DeferredResult<ResponseEntity<?>> deferred = new DeferredResult<>(result.getPendingTimeoutMs(),
+                () -> toResponseEntity(MockRequestService.MockResult.queueTimeout()));
+        result.getPending().whenComplete((completed, error) -> {
+            if (error != null) {
+                logger.error("异步响应失败: {}", requestUri, error);
+                completed = MockRequestService.MockResult.internalError();
             }
+            deferred.setResult(toResponseEntity(completed));
+        });
+        return deferred;
+    }
 
-            // 构建响应数据
-            Map<String, Object> responseData = new HashMap<>();
-            responseData.put("method", method);
-            responseData.put("url", requestUri);
-            responseData.put("timestamp", System.currentTimeMillis());
-            responseData.put("targetQps", targetQps);
-            
-            if (urlConfig.isPresent()) {
-                responseData.put("pattern", urlConfig.get().getPattern());
-                responseData.put("concurrent", urlConfig.get().getConcurrent());
-                responseData.put("description", urlConfig.get().getDescription());
+    private ResponseEntity<?> toResponseEntity(MockRequestService.MockResult result) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(result.getStatus());
+        if (result.isTemplate()) {
+            // 模板渲染到线程复用的缓冲区，MVC异步写出前需要复制
+            byte[] body = result.renderTemplate().toByteArray();
+            if (result.getTiming() != null) {
+                result.getTiming().writeHeaders(builder::header);
             }
+            return builder.contentType(MediaType.parseMediaType(result.getContentType())).body(body);
+        }
+        if (result.getTiming() != null) {
+            result.getTiming().writeHeaders(builder::header);
+        }
+        return builder.body(result.getBody());
+    }
 
-            logger.debug("请求处理完成: {} -> QPS: {}", requestUri, targetQps);
-            
-            return ResponseEntity.ok(ApiResponse.success(responseData));
-            
-        } finally {
-            // 释放并发计数
-            concurrentControlService.releaseConcurrent(requestUri);
-            
-            // 记录响应时间
-            long responseTime = System.currentTimeMillis() - startTime;
-            concurrentControlService.recordResponseTime(responseTime);
+    /**
+     * 流式响应：与快速通道相同，直接写出状态和头部后释放容器线程，分块由StreamingService的调度线程以非阻塞I/O写出
+     */
+    private void startStream(HttpServletRequest request, HttpServletResponse response,
+                             MockRequestService.MockResult result) throws IOException {
+        StreamingService.Stream stream = result.getStream();
+        try {
+            if (result.getTiming() != null) {
+                result.getTiming().writeHeaders(response::setHeader);
+            }
+            response.setStatus(result.getStatus().value());
+            response.setContentType(stream.getContentType());
+            ServletStreamSink.start(streamingService, stream, request, response, null, null);
+        } catch (IOException | RuntimeException e) {
+            streamingService.cancel(stream);
+            throw e;
         }
     }
 
@@ -129,16 +214,35 @@ public class ApiController {
      * 获取QPS统计信息
      */
     @GetMapping("/api/stats/qps")
-    public ResponseEntity<ApiResponse<Object>> getQpsStats(@RequestParam(required = false) String url) {
+    public ResponseEntity<ApiResponse<Object>> getQpsStats(@RequestParam(required = false) String url,
+                                                           @RequestParam(required = false) String service) {
         if (url != null && !url.trim().isEmpty()) {
-            QpsControlService.QpsStats stats = qpsControlService.getQpsStats(url);
+            QpsControlService.QpsStats stats = qpsControlService.getQpsStats(counterKey(service, url));
             return ResponseEntity.ok(ApiResponse.success(stats));
         } else {
-            // 返回所有URL的统计信息
-            Map<String, Object> allStats = new HashMap<>();
-            allStats.put("message", "请指定URL参数来获取特定URL的QPS统计信息");
-            allStats.put("example", "/api/stats/qps?url=/api/user/123");
-            return ResponseEntity.ok(ApiResponse.success(allStats));
+            // 返回所有URL模式的一致性快照
+            return ResponseEntity.ok(ApiResponse.success(statsSnapshotService.takeSnapshot(null)));
+        }
+    }
+
+    /**
+     * 获取所有活跃URL模式的一致性统计快照
+     * format: json(默认) / csv / binary；指定client时返回相对该客户端上次快照的增量
+     */
+    @GetMapping("/api/stats/snapshot")
+    public ResponseEntity<?> getStatsSnapshot(@RequestParam(required = false, defaultValue = "json") String format,
+                                              @RequestParam(required = false) String client) {
+        StatsSnapshotService.StatsSnapshot snapshot = statsSnapshotService.takeSnapshot(
+                client != null && !client.trim().isEmpty() ? client : null);
+        switch (format.toLowerCase()) {
+            case "csv":
+                return ResponseEntity.ok().contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                        .body(statsSnapshotService.toCsv(snapshot));
+            case "binary":
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .body(statsSnapshotService.toBinary(snapshot));
+            default:
+                return ResponseEntity.ok(ApiResponse.success(snapshot));
         }
     }
 
@@ -150,13 +254,22 @@ public class ApiController {
         return ResponseEntity.ok(ApiResponse.success(urlValidationService.getAllUrlConfigs()));
     }
 
+    /**
+     * 获取所有虚拟服务（名称、端口、URL配置）
+     */
+    @GetMapping("/api/config/services")
+    public ResponseEntity<ApiResponse<Object>> getVirtualServices() {
+        return ResponseEntity.ok(ApiResponse.success(virtualServiceRegistry.getServices()));
+    }
+
     /**
      * 获取并发统计信息
      */
     @GetMapping("/api/stats/concurrent")
-    public ResponseEntity<ApiResponse<Object>> getConcurrentStats(@RequestParam(required = false) String url) {
+    public ResponseEntity<ApiResponse<Object>> getConcurrentStats(@RequestParam(required = false) String url,
+                                                                  @RequestParam(required = false) String service) {
         if (url != null && !url.trim().isEmpty()) {
-            ConcurrentControlService.ConcurrentStats stats = concurrentControlService.getConcurrentStats(url);
+            ConcurrentControlService.ConcurrentStats stats = concurrentControlService.getConcurrentStats(counterKey(service, url));
             return ResponseEntity.ok(ApiResponse.success(stats));
         } else {
             // 返回全局统计信息
@@ -165,6 +278,296 @@ public class ApiController {
         }
     }
 
+    /**
+     * 获取自适应并发限制统计信息（上限、RTT估算、拒绝率）
+     */
+    @GetMapping("/api/stats/adaptive")
+    public ResponseEntity<ApiResponse<Object>> getAdaptiveLimitStats(@RequestParam(required = false) String url,
+                                                                     @RequestParam(required = false) String service) {
+        return patternStats(service, url, adaptiveLimitService::getStats, adaptiveLimitService::getAllStats);
+    }
+
+    /**
+     * 获取排队模型统计信息（忙碌服务台、排队长度、平均等待与服务时间、利用率）
+     */
+    @GetMapping("/api/stats/queue")
+    public ResponseEntity<ApiResponse<Object>> getQueueModelStats(@RequestParam(required = false) String url,
+                                                                  @RequestParam(required = false) String service) {
+        return patternStats(service, url, queueModelService::getStats, queueModelService::getAllStats);
+    }
+
+    /**
+     * 获取流式响应统计信息（活跃流、已写出分块与字节、平均首字节时间、分块调度延迟）
+     */
+    @GetMapping("/api/stats/streams")
+    public ResponseEntity<ApiResponse<Object>> getStreamStats(@RequestParam(required = false) String url,
+                                                              @RequestParam(required = false) String service) {
+        return patternStats(service, url, streamingService::getStats, streamingService::getAllStats);
+    }
+
+    /**
+     * 获取故障注入统计信息（参与决策的请求数与各类故障的注入次数）
+     */
+    @GetMapping("/api/stats/faults")
+    public ResponseEntity<ApiResponse<Object>> getFaultStats(@RequestParam(required = false) String url,
+                                                             @RequestParam(required = false) String service) {
+        return patternStats(service, url, faultInjectionService::getStats, faultInjectionService::getAllStats);
+    }
+
+    /**
+     * 获取请求体处理统计信息（读取与回显的字节数、校验结果）
+     */
+    @GetMapping("/api/stats/bodies")
+    public ResponseEntity<ApiResponse<Object>> getBodyStats(@RequestParam(required = false) String url,
+                                                            @RequestParam(required = false) String service) {
+        return patternStats(service, url, requestBodyService::getStats, requestBodyService::getAllStats);
+    }
+
+    /**
+     * 建立SSE推送连接（WEBSOCKET端点的升级请求在到达这里之前已由WebSocket容器处理）
+     * group为逗号分隔的广播组，为空时加入端点的默认组
+     */
+    @GetMapping("/push/{name}")
+    public Object openPushStream(@PathVariable String name, @RequestParam(required = false) String group) {
+        PushService.PushEndpoint endpoint = pushService.getEndpoint(name);
+        if (endpoint == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("404001", "Push endpoint not found: " + name));
+        }
+        if (endpoint.getConfig().getProtocol() != PushProtocol.SSE) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("400001", "WebSocket upgrade required: " + name));
+        }
+        SseEmitter emitter = pushService.openSse(endpoint, group);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("503002", "Too many push connections"));
+        }
+        return emitter;
+    }
+
+    /**
+     * 获取推送统计信息（各端点的连接数、已发送/丢弃/收到的消息，各广播组的成员与投递数）
+     */
+    @GetMapping("/api/stats/push")
+    public ResponseEntity<ApiResponse<Object>> getPushStats() {
+        return ResponseEntity.ok(ApiResponse.success(pushService.getStats()));
+    }
+
+    /**
+     * 获取QPS计划状态
+     */
+    @GetMapping("/api/schedule")
+    public ResponseEntity<ApiResponse<Object>> getScheduleStatus(@RequestParam String url,
+                                                                 @RequestParam(required = false) String service) {
+        Optional<UrlConfig> urlConfig = findScheduledConfig(service, url);
+        if (!urlConfig.isPresent()) {
+            return scheduleNotFound(url);
+        }
+        return ResponseEntity.ok(ApiResponse.success(qpsScheduleService.getStatus(urlConfig.get())));
+    }
+
+    /**
+     * 控制QPS计划：start(从头开始) / pause(暂停) / resume(继续) / jump(跳转到指定秒)
+     */
+    @PostMapping("/api/schedule/{action}")
+    public ResponseEntity<ApiResponse<Object>> controlSchedule(@PathVariable String action,
+                                                               @RequestParam String url,
+                                                               @RequestParam(required = false) String service,
+                                                               @RequestParam(required = false, defaultValue = "0") int second) {
+        Optional<UrlConfig> urlConfig = findScheduledConfig(service, url);
+        if (!urlConfig.isPresent()) {
+            return scheduleNotFound(url);
+        }
+        QpsScheduleService.ScheduleStatus status;
+        switch (action) {
+            case "start":
+                status = qpsScheduleService.start(urlConfig.get());
+                break;
+            case "pause":
+                status = qpsScheduleService.pause(urlConfig.get());
+                break;
+            case "resume":
+                status = qpsScheduleService.resume(urlConfig.get());
+                break;
+            case "jump":
+                status = qpsScheduleService.jump(urlConfig.get(), second);
+                break;
+            default:
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("400001", "Unknown schedule action: " + action));
+        }
+        return ResponseEntity.ok(ApiResponse.success(status));
+    }
+
+    private Optional<UrlConfig> findScheduledConfig(String service, String url) {
+        return findUrlConfig(service, url).filter(UrlConfig::isScheduleEnabled);
+    }
+
+    private ResponseEntity<ApiResponse<Object>> scheduleNotFound(String url) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error("404002", "No schedule configured for URL: " + url));
+    }
+
+    /**
+     * 批量获取按秒时间序列（按列返回），seconds为空时返回全部保留数据
+     */
+    @GetMapping("/api/stats/timeseries")
+    public ResponseEntity<ApiResponse<Object>> getTimeSeries(@RequestParam(required = false) String url,
+                                                             @RequestParam(required = false) String service,
+                                                             @RequestParam(required = false, defaultValue = "0") int seconds) {
+        return patternStats(service, url, pattern -> timeSeriesService.getSeries(pattern, seconds),
+                            () -> timeSeriesService.getSeries(null, seconds));
+    }
+
+    /**
+     * 通过Server-Sent Events每秒推送时间序列采样点
+     */
+    @GetMapping(value = "/api/stats/timeseries/stream", produces = "text/event-stream")
+    public SseEmitter streamTimeSeries(@RequestParam(required = false) String url,
+                                       @RequestParam(required = false) String service) {
+        String pattern = null;
+        if (url != null && !url.trim().isEmpty()) {
+            pattern = findUrlConfig(service, url).map(UrlConfig::getStatsKey).orElse(url);
+        }
+        return timeSeriesService.subscribe(pattern);
+    }
+
+    /**
+     * 查看URL匹配的响应模板
+     */
+    @GetMapping("/api/config/template")
+    public ResponseEntity<ApiResponse<Object>> getResponseTemplate(@RequestParam String url,
+                                                                   @RequestParam(required = false) String service) {
+        return withUrlConfig(service, url, urlConfig -> {
+            Map<String, Object> template = new HashMap<>();
+            template.put("pattern", urlConfig.getPattern());
+            template.put("template", urlConfig.getResponseTemplate());
+            template.put("templateFile", urlConfig.getResponseTemplateFile());
+            template.put("contentType", urlConfig.getResponseContentType());
+            return ResponseEntity.ok(ApiResponse.success(template));
+        });
+    }
+
+    /**
+     * 设置URL匹配的响应模板（请求体为模板文本，为空时恢复默认响应），立即对后续请求生效
+     */
+    @PutMapping("/api/config/template")
+    public ResponseEntity<ApiResponse<Object>> setResponseTemplate(@RequestParam String url,
+                                                                   @RequestParam(required = false) String service,
+                                                                   @RequestBody(required = false) String template) {
+        return withUrlConfig(service, url, urlConfig -> {
+            try {
+                responseTemplateService.setTemplate(urlConfig, template);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(ApiResponse.error("400001", e.getMessage()));
+            }
+            return getResponseTemplate(url, service);
+        });
+    }
+
+    /**
+     * 按时间范围导出运行报告为CSV
+     * from/to为epoch秒或本地时间（yyyy-MM-dd'T'HH:mm:ss），缺省为全部；指定url时只导出其匹配的模式
+     */
+    @GetMapping("/api/stats/report")
+    public ResponseEntity<?> exportRunReport(@RequestParam(required = false) String from,
+                                             @RequestParam(required = false) String to,
+                                             @RequestParam(required = false) String url,
+                                             @RequestParam(required = false) String service,
+                                             HttpServletResponse response) throws IOException {
+        if (!runReportService.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("404001", "Run report is disabled"));
+        }
+        long fromEpoch;
+        long toEpoch;
+        try {
+            fromEpoch = RunReportFormat.parseTime(from, Long.MIN_VALUE);
+            toEpoch = RunReportFormat.parseTime(to, Long.MAX_VALUE);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error("400001", "Invalid time: " + e.getMessage()));
+        }
+        String pattern = null;
+        if (url != null && !url.trim().isEmpty()) {
+            pattern = findUrlConfig(service, url).map(UrlConfig::getStatsKey).orElse(url);
+        }
+        try {
+            runReportService.flush();
+        } catch (IOException e) {
+            logger.error("运行报告导出失败: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("500001", "Run report export failed"));
+        }
+        // 全天、大量模式的导出可达数千万行，在请求线程上逐行写出到响应，不在内存中拼接；
+        // 写出中途出错时状态码已经发出，只记录日志
+        response.setContentType(new MediaType("text", "csv", StandardCharsets.UTF_8).toString());
+        Writer writer = new BufferedWriter(new OutputStreamWriter(response.getOutputStream(), StandardCharsets.UTF_8));
+        try {
+            runReportService.exportCsv(fromEpoch, toEpoch, pattern, writer);
+            writer.flush();
+        } catch (IOException e) {
+            logger.warn("运行报告导出中断: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * 运行报告文件大小与写入统计
+     */
+    @GetMapping("/api/stats/report/info")
+    public ResponseEntity<ApiResponse<Object>> getRunReportInfo() {
+        return ResponseEntity.ok(ApiResponse.success(runReportService.getStats()));
+    }
+
+    /**
+     * 按虚拟服务名称查找URL配置，未指定服务时使用主端口的默认配置
+     */
+    private Optional<UrlConfig> findUrlConfig(String service, String url) {
+        if (service == null || service.trim().isEmpty()) {
+            return urlValidationService.getUrlConfig(url);
+        }
+        VirtualServiceRegistry.VirtualService virtualService = virtualServiceRegistry.getService(service);
+        return virtualService != null ? virtualService.getUrlConfig(url) : Optional.empty();
+    }
+
+    /**
+     * 解析url匹配的配置交给handler处理，找不到时返回404
+     */
+    private ResponseEntity<ApiResponse<Object>> withUrlConfig(
+            String service, String url, Function<UrlConfig, ResponseEntity<ApiResponse<Object>>> handler) {
+        Optional<UrlConfig> urlConfig = findUrlConfig(service, url);
+        if (!urlConfig.isPresent()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("404001", "URL not found: " + url));
+        }
+        return handler.apply(urlConfig.get());
+    }
+
+    /**
+     * 按URL模式的统计：指定url时返回其匹配模式的统计，找不到时返回404；未指定时返回全部
+     */
+    private ResponseEntity<ApiResponse<Object>> patternStats(String service, String url,
+                                                             Function<String, Object> byPattern,
+                                                             Supplier<Object> all) {
+        if (url == null || url.trim().isEmpty()) {
+            return ResponseEntity.ok(ApiResponse.success(all.get()));
+        }
+        return withUrlConfig(service, url,
+                             urlConfig -> ResponseEntity.ok(ApiResponse.success(byPattern.apply(urlConfig.getStatsKey()))));
+    }
+
+    /**
+     * QPS/并发计数器的键，虚拟服务带服务名前缀
+     */
+    private String counterKey(String service, String url) {
+        if (service == null || service.trim().isEmpty()) {
+            return url;
+        }
+        VirtualServiceRegistry.VirtualService virtualService = virtualServiceRegistry.getService(service);
+        return virtualService != null ? virtualService.qualify(url) : url;
+    }
+
     /**
      * 健康检查接口
      */
@@ -178,6 +581,7 @@ public class ApiController {
         healthInfo.put("defaultQps", apiConfig.getDefaultQps());
         healthInfo.put("qpsControlMode", apiConfig.getQpsControlMode());
         healthInfo.put("cpuLoopCount", apiConfig.getCpuLoopCount());
+        healthInfo.put("warmupCompleted", warmupService.isCompleted());
         
         return ResponseEntity.ok(ApiResponse.success(healthInfo));
     }
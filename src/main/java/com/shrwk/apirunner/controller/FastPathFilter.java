@@ -0,0 +1,248 @@
+package com.shrwk.apirunner.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shrwk.apirunner.model.RequestOverrides;
+import com.shrwk.apirunner.model.ResponseTemplate;
+import com.shrwk.apirunner.model.ServerTiming;
+import com.shrwk.apirunner.model.UrlConfig;
+import com.shrwk.apirunner.service.MockRequestService;
+import com.shrwk.apirunner.service.StreamingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * 模拟接口快速通道
+ * 在DispatcherServlet之前直接完成路由、准入、QPS控制和响应写出，
+ * 省去处理器映射、参数解析、ResponseEntity与消息转换器协商；
+ * 管理接口（/api/stats、/api/config、/api/schedule、/health、/actuator）与推送端点（/push/）仍交给MVC处理
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class FastPathFilter implements Filter {
+
+    private static final Logger logger = LoggerFactory.getLogger(FastPathFilter.class);
+
+    /**
+     * 交给MVC处理的路径前缀
+     */
+    private static final String[] MVC_PREFIXES = {
+        "/api/stats/", "/api/config/", "/api/schedule", "/health", "/actuator", "/error", "/push/"
+    };
+
+    private final MockRequestService mockRequestService;
+    private final StreamingService streamingService;
+    private final ObjectMapper objectMapper;
+    private final FaultResponseWriter faultResponseWriter;
+    private final RequestBodyHandler requestBodyHandler;
+
+    public FastPathFilter(MockRequestService mockRequestService, StreamingService streamingService,
+                          ObjectMapper objectMapper, FaultResponseWriter faultResponseWriter,
+                          RequestBodyHandler requestBodyHandler) {
+        this.mockRequestService = mockRequestService;
+        this.streamingService = streamingService;
+        this.objectMapper = objectMapper;
+        this.faultResponseWriter = faultResponseWriter;
+        this.requestBodyHandler = requestBodyHandler;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+        String method = request.getMethod();
+        String requestUri = request.getRequestURI();
+        if (!isMockMethod(method) || isMvcPath(requestUri)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        // 配置了请求体处理模式时先读取请求体，校验失败时已写出响应
+        UrlConfig bodyConfig = requestBodyHandler.resolve(request);
+        if (bodyConfig != null && !requestBodyHandler.consume(request, response, bodyConfig)) {
+            return;
+        }
+
+        RequestOverrides.HeaderReader headers = request::getHeader;
+        RequestOverrides overrides = mockRequestService.isOverridesEnabled()
+                ? mockRequestService.readOverrides(headers) : null;
+        MockRequestService.MockResult result = mockRequestService.handle(method, requestUri, request.getLocalPort(),
+                overrides, headers);
+        if (bodyConfig != null && requestBodyHandler.echo(request, response, bodyConfig, result, method)) {
+            return;
+        }
+        if (result.isFault()) {
+            faultResponseWriter.write(request, response, result, method);
+            return;
+        }
+        if (result.isStream()) {
+            startStream(request, response, result);
+            return;
+        }
+        if (!result.isPending()) {
+            writeResult(response, result, method);
+            return;
+        }
+
+        // 排队模型：释放容器线程，由定时器完成时写回响应，超过排队模型配置的超时时间时返回504
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(result.getPendingTimeoutMs());
+        PendingResponse pending = new PendingResponse(asyncContext, requestUri, method);
+        asyncContext.addListener(pending);
+        result.getPending().whenComplete(pending);
+    }
+
+    /**
+     * 排队模型的异步响应：定时器完成、异步超时与异步出错中只有先到的一方写出并结束请求
+     */
+    private final class PendingResponse implements AsyncListener,
+            BiConsumer<MockRequestService.MockResult, Throwable> {
+        private final AsyncContext asyncContext;
+        private final String requestUri;
+        private final String method;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        PendingResponse(AsyncContext asyncContext, String requestUri, String method) {
+            this.asyncContext = asyncContext;
+            this.requestUri = requestUri;
+            this.method = method;
+        }
+
+        @Override
+        public void accept(MockRequestService.MockResult completed, Throwable error) {
+            if (error != null) {
+                logger.error("快速通道异步响应失败: {}", requestUri, error);
+                completed = MockRequestService.MockResult.internalError();
+            }
+            finish(completed);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            logger.debug("排队模型响应超时: {}", requestUri);
+            finish(MockRequestService.MockResult.queueTimeout());
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            if (done.compareAndSet(false, true)) {
+                event.getAsyncContext().complete();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // 结束时无需处理
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 不会再次开始异步处理
+        }
+
+        private void finish(MockRequestService.MockResult completed) {
+            if (!done.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                writeResult((HttpServletResponse) asyncContext.getResponse(), completed, method);
+            } catch (IOException e) {
+                logger.warn("快速通道写出响应失败: {}", requestUri, e);
+            } finally {
+                asyncContext.complete();
+            }
+        }
+    }
+
+    /**
+     * 直接序列化响应体（或渲染响应模板）写出，HEAD请求只写头部；序列化与渲染耗时计入渲染阶段
+     */
+    private void writeResult(HttpServletResponse response, MockRequestService.MockResult result, String method)
+            throws IOException {
+        long renderStart = System.nanoTime();
+        byte[] body;
+        int length;
+        String contentType;
+        if (result.isTemplate()) {
+            ResponseTemplate.Buffer buffer = result.renderTemplate();
+            body = buffer.getData();
+            length = buffer.getLength();
+            contentType = result.getContentType();
+        } else {
+            body = objectMapper.writeValueAsBytes(result.getBody());
+            length = body.length;
+            contentType = MediaType.APPLICATION_JSON_VALUE;
+        }
+        ServerTiming timing = result.getTiming();
+        if (timing != null) {
+            timing.addRenderNanos(System.nanoTime() - renderStart);
+            timing.writeHeaders(response::setHeader);
+        }
+        response.setStatus(result.getStatus().value());
+        response.setContentType(contentType);
+        response.setContentLength(length);
+        if (!"HEAD".equals(method)) {
+            response.getOutputStream().write(body, 0, length);
+        }
+    }
+
+    /**
+     * 流式响应：写出状态和头部后释放容器线程，分块由StreamingService的调度线程以非阻塞I/O写出；
+     * 不设置Content-Length，由容器使用分块传输编码。客户端断开或写出出错时中断流
+     */
+    private void startStream(HttpServletRequest request, HttpServletResponse response,
+                             MockRequestService.MockResult result) throws IOException {
+        StreamingService.Stream stream = result.getStream();
+        try {
+            if (result.getTiming() != null) {
+                result.getTiming().writeHeaders(response::setHeader);
+            }
+            response.setStatus(result.getStatus().value());
+            response.setContentType(stream.getContentType());
+            ServletStreamSink.start(streamingService, stream, request, response, null, null);
+        } catch (IOException | RuntimeException e) {
+            streamingService.cancel(stream);
+            throw e;
+        }
+    }
+
+    private static boolean isMockMethod(String method) {
+        switch (method) {
+            case "GET":
+            case "POST":
+            case "PUT":
+            case "DELETE":
+            case "PATCH":
+            case "HEAD":
+            case "OPTIONS":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isMvcPath(String requestUri) {
+        for (String prefix : MVC_PREFIXES) {
+            if (requestUri.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,105 @@
+package com.shrwk.apirunner.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shrwk.apirunner.config.ConnectionResetValve;
+import com.shrwk.apirunner.config.FaultType;
+import com.shrwk.apirunner.service.MockRequestService;
+import com.shrwk.apirunner.service.StreamingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 故障响应写出
+ * 快速通道与MVC共用，直接操作Servlet响应：断开连接通过ConnectionResetValve让Tomcat关闭连接，
+ * 截断声明完整的Content-Length后只写出部分响应体再断开，慢速写出与挂起释放容器线程后由StreamingService的调度线程驱动
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Component
+public class FaultResponseWriter {
+
+    @Autowired
+    private StreamingService streamingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 按故障类型写出结果，必须在容器请求线程上调用
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response, MockRequestService.MockResult result,
+                      String method) throws IOException {
+        Runnable resetter = ConnectionResetValve.currentResetter();
+        FaultType fault = result.getFault();
+        if (fault == FaultType.RESET) {
+            resetter.run();
+        } else if (fault == FaultType.TRUNCATE) {
+            writeTruncated(response, result, method, resetter);
+        } else {
+            startFaultStream(request, response, result, resetter);
+        }
+    }
+
+    /**
+     * 截断：按完整响应体设置Content-Length，写出truncateFraction比例的字节（至少少一个字节）后断开连接
+     */
+    private void writeTruncated(HttpServletResponse response, MockRequestService.MockResult result, String method,
+                                Runnable resetter) throws IOException {
+        byte[] body = renderBody(result);
+        writeHead(response, result, body.length);
+        if (!"HEAD".equals(method)) {
+            int length = (int) Math.min(body.length - 1L,
+                    Math.max(0L, Math.round(body.length * result.getFaultConfig().getTruncateFraction())));
+            ServletOutputStream out = response.getOutputStream();
+            out.write(body, 0, Math.max(0, length));
+            out.flush();
+        }
+        resetter.run();
+    }
+
+    /**
+     * 慢速写出与挂起：写出状态和头部（慢速写出带完整的Content-Length）后释放容器线程；
+     * 客户端断开或写出出错时中断流
+     */
+    private void startFaultStream(HttpServletRequest request, HttpServletResponse response,
+                                  MockRequestService.MockResult result, Runnable resetter) throws IOException {
+        StreamingService.Stream stream = result.getStream();
+        try {
+            byte[] body = null;
+            if (result.getFault() == FaultType.SLOW_DRIP) {
+                body = renderBody(result);
+                writeHead(response, result, body.length);
+            }
+            ServletStreamSink.start(streamingService, stream, request, response, body, resetter);
+        } catch (IOException | RuntimeException e) {
+            streamingService.cancel(stream);
+            throw e;
+        }
+    }
+
+    private static void writeHead(HttpServletResponse response, MockRequestService.MockResult result, int length) {
+        if (result.getTiming() != null) {
+            result.getTiming().writeHeaders(response::setHeader);
+        }
+        response.setStatus(result.getStatus().value());
+        response.setContentType(result.isTemplate() ? result.getContentType() : MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(length);
+    }
+
+    /**
+     * 渲染正常响应体（模板缓冲区按线程复用，需要复制）
+     */
+    private byte[] renderBody(MockRequestService.MockResult result) throws IOException {
+        if (result.isTemplate()) {
+            return result.renderTemplate().toByteArray();
+        }
+        return objectMapper.writeValueAsBytes(result.getBody());
+    }
+}
@@ -0,0 +1,121 @@
+package com.shrwk.apirunner.controller;
+
+import com.shrwk.apirunner.service.PushService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.websocket.CloseReason;
+import javax.websocket.Endpoint;
+import javax.websocket.EndpointConfig;
+import javax.websocket.Session;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * WebSocket推送端点
+ * 每个连接一个实例，连接建立时向PushService登记，超过最大连接数时以1013（Try Again Later）关闭；
+ * 消息通过异步发送写出，慢客户端积压的消息被丢弃并计数，调度线程不会被慢客户端阻塞
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class PushWebSocketEndpoint extends Endpoint {
+
+    private static final Logger logger = LoggerFactory.getLogger(PushWebSocketEndpoint.class);
+
+    private final PushService pushService;
+    private final PushService.PushEndpoint endpoint;
+    private volatile PushService.PushConnection connection;
+
+    public PushWebSocketEndpoint(PushService pushService, PushService.PushEndpoint endpoint) {
+        this.pushService = pushService;
+        this.endpoint = endpoint;
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        List<String> group = session.getRequestParameterMap().get("group");
+        connection = pushService.open(endpoint, group != null && !group.isEmpty() ? group.get(0) : null,
+                                      new WebSocketSink(session));
+        if (connection == null) {
+            try {
+                session.close(new CloseReason(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Too many connections"));
+            } catch (IOException e) {
+                logger.debug("拒绝WebSocket连接失败: {}", e.getMessage());
+            }
+            return;
+        }
+        PushService.PushConnection opened = connection;
+        session.addMessageHandler(String.class, message -> pushService.recordReceived(opened, message.length()));
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        pushService.close(connection);
+    }
+
+    @Override
+    public void onError(Session session, Throwable error) {
+        logger.debug("WebSocket连接出错: {}", error.getMessage());
+        pushService.close(connection);
+    }
+
+    /**
+     * 基于异步发送的写出端，每个连接同一时刻最多一条消息在发送中、一条在排队；
+     * 排队的消息被更新的消息替换时视为丢弃
+     */
+    private static class WebSocketSink implements PushService.PushSink {
+        private final Session session;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicReference<String> queued = new AtomicReference<>();
+
+        WebSocketSink(Session session) {
+            this.session = session;
+        }
+
+        @Override
+        public boolean send(String message) {
+            if (sending.compareAndSet(false, true)) {
+                sendAsync(message);
+                return true;
+            }
+            String replaced = queued.getAndSet(message);
+            // 排队期间上一条可能刚好发送完成
+            drain();
+            return replaced == null;
+        }
+
+        private void sendAsync(String message) {
+            session.getAsyncRemote().sendText(message, result -> {
+                sending.set(false);
+                if (result.isOK()) {
+                    drain();
+                }
+            });
+        }
+
+        private void drain() {
+            while (queued.get() != null && sending.compareAndSet(false, true)) {
+                String message = queued.getAndSet(null);
+                if (message != null) {
+                    sendAsync(message);
+                    return;
+                }
+                sending.set(false);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (session.isOpen()) {
+                    session.close();
+                }
+            } catch (IOException e) {
+                logger.debug("关闭WebSocket连接失败: {}", e.getMessage());
+            }
+        }
+    }
+}
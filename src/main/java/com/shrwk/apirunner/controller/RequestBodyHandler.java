@@ -0,0 +1,258 @@
+package com.shrwk.apirunner.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shrwk.apirunner.config.BodyMode;
+import com.shrwk.apirunner.model.ApiResponse;
+import com.shrwk.apirunner.model.UrlConfig;
+import com.shrwk.apirunner.service.MockRequestService;
+import com.shrwk.apirunner.service.RequestBodyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.zip.Checksum;
+
+/**
+ * 请求体处理
+ * 快速通道与MVC共用：DISCARD/CHECKSUM在准入之前于容器线程上读完请求体，
+ * ECHO在QPS控制之后释放容器线程，以Servlet非阻塞I/O把请求体逐块写回
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Component
+public class RequestBodyHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RequestBodyHandler.class);
+
+    /**
+     * 请求头为期望的校验值，响应头为实际的校验值（8位十六进制）
+     */
+    public static final String CHECKSUM = "X-Runner-Body-Checksum";
+
+    /**
+     * 响应头：读取的请求体字节数
+     */
+    public static final String BYTES = "X-Runner-Body-Bytes";
+
+    @Autowired
+    private MockRequestService mockRequestService;
+
+    @Autowired
+    private RequestBodyService requestBodyService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 需要处理请求体的URL配置；请求不带请求体时不查找URL配置，URL不存在或模式为IGNORE时返回null
+     */
+    public UrlConfig resolve(HttpServletRequest request) {
+        if (request.getContentLengthLong() <= 0 && request.getHeader("Transfer-Encoding") == null) {
+            return null;
+        }
+        UrlConfig urlConfig = mockRequestService.findUrlConfig(request.getRequestURI(), request.getLocalPort());
+        return urlConfig != null && urlConfig.getBodyMode() != BodyMode.IGNORE ? urlConfig : null;
+    }
+
+    /**
+     * 处理请求前读完请求体（DISCARD/CHECKSUM，ECHO不在此读取）；
+     * 校验值不一致时写出400（400002）并返回false，调用方不再处理该请求
+     */
+    public boolean consume(HttpServletRequest request, HttpServletResponse response, UrlConfig urlConfig)
+            throws IOException {
+        BodyMode mode = urlConfig.getBodyMode();
+        if (mode == BodyMode.ECHO) {
+            return true;
+        }
+        Checksum checksum = mode == BodyMode.CHECKSUM ? requestBodyService.newChecksum() : null;
+        long bytes;
+        try {
+            bytes = requestBodyService.drain(request.getInputStream(), checksum);
+        } catch (IOException e) {
+            requestBodyService.recordAborted(urlConfig, 0, false);
+            throw e;
+        }
+        if (checksum == null) {
+            requestBodyService.recordDrained(urlConfig, bytes);
+            return true;
+        }
+
+        String actual = toHex(checksum.getValue());
+        response.setHeader(BYTES, Long.toString(bytes));
+        response.setHeader(CHECKSUM, actual);
+        String expected = request.getHeader(CHECKSUM);
+        boolean matched = expected == null || matches(expected, checksum.getValue());
+        requestBodyService.recordChecksum(urlConfig, bytes, expected != null, matched);
+        if (matched) {
+            return true;
+        }
+        byte[] body = objectMapper.writeValueAsBytes(ApiResponse.error("400002",
+                "Body checksum mismatch: expected " + expected + ", actual " + actual));
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+        return false;
+    }
+
+    /**
+     * ECHO模式下把请求体作为响应体写回，返回true时调用方不再写出结果；
+     * 只回显2xx的普通结果，HEAD请求、排队模型、流式响应、注入的故障和错误状态按原结果写出
+     */
+    public boolean echo(HttpServletRequest request, HttpServletResponse response, UrlConfig urlConfig,
+                        MockRequestService.MockResult result, String method) throws IOException {
+        if (urlConfig.getBodyMode() != BodyMode.ECHO || result.isPending() || result.isFault() || result.isStream()
+                || "HEAD".equals(method) || !result.getStatus().is2xxSuccessful()) {
+            return false;
+        }
+        if (result.getTiming() != null) {
+            result.getTiming().writeHeaders(response::setHeader);
+        }
+        response.setStatus(result.getStatus().value());
+        response.setContentType(request.getContentType() != null ? request.getContentType()
+                                                                 : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        long length = request.getContentLengthLong();
+        if (length >= 0) {
+            response.setContentLengthLong(length);
+        }
+        ServletInputStream in = request.getInputStream();
+        ServletOutputStream out = response.getOutputStream();
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(0);
+        EchoPump pump = new EchoPump(asyncContext, urlConfig, in, out);
+        asyncContext.addListener(pump);
+        in.setReadListener(pump);
+        out.setWriteListener(pump);
+        return true;
+    }
+
+    private static String toHex(long value) {
+        String hex = Long.toHexString(value);
+        return hex.length() >= 8 ? hex : "00000000".substring(hex.length()) + hex;
+    }
+
+    private static boolean matches(String expected, long value) {
+        try {
+            return Long.parseLong(expected.trim(), 16) == value;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 回显泵：输出可写且输入有数据时读一块写一块。
+     * 非阻塞写出时容器会复制数据，因此读取缓冲区可以使用线程复用的缓冲区；
+     * 读写回调可能来自不同的容器线程，通过同步保证同一时刻只有一个线程推进
+     */
+    private final class EchoPump implements ReadListener, WriteListener, AsyncListener {
+        private final AsyncContext asyncContext;
+        private final UrlConfig urlConfig;
+        private final ServletInputStream in;
+        private final ServletOutputStream out;
+        private long echoed;
+        private boolean done;
+
+        EchoPump(AsyncContext asyncContext, UrlConfig urlConfig, ServletInputStream in, ServletOutputStream out) {
+            this.asyncContext = asyncContext;
+            this.urlConfig = urlConfig;
+            this.in = in;
+            this.out = out;
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            pump();
+        }
+
+        @Override
+        public void onAllDataRead() throws IOException {
+            pump();
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            pump();
+        }
+
+        /**
+         * isReady返回false时容器在可读（可写）后再次回调
+         */
+        private synchronized void pump() throws IOException {
+            if (done) {
+                return;
+            }
+            byte[] buffer = RequestBodyService.buffer();
+            while (out.isReady()) {
+                if (in.isFinished()) {
+                    done = true;
+                    requestBodyService.recordEchoed(urlConfig, echoed);
+                    asyncContext.complete();
+                    return;
+                }
+                if (!in.isReady()) {
+                    return;
+                }
+                int n = in.read(buffer);
+                if (n > 0) {
+                    out.write(buffer, 0, n);
+                    echoed += n;
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            logger.debug("请求体回显中断: {}", t.getMessage());
+            abort();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            abort();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            abort();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // 正常结束时已在pump中计数
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 不会再次开始异步处理
+        }
+
+        /**
+         * 读写出错与异步出错都可能回调，只计数一次；每次都结束请求，避免容器再分派到错误页
+         */
+        private synchronized void abort() {
+            if (!done) {
+                done = true;
+                requestBodyService.recordAborted(urlConfig, echoed, true);
+            }
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException e) {
+                logger.debug("请求体回显已结束: {}", e.getMessage());
+            }
+        }
+    }
+}
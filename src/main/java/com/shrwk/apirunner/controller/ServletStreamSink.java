@@ -0,0 +1,127 @@
+package com.shrwk.apirunner.controller;
+
+import com.shrwk.apirunner.service.StreamingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 基于Servlet非阻塞I/O的流写出端
+ * 流式响应、慢速写出与挂起共用（快速通道与MVC相同）：释放容器线程后由StreamingService的调度线程写出分块，
+ * 输出未就绪时调度线程不等待，容器回调onWritePossible后重新调度；容器结束异步请求时中断尚未结束的流
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+final class ServletStreamSink implements StreamingService.StreamSink, WriteListener, AsyncListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ServletStreamSink.class);
+
+    private final StreamingService streamingService;
+    private final StreamingService.Stream stream;
+    private final AsyncContext asyncContext;
+    private final ServletOutputStream out;
+    private final Runnable resetter;
+
+    private ServletStreamSink(StreamingService streamingService, StreamingService.Stream stream,
+                              AsyncContext asyncContext, ServletOutputStream out, Runnable resetter) {
+        this.streamingService = streamingService;
+        this.stream = stream;
+        this.asyncContext = asyncContext;
+        this.out = out;
+        this.resetter = resetter;
+    }
+
+    /**
+     * 开始异步写出流（状态和头部已设置），必须在容器请求线程上调用；
+     * body不为空时慢速写出该响应体，resetter不为空时挂起到期后断开连接
+     */
+    static void start(StreamingService streamingService, StreamingService.Stream stream, HttpServletRequest request,
+                      HttpServletResponse response, byte[] body, Runnable resetter) throws IOException {
+        ServletOutputStream out = response.getOutputStream();
+        AsyncContext asyncContext = request.startAsync();
+        asyncContext.setTimeout(0);
+        ServletStreamSink sink = new ServletStreamSink(streamingService, stream, asyncContext, out, resetter);
+        asyncContext.addListener(sink);
+        out.setWriteListener(sink);
+        if (body != null) {
+            streamingService.startBody(stream, body, sink);
+        } else {
+            streamingService.start(stream, sink);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return out.isReady();
+    }
+
+    /**
+     * 非阻塞写出时容器会保留未写完的数据，输出仍可写时才刷新，否则由容器在可写后继续写出
+     */
+    @Override
+    public void write(byte[] chunk) throws IOException {
+        out.write(chunk);
+        if (out.isReady()) {
+            out.flush();
+        }
+    }
+
+    @Override
+    public void complete() {
+        try {
+            asyncContext.complete();
+        } catch (IllegalStateException e) {
+            logger.debug("流式响应已结束: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void reset() {
+        if (resetter != null) {
+            resetter.run();
+        }
+        complete();
+    }
+
+    @Override
+    public void onWritePossible() {
+        streamingService.resume(stream);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        logger.debug("流式响应写出失败（客户端可能已断开）: {}", t.getMessage());
+        streamingService.cancel(stream);
+    }
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+        streamingService.cancel(stream);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        streamingService.cancel(stream);
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        streamingService.cancel(stream);
+        // 断开连接会触发异步错误，在监听器中结束请求，避免容器再分派到错误页
+        event.getAsyncContext().complete();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        // 不会再次开始异步处理
+    }
+}
@@ -0,0 +1,46 @@
+package com.shrwk.apirunner.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 并发准入判断事件（ConcurrentControlService.checkConcurrentLimit）
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Name("com.shrwk.apirunner.Admission")
+@Label("并发准入")
+@Category("API Runner")
+@Description("按URL的并发上限判断是否接纳请求")
+@StackTrace(false)
+public class AdmissionEvent extends Event {
+
+    @Label("URL模式")
+    String pattern;
+
+    @Label("计数器键")
+    String url;
+
+    @Label("当前并发数")
+    int concurrency;
+
+    @Label("最大并发数")
+    int maxConcurrent;
+
+    @Label("是否接纳")
+    boolean admitted;
+
+    public void record(String pattern, String url, int concurrency, int maxConcurrent, boolean admitted) {
+        this.pattern = pattern;
+        this.url = url;
+        this.concurrency = concurrency;
+        this.maxConcurrent = maxConcurrent;
+        this.admitted = admitted;
+        commit();
+    }
+}
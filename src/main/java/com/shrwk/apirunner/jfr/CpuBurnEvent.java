@@ -0,0 +1,41 @@
+package com.shrwk.apirunner.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * CPU消耗事件（QpsControlService.consumeCpu）
+ * 事件持续时间即实际消耗的时间，嵌套在同一线程的QPS控制事件内
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Name("com.shrwk.apirunner.CpuBurn")
+@Label("CPU消耗")
+@Category("API Runner")
+@Description("CPU模式下通过循环计算消耗的时间")
+@StackTrace(false)
+public class CpuBurnEvent extends Event {
+
+    @Label("URL模式")
+    String pattern;
+
+    @Label("计算的消耗时间")
+    @Timespan(Timespan.MILLISECONDS)
+    long computedDelay;
+
+    @Label("循环轮数")
+    long rounds;
+
+    public void record(String pattern, long computedDelayMs, long rounds) {
+        this.pattern = pattern;
+        this.computedDelay = computedDelayMs;
+        this.rounds = rounds;
+        commit();
+    }
+}
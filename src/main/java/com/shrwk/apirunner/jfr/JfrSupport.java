@@ -0,0 +1,86 @@
+package com.shrwk.apirunner.jfr;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * JFR事件支持
+ * 只有存在运行中的录制时才创建事件对象，未录制时请求路径上只多一次volatile读，不分配对象。
+ * 运行时没有jdk.jfr模块时保持关闭，事件类不会被加载
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public final class JfrSupport {
+
+    private static final boolean AVAILABLE = isJfrAvailable();
+
+    /**
+     * 是否存在运行中的录制，由录制状态监听器维护
+     */
+    private static volatile boolean recording;
+
+    static {
+        if (AVAILABLE) {
+            RecordingStateListener.install();
+        }
+    }
+
+    private JfrSupport() {
+    }
+
+    /**
+     * 当前是否需要创建事件
+     */
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.FlightRecorder");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * 录制状态监听器，任一录制处于RUNNING状态即开启事件
+     */
+    private static final class RecordingStateListener implements FlightRecorderListener {
+
+        static void install() {
+            // addListener不会初始化JFR；已初始化时会立即回调recorderInitialized
+            FlightRecorder.addListener(new RecordingStateListener());
+        }
+
+        @Override
+        public void recorderInitialized(FlightRecorder recorder) {
+            // JFR初始化后再注册事件，未使用JFR时不产生任何初始化开销
+            FlightRecorder.register(AdmissionEvent.class);
+            FlightRecorder.register(LevelSelectionEvent.class);
+            FlightRecorder.register(ThrottleEvent.class);
+            FlightRecorder.register(CpuBurnEvent.class);
+            refresh(recorder);
+        }
+
+        @Override
+        public void recordingStateChanged(Recording changed) {
+            refresh(FlightRecorder.getFlightRecorder());
+        }
+
+        private static void refresh(FlightRecorder recorder) {
+            boolean running = false;
+            for (Recording r : recorder.getRecordings()) {
+                if (r.getState() == RecordingState.RUNNING) {
+                    running = true;
+                    break;
+                }
+            }
+            recording = running;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.shrwk.apirunner.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 并发级别选择事件（UrlConfig.findBestMatchingLevel）
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Name("com.shrwk.apirunner.LevelSelection")
+@Label("并发级别选择")
+@Category("API Runner")
+@Description("按当前并发数选择并发级别及其目标QPS")
+@StackTrace(false)
+public class LevelSelectionEvent extends Event {
+
+    @Label("URL模式")
+    String pattern;
+
+    @Label("当前并发数")
+    int concurrency;
+
+    @Label("选中的并发级别")
+    @Description("未匹配任何级别时为-1")
+    int level;
+
+    @Label("目标QPS")
+    int targetQps;
+
+    @Label("配置的级别数")
+    @Description("0表示使用qps/concurrent派生的默认级别")
+    int configuredLevels;
+
+    public void record(String pattern, int concurrency, int level, int targetQps, int configuredLevels) {
+        this.pattern = pattern;
+        this.concurrency = concurrency;
+        this.level = level;
+        this.targetQps = targetQps;
+        this.configuredLevels = configuredLevels;
+        commit();
+    }
+}
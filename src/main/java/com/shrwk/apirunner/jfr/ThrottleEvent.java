@@ -0,0 +1,54 @@
+package com.shrwk.apirunner.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * QPS控制事件（QpsControlService.controlQps）
+ * 事件持续时间即实际施加的延迟或资源消耗时间
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Name("com.shrwk.apirunner.Throttle")
+@Label("QPS控制")
+@Category("API Runner")
+@Description("按当前QPS与目标QPS的超出量计算并施加延迟或资源消耗")
+@StackTrace(false)
+public class ThrottleEvent extends Event {
+
+    @Label("URL模式")
+    String pattern;
+
+    @Label("计数器键")
+    String url;
+
+    @Label("控制方式")
+    String mode;
+
+    @Label("当前QPS")
+    double currentQps;
+
+    @Label("目标QPS")
+    int targetQps;
+
+    @Label("计算的延迟")
+    @Timespan(Timespan.MILLISECONDS)
+    long computedDelay;
+
+    public void record(String pattern, String url, String mode, double currentQps, int targetQps,
+                       long computedDelayMs) {
+        this.pattern = pattern;
+        this.url = url;
+        this.mode = mode;
+        this.currentQps = currentQps;
+        this.targetQps = targetQps;
+        this.computedDelay = computedDelayMs;
+        commit();
+    }
+}
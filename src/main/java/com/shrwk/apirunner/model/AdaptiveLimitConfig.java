@@ -0,0 +1,165 @@
+package com.shrwk.apirunner.model;
+
+import com.shrwk.apirunner.config.LimitAlgorithm;
+
+/**
+ * 自适应并发限制配置模型
+ * 使URL模式像一个自我保护的服务：根据观测到的延迟持续调整并发上限，超出上限的请求被排队或拒绝
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class AdaptiveLimitConfig {
+
+    /**
+     * 是否启用
+     */
+    private boolean enabled = true;
+
+    /**
+     * 限制调整算法
+     */
+    private LimitAlgorithm algorithm = LimitAlgorithm.GRADIENT;
+
+    /**
+     * 初始并发上限
+     */
+    private int initialLimit = 20;
+
+    /**
+     * 最小并发上限
+     */
+    private int minLimit = 1;
+
+    /**
+     * 最大并发上限
+     */
+    private int maxLimit = 1000;
+
+    /**
+     * AIMD模式下的收缩比例
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * AIMD模式下的延迟阈值（毫秒），平均RTT超过该值即视为过载
+     */
+    private long rttThresholdMs = 100;
+
+    /**
+     * 平滑系数（0-1），新限制在旧限制基础上按该比例靠拢
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * 超出限制时允许排队的请求数，0表示直接拒绝
+     */
+    private int queueSize = 0;
+
+    /**
+     * 排队最长等待时间（毫秒），超时后拒绝
+     */
+    private long maxQueueWaitMs = 50;
+
+    public AdaptiveLimitConfig() {
+    }
+
+    public AdaptiveLimitConfig(LimitAlgorithm algorithm, int initialLimit, int minLimit, int maxLimit) {
+        this.algorithm = algorithm;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public LimitAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(LimitAlgorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    public void setInitialLimit(int initialLimit) {
+        this.initialLimit = initialLimit;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public long getRttThresholdMs() {
+        return rttThresholdMs;
+    }
+
+    public void setRttThresholdMs(long rttThresholdMs) {
+        this.rttThresholdMs = rttThresholdMs;
+    }
+
+    public double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(double smoothing) {
+        this.smoothing = smoothing;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public long getMaxQueueWaitMs() {
+        return maxQueueWaitMs;
+    }
+
+    public void setMaxQueueWaitMs(long maxQueueWaitMs) {
+        this.maxQueueWaitMs = maxQueueWaitMs;
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveLimitConfig{" +
+                "algorithm=" + algorithm +
+                ", initialLimit=" + initialLimit +
+                ", minLimit=" + minLimit +
+                ", maxLimit=" + maxLimit +
+                ", queueSize=" + queueSize +
+                '}';
+    }
+}
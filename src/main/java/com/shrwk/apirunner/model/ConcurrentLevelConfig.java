@@ -29,6 +29,11 @@ public class ConcurrentLevelConfig {
      */
     private String description;
 
+    /**
+     * 此级别生效时的故障注入配置（为空时使用URL的配置）
+     */
+    private FaultConfig faults;
+
     public ConcurrentLevelConfig() {
     }
 
@@ -114,6 +119,14 @@ public class ConcurrentLevelConfig {
         this.description = description;
     }
 
+    public FaultConfig getFaults() {
+        return faults;
+    }
+
+    public void setFaults(FaultConfig faults) {
+        this.faults = faults;
+    }
+
     @Override
     public String toString() {
         return "ConcurrentLevelConfig{" +
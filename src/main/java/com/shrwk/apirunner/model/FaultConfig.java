@@ -0,0 +1,266 @@
+package com.shrwk.apirunner.model;
+
+import com.shrwk.apirunner.config.FaultType;
+
+/**
+ * 故障注入配置
+ * 按概率注入错误状态、慢速写出、连接断开、响应体截断和挂起，每个请求最多注入一种故障；
+ * 配置了升级区间时，各故障概率随当前并发数从1倍线性升高到escalateMultiplier倍，模拟过载服务的表现
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class FaultConfig {
+
+    /**
+     * 是否启用
+     */
+    private boolean enabled = true;
+
+    /**
+     * 错误状态概率（0-1）
+     */
+    private double errorRate = 0;
+
+    /**
+     * 注入的错误状态码
+     */
+    private int errorStatus = 503;
+
+    /**
+     * 慢速写出概率（0-1）
+     */
+    private double slowDripRate = 0;
+
+    /**
+     * 慢速写出时每块的字节数
+     */
+    private int slowDripChunkBytes = 16;
+
+    /**
+     * 慢速写出时相邻块的间隔（毫秒）
+     */
+    private long slowDripIntervalMs = 200;
+
+    /**
+     * 连接断开概率（0-1）
+     */
+    private double resetRate = 0;
+
+    /**
+     * 响应体截断概率（0-1）
+     */
+    private double truncateRate = 0;
+
+    /**
+     * 截断时写出的响应体比例（0-1）
+     */
+    private double truncateFraction = 0.5;
+
+    /**
+     * 挂起概率（0-1）
+     */
+    private double hangRate = 0;
+
+    /**
+     * 挂起时长（毫秒），到期后断开连接
+     */
+    private long hangMs = 30000;
+
+    /**
+     * 开始升级故障概率的并发数（0表示不随并发升级）
+     */
+    private int escalateFromConcurrency = 0;
+
+    /**
+     * 故障概率达到最大倍数的并发数
+     */
+    private int escalateToConcurrency = 0;
+
+    /**
+     * 故障概率的最大倍数
+     */
+    private double escalateMultiplier = 1.0;
+
+    public FaultConfig() {
+    }
+
+    /**
+     * 按均匀随机数random（[0,1)）和当前并发数选择故障，不注入时返回null；
+     * 升级后概率之和超过1时按比例缩放
+     */
+    public FaultType select(double random, int currentConcurrent) {
+        double scale = escalation(currentConcurrent);
+        double total = (errorRate + slowDripRate + resetRate + truncateRate + hangRate) * scale;
+        if (total <= 0) {
+            return null;
+        }
+        if (total > 1) {
+            scale /= total;
+        }
+        double threshold = errorRate * scale;
+        if (random < threshold) {
+            return FaultType.ERROR;
+        }
+        threshold += slowDripRate * scale;
+        if (random < threshold) {
+            return FaultType.SLOW_DRIP;
+        }
+        threshold += resetRate * scale;
+        if (random < threshold) {
+            return FaultType.RESET;
+        }
+        threshold += truncateRate * scale;
+        if (random < threshold) {
+            return FaultType.TRUNCATE;
+        }
+        threshold += hangRate * scale;
+        if (random < threshold) {
+            return FaultType.HANG;
+        }
+        return null;
+    }
+
+    /**
+     * 当前并发数对应的概率倍数
+     */
+    public double escalation(int currentConcurrent) {
+        if (escalateFromConcurrency <= 0 || escalateMultiplier <= 1.0 || currentConcurrent <= escalateFromConcurrency) {
+            return 1.0;
+        }
+        if (currentConcurrent >= escalateToConcurrency) {
+            return escalateMultiplier;
+        }
+        double progress = (double) (currentConcurrent - escalateFromConcurrency)
+                / (escalateToConcurrency - escalateFromConcurrency);
+        return 1.0 + (escalateMultiplier - 1.0) * progress;
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    public void setErrorRate(double errorRate) {
+        this.errorRate = errorRate;
+    }
+
+    public int getErrorStatus() {
+        return errorStatus;
+    }
+
+    public void setErrorStatus(int errorStatus) {
+        this.errorStatus = errorStatus;
+    }
+
+    public double getSlowDripRate() {
+        return slowDripRate;
+    }
+
+    public void setSlowDripRate(double slowDripRate) {
+        this.slowDripRate = slowDripRate;
+    }
+
+    public int getSlowDripChunkBytes() {
+        return slowDripChunkBytes;
+    }
+
+    public void setSlowDripChunkBytes(int slowDripChunkBytes) {
+        this.slowDripChunkBytes = slowDripChunkBytes;
+    }
+
+    public long getSlowDripIntervalMs() {
+        return slowDripIntervalMs;
+    }
+
+    public void setSlowDripIntervalMs(long slowDripIntervalMs) {
+        this.slowDripIntervalMs = slowDripIntervalMs;
+    }
+
+    public double getResetRate() {
+        return resetRate;
+    }
+
+    public void setResetRate(double resetRate) {
+        this.resetRate = resetRate;
+    }
+
+    public double getTruncateRate() {
+        return truncateRate;
+    }
+
+    public void setTruncateRate(double truncateRate) {
+        this.truncateRate = truncateRate;
+    }
+
+    public double getTruncateFraction() {
+        return truncateFraction;
+    }
+
+    public void setTruncateFraction(double truncateFraction) {
+        this.truncateFraction = truncateFraction;
+    }
+
+    public double getHangRate() {
+        return hangRate;
+    }
+
+    public void setHangRate(double hangRate) {
+        this.hangRate = hangRate;
+    }
+
+    public long getHangMs() {
+        return hangMs;
+    }
+
+    public void setHangMs(long hangMs) {
+        this.hangMs = hangMs;
+    }
+
+    public int getEscalateFromConcurrency() {
+        return escalateFromConcurrency;
+    }
+
+    public void setEscalateFromConcurrency(int escalateFromConcurrency) {
+        this.escalateFromConcurrency = escalateFromConcurrency;
+    }
+
+    public int getEscalateToConcurrency() {
+        return escalateToConcurrency;
+    }
+
+    public void setEscalateToConcurrency(int escalateToConcurrency) {
+        this.escalateToConcurrency = escalateToConcurrency;
+    }
+
+    public double getEscalateMultiplier() {
+        return escalateMultiplier;
+    }
+
+    public void setEscalateMultiplier(double escalateMultiplier) {
+        this.escalateMultiplier = escalateMultiplier;
+    }
+
+    @Override
+    public String toString() {
+        return "FaultConfig{" +
+                "errorRate=" + errorRate +
+                ", errorStatus=" + errorStatus +
+                ", slowDripRate=" + slowDripRate +
+                ", resetRate=" + resetRate +
+                ", truncateRate=" + truncateRate +
+                ", hangRate=" + hangRate +
+                ", escalateFromConcurrency=" + escalateFromConcurrency +
+                ", escalateToConcurrency=" + escalateToConcurrency +
+                ", escalateMultiplier=" + escalateMultiplier +
+                '}';
+    }
+}
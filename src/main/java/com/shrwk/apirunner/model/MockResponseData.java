@@ -0,0 +1,136 @@
+package com.shrwk.apirunner.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 模拟接口响应数据
+ * 代替逐次构建的HashMap：请求路径上只创建这一个对象，URL配置相关字段在序列化时才从配置中读取
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MockResponseData {
+
+    /**
+     * 请求方法
+     */
+    private final String method;
+
+    /**
+     * 请求URL
+     */
+    private final String url;
+
+    /**
+     * 响应时间戳
+     */
+    private final long timestamp;
+
+    /**
+     * 目标QPS
+     */
+    private final int targetQps;
+
+    /**
+     * 匹配的URL配置（为空表示未配置）
+     */
+    private final UrlConfig urlConfig;
+
+    /**
+     * 排队模型的服务台数（仅排队模型响应）
+     */
+    private Integer servers;
+
+    /**
+     * 填充字节数（请求头覆盖响应体大小时），序列化为同样长度的字符串
+     */
+    private Integer padding;
+
+    public MockResponseData(String method, String url, long timestamp, int targetQps, UrlConfig urlConfig) {
+        this.method = method;
+        this.url = url;
+        this.timestamp = timestamp;
+        this.targetQps = targetQps;
+        this.urlConfig = urlConfig;
+    }
+
+    // Getters and Setters
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getTargetQps() {
+        return targetQps;
+    }
+
+    public String getPattern() {
+        return urlConfig != null ? urlConfig.getPattern() : null;
+    }
+
+    public Integer getConcurrent() {
+        return urlConfig != null ? urlConfig.getConcurrent() : null;
+    }
+
+    public String getDescription() {
+        return urlConfig != null ? urlConfig.getDescription() : null;
+    }
+
+    @JsonIgnore
+    public UrlConfig getUrlConfig() {
+        return urlConfig;
+    }
+
+    public Integer getServers() {
+        return servers;
+    }
+
+    public void setServers(Integer servers) {
+        this.servers = servers;
+    }
+
+    @JsonSerialize(using = PaddingSerializer.class)
+    public Integer getPadding() {
+        return padding;
+    }
+
+    public void setPadding(Integer padding) {
+        this.padding = padding;
+    }
+
+    /**
+     * 把填充字节数写成等长的字符串，所有请求共用一个只增长的字符数组
+     */
+    public static class PaddingSerializer extends JsonSerializer<Integer> {
+
+        private static volatile char[] chars = new char[0];
+
+        @Override
+        public void serialize(Integer value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            int length = value;
+            char[] current = chars;
+            if (current.length < length) {
+                current = new char[Math.max(length, current.length * 2)];
+                Arrays.fill(current, 'x');
+                chars = current;
+            }
+            gen.writeString(current, 0, length);
+        }
+    }
+}
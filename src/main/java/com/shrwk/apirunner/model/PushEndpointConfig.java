@@ -0,0 +1,140 @@
+package com.shrwk.apirunner.model;
+
+import com.shrwk.apirunner.config.PushProtocol;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 推送端点配置
+ * 端点挂载在 /push/{name}，按协议接受WebSocket或SSE连接；
+ * 每个连接按消息间隔收到单独的消息，并加入广播组接收组内广播
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class PushEndpointConfig {
+
+    /**
+     * 端点名称（路径 /push/{name}）
+     */
+    private String name;
+
+    /**
+     * 协议
+     */
+    private PushProtocol protocol = PushProtocol.WEBSOCKET;
+
+    /**
+     * 最大连接数，超出时拒绝新连接
+     */
+    private int maxConnections = 10000;
+
+    /**
+     * 每个连接的消息间隔（毫秒，0表示只接收广播的空闲连接）
+     */
+    private long messageIntervalMs = 1000;
+
+    /**
+     * 每条消息的大致字节数
+     */
+    private int messageSize = 128;
+
+    /**
+     * 连接默认加入的广播组（连接时可用 ?group=a,b 指定）
+     */
+    private List<String> groups = new ArrayList<>();
+
+    /**
+     * 描述信息
+     */
+    private String description;
+
+    public PushEndpointConfig() {
+    }
+
+    public PushEndpointConfig(String name, PushProtocol protocol, int maxConnections, long messageIntervalMs,
+                              int messageSize) {
+        this.name = name;
+        this.protocol = protocol;
+        this.maxConnections = maxConnections;
+        this.messageIntervalMs = messageIntervalMs;
+        this.messageSize = messageSize;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public PushProtocol getProtocol() {
+        return protocol;
+    }
+
+    public void setProtocol(PushProtocol protocol) {
+        this.protocol = protocol;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public long getMessageIntervalMs() {
+        return messageIntervalMs;
+    }
+
+    public void setMessageIntervalMs(long messageIntervalMs) {
+        this.messageIntervalMs = messageIntervalMs;
+    }
+
+    public int getMessageSize() {
+        return messageSize;
+    }
+
+    public void setMessageSize(int messageSize) {
+        this.messageSize = messageSize;
+    }
+
+    public List<String> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(List<String> groups) {
+        this.groups = groups;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    /**
+     * 端点路径
+     */
+    public String getPath() {
+        return "/push/" + name;
+    }
+
+    @Override
+    public String toString() {
+        return "PushEndpointConfig{" +
+                "name='" + name + '\'' +
+                ", protocol=" + protocol +
+                ", maxConnections=" + maxConnections +
+                ", messageIntervalMs=" + messageIntervalMs +
+                ", messageSize=" + messageSize +
+                ", groups=" + groups +
+                '}';
+    }
+}
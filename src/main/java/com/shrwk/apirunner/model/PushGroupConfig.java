@@ -0,0 +1,69 @@
+package com.shrwk.apirunner.model;
+
+/**
+ * 广播组配置
+ * 广播组按固定间隔生成一条消息，只序列化一次，发送给组内所有连接，用于测量网关的扇出性能
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class PushGroupConfig {
+
+    /**
+     * 组名称
+     */
+    private String name;
+
+    /**
+     * 广播间隔（毫秒）
+     */
+    private long intervalMs = 1000;
+
+    /**
+     * 每条广播消息的大致字节数
+     */
+    private int messageSize = 256;
+
+    public PushGroupConfig() {
+    }
+
+    public PushGroupConfig(String name, long intervalMs, int messageSize) {
+        this.name = name;
+        this.intervalMs = intervalMs;
+        this.messageSize = messageSize;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    public void setIntervalMs(long intervalMs) {
+        this.intervalMs = intervalMs;
+    }
+
+    public int getMessageSize() {
+        return messageSize;
+    }
+
+    public void setMessageSize(int messageSize) {
+        this.messageSize = messageSize;
+    }
+
+    @Override
+    public String toString() {
+        return "PushGroupConfig{" +
+                "name='" + name + '\'' +
+                ", intervalMs=" + intervalMs +
+                ", messageSize=" + messageSize +
+                '}';
+    }
+}
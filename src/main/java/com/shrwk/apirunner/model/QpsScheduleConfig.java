@@ -0,0 +1,98 @@
+package com.shrwk.apirunner.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * QPS计划配置
+ * 目标QPS（及可选附加延迟）随经过时间变化，来源为分段列表或CSV曲线文件
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class QpsScheduleConfig {
+
+    /**
+     * 是否启用
+     */
+    private boolean enabled = true;
+
+    /**
+     * 是否在首次请求时自动开始计时
+     */
+    private boolean autoStart = true;
+
+    /**
+     * 计划结束后是否从头循环，否则保持最后一秒的值
+     */
+    private boolean loop = false;
+
+    /**
+     * 分段列表（按顺序首尾相接）
+     */
+    private List<ScheduleSegment> segments = new ArrayList<>();
+
+    /**
+     * CSV曲线文件路径（每行：秒,QPS[,延迟毫秒]），配置后忽略分段列表
+     */
+    private String csvPath;
+
+    public QpsScheduleConfig() {
+    }
+
+    public QpsScheduleConfig(List<ScheduleSegment> segments, boolean loop) {
+        this.segments = segments;
+        this.loop = loop;
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isAutoStart() {
+        return autoStart;
+    }
+
+    public void setAutoStart(boolean autoStart) {
+        this.autoStart = autoStart;
+    }
+
+    public boolean isLoop() {
+        return loop;
+    }
+
+    public void setLoop(boolean loop) {
+        this.loop = loop;
+    }
+
+    public List<ScheduleSegment> getSegments() {
+        return segments;
+    }
+
+    public void setSegments(List<ScheduleSegment> segments) {
+        this.segments = segments;
+    }
+
+    public String getCsvPath() {
+        return csvPath;
+    }
+
+    public void setCsvPath(String csvPath) {
+        this.csvPath = csvPath;
+    }
+
+    @Override
+    public String toString() {
+        return "QpsScheduleConfig{" +
+                "autoStart=" + autoStart +
+                ", loop=" + loop +
+                ", segments=" + segments +
+                ", csvPath='" + csvPath + '\'' +
+                '}';
+    }
+}
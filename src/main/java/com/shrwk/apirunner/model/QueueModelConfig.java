@@ -0,0 +1,152 @@
+package com.shrwk.apirunner.model;
+
+import com.shrwk.apirunner.config.ServiceTimeDistribution;
+
+/**
+ * 排队模型配置
+ * 以服务台数量、服务时间分布和队列容量描述后端，延迟与吞吐由虚拟多服务台队列自然产生
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class QueueModelConfig {
+
+    /**
+     * 是否启用
+     */
+    private boolean enabled = true;
+
+    /**
+     * 服务台数量（c）
+     */
+    private int servers = 10;
+
+    /**
+     * 服务时间分布
+     */
+    private ServiceTimeDistribution distribution = ServiceTimeDistribution.EXPONENTIAL;
+
+    /**
+     * 平均服务时间（毫秒）
+     */
+    private double meanServiceTimeMs = 10.0;
+
+    /**
+     * 服务时间标准差（毫秒，仅LOGNORMAL使用）
+     */
+    private double stdDevServiceTimeMs = 5.0;
+
+    /**
+     * 最小服务时间（毫秒，仅UNIFORM使用）
+     */
+    private double minServiceTimeMs = 5.0;
+
+    /**
+     * 最大服务时间（毫秒，仅UNIFORM使用）
+     */
+    private double maxServiceTimeMs = 15.0;
+
+    /**
+     * 等待队列容量，队列满时拒绝（0表示不排队）
+     */
+    private int queueCapacity = 1000;
+
+    /**
+     * 等待响应的超时时间（毫秒），超时返回504（504001），0表示不超时（排队时间由队列容量限制）
+     */
+    private long responseTimeoutMs = 0;
+
+    public QueueModelConfig() {
+    }
+
+    public QueueModelConfig(int servers, ServiceTimeDistribution distribution, double meanServiceTimeMs, int queueCapacity) {
+        this.servers = servers;
+        this.distribution = distribution;
+        this.meanServiceTimeMs = meanServiceTimeMs;
+        this.queueCapacity = queueCapacity;
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getServers() {
+        return servers;
+    }
+
+    public void setServers(int servers) {
+        this.servers = servers;
+    }
+
+    public ServiceTimeDistribution getDistribution() {
+        return distribution;
+    }
+
+    public void setDistribution(ServiceTimeDistribution distribution) {
+        this.distribution = distribution;
+    }
+
+    public double getMeanServiceTimeMs() {
+        return meanServiceTimeMs;
+    }
+
+    public void setMeanServiceTimeMs(double meanServiceTimeMs) {
+        this.meanServiceTimeMs = meanServiceTimeMs;
+    }
+
+    public double getStdDevServiceTimeMs() {
+        return stdDevServiceTimeMs;
+    }
+
+    public void setStdDevServiceTimeMs(double stdDevServiceTimeMs) {
+        this.stdDevServiceTimeMs = stdDevServiceTimeMs;
+    }
+
+    public double getMinServiceTimeMs() {
+        return minServiceTimeMs;
+    }
+
+    public void setMinServiceTimeMs(double minServiceTimeMs) {
+        this.minServiceTimeMs = minServiceTimeMs;
+    }
+
+    public double getMaxServiceTimeMs() {
+        return maxServiceTimeMs;
+    }
+
+    public void setMaxServiceTimeMs(double maxServiceTimeMs) {
+        this.maxServiceTimeMs = maxServiceTimeMs;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getResponseTimeoutMs() {
+        return responseTimeoutMs;
+    }
+
+    public void setResponseTimeoutMs(long responseTimeoutMs) {
+        this.responseTimeoutMs = responseTimeoutMs;
+    }
+
+    @Override
+    public String toString() {
+        return "QueueModelConfig{" +
+                "servers=" + servers +
+                ", distribution=" + distribution +
+                ", meanServiceTimeMs=" + meanServiceTimeMs +
+                ", queueCapacity=" + queueCapacity +
+                ", responseTimeoutMs=" + responseTimeoutMs +
+                '}';
+    }
+}
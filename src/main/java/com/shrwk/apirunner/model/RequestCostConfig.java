@@ -0,0 +1,161 @@
+package com.shrwk.apirunner.model;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 请求成本配置
+ * QPS控制按成本而不是请求数扣减目标QPS预算：成本 =（方法权重 + Content-Length / 每单位字节数）× 权重头，
+ * 上限为maxCost；只读取请求头，不读取请求体
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class RequestCostConfig {
+
+    /**
+     * 成本的定点精度（千分之一单位）
+     */
+    public static final long MILLIS_PER_UNIT = 1000;
+
+    /**
+     * 是否启用
+     */
+    private boolean enabled = true;
+
+    /**
+     * 按HTTP方法的基础权重（方法名不区分大小写）
+     */
+    private Map<String, Double> methodWeights = new HashMap<>();
+
+    /**
+     * 未配置方法的基础权重
+     */
+    private double defaultWeight = 1.0;
+
+    /**
+     * 每多少字节的Content-Length计1个成本单位（0表示不按请求体大小计费）
+     */
+    private long bytesPerUnit = 0;
+
+    /**
+     * 成本权重请求头（可选），值为非负小数，与基础成本相乘
+     */
+    private String weightHeader;
+
+    /**
+     * 单个请求的成本上限
+     */
+    private double maxCost = 1000;
+
+    public RequestCostConfig() {
+    }
+
+    /**
+     * 计算请求成本（千分之一单位）；headers为空时只按方法计费，非法的Content-Length或权重头被忽略
+     */
+    public long costMillis(String method, RequestOverrides.HeaderReader headers) {
+        Double methodWeight = methodWeights.get(method);
+        double cost = methodWeight != null ? methodWeight : defaultWeight;
+        if (headers != null) {
+            if (bytesPerUnit > 0) {
+                long contentLength = RequestOverrides.parseNumber(headers.header("Content-Length"));
+                if (contentLength > 0) {
+                    cost += (double) contentLength / bytesPerUnit;
+                }
+            }
+            if (weightHeader != null) {
+                cost *= parseWeight(headers.header(weightHeader));
+            }
+        }
+        cost = Math.min(Math.max(cost, 0), maxCost);
+        return Math.round(cost * MILLIS_PER_UNIT);
+    }
+
+    /**
+     * 解析权重头，缺失或非法时为1
+     */
+    private static double parseWeight(String value) {
+        if (value == null) {
+            return 1.0;
+        }
+        try {
+            double weight = Double.parseDouble(value.trim());
+            return weight >= 0 && !Double.isInfinite(weight) ? weight : 1.0;
+        } catch (NumberFormatException e) {
+            return 1.0;
+        }
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Map<String, Double> getMethodWeights() {
+        return methodWeights;
+    }
+
+    /**
+     * 方法名统一转为大写，请求路径上按原样查表
+     */
+    public void setMethodWeights(Map<String, Double> methodWeights) {
+        Map<String, Double> normalized = new HashMap<>();
+        if (methodWeights != null) {
+            for (Map.Entry<String, Double> entry : methodWeights.entrySet()) {
+                if (entry.getValue() != null) {
+                    normalized.put(entry.getKey().toUpperCase(Locale.ROOT), entry.getValue());
+                }
+            }
+        }
+        this.methodWeights = normalized;
+    }
+
+    public double getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    public void setDefaultWeight(double defaultWeight) {
+        this.defaultWeight = defaultWeight;
+    }
+
+    public long getBytesPerUnit() {
+        return bytesPerUnit;
+    }
+
+    public void setBytesPerUnit(long bytesPerUnit) {
+        this.bytesPerUnit = bytesPerUnit;
+    }
+
+    public String getWeightHeader() {
+        return weightHeader;
+    }
+
+    public void setWeightHeader(String weightHeader) {
+        this.weightHeader = weightHeader != null && !weightHeader.trim().isEmpty() ? weightHeader.trim() : null;
+    }
+
+    public double getMaxCost() {
+        return maxCost;
+    }
+
+    public void setMaxCost(double maxCost) {
+        this.maxCost = maxCost;
+    }
+
+    @Override
+    public String toString() {
+        return "RequestCostConfig{" +
+                "methodWeights=" + methodWeights +
+                ", defaultWeight=" + defaultWeight +
+                ", bytesPerUnit=" + bytesPerUnit +
+                ", weightHeader='" + weightHeader + '\'' +
+                ", maxCost=" + maxCost +
+                '}';
+    }
+}
@@ -0,0 +1,129 @@
+package com.shrwk.apirunner.model;
+
+/**
+ * 按请求覆盖的模拟行为
+ * 压测端通过X-Runner-*请求头为单个请求指定附加延迟、响应状态、响应体大小和CPU消耗，
+ * 同一部署可以同时服务多个测试场景，而不需要修改配置或为每种变体新增URL配置。
+ * 数值直接逐字符解析，不经过Integer.parseInt，非法值被忽略
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class RequestOverrides {
+
+    public static final String LATENCY = "X-Runner-Latency";
+    public static final String STATUS = "X-Runner-Status";
+    public static final String BODY_SIZE = "X-Runner-Body-Size";
+    public static final String BURN_US = "X-Runner-Burn-Us";
+
+    /**
+     * 未指定
+     */
+    public static final long UNSET = -1;
+
+    /**
+     * 附加延迟（毫秒）
+     */
+    private final long latencyMs;
+
+    /**
+     * 响应HTTP状态码
+     */
+    private final int status;
+
+    /**
+     * 响应中附加的填充字节数
+     */
+    private final int bodySize;
+
+    /**
+     * CPU消耗时间（微秒）
+     */
+    private final long burnMicros;
+
+    private RequestOverrides(long latencyMs, int status, int bodySize, long burnMicros) {
+        this.latencyMs = latencyMs;
+        this.status = status;
+        this.bodySize = bodySize;
+        this.burnMicros = burnMicros;
+    }
+
+    /**
+     * 请求头读取来源
+     */
+    public interface HeaderReader {
+        String header(String name);
+    }
+
+    /**
+     * 读取覆盖请求头，数值按上限截断；没有任何有效覆盖头时返回null
+     */
+    public static RequestOverrides parse(HeaderReader reader, long maxLatencyMs, int maxBodySize, long maxBurnMicros) {
+        long latencyMs = parseNumber(reader.header(LATENCY));
+        long status = parseNumber(reader.header(STATUS));
+        long bodySize = parseNumber(reader.header(BODY_SIZE));
+        long burnMicros = parseNumber(reader.header(BURN_US));
+        if (status < 100 || status > 599) {
+            status = UNSET;
+        }
+        if (latencyMs == UNSET && status == UNSET && bodySize == UNSET && burnMicros == UNSET) {
+            return null;
+        }
+        return new RequestOverrides(
+                latencyMs == UNSET ? UNSET : Math.min(latencyMs, maxLatencyMs),
+                (int) status,
+                bodySize == UNSET ? (int) UNSET : (int) Math.min(bodySize, maxBodySize),
+                burnMicros == UNSET ? UNSET : Math.min(burnMicros, maxBurnMicros));
+    }
+
+    /**
+     * 解析非负十进制整数（允许首尾空白），缺失、非法或超过18位时返回UNSET
+     */
+    static long parseNumber(String value) {
+        if (value == null) {
+            return UNSET;
+        }
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end || end - start > 18) {
+            return UNSET;
+        }
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return UNSET;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    public boolean hasLatency() {
+        return latencyMs > 0;
+    }
+
+    public boolean hasStatus() {
+        return status != UNSET;
+    }
+
+    public boolean hasBodySize() {
+        return bodySize != UNSET;
+    }
+
+    public boolean hasBurn() {
+        return burnMicros > 0;
+    }
+
+    // Getters
+    public long getLatencyMs() { return latencyMs; }
+    public int getStatus() { return status; }
+    public int getBodySize() { return bodySize; }
+    public long getBurnMicros() { return burnMicros; }
+}
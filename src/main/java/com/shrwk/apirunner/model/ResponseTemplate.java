@@ -0,0 +1,234 @@
+package com.shrwk.apirunner.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 编译后的响应模板
+ * 模板文本中的 {{name}} 在加载配置时被切分为字面字节块与变量槽：name为URL模式中的命名捕获（如 /api/user/{id} 中的id），
+ * 或内置变量url、method、timestamp。渲染时按顺序把字面块和变量值复制到线程复用的缓冲区，
+ * 不经过Jackson或模板引擎，除缓冲区扩容外不分配对象。
+ * 变量值按JSON字符串规则转义（引号、反斜杠和控制字符），不成对的代理项输出为'?'，是否加引号由模板决定，
+ * 例如 {"userId": {{id}}} 输出数字，{"name": "{{id}}"} 输出字符串
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class ResponseTemplate {
+
+    private static final int SLOT_URL = -1;
+    private static final int SLOT_METHOD = -2;
+    private static final int SLOT_TIMESTAMP = -3;
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * 每个线程复用的渲染缓冲区
+     */
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(() -> new Buffer(1024));
+
+    private final String source;
+
+    /**
+     * 字面字节块，比变量槽多一个（首尾可为空块）
+     */
+    private final byte[][] literals;
+
+    /**
+     * 变量槽：非负为命名捕获的序号，负数为内置变量
+     */
+    private final int[] slots;
+
+    private final int literalBytes;
+
+    private ResponseTemplate(String source, byte[][] literals, int[] slots) {
+        this.source = source;
+        this.literals = literals;
+        this.slots = slots;
+        int total = 0;
+        for (byte[] literal : literals) {
+            total += literal.length;
+        }
+        this.literalBytes = total;
+    }
+
+    /**
+     * 编译模板，captureNames为URL模式中命名捕获的名称（按出现顺序）；引用了未知变量时抛出IllegalArgumentException
+     */
+    public static ResponseTemplate compile(String source, List<String> captureNames) {
+        List<byte[]> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                literals.add(source.substring(position).getBytes(StandardCharsets.UTF_8));
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("模板变量缺少结束符: " + source.substring(open));
+            }
+            String name = source.substring(open + 2, close).trim();
+            literals.add(source.substring(position, open).getBytes(StandardCharsets.UTF_8));
+            slots.add(resolveSlot(name, captureNames));
+            position = close + 2;
+        }
+
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+        return new ResponseTemplate(source, literals.toArray(new byte[0][]), slotArray);
+    }
+
+    private static int resolveSlot(String name, List<String> captureNames) {
+        int index = captureNames.indexOf(name);
+        if (index >= 0) {
+            return index;
+        }
+        switch (name) {
+            case "url":
+                return SLOT_URL;
+            case "method":
+                return SLOT_METHOD;
+            case "timestamp":
+                return SLOT_TIMESTAMP;
+            default:
+                throw new IllegalArgumentException("模板引用了未知变量: " + name + "，可用的捕获: " + captureNames);
+        }
+    }
+
+    /**
+     * 渲染到当前线程的缓冲区，captures为命名捕获在url中的[起始, 结束)位置（每个捕获两个元素）；
+     * 返回的缓冲区在同一线程下次渲染前有效
+     */
+    public Buffer render(String url, int urlLength, String method, long timestamp, int[] captures) {
+        Buffer buffer = BUFFER.get();
+        buffer.length = 0;
+        buffer.ensure(literalBytes + 64);
+        buffer.append(literals[0]);
+        for (int i = 0; i < slots.length; i++) {
+            int slot = slots[i];
+            if (slot >= 0) {
+                buffer.appendEscaped(url, captures[slot * 2], captures[slot * 2 + 1]);
+            } else if (slot == SLOT_URL) {
+                buffer.appendEscaped(url, 0, urlLength);
+            } else if (slot == SLOT_METHOD) {
+                buffer.appendEscaped(method, 0, method.length());
+            } else {
+                buffer.appendLong(timestamp);
+            }
+            buffer.append(literals[i + 1]);
+        }
+        return buffer;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * 渲染缓冲区
+     */
+    public static class Buffer {
+        private byte[] data;
+        private int length;
+
+        Buffer(int capacity) {
+            data = new byte[capacity];
+        }
+
+        public byte[] getData() {
+            return data;
+        }
+
+        public int getLength() {
+            return length;
+        }
+
+        /**
+         * 复制出独立的字节数组（结果需要跨线程或长期保存时使用）
+         */
+        public byte[] toByteArray() {
+            return Arrays.copyOf(data, length);
+        }
+
+        void ensure(int additional) {
+            if (length + additional > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, length + additional));
+            }
+        }
+
+        void append(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, data, length, bytes.length);
+            length += bytes.length;
+        }
+
+        /**
+         * 按UTF-8写出字符并做JSON字符串转义
+         */
+        void appendEscaped(String value, int start, int end) {
+            ensure((end - start) * 6);
+            byte[] target = data;
+            int position = length;
+            for (int i = start; i < end; i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    target[position++] = '\\';
+                    target[position++] = (byte) c;
+                } else if (c < 0x20) {
+                    target[position++] = '\\';
+                    target[position++] = 'u';
+                    target[position++] = '0';
+                    target[position++] = '0';
+                    target[position++] = HEX[c >> 4];
+                    target[position++] = HEX[c & 0xF];
+                } else if (c < 0x80) {
+                    target[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    target[position++] = (byte) (0xC0 | (c >> 6));
+                    target[position++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    target[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    target[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    target[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    target[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // 不成对的代理项不是合法的UTF-8，与String.getBytes相同输出'?'
+                    target[position++] = '?';
+                } else {
+                    target[position++] = (byte) (0xE0 | (c >> 12));
+                    target[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    target[position++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            length = position;
+        }
+
+        void appendLong(long value) {
+            ensure(20);
+            if (value == 0) {
+                data[length++] = '0';
+                return;
+            }
+            if (value < 0) {
+                data[length++] = '-';
+                value = -value;
+            }
+            int digits = 0;
+            for (long v = value; v > 0; v /= 10) {
+                digits++;
+            }
+            int position = length + digits;
+            for (long v = value; v > 0; v /= 10) {
+                data[--position] = (byte) ('0' + (v % 10));
+            }
+            length += digits;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.shrwk.apirunner.model;
+
+import com.shrwk.apirunner.config.ScheduleShape;
+
+/**
+ * QPS计划分段配置
+ * 多个分段按顺序首尾相接，组成随时间变化的目标QPS（及可选延迟）曲线
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class ScheduleSegment {
+
+    /**
+     * 分段形状
+     */
+    private ScheduleShape shape = ScheduleShape.STEP;
+
+    /**
+     * 分段持续时间（秒）
+     */
+    private int durationSeconds = 60;
+
+    /**
+     * 目标QPS（STEP）或基准QPS（SINE）
+     */
+    private int qps;
+
+    /**
+     * 起始QPS（RAMP）
+     */
+    private int fromQps;
+
+    /**
+     * 结束QPS（RAMP）
+     */
+    private int toQps;
+
+    /**
+     * 振幅（SINE）
+     */
+    private int amplitude;
+
+    /**
+     * 周期（秒，SINE）
+     */
+    private int periodSeconds = 60;
+
+    /**
+     * 附加延迟（毫秒，STEP/SINE），-1表示不附加
+     */
+    private int latencyMs = -1;
+
+    /**
+     * 起始附加延迟（毫秒，RAMP），-1表示不附加
+     */
+    private int fromLatencyMs = -1;
+
+    /**
+     * 结束附加延迟（毫秒，RAMP），-1表示不附加
+     */
+    private int toLatencyMs = -1;
+
+    public ScheduleSegment() {
+    }
+
+    public ScheduleSegment(ScheduleShape shape, int durationSeconds, int qps) {
+        this.shape = shape;
+        this.durationSeconds = durationSeconds;
+        this.qps = qps;
+    }
+
+    /**
+     * 计算分段内第offset秒的目标QPS
+     */
+    public int qpsAt(int offset) {
+        switch (shape) {
+            case RAMP:
+                return (int) Math.round(fromQps + (toQps - fromQps) * ratio(offset));
+            case SINE:
+                double radians = 2 * Math.PI * offset / Math.max(1, periodSeconds);
+                return Math.max(0, (int) Math.round(qps + amplitude * Math.sin(radians)));
+            case STEP:
+            default:
+                return qps;
+        }
+    }
+
+    /**
+     * 计算分段内第offset秒的附加延迟，-1表示不附加
+     */
+    public int latencyAt(int offset) {
+        if (shape == ScheduleShape.RAMP) {
+            if (fromLatencyMs < 0 && toLatencyMs < 0) {
+                return -1;
+            }
+            int from = Math.max(0, fromLatencyMs);
+            int to = Math.max(0, toLatencyMs);
+            return (int) Math.round(from + (to - from) * ratio(offset));
+        }
+        return latencyMs;
+    }
+
+    private double ratio(int offset) {
+        return durationSeconds <= 1 ? 1.0 : (double) offset / (durationSeconds - 1);
+    }
+
+    // Getters and Setters
+    public ScheduleShape getShape() {
+        return shape;
+    }
+
+    public void setShape(ScheduleShape shape) {
+        this.shape = shape;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public void setDurationSeconds(int durationSeconds) {
+        this.durationSeconds = durationSeconds;
+    }
+
+    public int getQps() {
+        return qps;
+    }
+
+    public void setQps(int qps) {
+        this.qps = qps;
+    }
+
+    public int getFromQps() {
+        return fromQps;
+    }
+
+    public void setFromQps(int fromQps) {
+        this.fromQps = fromQps;
+    }
+
+    public int getToQps() {
+        return toQps;
+    }
+
+    public void setToQps(int toQps) {
+        this.toQps = toQps;
+    }
+
+    public int getAmplitude() {
+        return amplitude;
+    }
+
+    public void setAmplitude(int amplitude) {
+        this.amplitude = amplitude;
+    }
+
+    public int getPeriodSeconds() {
+        return periodSeconds;
+    }
+
+    public void setPeriodSeconds(int periodSeconds) {
+        this.periodSeconds = periodSeconds;
+    }
+
+    public int getLatencyMs() {
+        return latencyMs;
+    }
+
+    public void setLatencyMs(int latencyMs) {
+        this.latencyMs = latencyMs;
+    }
+
+    public int getFromLatencyMs() {
+        return fromLatencyMs;
+    }
+
+    public void setFromLatencyMs(int fromLatencyMs) {
+        this.fromLatencyMs = fromLatencyMs;
+    }
+
+    public int getToLatencyMs() {
+        return toLatencyMs;
+    }
+
+    public void setToLatencyMs(int toLatencyMs) {
+        this.toLatencyMs = toLatencyMs;
+    }
+
+    @Override
+    public String toString() {
+        return "ScheduleSegment{" +
+                "shape=" + shape +
+                ", durationSeconds=" + durationSeconds +
+                ", qps=" + qps +
+                ", fromQps=" + fromQps +
+                ", toQps=" + toQps +
+                '}';
+    }
+}
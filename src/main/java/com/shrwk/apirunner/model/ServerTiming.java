@@ -0,0 +1,160 @@
+package com.shrwk.apirunner.model;
+
+/**
+ * 模拟接口的阶段耗时
+ * 以纳秒记录路由、准入、QPS控制（计划与实际）和响应渲染的耗时，以及检测到的并发数和选中的并发级别，
+ * 写成Server-Timing与X-Runner-*响应头，便于压测端区分尾延迟来自模拟器还是网络。
+ * 头名称为常量，数值直接格式化，不经过String.format
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class ServerTiming {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+    public static final String ROUTE_NS = "X-Runner-Route-Ns";
+    public static final String ADMISSION_NS = "X-Runner-Admission-Ns";
+    public static final String THROTTLE_NS = "X-Runner-Throttle-Ns";
+    public static final String THROTTLE_PLANNED_NS = "X-Runner-Throttle-Planned-Ns";
+    public static final String RENDER_NS = "X-Runner-Render-Ns";
+    public static final String CONCURRENCY = "X-Runner-Concurrency";
+    public static final String LEVEL = "X-Runner-Level";
+    public static final String LEVEL_QPS = "X-Runner-Level-Qps";
+
+    /**
+     * 每个线程复用的Server-Timing值缓冲区
+     */
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(192));
+
+    private long routeNanos;
+    private long admissionNanos;
+    private long throttleNanos;
+    private long plannedThrottleNanos;
+    private long renderNanos;
+    private int concurrency;
+
+    /**
+     * 选中的并发级别与其目标QPS，未选中时为-1
+     */
+    private int level = -1;
+    private int levelQps = -1;
+
+    /**
+     * 响应头写入目标
+     */
+    public interface HeaderWriter {
+        void header(String name, String value);
+    }
+
+    /**
+     * 写出所有阶段耗时头
+     */
+    public void writeHeaders(HeaderWriter writer) {
+        writer.header(SERVER_TIMING, toServerTimingValue());
+        writer.header(ROUTE_NS, Long.toString(routeNanos));
+        writer.header(ADMISSION_NS, Long.toString(admissionNanos));
+        writer.header(THROTTLE_NS, Long.toString(throttleNanos));
+        writer.header(THROTTLE_PLANNED_NS, Long.toString(plannedThrottleNanos));
+        writer.header(RENDER_NS, Long.toString(renderNanos));
+        writer.header(CONCURRENCY, Integer.toString(concurrency));
+        if (level >= 0) {
+            writer.header(LEVEL, Integer.toString(level));
+            writer.header(LEVEL_QPS, Integer.toString(levelQps));
+        }
+    }
+
+    /**
+     * Server-Timing值：dur为毫秒，保留到纳秒
+     */
+    public String toServerTimingValue() {
+        StringBuilder builder = BUFFER.get();
+        builder.setLength(0);
+        appendMetric(builder, "route", routeNanos).append(", ");
+        appendMetric(builder, "admit", admissionNanos).append(", ");
+        appendMetric(builder, "throttle", throttleNanos).append(";desc=\"planned ");
+        appendMillis(builder, plannedThrottleNanos).append("ms\", ");
+        appendMetric(builder, "render", renderNanos);
+        return builder.toString();
+    }
+
+    private static StringBuilder appendMetric(StringBuilder builder, String name, long nanos) {
+        builder.append(name).append(";dur=");
+        return appendMillis(builder, nanos);
+    }
+
+    private static StringBuilder appendMillis(StringBuilder builder, long nanos) {
+        long value = Math.max(0, nanos);
+        builder.append(value / 1_000_000).append('.');
+        long fraction = value % 1_000_000;
+        for (long divisor = 100_000; divisor > fraction && divisor > 1; divisor /= 10) {
+            builder.append('0');
+        }
+        return builder.append(fraction);
+    }
+
+    public void addRenderNanos(long nanos) {
+        this.renderNanos += nanos;
+    }
+
+    // Getters and Setters
+    public long getRouteNanos() {
+        return routeNanos;
+    }
+
+    public void setRouteNanos(long routeNanos) {
+        this.routeNanos = routeNanos;
+    }
+
+    public long getAdmissionNanos() {
+        return admissionNanos;
+    }
+
+    public void setAdmissionNanos(long admissionNanos) {
+        this.admissionNanos = admissionNanos;
+    }
+
+    public long getThrottleNanos() {
+        return throttleNanos;
+    }
+
+    public void setThrottleNanos(long throttleNanos) {
+        this.throttleNanos = throttleNanos;
+    }
+
+    public long getPlannedThrottleNanos() {
+        return plannedThrottleNanos;
+    }
+
+    public void setPlannedThrottleNanos(long plannedThrottleNanos) {
+        this.plannedThrottleNanos = plannedThrottleNanos;
+    }
+
+    public long getRenderNanos() {
+        return renderNanos;
+    }
+
+    public void setRenderNanos(long renderNanos) {
+        this.renderNanos = renderNanos;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getLevelQps() {
+        return levelQps;
+    }
+
+    public void setLevel(int level, int levelQps) {
+        this.level = level;
+        this.levelQps = levelQps;
+    }
+}
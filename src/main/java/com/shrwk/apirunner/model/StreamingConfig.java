@@ -0,0 +1,115 @@
+package com.shrwk.apirunner.model;
+
+import com.shrwk.apirunner.config.StreamFormat;
+
+/**
+ * 流式响应配置
+ * 响应按首字节时间（TTFB）、分块大小、分块数量和分块间隔分多次写出，
+ * 用于模拟分块JSON数组、NDJSON推送或大报表下载等流式接口
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class StreamingConfig {
+
+    /**
+     * 是否启用
+     */
+    private boolean enabled = true;
+
+    /**
+     * 响应格式
+     */
+    private StreamFormat format = StreamFormat.NDJSON;
+
+    /**
+     * 首字节时间（毫秒，请求处理完成到写出第一个分块）
+     */
+    private long ttfbMs = 0;
+
+    /**
+     * 每个分块的大致字节数
+     */
+    private int chunkSize = 256;
+
+    /**
+     * 分块数量
+     */
+    private int chunkCount = 10;
+
+    /**
+     * 相邻分块的间隔（毫秒）
+     */
+    private long intervalMs = 100;
+
+    public StreamingConfig() {
+    }
+
+    public StreamingConfig(StreamFormat format, long ttfbMs, int chunkSize, int chunkCount, long intervalMs) {
+        this.format = format;
+        this.ttfbMs = ttfbMs;
+        this.chunkSize = chunkSize;
+        this.chunkCount = chunkCount;
+        this.intervalMs = intervalMs;
+    }
+
+    // Getters and Setters
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public StreamFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(StreamFormat format) {
+        this.format = format;
+    }
+
+    public long getTtfbMs() {
+        return ttfbMs;
+    }
+
+    public void setTtfbMs(long ttfbMs) {
+        this.ttfbMs = ttfbMs;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    public void setChunkCount(int chunkCount) {
+        this.chunkCount = chunkCount;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    public void setIntervalMs(long intervalMs) {
+        this.intervalMs = intervalMs;
+    }
+
+    @Override
+    public String toString() {
+        return "StreamingConfig{" +
+                "format=" + format +
+                ", ttfbMs=" + ttfbMs +
+                ", chunkSize=" + chunkSize +
+                ", chunkCount=" + chunkCount +
+                ", intervalMs=" + intervalMs +
+                '}';
+    }
+}
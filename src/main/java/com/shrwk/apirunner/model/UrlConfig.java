@@ -1,5 +1,12 @@
 package com.shrwk.apirunner.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.shrwk.apirunner.config.BodyMode;
+import com.shrwk.apirunner.config.QpsControlMode;
+import com.shrwk.apirunner.jfr.JfrSupport;
+import com.shrwk.apirunner.jfr.LevelSelectionEvent;
+
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.List;
 import java.util.ArrayList;
@@ -13,7 +20,12 @@ import java.util.ArrayList;
 public class UrlConfig {
 
     /**
-     * URL模式（支持通配符）
+     * URL模式中的命名捕获
+     */
+    private static final Pattern CAPTURE = Pattern.compile("\\{([^/{}]+)}");
+
+    /**
+     * URL模式（支持通配符'*'和命名捕获，如 /api/user/{id}，捕获匹配一段不含'/'的非空字符）
      */
     private String pattern;
 
@@ -37,11 +49,91 @@ public class UrlConfig {
      */
     private List<ConcurrentLevelConfig> concurrentLevels = new ArrayList<>();
 
+    /**
+     * 自适应并发限制配置（为空表示不启用）
+     */
+    private AdaptiveLimitConfig adaptiveLimit;
+
+    /**
+     * 排队模型配置（为空表示不启用，启用后替代按并发级别的QPS控制）
+     */
+    private QueueModelConfig queueModel;
+
+    /**
+     * 流式响应配置（为空或未启用时一次性写出响应）
+     */
+    private StreamingConfig streaming;
+
+    /**
+     * 请求成本配置（为空时每个请求计1）
+     */
+    private RequestCostConfig cost;
+
+    /**
+     * 故障注入配置（并发级别配置了自己的故障时以级别为准）
+     */
+    private FaultConfig faults;
+
+    /**
+     * 请求体处理模式（默认IGNORE，不读取请求体）
+     */
+    private BodyMode bodyMode = BodyMode.IGNORE;
+
+    /**
+     * 随时间变化的QPS计划（为空表示不启用，启用后覆盖并发级别的目标QPS）
+     */
+    private QpsScheduleConfig schedule;
+
+    /**
+     * 该URL的QPS控制方式（为空表示使用全局配置 api.qps-control-mode）
+     */
+    private QpsControlMode qpsControlMode;
+
+    /**
+     * 响应模板（为空表示返回默认响应），可引用命名捕获和内置变量，见ResponseTemplate
+     */
+    private String responseTemplate;
+
+    /**
+     * 响应模板文件（修改后自动重新加载，优先于responseTemplate）
+     */
+    private String responseTemplateFile;
+
+    /**
+     * 模板响应的Content-Type
+     */
+    private String responseContentType = "application/json";
+
+    /**
+     * 所属虚拟服务名称（为空表示主端口上的默认服务）
+     */
+    private String service;
+
+    /**
+     * 统计键：默认服务为URL模式，虚拟服务为"服务名:URL模式"
+     */
+    private transient String statsKey;
+
+    /**
+     * 未配置并发级别时使用的默认级别（由qps、concurrent、description派生，修改时重建）
+     */
+    private transient ConcurrentLevelConfig defaultLevel;
+
     /**
      * 编译后的正则表达式
      */
     private transient Pattern compiledPattern;
 
+    /**
+     * URL模式中的命名捕获（按出现顺序）
+     */
+    private transient List<String> captureNames = new ArrayList<>();
+
+    /**
+     * 编译后的响应模板
+     */
+    private transient volatile ResponseTemplate compiledTemplate;
+
     /**
      * 是否启用
      */
@@ -70,12 +162,19 @@ public class UrlConfig {
      */
     public void compilePattern() {
         if (pattern != null) {
-            // 将通配符转换为正则表达式
+            // 将通配符与命名捕获转换为正则表达式
+            List<String> names = new ArrayList<>();
+            Matcher capture = CAPTURE.matcher(pattern);
+            while (capture.find()) {
+                names.add(capture.group(1));
+            }
             String regex = pattern
                     .replace(".", "\\.")
                     .replace("*", ".*")
-                    .replace("?", "\\?");
+                    .replace("?", "\\?")
+                    .replaceAll("\\{[^/{}]+}", "[^/]+");
             this.compiledPattern = Pattern.compile(regex);
+            this.captureNames = names;
         }
     }
 
@@ -83,10 +182,114 @@ public class UrlConfig {
      * 检查URL是否匹配此模式
      */
     public boolean matches(String url) {
-        if (compiledPattern == null) {
-            compilePattern();
+        return matches(url, url.length());
+    }
+
+    /**
+     * 检查URL的前length个字符是否匹配此模式
+     * 与编译后的正则等价（'*'匹配任意字符序列，其余字符按字面匹配），但不创建Matcher和子串，请求路径上不分配对象
+     */
+    public boolean matches(String url, int length) {
+        String glob = pattern;
+        if (glob == null) {
+            return false;
         }
-        return compiledPattern != null && compiledPattern.matcher(url).matches();
+        if (!captureNames.isEmpty()) {
+            return matchFrom(url, length, 0, 0, null, 0);
+        }
+        int u = 0;
+        int g = 0;
+        int starG = -1;
+        int starU = 0;
+        while (u < length) {
+            if (g < glob.length() && glob.charAt(g) == '*') {
+                starG = g++;
+                starU = u;
+            } else if (g < glob.length() && glob.charAt(g) == url.charAt(u)) {
+                g++;
+                u++;
+            } else if (starG >= 0) {
+                // 回退到上一个'*'，让它多匹配一个字符
+                g = starG + 1;
+                u = ++starU;
+            } else {
+                return false;
+            }
+        }
+        while (g < glob.length() && glob.charAt(g) == '*') {
+            g++;
+        }
+        return g == glob.length();
+    }
+
+    /**
+     * 匹配URL并把各命名捕获的[起始, 结束)位置写入bounds（每个捕获两个元素），不匹配时返回false
+     */
+    public boolean extractCaptures(String url, int length, int[] bounds) {
+        return pattern != null && matchFrom(url, length, 0, 0, bounds, 0);
+    }
+
+    /**
+     * 带命名捕获的回溯匹配：'*'匹配任意字符序列，捕获匹配一段不含'/'的非空字符，均优先匹配最长
+     */
+    private boolean matchFrom(String url, int length, int u, int g, int[] bounds, int capture) {
+        String glob = pattern;
+        while (g < glob.length()) {
+            char c = glob.charAt(g);
+            if (c == '*') {
+                for (int k = length; k >= u; k--) {
+                    if (matchFrom(url, length, k, g + 1, bounds, capture)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (c == '{') {
+                int close = glob.indexOf('}', g);
+                int end = u;
+                while (end < length && url.charAt(end) != '/') {
+                    end++;
+                }
+                for (int k = end; k > u; k--) {
+                    if (matchFrom(url, length, k, close + 1, bounds, capture + 1)) {
+                        if (bounds != null) {
+                            bounds[capture * 2] = u;
+                            bounds[capture * 2 + 1] = k;
+                        }
+                        return true;
+                    }
+                }
+                return false;
+            }
+            if (u >= length || url.charAt(u) != c) {
+                return false;
+            }
+            u++;
+            g++;
+        }
+        return u == length;
+    }
+
+    /**
+     * 命名捕获的数量
+     */
+    @JsonIgnore
+    public int getCaptureCount() {
+        return captureNames.size();
+    }
+
+    /**
+     * 按当前模式编译响应模板，模板引用未知变量时抛出IllegalArgumentException且保留原模板
+     */
+    private void compileTemplate(String template) {
+        if (template == null || pattern == null) {
+            this.responseTemplate = template;
+            this.compiledTemplate = null;
+            return;
+        }
+        ResponseTemplate compiled = ResponseTemplate.compile(template, captureNames);
+        this.responseTemplate = template;
+        this.compiledTemplate = compiled;
     }
 
     // Getters and Setters
@@ -96,7 +299,62 @@ public class UrlConfig {
 
     public void setPattern(String pattern) {
         this.pattern = pattern;
+        this.statsKey = null;
         compilePattern();
+        compileTemplate(responseTemplate);
+    }
+
+    public String getResponseTemplate() {
+        return responseTemplate;
+    }
+
+    public void setResponseTemplate(String responseTemplate) {
+        compileTemplate(responseTemplate);
+    }
+
+    /**
+     * 编译后的响应模板，未配置时为null
+     */
+    @JsonIgnore
+    public ResponseTemplate getCompiledTemplate() {
+        return compiledTemplate;
+    }
+
+    public String getResponseTemplateFile() {
+        return responseTemplateFile;
+    }
+
+    public void setResponseTemplateFile(String responseTemplateFile) {
+        this.responseTemplateFile = responseTemplateFile;
+    }
+
+    public String getResponseContentType() {
+        return responseContentType;
+    }
+
+    public void setResponseContentType(String responseContentType) {
+        this.responseContentType = responseContentType;
+    }
+
+    public String getService() {
+        return service;
+    }
+
+    public void setService(String service) {
+        this.service = service;
+        this.statsKey = null;
+    }
+
+    /**
+     * 各统计与限流服务使用的键，区分不同虚拟服务中的同名模式
+     */
+    public String getStatsKey() {
+        String key = statsKey;
+        if (key == null) {
+            key = service == null ? pattern : service + ":" + pattern;
+            statsKey = key;
+        }
+        return key;
     }
 
     public int getQps() {
@@ -105,6 +363,7 @@ public class UrlConfig {
 
     public void setQps(int qps) {
         this.qps = qps;
+        this.defaultLevel = null;
     }
 
     public int getConcurrent() {
@@ -113,6 +372,7 @@ public class UrlConfig {
 
     public void setConcurrent(int concurrent) {
         this.concurrent = concurrent;
+        this.defaultLevel = null;
     }
 
     public List<ConcurrentLevelConfig> getConcurrentLevels() {
@@ -123,20 +383,164 @@ public class UrlConfig {
         this.concurrentLevels = concurrentLevels;
     }
 
+    public AdaptiveLimitConfig getAdaptiveLimit() {
+        return adaptiveLimit;
+    }
+
+    public void setAdaptiveLimit(AdaptiveLimitConfig adaptiveLimit) {
+        this.adaptiveLimit = adaptiveLimit;
+    }
+
+    /**
+     * 是否启用自适应并发限制
+     */
+    public boolean isAdaptiveLimitEnabled() {
+        return adaptiveLimit != null && adaptiveLimit.isEnabled();
+    }
+
+    public QueueModelConfig getQueueModel() {
+        return queueModel;
+    }
+
+    public void setQueueModel(QueueModelConfig queueModel) {
+        this.queueModel = queueModel;
+    }
+
+    /**
+     * 是否启用排队模型
+     */
+    public boolean isQueueModelEnabled() {
+        return queueModel != null && queueModel.isEnabled();
+    }
+
+    public StreamingConfig getStreaming() {
+        return streaming;
+    }
+
+    public void setStreaming(StreamingConfig streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * 是否启用流式响应
+     */
+    public boolean isStreamingEnabled() {
+        return streaming != null && streaming.isEnabled();
+    }
+
+    public RequestCostConfig getCost() {
+        return cost;
+    }
+
+    public void setCost(RequestCostConfig cost) {
+        this.cost = cost;
+    }
+
+    /**
+     * 是否按请求成本做QPS控制
+     */
+    public boolean isCostEnabled() {
+        return cost != null && cost.isEnabled();
+    }
+
+    public FaultConfig getFaults() {
+        return faults;
+    }
+
+    public void setFaults(FaultConfig faults) {
+        this.faults = faults;
+    }
+
+    /**
+     * 当前生效的故障注入配置：优先使用并发级别的配置，未启用时返回null
+     */
+    public FaultConfig resolveFaults(ConcurrentLevelConfig level) {
+        FaultConfig config = level != null && level.getFaults() != null ? level.getFaults() : faults;
+        return config != null && config.isEnabled() ? config : null;
+    }
+
+    /**
+     * URL或任一并发级别是否配置了故障注入
+     */
+    public boolean isFaultInjectionConfigured() {
+        if (faults != null && faults.isEnabled()) {
+            return true;
+        }
+        if (concurrentLevels != null) {
+            for (ConcurrentLevelConfig level : concurrentLevels) {
+                if (level.getFaults() != null && level.getFaults().isEnabled()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public BodyMode getBodyMode() {
+        return bodyMode;
+    }
+
+    public void setBodyMode(BodyMode bodyMode) {
+        this.bodyMode = bodyMode != null ? bodyMode : BodyMode.IGNORE;
+    }
+
+    public QpsControlMode getQpsControlMode() {
+        return qpsControlMode;
+    }
+
+    public void setQpsControlMode(QpsControlMode qpsControlMode) {
+        this.qpsControlMode = qpsControlMode;
+    }
+
+    public QpsScheduleConfig getSchedule() {
+        return schedule;
+    }
+
+    public void setSchedule(QpsScheduleConfig schedule) {
+        this.schedule = schedule;
+    }
+
+    /**
+     * 是否启用QPS计划
+     */
+    public boolean isScheduleEnabled() {
+        return schedule != null && schedule.isEnabled();
+    }
+
     /**
      * 根据当前并发数查找最匹配的并发级别配置
      * 支持误差容忍度：90% - 120%
      */
     public ConcurrentLevelConfig findBestMatchingLevel(int currentConcurrent) {
+        LevelSelectionEvent event = JfrSupport.isRecording() ? new LevelSelectionEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        ConcurrentLevelConfig level = selectLevel(currentConcurrent);
+        if (event != null) {
+            event.record(getStatsKey(), currentConcurrent, level != null ? level.getConcurrentLevel() : -1,
+                         level != null ? level.getTargetQps() : qps,
+                         concurrentLevels != null ? concurrentLevels.size() : 0);
+        }
+        return level;
+    }
+
+    private ConcurrentLevelConfig selectLevel(int currentConcurrent) {
         if (concurrentLevels == null || concurrentLevels.isEmpty()) {
             // 如果没有配置并发级别，使用旧的并发数配置
-            return new ConcurrentLevelConfig(concurrent, qps, 5.0, description);
+            ConcurrentLevelConfig level = defaultLevel;
+            if (level == null) {
+                level = new ConcurrentLevelConfig(concurrent, qps, 5.0, description);
+                defaultLevel = level;
+            }
+            return level;
         }
 
         ConcurrentLevelConfig bestMatch = null;
         double bestScore = 0.0;
 
-        for (ConcurrentLevelConfig level : concurrentLevels) {
+        for (int i = 0; i < concurrentLevels.size(); i++) {
+            ConcurrentLevelConfig level = concurrentLevels.get(i);
             if (level.matchesLevel(currentConcurrent)) {
                 double score = level.calculateMatchScore(currentConcurrent);
                 if (score > bestScore) {
@@ -168,6 +572,7 @@ public class UrlConfig {
 
     public void setDescription(String description) {
         this.description = description;
+        this.defaultLevel = null;
     }
 
     public boolean isEnabled() {
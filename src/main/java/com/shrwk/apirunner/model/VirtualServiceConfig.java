@@ -0,0 +1,76 @@
+package com.shrwk.apirunner.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 虚拟服务配置
+ * 一个虚拟服务监听独立端口，拥有自己的URL配置和统计命名空间，与其他虚拟服务共享连接器线程池与定时器
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class VirtualServiceConfig {
+
+    /**
+     * 服务名称（统计键前缀）
+     */
+    private String name;
+
+    /**
+     * 监听端口
+     */
+    private int port;
+
+    /**
+     * 描述信息
+     */
+    private String description;
+
+    /**
+     * 该服务的URL配置列表
+     */
+    private List<UrlConfig> urls = new ArrayList<>();
+
+    public VirtualServiceConfig() {
+    }
+
+    public VirtualServiceConfig(String name, int port, List<UrlConfig> urls) {
+        this.name = name;
+        this.port = port;
+        this.urls = urls;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public List<UrlConfig> getUrls() {
+        return urls;
+    }
+
+    public void setUrls(List<UrlConfig> urls) {
+        this.urls = urls;
+    }
+}
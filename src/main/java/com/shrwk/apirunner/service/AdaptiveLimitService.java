@@ -0,0 +1,429 @@
+package com.shrwk.apirunner.service;
+
+import com.shrwk.apirunner.config.ApiConfig;
+import com.shrwk.apirunner.config.LimitAlgorithm;
+import com.shrwk.apirunner.model.AdaptiveLimitConfig;
+import com.shrwk.apirunner.model.UrlConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 自适应并发限制服务
+ * 按URL模式维护并发上限，请求路径只做原子计数，限制值由后台定时任务根据RTT统计重新计算
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+public class AdaptiveLimitService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveLimitService.class);
+
+    @Autowired
+    private ApiConfig apiConfig;
+
+    /**
+     * URL模式对应的自适应限制器
+     */
+    private final ConcurrentHashMap<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    /**
+     * 限制重算定时器
+     */
+    private ScheduledExecutorService recomputeExecutor;
+
+    @PostConstruct
+    public void init() {
+        recomputeExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "adaptive-limit-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickMs = Math.max(10, apiConfig.getAdaptiveLimitTickMs());
+        recomputeExecutor.scheduleAtFixedRate(this::recomputeAll, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        logger.info("自适应并发限制服务初始化完成，重算间隔: {}ms", tickMs);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (recomputeExecutor != null) {
+            recomputeExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 尝试获取并发许可，超出限制时按配置排队或直接拒绝
+     */
+    public boolean tryAcquire(UrlConfig urlConfig) {
+        AdaptiveLimitConfig config = urlConfig.getAdaptiveLimit();
+        AdaptiveLimiter limiter = limiters.get(urlConfig.getStatsKey());
+        if (limiter == null) {
+            limiter = limiters.computeIfAbsent(urlConfig.getStatsKey(), k -> new AdaptiveLimiter(k, config));
+        }
+        if (limiter.config != config) {
+            limiter.config = config;
+        }
+
+        // 已有排队请求时新请求不插队，直接排到队尾
+        if (limiter.waiters.isEmpty() && limiter.acquire()) {
+            return true;
+        }
+        if (config.getQueueSize() > 0 && limiter.awaitInQueue()) {
+            return true;
+        }
+
+        limiter.rejectedInWindow.increment();
+        limiter.totalRejected.increment();
+        return false;
+    }
+
+    /**
+     * 释放并发许可并记录本次请求的RTT
+     */
+    public void release(UrlConfig urlConfig, long rttNanos) {
+        AdaptiveLimiter limiter = limiters.get(urlConfig.getStatsKey());
+        if (limiter != null) {
+            limiter.release(rttNanos);
+        }
+    }
+
+    /**
+     * 丢弃所有限制器，之后的请求从初始限制重新开始（预热结束后调用）
+     */
+    public void reset() {
+        limiters.clear();
+    }
+
+    /**
+     * 获取指定URL模式的自适应限制统计
+     */
+    public AdaptiveLimitStats getStats(String pattern) {
+        AdaptiveLimiter limiter = limiters.get(pattern);
+        return limiter != null ? limiter.getStats() : null;
+    }
+
+    /**
+     * 获取指定URL模式当前的并发上限，未启用时返回-1
+     */
+    public int getCurrentLimit(String pattern) {
+        AdaptiveLimiter limiter = limiters.get(pattern);
+        return limiter != null ? limiter.limit : -1;
+    }
+
+    /**
+     * 获取所有自适应限制统计
+     */
+    public List<AdaptiveLimitStats> getAllStats() {
+        List<AdaptiveLimitStats> result = new ArrayList<>(limiters.size());
+        for (AdaptiveLimiter limiter : limiters.values()) {
+            result.add(limiter.getStats());
+        }
+        return result;
+    }
+
+    /**
+     * 重算所有限制器的并发上限
+     */
+    private void recomputeAll() {
+        for (AdaptiveLimiter limiter : limiters.values()) {
+            try {
+                limiter.recompute();
+            } catch (Exception e) {
+                logger.error("自适应限制重算失败: {}", limiter.pattern, e);
+            }
+        }
+    }
+
+    /**
+     * 自适应限制器内部类
+     * 请求线程只写原子计数器，限制值、RTT估算只由重算线程写入。
+     * 排队请求按FIFO等待，许可释放或限制放大时由释放方占用名额后直接移交给队首并唤醒
+     */
+    private static class AdaptiveLimiter {
+        private final String pattern;
+        private volatile AdaptiveLimitConfig config;
+        private volatile int limit;
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+        private final AtomicInteger peakInFlight = new AtomicInteger(0);
+        private final AtomicInteger queued = new AtomicInteger(0);
+        private final ConcurrentLinkedQueue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+        private final AtomicLong minRttNanos = new AtomicLong(Long.MAX_VALUE);
+        private final LongAdder rttSumInWindow = new LongAdder();
+        private final LongAdder samplesInWindow = new LongAdder();
+        private final LongAdder rejectedInWindow = new LongAdder();
+        private final LongAdder totalAccepted = new LongAdder();
+        private final LongAdder totalRejected = new LongAdder();
+
+        // 以下字段仅由重算线程写入
+        private volatile double shortRttNanos;
+        private volatile double longRttNanos;
+        private volatile double rejectionRate;
+        private double preciseLimit;
+
+        AdaptiveLimiter(String pattern, AdaptiveLimitConfig config) {
+            this.pattern = pattern;
+            this.config = config;
+            this.limit = clamp(config.getInitialLimit(), config);
+            this.preciseLimit = limit;
+        }
+
+        boolean acquire() {
+            if (reserve()) {
+                totalAccepted.increment();
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * 在限制内占用一个名额
+         */
+        private boolean reserve() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= limit) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    if (current + 1 > peakInFlight.get()) {
+                        peakInFlight.accumulateAndGet(current + 1, Math::max);
+                    }
+                    return true;
+                }
+            }
+        }
+
+        boolean awaitInQueue() {
+            AdaptiveLimitConfig current = config;
+            if (queued.incrementAndGet() > current.getQueueSize()) {
+                queued.decrementAndGet();
+                return false;
+            }
+            try {
+                Waiter waiter = new Waiter(Thread.currentThread());
+                waiters.offer(waiter);
+                // 入队前可能刚好有名额释放，入队后补做一次移交，避免错过唤醒
+                admitWaiters();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(current.getMaxQueueWaitMs());
+                while (waiter.state.get() == Waiter.WAITING) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+                        break;
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                }
+                if (waiter.state.compareAndSet(Waiter.WAITING, Waiter.CANCELLED)) {
+                    waiters.remove(waiter);
+                    return false;
+                }
+                // 名额已由移交方占用
+                totalAccepted.increment();
+                return true;
+            } finally {
+                queued.decrementAndGet();
+            }
+        }
+
+        void release(long rttNanos) {
+            inFlight.decrementAndGet();
+            rttSumInWindow.add(rttNanos);
+            samplesInWindow.increment();
+            if (rttNanos < minRttNanos.get()) {
+                minRttNanos.accumulateAndGet(rttNanos, Math::min);
+            }
+            if (!waiters.isEmpty()) {
+                admitWaiters();
+            }
+        }
+
+        /**
+         * 按FIFO顺序把空闲名额移交给排队请求：先占用名额再出队，已超时的等待者归还名额后继续
+         */
+        void admitWaiters() {
+            while (!waiters.isEmpty() && reserve()) {
+                Waiter waiter = waiters.poll();
+                if (waiter != null && waiter.state.compareAndSet(Waiter.WAITING, Waiter.GRANTED)) {
+                    LockSupport.unpark(waiter.thread);
+                } else {
+                    inFlight.decrementAndGet();
+                }
+            }
+        }
+
+        void recompute() {
+            AdaptiveLimitConfig current = config;
+            long samples = samplesInWindow.sumThenReset();
+            long rttSum = rttSumInWindow.sumThenReset();
+            long rejected = rejectedInWindow.sumThenReset();
+            int peak = peakInFlight.getAndSet(inFlight.get());
+
+            rejectionRate = (samples + rejected) > 0 ? (double) rejected / (samples + rejected) : 0.0;
+            if (samples == 0) {
+                return;
+            }
+
+            double rtt = (double) rttSum / samples;
+            shortRttNanos = rtt;
+            longRttNanos = longRttNanos == 0 ? rtt : longRttNanos * 0.95 + rtt * 0.05;
+
+            // 未用满一半限制时说明负载不足，不允许继续放大限制
+            boolean appLimited = peak * 2 < limit;
+            double newLimit;
+            switch (current.getAlgorithm()) {
+                case AIMD:
+                    newLimit = computeAimd(current, rtt, appLimited);
+                    break;
+                case VEGAS:
+                    newLimit = computeVegas(rtt, appLimited);
+                    break;
+                case GRADIENT:
+                default:
+                    newLimit = computeGradient(current, rtt, appLimited);
+                    break;
+            }
+
+            preciseLimit = Math.max(current.getMinLimit(), Math.min(current.getMaxLimit(), newLimit));
+            int rounded = clamp((int) preciseLimit, current);
+            if (rounded != limit) {
+                logger.debug("URL模式: {}, 自适应并发上限: {} -> {}, RTT: {}us", pattern, limit, rounded,
+                             Math.round(rtt / 1000));
+                limit = rounded;
+            }
+            if (!waiters.isEmpty()) {
+                admitWaiters();
+            }
+        }
+
+        private double computeAimd(AdaptiveLimitConfig current, double rtt, boolean appLimited) {
+            if (rtt > TimeUnit.MILLISECONDS.toNanos(current.getRttThresholdMs())) {
+                return preciseLimit * current.getBackoffRatio();
+            }
+            return appLimited ? preciseLimit : preciseLimit + 1;
+        }
+
+        private double computeVegas(double rtt, boolean appLimited) {
+            long noLoadRtt = minRttNanos.get();
+            if (noLoadRtt == Long.MAX_VALUE) {
+                return preciseLimit;
+            }
+            double log = Math.max(1.0, Math.log10(preciseLimit));
+            double queueEstimate = preciseLimit * (1 - noLoadRtt / rtt);
+            if (queueEstimate <= 3 * log) {
+                return appLimited ? preciseLimit : preciseLimit + log;
+            }
+            if (queueEstimate >= 6 * log) {
+                return preciseLimit - log;
+            }
+            return preciseLimit;
+        }
+
+        private double computeGradient(AdaptiveLimitConfig current, double rtt, boolean appLimited) {
+            double gradient = Math.max(0.5, Math.min(1.0, longRttNanos / rtt));
+            if (appLimited && gradient >= 1.0) {
+                return preciseLimit;
+            }
+            double target = preciseLimit * gradient + Math.sqrt(preciseLimit);
+            double smoothing = current.getSmoothing();
+            return preciseLimit * (1 - smoothing) + target * smoothing;
+        }
+
+        private static int clamp(int value, AdaptiveLimitConfig config) {
+            return Math.max(Math.max(1, config.getMinLimit()), Math.min(config.getMaxLimit(), value));
+        }
+
+        AdaptiveLimitStats getStats() {
+            long minRtt = minRttNanos.get();
+            return new AdaptiveLimitStats(
+                pattern,
+                config.getAlgorithm(),
+                limit,
+                inFlight.get(),
+                queued.get(),
+                minRtt == Long.MAX_VALUE ? 0.0 : minRtt / 1_000_000.0,
+                shortRttNanos / 1_000_000.0,
+                longRttNanos / 1_000_000.0,
+                totalAccepted.sum(),
+                totalRejected.sum(),
+                rejectionRate
+            );
+        }
+    }
+
+    /**
+     * 排队等待者：state由WAITING变为GRANTED（获得移交的名额）或CANCELLED（超时放弃），只转换一次
+     */
+    private static class Waiter {
+        static final int WAITING = 0;
+        static final int GRANTED = 1;
+        static final int CANCELLED = 2;
+
+        private final Thread thread;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+
+    /**
+     * 自适应限制统计信息
+     */
+    public static class AdaptiveLimitStats {
+        private final String pattern;
+        private final LimitAlgorithm algorithm;
+        private final int limit;
+        private final int inFlight;
+        private final int queued;
+        private final double minRttMs;
+        private final double shortRttMs;
+        private final double longRttMs;
+        private final long totalAccepted;
+        private final long totalRejected;
+        private final double rejectionRate;
+
+        public AdaptiveLimitStats(String pattern, LimitAlgorithm algorithm, int limit, int inFlight, int queued,
+                                  double minRttMs, double shortRttMs, double longRttMs,
+                                  long totalAccepted, long totalRejected, double rejectionRate) {
+            this.pattern = pattern;
+            this.algorithm = algorithm;
+            this.limit = limit;
+            this.inFlight = inFlight;
+            this.queued = queued;
+            this.minRttMs = minRttMs;
+            this.shortRttMs = shortRttMs;
+            this.longRttMs = longRttMs;
+            this.totalAccepted = totalAccepted;
+            this.totalRejected = totalRejected;
+            this.rejectionRate = rejectionRate;
+        }
+
+        // Getters
+        public String getPattern() { return pattern; }
+        public LimitAlgorithm getAlgorithm() { return algorithm; }
+        public int getLimit() { return limit; }
+        public int getInFlight() { return inFlight; }
+        public int getQueued() { return queued; }
+        public double getMinRttMs() { return minRttMs; }
+        public double getShortRttMs() { return shortRttMs; }
+        public double getLongRttMs() { return longRttMs; }
+        public long getTotalAccepted() { return totalAccepted; }
+        public long getTotalRejected() { return totalRejected; }
+        public double getRejectionRate() { return rejectionRate; }
+    }
+}
@@ -1,6 +1,8 @@
 package com.shrwk.apirunner.service;
 
 import com.shrwk.apirunner.config.ApiConfig;
+import com.shrwk.apirunner.jfr.AdmissionEvent;
+import com.shrwk.apirunner.jfr.JfrSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,10 +29,13 @@ public class ConcurrentControlService {
     @Autowired
     private ApiConfig apiConfig;
 
+    @Autowired
+    private CounterExpiryScheduler counterExpiryScheduler;
+
     /**
-     * URL对应的并发统计器
+     * URL对应的并发统计器（无访问超时后由时间轮清理）
      */
-    private final ConcurrentHashMap<String, ConcurrentCounter> concurrentCounters = new ConcurrentHashMap<>();
+    private ExpiringRegistry<ConcurrentCounter> concurrentCounters;
 
     /**
      * 全局线程池
@@ -57,6 +62,11 @@ public class ConcurrentControlService {
      */
     private final AtomicLong totalResponseTime = new AtomicLong(0);
 
+    /**
+     * 计数器访问时间使用的时间来源
+     */
+    private TimeSource timeSource = TimeSource.SYSTEM;
+
     public ConcurrentControlService() {
         // 创建有界队列，防止内存溢出
         this.requestQueue = new LinkedBlockingQueue<>(10000);
@@ -65,8 +75,22 @@ public class ConcurrentControlService {
         this.globalThreadPool = null;
     }
 
+    /**
+     * 创建离线模拟使用的实例：使用给定的时间来源，不启动线程池和监控线程，计数器不做过期清理
+     */
+    public static ConcurrentControlService createOffline(ApiConfig apiConfig, TimeSource timeSource) {
+        ConcurrentControlService service = new ConcurrentControlService();
+        service.apiConfig = apiConfig;
+        service.timeSource = timeSource;
+        service.concurrentCounters = new ExpiringRegistry<>("模拟并发计数器", apiConfig.getCounterExpiryMs(),
+                                                            apiConfig.getCounterExpiryTickMs());
+        return service;
+    }
+
     @PostConstruct
     public void init() {
+        concurrentCounters = counterExpiryScheduler.createRegistry("并发计数器");
+
         // 初始化线程池
         if (globalThreadPool == null) {
             this.globalThreadPool = new ThreadPoolExecutor(
@@ -109,18 +133,42 @@ public class ConcurrentControlService {
      * 检查并发数是否超限
      */
     public boolean checkConcurrentLimit(String url, int maxConcurrent) {
-        ConcurrentCounter counter = concurrentCounters.computeIfAbsent(url, k -> new ConcurrentCounter(url, maxConcurrent));
-        
-        // 检查当前并发数
-        int currentConcurrent = counter.getCurrentConcurrent();
-        if (currentConcurrent >= maxConcurrent) {
-            logger.warn("URL: {} 并发数超限，当前: {}, 最大: {}", url, currentConcurrent, maxConcurrent);
-            return false;
+        return checkConcurrentLimit(url, url, maxConcurrent);
+    }
+
+    /**
+     * 检查并发数是否超限，pattern用于JFR事件按URL模式归类
+     */
+    public boolean checkConcurrentLimit(String url, String pattern, int maxConcurrent) {
+        AdmissionEvent event = JfrSupport.isRecording() ? new AdmissionEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
+        while (true) {
+            // 先查已有计数器，只有创建时才需要捕获maxConcurrent的Lambda
+            ConcurrentCounter counter = concurrentCounters.get(url);
+            if (counter == null) {
+                counter = concurrentCounters.getOrCreate(url, k -> new ConcurrentCounter(k, maxConcurrent, timeSource));
+            }
+
+            // 检查当前并发数
+            int currentConcurrent = counter.getCurrentConcurrent();
+            if (currentConcurrent >= maxConcurrent) {
+                logger.warn("URL: {} 并发数超限，当前: {}, 最大: {}", url, currentConcurrent, maxConcurrent);
+                if (event != null) {
+                    event.record(pattern, url, currentConcurrent, maxConcurrent, false);
+                }
+                return false;
+            }
+
+            // 增加并发计数，计数器恰好被清理时重新获取
+            if (counter.incrementConcurrent()) {
+                if (event != null) {
+                    event.record(pattern, url, currentConcurrent + 1, maxConcurrent, true);
+                }
+                return true;
+            }
         }
-        
-        // 增加并发计数
-        counter.incrementConcurrent();
-        return true;
     }
 
     /**
@@ -206,6 +254,14 @@ public class ConcurrentControlService {
         totalRequests.incrementAndGet();
     }
 
+    /**
+     * 清零全局请求数与响应时间累计（预热结束后调用）
+     */
+    public void resetTotals() {
+        totalRequests.set(0);
+        totalResponseTime.set(0);
+    }
+
     /**
      * 启动监控线程
      */
@@ -224,9 +280,6 @@ public class ConcurrentControlService {
                               stats.getThreadPoolActive(),
                               stats.getQueueSize());
                     
-                    // 清理过期的计数器
-                    cleanupExpiredCounters();
-                    
                 } catch (InterruptedException e) {
                     Thread.currentThread().interrupt();
                     break;
@@ -238,51 +291,70 @@ public class ConcurrentControlService {
         monitorThread.start();
     }
 
-    /**
-     * 清理过期的并发计数器
-     */
-    private void cleanupExpiredCounters() {
-        long currentTime = System.currentTimeMillis();
-        concurrentCounters.entrySet().removeIf(entry -> {
-            ConcurrentCounter counter = entry.getValue();
-            return currentTime - counter.getLastAccessTime() > 300000; // 5分钟无访问则清理
-        });
-    }
-
     /**
      * 并发计数器内部类
+     * 并发数为RETIRED表示已被过期清理，不再接受新请求
      */
-    private static class ConcurrentCounter {
+    private static class ConcurrentCounter implements ExpiringRegistry.Expirable {
+        private static final int RETIRED = Integer.MIN_VALUE;
+
         private final String url;
         private final int maxConcurrent;
+        private final TimeSource timeSource;
         private final AtomicInteger currentConcurrent = new AtomicInteger(0);
-        private volatile long lastAccessTime = System.currentTimeMillis();
+        private volatile long lastAccessTime;
 
-        public ConcurrentCounter(String url, int maxConcurrent) {
+        public ConcurrentCounter(String url, int maxConcurrent, TimeSource timeSource) {
             this.url = url;
             this.maxConcurrent = maxConcurrent;
+            this.timeSource = timeSource;
+            this.lastAccessTime = timeSource.currentTimeMillis();
         }
 
         public int getCurrentConcurrent() {
-            return currentConcurrent.get();
+            return Math.max(0, currentConcurrent.get());
         }
 
-        public void incrementConcurrent() {
-            currentConcurrent.incrementAndGet();
-            lastAccessTime = System.currentTimeMillis();
+        public boolean incrementConcurrent() {
+            while (true) {
+                int current = currentConcurrent.get();
+                if (current == RETIRED) {
+                    return false;
+                }
+                if (currentConcurrent.compareAndSet(current, current + 1)) {
+                    lastAccessTime = timeSource.currentTimeMillis();
+                    return true;
+                }
+            }
         }
 
         public void decrementConcurrent() {
             currentConcurrent.decrementAndGet();
-            lastAccessTime = System.currentTimeMillis();
+            lastAccessTime = timeSource.currentTimeMillis();
+        }
+
+        @Override
+        public String getKey() {
+            return url;
         }
 
+        @Override
         public long getLastAccessTime() {
             return lastAccessTime;
         }
 
+        @Override
+        public boolean tryRetire() {
+            return currentConcurrent.compareAndSet(0, RETIRED);
+        }
+
+        @Override
+        public boolean isRetired() {
+            return currentConcurrent.get() == RETIRED;
+        }
+
         public ConcurrentStats getStats() {
-            return new ConcurrentStats(url, maxConcurrent, currentConcurrent.get(), System.currentTimeMillis());
+            return new ConcurrentStats(url, maxConcurrent, getCurrentConcurrent(), timeSource.currentTimeMillis());
         }
     }
 
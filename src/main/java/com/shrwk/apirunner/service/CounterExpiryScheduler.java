@@ -0,0 +1,68 @@
+package com.shrwk.apirunner.service;
+
+import com.shrwk.apirunner.config.ApiConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 计数器过期调度器
+ * 为各服务创建过期注册表，并在独立的定时线程上推进时间轮，与监控日志开关无关
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Component
+public class CounterExpiryScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CounterExpiryScheduler.class);
+
+    @Autowired
+    private ApiConfig apiConfig;
+
+    /**
+     * 过期清理定时器
+     */
+    private ScheduledExecutorService expiryExecutor;
+
+    @PostConstruct
+    public void init() {
+        expiryExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "counter-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("计数器过期调度器初始化完成，过期时间: {}ms, 时间轮刻度: {}ms",
+                   apiConfig.getCounterExpiryMs(), apiConfig.getCounterExpiryTickMs());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (expiryExecutor != null) {
+            expiryExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 创建注册表并开始推进其时间轮
+     */
+    public <V extends ExpiringRegistry.Expirable> ExpiringRegistry<V> createRegistry(String name) {
+        ExpiringRegistry<V> registry = new ExpiringRegistry<>(name, apiConfig.getCounterExpiryMs(),
+                                                              apiConfig.getCounterExpiryTickMs());
+        expiryExecutor.scheduleAtFixedRate(() -> {
+            try {
+                registry.tick();
+            } catch (Exception e) {
+                logger.error("{} 过期清理失败", name, e);
+            }
+        }, registry.getTickMs(), registry.getTickMs(), TimeUnit.MILLISECONDS);
+        return registry;
+    }
+}
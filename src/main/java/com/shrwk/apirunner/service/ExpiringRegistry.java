@@ -0,0 +1,166 @@
+package com.shrwk.apirunner.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * 带过期清理的计数器注册表
+ * 以单层时间轮代替整表扫描：每个计数器在其过期时刻所在的槽中登记一次，
+ * 轮到该槽时才检查最后访问时间，未过期则按新的过期时刻重新登记，因此每次检查均摊O(1)。
+ * 仅当计数器自身确认可以退役（例如没有进行中的请求）时才会移除
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class ExpiringRegistry<V extends ExpiringRegistry.Expirable> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExpiringRegistry.class);
+
+    /**
+     * 可过期的计数器
+     */
+    public interface Expirable {
+
+        /**
+         * 注册键
+         */
+        String getKey();
+
+        /**
+         * 最后访问时间（毫秒）
+         */
+        long getLastAccessTime();
+
+        /**
+         * 尝试退役，存在进行中的请求时返回false；退役后的计数器不再接受新请求
+         */
+        boolean tryRetire();
+
+        /**
+         * 是否已退役
+         */
+        boolean isRetired();
+    }
+
+    private final String name;
+    private final long ttlMs;
+    private final long tickMs;
+    private final ConcurrentHashMap<String, V> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 新建的计数器先进入待登记队列，由定时线程放入时间轮
+     */
+    private final ConcurrentLinkedQueue<V> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 时间轮槽，只由定时线程访问
+     */
+    private final List<List<V>> wheel;
+    private List<V> spare = new ArrayList<>();
+    private long currentTick;
+
+    public ExpiringRegistry(String name, long ttlMs, long tickMs) {
+        this.name = name;
+        this.ttlMs = Math.max(1, ttlMs);
+        this.tickMs = Math.max(1, tickMs);
+        int slots = (int) Math.min(Integer.MAX_VALUE - 2, (this.ttlMs + this.tickMs - 1) / this.tickMs + 2);
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * 获取计数器，不存在或已退役时返回null
+     */
+    public V get(String key) {
+        V value = entries.get(key);
+        return value != null && !value.isRetired() ? value : null;
+    }
+
+    /**
+     * 获取或创建计数器，已退役的计数器会被新实例替换
+     */
+    public V getOrCreate(String key, Function<String, V> factory) {
+        V value = entries.get(key);
+        if (value != null && !value.isRetired()) {
+            return value;
+        }
+        return entries.compute(key, (k, existing) -> {
+            if (existing != null && !existing.isRetired()) {
+                return existing;
+            }
+            V created = factory.apply(k);
+            pending.add(created);
+            return created;
+        });
+    }
+
+    /**
+     * 所有计数器（弱一致视图）
+     */
+    public Collection<V> values() {
+        return entries.values();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 推进时间轮一格，由定时线程调用
+     */
+    public void tick() {
+        long now = System.currentTimeMillis();
+        int index = (int) (currentTick % wheel.size());
+        List<V> due = wheel.get(index);
+        wheel.set(index, spare);
+        currentTick++;
+
+        V created;
+        while ((created = pending.poll()) != null) {
+            schedule(created, now + ttlMs, now);
+        }
+
+        int removed = 0;
+        for (V value : due) {
+            if (entries.get(value.getKey()) != value) {
+                // 已被替换或移除的旧实例
+                continue;
+            }
+            long deadline = value.getLastAccessTime() + ttlMs;
+            if (deadline > now) {
+                schedule(value, deadline, now);
+            } else if (value.tryRetire()) {
+                entries.remove(value.getKey(), value);
+                removed++;
+            } else {
+                // 仍有进行中的请求，下个周期再检查
+                schedule(value, now + ttlMs, now);
+            }
+        }
+        due.clear();
+        spare = due;
+
+        if (removed > 0) {
+            logger.debug("{} 清理过期计数器 {} 个，剩余 {} 个", name, removed, entries.size());
+        }
+    }
+
+    private void schedule(V value, long deadline, long now) {
+        long ticksAhead = Math.max(1, (deadline - now + tickMs - 1) / tickMs);
+        ticksAhead = Math.min(ticksAhead, wheel.size() - 1);
+        wheel.get((int) ((currentTick + ticksAhead - 1) % wheel.size())).add(value);
+    }
+
+    public long getTickMs() {
+        return tickMs;
+    }
+}
@@ -0,0 +1,128 @@
+package com.shrwk.apirunner.service;
+
+import com.shrwk.apirunner.config.FaultType;
+import com.shrwk.apirunner.model.ConcurrentLevelConfig;
+import com.shrwk.apirunner.model.FaultConfig;
+import com.shrwk.apirunner.model.UrlConfig;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 故障注入服务
+ * 按URL（或当前并发级别）的故障配置为已通过准入和QPS控制的请求选择故障。
+ * 决策只使用当前线程的ThreadLocalRandom和分段计数器，不加锁，未配置故障的URL不产生任何额外开销
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+public class FaultInjectionService {
+
+    /**
+     * URL模式对应的故障计数
+     */
+    private final ConcurrentHashMap<String, PatternFaults> patterns = new ConcurrentHashMap<>();
+
+    /**
+     * 为一次请求选择故障，不注入时返回null
+     */
+    public FaultType decide(UrlConfig urlConfig, ConcurrentLevelConfig activeLevel, int currentConcurrent) {
+        FaultConfig config = urlConfig.resolveFaults(activeLevel);
+        if (config == null) {
+            return null;
+        }
+        PatternFaults counters = patterns.get(urlConfig.getStatsKey());
+        if (counters == null) {
+            counters = patterns.computeIfAbsent(urlConfig.getStatsKey(), PatternFaults::new);
+        }
+        counters.evaluated.increment();
+        FaultType fault = config.select(ThreadLocalRandom.current().nextDouble(), currentConcurrent);
+        if (fault != null) {
+            counters.injected[fault.ordinal()].increment();
+        }
+        return fault;
+    }
+
+    /**
+     * 获取指定URL模式的故障注入统计
+     */
+    public FaultStats getStats(String pattern) {
+        PatternFaults counters = patterns.get(pattern);
+        return counters != null ? counters.getStats() : null;
+    }
+
+    /**
+     * 获取所有故障注入统计
+     */
+    public List<FaultStats> getAllStats() {
+        List<FaultStats> result = new ArrayList<>(patterns.size());
+        for (PatternFaults counters : patterns.values()) {
+            result.add(counters.getStats());
+        }
+        return result;
+    }
+
+    /**
+     * 单个URL模式的故障计数器
+     */
+    private static class PatternFaults {
+        private final String pattern;
+        private final LongAdder evaluated = new LongAdder();
+        private final LongAdder[] injected = new LongAdder[FaultType.values().length];
+
+        PatternFaults(String pattern) {
+            this.pattern = pattern;
+            for (int i = 0; i < injected.length; i++) {
+                injected[i] = new LongAdder();
+            }
+        }
+
+        FaultStats getStats() {
+            return new FaultStats(pattern, evaluated.sum(), injected[FaultType.ERROR.ordinal()].sum(),
+                                  injected[FaultType.SLOW_DRIP.ordinal()].sum(),
+                                  injected[FaultType.RESET.ordinal()].sum(),
+                                  injected[FaultType.TRUNCATE.ordinal()].sum(),
+                                  injected[FaultType.HANG.ordinal()].sum());
+        }
+    }
+
+    /**
+     * 故障注入统计信息
+     */
+    public static class FaultStats {
+        private final String pattern;
+        private final long evaluated;
+        private final long errors;
+        private final long slowDrips;
+        private final long resets;
+        private final long truncations;
+        private final long hangs;
+
+        public FaultStats(String pattern, long evaluated, long errors, long slowDrips, long resets,
+                          long truncations, long hangs) {
+            this.pattern = pattern;
+            this.evaluated = evaluated;
+            this.errors = errors;
+            this.slowDrips = slowDrips;
+            this.resets = resets;
+            this.truncations = truncations;
+            this.hangs = hangs;
+        }
+
+        // Getters
+        public String getPattern() { return pattern; }
+        public long getEvaluated() { return evaluated; }
+        public long getErrors() { return errors; }
+        public long getSlowDrips() { return slowDrips; }
+        public long getResets() { return resets; }
+        public long getTruncations() { return truncations; }
+        public long getHangs() { return hangs; }
+        public long getInjected() { return errors + slowDrips + resets + truncations + hangs; }
+        public double getInjectedRate() { return evaluated > 0 ? (double) getInjected() / evaluated : 0.0; }
+    }
+}
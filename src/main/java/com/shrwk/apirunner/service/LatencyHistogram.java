@@ -0,0 +1,83 @@
+package com.shrwk.apirunner.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁对数延迟直方图
+ * 以微秒为单位，每个2的幂区间划分4个子桶（相对误差约25%），请求线程只做一次原子自增，
+ * 统计线程按周期取走并清零
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class LatencyHistogram {
+
+    /**
+     * 桶数量，覆盖0微秒到约19小时
+     */
+    public static final int BUCKETS = 144;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * 记录一次延迟（纳秒）
+     */
+    public void record(long latencyNanos) {
+        counts.incrementAndGet(bucketOf(latencyNanos / 1000));
+    }
+
+    /**
+     * 取走当前各桶计数并清零，写入target数组
+     */
+    public long drainTo(long[] target) {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts.getAndSet(i, 0);
+            target[i] = count;
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * 按桶计数计算分位数（微秒，取桶上界）
+     */
+    public static long percentileMicros(long[] buckets, long total, double percentile) {
+        if (total <= 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return bucketUpperMicros(i);
+            }
+        }
+        return bucketUpperMicros(BUCKETS - 1);
+    }
+
+    /**
+     * 计算微秒值所属的桶
+     */
+    static int bucketOf(long micros) {
+        if (micros < 4) {
+            return (int) Math.max(0, micros);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) ((micros >>> (exponent - 2)) & 3);
+        return Math.min((exponent - 1) * 4 + sub, BUCKETS - 1);
+    }
+
+    /**
+     * 桶的上界（微秒）
+     */
+    static long bucketUpperMicros(int bucket) {
+        if (bucket < 4) {
+            return bucket;
+        }
+        int exponent = bucket / 4 + 1;
+        int sub = bucket % 4;
+        return ((5L + sub) << (exponent - 2)) - 1;
+    }
+}
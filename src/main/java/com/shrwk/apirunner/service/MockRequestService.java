@@ -0,0 +1,638 @@
+package com.shrwk.apirunner.service;
+
+import com.shrwk.apirunner.config.ApiConfig;
+import com.shrwk.apirunner.config.FaultType;
+import com.shrwk.apirunner.model.ApiResponse;
+import com.shrwk.apirunner.model.ConcurrentLevelConfig;
+import com.shrwk.apirunner.model.FaultConfig;
+import com.shrwk.apirunner.model.MockResponseData;
+import com.shrwk.apirunner.model.RequestCostConfig;
+import com.shrwk.apirunner.model.RequestOverrides;
+import com.shrwk.apirunner.model.ResponseTemplate;
+import com.shrwk.apirunner.model.ServerTiming;
+import com.shrwk.apirunner.model.UrlConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 模拟接口请求处理服务
+ * 完成URL校验、准入（并发/自适应限制/排队模型）、QPS控制与响应数据构建，
+ * 与具体的Web层无关，由MVC控制器和快速通道过滤器共用
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+public class MockRequestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MockRequestService.class);
+
+    @Autowired
+    private UrlValidationService urlValidationService;
+
+    @Autowired
+    private QpsControlService qpsControlService;
+
+    @Autowired
+    private ConcurrentControlService concurrentControlService;
+
+    @Autowired
+    private AdaptiveLimitService adaptiveLimitService;
+
+    @Autowired
+    private QueueModelService queueModelService;
+
+    @Autowired
+    private QpsScheduleService qpsScheduleService;
+
+    @Autowired
+    private TimeSeriesService timeSeriesService;
+
+    @Autowired
+    private VirtualServiceRegistry virtualServiceRegistry;
+
+    @Autowired
+    private StreamingService streamingService;
+
+    @Autowired
+    private FaultInjectionService faultInjectionService;
+
+    @Autowired
+    private ApiConfig apiConfig;
+
+    /**
+     * 是否启用请求头覆盖
+     */
+    public boolean isOverridesEnabled() {
+        return apiConfig.isRequestOverridesEnabled();
+    }
+
+    /**
+     * 读取请求头覆盖，未启用或没有覆盖头时返回null
+     */
+    public RequestOverrides readOverrides(RequestOverrides.HeaderReader reader) {
+        if (!apiConfig.isRequestOverridesEnabled()) {
+            return null;
+        }
+        return RequestOverrides.parse(reader, apiConfig.getRequestOverrideMaxLatencyMs(),
+                apiConfig.getRequestOverrideMaxBodySize(), apiConfig.getRequestOverrideMaxBurnMicros());
+    }
+
+    /**
+     * 按本地端口（虚拟服务）和请求路径查找URL配置，不在允许列表中时返回null
+     */
+    public UrlConfig findUrlConfig(String requestUri, int localPort) {
+        VirtualServiceRegistry.VirtualService virtualService = virtualServiceRegistry.resolve(localPort);
+        return virtualService != null ? virtualService.findUrlConfig(requestUri)
+                                      : urlValidationService.findUrlConfig(requestUri);
+    }
+
+    /**
+     * 处理一次模拟接口请求（无请求头覆盖）
+     */
+    public MockResult handle(String method, String requestUri, int localPort) {
+        return handle(method, requestUri, localPort, null);
+    }
+
+    /**
+     * 处理一次模拟接口请求
+     * 按本地端口确定虚拟服务；普通模式同步返回结果，排队模型下返回待完成结果，响应在服务完成时刻由定时器完成；
+     * 流式响应返回尚未开始的流，由Web层开始写出，并发计数与自适应许可保持到流结束。
+     * 路由、准入与QPS控制不分配对象（虚拟服务的计数器键除外），只创建响应本身；
+     * 启用阶段耗时头时额外创建一个ServerTiming。成功路径不输出逐请求的日志：
+     * 存在logback的TurboFilter时，日志级别判断和带参数的debug本身也会分配对象。
+     * overrides不为空时，在QPS控制之后追加其CPU消耗与延迟，并按其覆盖响应状态和响应体大小
+     */
+    public MockResult handle(String method, String requestUri, int localPort, RequestOverrides overrides) {
+        return handle(method, requestUri, localPort, overrides, null);
+    }
+
+    /**
+     * 处理一次模拟接口请求，headers用于URL配置了请求成本时按方法、Content-Length和权重头计算成本
+     * （为空时只按方法计费）；只读取请求头，不读取请求体
+     */
+    public MockResult handle(String method, String requestUri, int localPort, RequestOverrides overrides,
+                             RequestOverrides.HeaderReader headers) {
+        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+
+        ServerTiming timing = apiConfig.isServerTimingEnabled() ? new ServerTiming() : null;
+
+        // 虚拟服务使用自己的URL配置，计数器键带服务名前缀
+        VirtualServiceRegistry.VirtualService virtualService = virtualServiceRegistry.resolve(localPort);
+        String counterKey = virtualService != null ? virtualService.qualify(requestUri) : requestUri;
+
+        // 验证URL是否在允许列表中并获取URL配置
+        UrlConfig urlConfig = virtualService != null ? virtualService.findUrlConfig(requestUri)
+                                                     : urlValidationService.findUrlConfig(requestUri);
+        long routedNanos = System.nanoTime();
+        if (timing != null) {
+            timing.setRouteNanos(routedNanos - startNanos);
+        }
+        if (urlConfig == null) {
+            logger.warn("URL不在允许列表中: {}", requestUri);
+            return MockResult.of(HttpStatus.NOT_FOUND, ApiResponse.error("404001", "URL not found: " + requestUri),
+                                 timing);
+        }
+
+        // 排队模型：以虚拟服务台调度替代按并发级别的QPS控制
+        if (urlConfig.isQueueModelEnabled()) {
+            return handleQueueModelRequest(urlConfig, requestUri, method, startTime, startNanos, timing, overrides);
+        }
+
+        // 获取当前并发数
+        int currentConcurrent = concurrentControlService.getCurrentConcurrent(counterKey);
+
+        // 根据当前并发数查找对应的并发级别和目标QPS（支持误差容忍度）
+        ConcurrentLevelConfig activeLevel = urlConfig.findBestMatchingLevel(currentConcurrent);
+        int targetQps = activeLevel != null ? activeLevel.getTargetQps() : urlConfig.getQps();
+        if (timing != null) {
+            timing.setConcurrency(currentConcurrent);
+            if (activeLevel != null) {
+                timing.setLevel(activeLevel.getConcurrentLevel(), activeLevel.getTargetQps());
+            }
+        }
+
+        // QPS计划：按预计算的当前秒目标覆盖并发级别的目标QPS
+        int scheduledLatencyMs = -1;
+        if (urlConfig.isScheduleEnabled()) {
+            QpsScheduleService.ScheduleState schedule = qpsScheduleService.current(urlConfig);
+            if (schedule != null) {
+                targetQps = schedule.targetQps(targetQps);
+                scheduledLatencyMs = schedule.latencyMs();
+            }
+        }
+
+        int maxConcurrent = urlConfig.getConcurrent();
+
+        // 检查并发数限制
+        if (!concurrentControlService.checkConcurrentLimit(counterKey, urlConfig.getStatsKey(), maxConcurrent)) {
+            logger.warn("并发数超限: {}", requestUri);
+            timeSeriesService.recordRejected(urlConfig);
+            recordAdmission(timing, routedNanos);
+            return MockResult.of(HttpStatus.TOO_MANY_REQUESTS,
+                                 ApiResponse.error("429001", "Too many concurrent requests"), timing);
+        }
+
+        // 自适应并发限制：超出动态上限的请求排队或拒绝
+        boolean adaptive = urlConfig.isAdaptiveLimitEnabled();
+        if (adaptive && !adaptiveLimitService.tryAcquire(urlConfig)) {
+            concurrentControlService.releaseConcurrent(counterKey);
+            logger.warn("自适应并发限制拒绝: {}", requestUri);
+            timeSeriesService.recordRejected(urlConfig);
+            recordAdmission(timing, routedNanos);
+            return MockResult.of(HttpStatus.TOO_MANY_REQUESTS,
+                                 ApiResponse.error("429002", "Adaptive concurrency limit exceeded"), timing);
+        }
+        long admittedNanos = System.nanoTime();
+        long throttleNanos = 0;
+        if (timing != null) {
+            timing.setAdmissionNanos(admittedNanos - routedNanos);
+        }
+        timeSeriesService.recordAdmitted(urlConfig);
+
+        boolean streaming = false;
+        try {
+            // 应用QPS控制
+            long plannedMs = 0;
+            try {
+                long costMillis = urlConfig.isCostEnabled() ? urlConfig.getCost().costMillis(method, headers)
+                                                            : RequestCostConfig.MILLIS_PER_UNIT;
+                plannedMs = qpsControlService.controlQps(counterKey, urlConfig.getStatsKey(), targetQps,
+                                             urlConfig.getQpsControlMode(), costMillis);
+            } catch (Exception e) {
+                logger.error("QPS控制失败: {}", e.getMessage(), e);
+                // 即使QPS控制失败，也继续处理请求
+            }
+
+            // QPS计划附加延迟
+            if (scheduledLatencyMs > 0) {
+                qpsControlService.applyFixedDelay(scheduledLatencyMs);
+            }
+
+            // 请求头覆盖的CPU消耗与附加延迟
+            long overrideNanos = 0;
+            if (overrides != null) {
+                qpsControlService.burnCpuMicros(overrides.getBurnMicros());
+                qpsControlService.applyFixedDelay(overrides.getLatencyMs());
+                overrideNanos = Math.max(0, overrides.getBurnMicros()) * 1000L
+                        + Math.max(0, overrides.getLatencyMs()) * 1_000_000L;
+            }
+            long throttledNanos = System.nanoTime();
+            throttleNanos = throttledNanos - admittedNanos;
+
+            // 故障注入：请求头已覆盖状态码时不再注入
+            FaultType fault = overrides != null && overrides.hasStatus() ? null
+                    : faultInjectionService.decide(urlConfig, activeLevel, currentConcurrent);
+            if (fault == FaultType.SLOW_DRIP && "HEAD".equals(method)) {
+                fault = null;
+            }
+
+            // 构建响应数据：流式响应由写出方按分块节奏写出，配置了响应模板时由写出方按模板渲染
+            ResponseTemplate template = urlConfig.getCompiledTemplate();
+            MockResult result;
+            if (fault != null) {
+                FaultConfig faultConfig = urlConfig.resolveFaults(activeLevel);
+                MockResult base = null;
+                if (fault == FaultType.SLOW_DRIP || fault == FaultType.TRUNCATE) {
+                    base = template != null
+                            ? buildTemplateResult(urlConfig, template, method, requestUri, overrides, timing)
+                            : buildResult(buildResponseData(method, requestUri, targetQps, urlConfig), overrides,
+                                          timing);
+                }
+                StreamingService.Stream stream = null;
+                if (fault == FaultType.SLOW_DRIP || fault == FaultType.HANG) {
+                    long faultThrottleNanos = throttleNanos;
+                    Runnable onFinish = () -> finishRequest(urlConfig, counterKey, adaptive, admittedNanos, startTime,
+                                                            startNanos, currentConcurrent, activeLevel,
+                                                            faultThrottleNanos);
+                    stream = fault == FaultType.HANG
+                            ? streamingService.createHang(faultConfig.getHangMs(), startNanos, onFinish)
+                            : streamingService.createDrip(faultConfig.getSlowDripChunkBytes(),
+                                                          faultConfig.getSlowDripIntervalMs(), startNanos, onFinish);
+                    streaming = true;
+                }
+                result = buildFaultResult(fault, faultConfig, base, stream, timing);
+            } else if (isStreamable(urlConfig, method, overrides)) {
+                HttpStatus status = overrideStatus(overrides);
+                long streamThrottleNanos = throttleNanos;
+                StreamingService.Stream stream = streamingService.create(urlConfig, startNanos,
+                        () -> finishRequest(urlConfig, counterKey, adaptive, admittedNanos, startTime, startNanos,
+                                            currentConcurrent, activeLevel, streamThrottleNanos));
+                result = MockResult.stream(status != null ? status : HttpStatus.OK, stream, timing);
+                streaming = true;
+            } else if (template != null) {
+                result = buildTemplateResult(urlConfig, template, method, requestUri, overrides, timing);
+            } else {
+                result = buildResult(buildResponseData(method, requestUri, targetQps, urlConfig), overrides, timing);
+            }
+            if (timing != null) {
+                timing.setThrottleNanos(throttleNanos);
+                timing.setPlannedThrottleNanos((plannedMs + Math.max(0, scheduledLatencyMs)) * 1_000_000L
+                        + overrideNanos);
+                timing.setRenderNanos(System.nanoTime() - throttledNanos);
+            }
+            return result;
+
+        } finally {
+            // 流式响应在最后一个分块写出（或中断）时释放
+            if (!streaming) {
+                finishRequest(urlConfig, counterKey, adaptive, admittedNanos, startTime, startNanos,
+                              currentConcurrent, activeLevel, throttleNanos);
+            }
+        }
+    }
+
+    /**
+     * 请求结束：释放自适应许可与并发计数，记录响应时间和按秒时间序列；
+     * 流式响应的响应时间为整个流的持续时间
+     */
+    private void finishRequest(UrlConfig urlConfig, String counterKey, boolean adaptive, long admittedNanos,
+                               long startTime, long startNanos, int currentConcurrent,
+                               ConcurrentLevelConfig activeLevel, long throttleNanos) {
+        // 释放自适应并发许可并反馈本次RTT
+        if (adaptive) {
+            adaptiveLimitService.release(urlConfig, System.nanoTime() - admittedNanos);
+        }
+
+        // 释放并发计数
+        concurrentControlService.releaseConcurrent(counterKey);
+
+        // 记录响应时间
+        long responseTime = System.currentTimeMillis() - startTime;
+        concurrentControlService.recordResponseTime(responseTime);
+
+        // 记录按秒时间序列
+        timeSeriesService.recordRequest(urlConfig, currentConcurrent + 1,
+                activeLevel != null ? activeLevel.getConcurrentLevel() : 0,
+                System.nanoTime() - startNanos, throttleNanos);
+    }
+
+    /**
+     * 是否按流式写出：HEAD请求和请求头注入的错误状态仍一次性响应
+     */
+    private static boolean isStreamable(UrlConfig urlConfig, String method, RequestOverrides overrides) {
+        if (!urlConfig.isStreamingEnabled() || "HEAD".equals(method)) {
+            return false;
+        }
+        HttpStatus status = overrideStatus(overrides);
+        return status == null || !status.isError();
+    }
+
+    /**
+     * 排队模型请求处理
+     * 请求被分配到虚拟服务台后立即释放容器线程，响应在服务完成时刻由定时器完成；
+     * 服务时间由排队模型决定，请求头覆盖只作用于响应状态和响应体大小；
+     * 时间序列的并发与级别分别记录释放时刻虚拟队列中的请求数与忙碌服务台数
+     */
+    private MockResult handleQueueModelRequest(UrlConfig urlConfig, String requestUri, String method,
+                                               long startTime, long startNanos, ServerTiming timing,
+                                               RequestOverrides overrides) {
+        PendingResult pending = new PendingResult(urlConfig.getQueueModel().getResponseTimeoutMs());
+        timeSeriesService.recordAdmitted(urlConfig);
+        long submittedNanos = System.nanoTime();
+        boolean accepted = queueModelService.submit(urlConfig, (inSystem, busyServers) -> {
+            // 排队等待与服务时间计入QPS控制阶段
+            long servedNanos = System.nanoTime();
+            MockResult result;
+            try {
+                ResponseTemplate template = urlConfig.getCompiledTemplate();
+                if (template != null) {
+                    result = buildTemplateResult(urlConfig, template, method, requestUri, overrides, timing);
+                } else {
+                    MockResponseData responseData = buildResponseData(method, requestUri, 0, urlConfig);
+                    responseData.setServers(urlConfig.getQueueModel().getServers());
+                    result = buildResult(responseData, overrides, timing);
+                }
+            } catch (RuntimeException e) {
+                // 定时器线程上的异常不会传到Web层，以异常完成让Web层返回500
+                pending.completeExceptionally(e);
+                timeSeriesService.recordRequest(urlConfig, inSystem, busyServers, System.nanoTime() - startNanos, 0);
+                return;
+            }
+            if (timing != null) {
+                timing.setThrottleNanos(servedNanos - submittedNanos);
+                timing.setRenderNanos(System.nanoTime() - servedNanos);
+            }
+            pending.complete(result);
+            concurrentControlService.recordResponseTime(System.currentTimeMillis() - startTime);
+            timeSeriesService.recordRequest(urlConfig, inSystem, busyServers, System.nanoTime() - startNanos, 0);
+        });
+
+        if (!accepted) {
+            logger.warn("虚拟队列已满: {}", requestUri);
+            timeSeriesService.cancelAdmitted(urlConfig);
+            timeSeriesService.recordRejected(urlConfig);
+            return MockResult.of(HttpStatus.SERVICE_UNAVAILABLE, ApiResponse.error("503001", "Virtual queue full"),
+                                 timing);
+        }
+        return MockResult.pending(pending);
+    }
+
+    /**
+     * 记录准入阶段耗时（被拒绝的请求）
+     */
+    private static void recordAdmission(ServerTiming timing, long routedNanos) {
+        if (timing != null) {
+            timing.setAdmissionNanos(System.nanoTime() - routedNanos);
+        }
+    }
+
+    /**
+     * 构建成功处理的结果，按请求头覆盖调整响应体大小和状态码
+     */
+    private static MockResult buildResult(MockResponseData responseData, RequestOverrides overrides,
+                                          ServerTiming timing) {
+        if (overrides == null) {
+            return MockResult.of(HttpStatus.OK, ApiResponse.success(responseData), timing);
+        }
+        if (overrides.hasBodySize()) {
+            responseData.setPadding(overrides.getBodySize());
+        }
+        HttpStatus status = overrideStatus(overrides);
+        if (status != null && status.isError()) {
+            return injectedError(status, timing);
+        }
+        return MockResult.of(status != null ? status : HttpStatus.OK, ApiResponse.success(responseData), timing);
+    }
+
+    /**
+     * 构建按响应模板渲染的结果，模板在写出时渲染；请求头覆盖的状态码同样生效
+     */
+    private static MockResult buildTemplateResult(UrlConfig urlConfig, ResponseTemplate template, String method,
+                                                  String requestUri, RequestOverrides overrides, ServerTiming timing) {
+        HttpStatus status = overrideStatus(overrides);
+        if (status != null && status.isError()) {
+            return injectedError(status, timing);
+        }
+        return MockResult.template(status != null ? status : HttpStatus.OK, urlConfig, template, method, requestUri,
+                                   System.currentTimeMillis(), timing);
+    }
+
+    /**
+     * 请求头覆盖的状态码，未覆盖或不是标准状态码时返回null
+     */
+    private static HttpStatus overrideStatus(RequestOverrides overrides) {
+        return overrides != null && overrides.hasStatus() ? HttpStatus.resolve(overrides.getStatus()) : null;
+    }
+
+    /**
+     * 请求头注入的4xx/5xx错误响应，错误码为状态码加"900"
+     */
+    private static MockResult injectedError(HttpStatus status, ServerTiming timing) {
+        return MockResult.of(status, ApiResponse.error(status.value() + "900", "Injected status " + status.value()),
+                             timing);
+    }
+
+    /**
+     * 构建注入故障的结果：错误状态直接返回错误响应，错误码为状态码加"901"；
+     * 其余故障由Web层按故障类型写出（慢速写出与截断使用base的响应体，慢速写出与挂起使用stream）
+     */
+    private static MockResult buildFaultResult(FaultType fault, FaultConfig faultConfig, MockResult base,
+                                               StreamingService.Stream stream, ServerTiming timing) {
+        if (fault == FaultType.ERROR) {
+            HttpStatus status = HttpStatus.resolve(faultConfig.getErrorStatus());
+            if (status == null || !status.isError()) {
+                status = HttpStatus.SERVICE_UNAVAILABLE;
+            }
+            return MockResult.of(status, ApiResponse.error(status.value() + "901", "Injected fault " + status.value()),
+                                 timing);
+        }
+        return MockResult.fault(fault, faultConfig, base, stream, timing);
+    }
+
+    /**
+     * 构建模拟接口的响应数据
+     */
+    private MockResponseData buildResponseData(String method, String requestUri, int targetQps, UrlConfig urlConfig) {
+        return new MockResponseData(method, requestUri, System.currentTimeMillis(), targetQps, urlConfig);
+    }
+
+    /**
+     * 处理结果：HTTP状态与响应体（或待渲染的响应模板、待写出的流，及可选的阶段耗时），或排队模型下尚未完成的结果
+     */
+    public static class MockResult {
+        private final HttpStatus status;
+        private final ApiResponse<Object> body;
+        private final CompletableFuture<MockResult> pending;
+        private final ServerTiming timing;
+        private final TemplateBody templateBody;
+        private final StreamingService.Stream stream;
+        private final FaultType fault;
+        private final FaultConfig faultConfig;
+
+        private MockResult(HttpStatus status, ApiResponse<Object> body, CompletableFuture<MockResult> pending,
+                           ServerTiming timing, TemplateBody templateBody, StreamingService.Stream stream) {
+            this(status, body, pending, timing, templateBody, stream, null, null);
+        }
+
+        private MockResult(HttpStatus status, ApiResponse<Object> body, CompletableFuture<MockResult> pending,
+                           ServerTiming timing, TemplateBody templateBody, StreamingService.Stream stream,
+                           FaultType fault, FaultConfig faultConfig) {
+            this.status = status;
+            this.body = body;
+            this.pending = pending;
+            this.timing = timing;
+            this.templateBody = templateBody;
+            this.stream = stream;
+            this.fault = fault;
+            this.faultConfig = faultConfig;
+        }
+
+        public static MockResult of(HttpStatus status, ApiResponse<Object> body) {
+            return new MockResult(status, body, null, null, null, null);
+        }
+
+        public static MockResult of(HttpStatus status, ApiResponse<Object> body, ServerTiming timing) {
+            return new MockResult(status, body, null, timing, null, null);
+        }
+
+        /**
+         * 注入故障的结果：base为慢速写出或截断时的正常响应，stream为慢速写出或挂起时的故障流；
+         * Web层按故障类型写出，慢速写出调用StreamingService.startBody，挂起调用start，无法写出时必须调用cancel
+         */
+        public static MockResult fault(FaultType fault, FaultConfig faultConfig, MockResult base,
+                                       StreamingService.Stream stream, ServerTiming timing) {
+            return base != null
+                    ? new MockResult(base.status, base.body, null, timing, base.templateBody, stream, fault, faultConfig)
+                    : new MockResult(HttpStatus.OK, null, null, timing, null, stream, fault, faultConfig);
+        }
+
+        /**
+         * 按响应模板渲染的结果（模板在此时确定，之后的重新加载不影响本次响应）
+         */
+        public static MockResult template(HttpStatus status, UrlConfig urlConfig, ResponseTemplate template,
+                                          String method, String url, long timestamp, ServerTiming timing) {
+            return new MockResult(status, null, null, timing,
+                                  new TemplateBody(template, urlConfig, method, url, timestamp), null);
+        }
+
+        /**
+         * 流式响应：Web层写出状态和头部后调用StreamingService.start开始分块写出，无法写出时必须调用cancel
+         */
+        public static MockResult stream(HttpStatus status, StreamingService.Stream stream, ServerTiming timing) {
+            return new MockResult(status, null, null, timing, null, stream);
+        }
+
+        /**
+         * 排队模型下尚未完成的结果，定时器上构建结果失败时pending以异常完成
+         */
+        public static MockResult pending(PendingResult pending) {
+            return new MockResult(null, null, pending, null, null, null);
+        }
+
+        /**
+         * 排队模型等待响应超时的结果
+         */
+        public static MockResult queueTimeout() {
+            return of(HttpStatus.GATEWAY_TIMEOUT, ApiResponse.error("504001", "Virtual queue timeout"));
+        }
+
+        /**
+         * 异步完成失败时的结果
+         */
+        public static MockResult internalError() {
+            return of(HttpStatus.INTERNAL_SERVER_ERROR, ApiResponse.error("500001", "Internal error"));
+        }
+
+        public boolean isPending() {
+            return pending != null;
+        }
+
+        public boolean isTemplate() {
+            return templateBody != null;
+        }
+
+        public boolean isStream() {
+            return stream != null && fault == null;
+        }
+
+        public boolean isFault() {
+            return fault != null;
+        }
+
+        /**
+         * 渲染响应模板到当前线程的缓冲区，缓冲区在本线程下次渲染前有效
+         */
+        public ResponseTemplate.Buffer renderTemplate() {
+            return templateBody.render();
+        }
+
+        /**
+         * 模板响应的Content-Type
+         */
+        public String getContentType() {
+            return templateBody != null ? templateBody.urlConfig.getResponseContentType() : null;
+        }
+
+        // Getters
+        public HttpStatus getStatus() { return status; }
+        public ApiResponse<Object> getBody() { return body; }
+        public CompletableFuture<MockResult> getPending() { return pending; }
+
+        /**
+         * Web层异步请求的超时时间（毫秒），0表示不超时
+         */
+        public long getPendingTimeoutMs() {
+            return pending instanceof PendingResult ? ((PendingResult) pending).timeoutMs : 0;
+        }
+        public ServerTiming getTiming() { return timing; }
+        public StreamingService.Stream getStream() { return stream; }
+        public FaultType getFault() { return fault; }
+        public FaultConfig getFaultConfig() { return faultConfig; }
+    }
+
+    /**
+     * 排队模型下尚未完成的结果，附带排队模型配置的响应超时时间；
+     * 只在排队模型请求上创建，不增加普通请求MockResult的大小
+     */
+    public static class PendingResult extends CompletableFuture<MockResult> {
+        private final long timeoutMs;
+
+        PendingResult(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+    }
+
+    /**
+     * 待渲染的模板响应：模板与渲染所需的请求信息，只在配置了模板时创建
+     */
+    private static class TemplateBody {
+
+        /**
+         * 每个线程复用的命名捕获位置数组
+         */
+        private static final ThreadLocal<int[]> CAPTURES = ThreadLocal.withInitial(() -> new int[16]);
+
+        private final ResponseTemplate template;
+        private final UrlConfig urlConfig;
+        private final String method;
+        private final String url;
+        private final long timestamp;
+
+        TemplateBody(ResponseTemplate template, UrlConfig urlConfig, String method, String url, long timestamp) {
+            this.template = template;
+            this.urlConfig = urlConfig;
+            this.method = method;
+            this.url = url;
+            this.timestamp = timestamp;
+        }
+
+        ResponseTemplate.Buffer render() {
+            int[] captures = CAPTURES.get();
+            if (captures.length < urlConfig.getCaptureCount() * 2) {
+                captures = new int[urlConfig.getCaptureCount() * 2];
+                CAPTURES.set(captures);
+            }
+            int query = url.indexOf('?');
+            int length = query >= 0 ? query : url.length();
+            urlConfig.extractCaptures(url, length, captures);
+            return template.render(url, length, method, timestamp, captures);
+        }
+    }
+}
@@ -0,0 +1,599 @@
+package com.shrwk.apirunner.service;
+
+import com.shrwk.apirunner.config.ApiConfig;
+import com.shrwk.apirunner.config.PushProtocol;
+import com.shrwk.apirunner.model.PushEndpointConfig;
+import com.shrwk.apirunner.model.PushGroupConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * WebSocket/SSE推送服务
+ * 管理推送端点的连接、逐连接消息和广播组。所有端点和广播组共享少量调度线程：
+ * 逐连接消息由端点的定时任务按调度粒度扫描到期的连接发送，同一轮到期的连接共享同一条消息；
+ * 广播消息每次只生成一次，同一个字符串发送给组内所有连接。
+ * 连接在两条消息之间不占用线程，空闲连接只占用连接本身和少量状态。
+ * 调度线程只把消息交给连接的发送端，不在调度线程上阻塞写出：WebSocket使用异步发送，SSE交给共享的写出线程
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+public class PushService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PushService.class);
+
+    /**
+     * 端点与广播组名称只允许路径安全字符，消息中直接使用不需要转义
+     */
+    private static final Pattern NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+    @Autowired
+    private ApiConfig apiConfig;
+
+    private final Map<String, PushEndpoint> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, PushGroup> groups = new ConcurrentHashMap<>();
+
+    /**
+     * 消息调度器，没有配置推送端点时不创建
+     */
+    private ScheduledThreadPoolExecutor ticker;
+
+    /**
+     * SSE写出线程池，没有配置SSE端点时不创建
+     */
+    private ThreadPoolExecutor sseWriter;
+
+    @PostConstruct
+    public void init() {
+        for (PushGroupConfig config : apiConfig.getPushGroups()) {
+            checkName("广播组", config.getName());
+            if (groups.putIfAbsent(config.getName(), new PushGroup(config)) != null) {
+                throw new IllegalArgumentException("广播组名称重复: " + config.getName());
+            }
+        }
+        for (PushEndpointConfig config : apiConfig.getPushEndpoints()) {
+            checkName("推送端点", config.getName());
+            for (String group : config.getGroups()) {
+                if (!groups.containsKey(group)) {
+                    throw new IllegalArgumentException("推送端点 " + config.getName() + " 引用了未配置的广播组: " + group);
+                }
+            }
+            if (endpoints.putIfAbsent(config.getName(), new PushEndpoint(config)) != null) {
+                throw new IllegalArgumentException("推送端点名称重复: " + config.getName());
+            }
+        }
+        if (endpoints.isEmpty()) {
+            return;
+        }
+
+        AtomicInteger threadIndex = new AtomicInteger(0);
+        ticker = new ScheduledThreadPoolExecutor(Math.max(1, apiConfig.getPushTimerThreads()), r -> {
+            Thread thread = new Thread(r, "push-ticker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        boolean hasSse = false;
+        for (PushEndpoint endpoint : endpoints.values()) {
+            hasSse |= endpoint.config.getProtocol() == PushProtocol.SSE;
+        }
+        if (hasSse) {
+            AtomicInteger writerIndex = new AtomicInteger(0);
+            int writerThreads = Math.max(1, apiConfig.getPushSseWriterThreads());
+            sseWriter = new ThreadPoolExecutor(writerThreads, writerThreads, 60, TimeUnit.SECONDS,
+                                               new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "push-sse-writer-" + writerIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            sseWriter.allowCoreThreadTimeOut(true);
+        }
+        long tickMs = Math.max(1, apiConfig.getPushTickMs());
+        for (PushEndpoint endpoint : endpoints.values()) {
+            if (endpoint.intervalNanos > 0) {
+                ticker.scheduleAtFixedRate(() -> runSafely(() -> endpoint.tick(this)), tickMs, tickMs,
+                                           TimeUnit.MILLISECONDS);
+            }
+            logger.info("推送端点 {} ({})，最大连接数 {}，消息间隔 {}ms，默认广播组 {}", endpoint.config.getPath(),
+                       endpoint.config.getProtocol(), endpoint.config.getMaxConnections(),
+                       endpoint.config.getMessageIntervalMs(), endpoint.config.getGroups());
+        }
+        for (PushGroup group : groups.values()) {
+            long interval = Math.max(1, group.config.getIntervalMs());
+            ticker.scheduleAtFixedRate(() -> runSafely(group::broadcast), interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        if (sseWriter != null) {
+            sseWriter.shutdownNow();
+        }
+        for (PushEndpoint endpoint : endpoints.values()) {
+            for (PushConnection connection : endpoint.connections) {
+                close(connection);
+            }
+        }
+    }
+
+    private static void checkName(String kind, String name) {
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException(kind + "名称只能包含字母、数字、下划线和连字符: " + name);
+        }
+    }
+
+    /**
+     * 定时任务抛出异常后不会再执行，这里只记录日志
+     */
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            logger.error("推送任务执行失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 按名称查找推送端点
+     */
+    public PushEndpoint getEndpoint(String name) {
+        return endpoints.get(name);
+    }
+
+    /**
+     * 所有推送端点
+     */
+    public Collection<PushEndpoint> getEndpoints() {
+        return endpoints.values();
+    }
+
+    /**
+     * 打开一个连接，groupParam为逗号分隔的广播组（为空时使用端点的默认组，未配置的组被忽略）；
+     * 超过最大连接数时返回null
+     */
+    public PushConnection open(PushEndpoint endpoint, String groupParam, PushSink sink) {
+        int current;
+        do {
+            current = endpoint.connectionCount.get();
+            if (current >= endpoint.config.getMaxConnections()) {
+                endpoint.rejected.increment();
+                return null;
+            }
+        } while (!endpoint.connectionCount.compareAndSet(current, current + 1));
+        endpoint.peakConnections.accumulateAndGet(current + 1, Math::max);
+        endpoint.accepted.increment();
+
+        List<PushGroup> joined = new ArrayList<>();
+        List<String> names = groupParam != null && !groupParam.trim().isEmpty()
+                ? Arrays.asList(groupParam.split(",")) : endpoint.config.getGroups();
+        for (String name : names) {
+            PushGroup group = groups.get(name.trim());
+            if (group != null && !joined.contains(group)) {
+                joined.add(group);
+            }
+        }
+
+        PushConnection connection = new PushConnection(endpoint, sink, joined);
+        endpoint.connections.add(connection);
+        for (PushGroup group : joined) {
+            group.members.add(connection);
+        }
+        return connection;
+    }
+
+    /**
+     * 关闭连接（客户端断开、发送失败或服务停止），重复调用忽略
+     */
+    public void close(PushConnection connection) {
+        if (connection == null || !connection.closed.compareAndSet(false, true)) {
+            return;
+        }
+        PushEndpoint endpoint = connection.endpoint;
+        endpoint.connections.remove(connection);
+        for (PushGroup group : connection.groups) {
+            group.members.remove(connection);
+        }
+        endpoint.connectionCount.decrementAndGet();
+        try {
+            connection.sink.close();
+        } catch (RuntimeException e) {
+            logger.debug("推送连接关闭失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 记录客户端发来的消息
+     */
+    public void recordReceived(PushConnection connection, int length) {
+        connection.endpoint.received.increment();
+        connection.endpoint.receivedBytes.add(length);
+    }
+
+    /**
+     * 打开SSE连接，超过最大连接数时返回null
+     */
+    public SseEmitter openSse(PushEndpoint endpoint, String groupParam) {
+        SseEmitter emitter = new SseEmitter(0L);
+        SseSink sink = new SseSink(emitter);
+        PushConnection connection = open(endpoint, groupParam, sink);
+        if (connection == null) {
+            return null;
+        }
+        sink.connection = connection;
+        emitter.onCompletion(() -> close(connection));
+        emitter.onTimeout(() -> close(connection));
+        emitter.onError(e -> close(connection));
+        return emitter;
+    }
+
+    /**
+     * 发送一条消息并计数，发送失败时关闭连接
+     */
+    private void deliver(PushConnection connection, String message, PushGroup group) {
+        PushEndpoint endpoint = connection.endpoint;
+        boolean sent;
+        try {
+            sent = connection.sink.send(message);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("推送消息发送失败（客户端可能已断开）: {}", e.getMessage());
+            close(connection);
+            return;
+        }
+        if (sent) {
+            endpoint.messagesSent.increment();
+            endpoint.bytesSent.add(message.length());
+            if (group != null) {
+                group.deliveries.increment();
+            }
+        } else {
+            endpoint.dropped.increment();
+            if (group != null) {
+                group.dropped.increment();
+            }
+        }
+    }
+
+    /**
+     * 生成一条消息：{"type":type,"source":name,"seq":n,"timestamp":t,"data":"xxx"}，按data填充到大致size字节
+     */
+    static String renderMessage(String type, String source, long seq, long timestamp, int size) {
+        StringBuilder message = new StringBuilder(Math.max(size, 96));
+        message.append("{\"type\":\"").append(type)
+               .append("\",\"source\":\"").append(source)
+               .append("\",\"seq\":").append(seq)
+               .append(",\"timestamp\":").append(timestamp)
+               .append(",\"data\":\"");
+        int padding = size - message.length() - 2;
+        for (int i = 0; i < padding; i++) {
+            message.append('x');
+        }
+        return message.append("\"}").toString();
+    }
+
+    /**
+     * 推送统计
+     */
+    public PushStats getStats() {
+        List<EndpointStats> endpointStats = new ArrayList<>(endpoints.size());
+        for (PushEndpoint endpoint : endpoints.values()) {
+            endpointStats.add(endpoint.getStats());
+        }
+        List<GroupStats> groupStats = new ArrayList<>(groups.size());
+        for (PushGroup group : groups.values()) {
+            groupStats.add(group.getStats());
+        }
+        return new PushStats(endpointStats, groupStats);
+    }
+
+    /**
+     * 基于SseEmitter的写出端，写出在SSE写出线程上进行；与WebSocket相同，
+     * 每个连接同一时刻最多一条消息在发送中、一条在排队，排队的消息被更新的消息替换时视为丢弃
+     */
+    private final class SseSink implements PushSink {
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicReference<String> queued = new AtomicReference<>();
+        private volatile PushConnection connection;
+
+        SseSink(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public boolean send(String message) {
+            if (sending.compareAndSet(false, true)) {
+                sseWriter.execute(() -> write(message));
+                return true;
+            }
+            String replaced = queued.getAndSet(message);
+            // 排队期间上一条可能刚好发送完成
+            drain();
+            return replaced == null;
+        }
+
+        /**
+         * 写出失败后保持发送中状态，连接关闭前不再写出
+         */
+        private void write(String message) {
+            try {
+                emitter.send(SseEmitter.event().data(message));
+            } catch (IOException | RuntimeException e) {
+                logger.debug("推送消息发送失败（客户端可能已断开）: {}", e.getMessage());
+                PushConnection opened = connection;
+                if (opened != null) {
+                    PushService.this.close(opened);
+                } else {
+                    // 连接登记完成前出错，由完成回调关闭
+                    emitter.complete();
+                }
+                return;
+            }
+            sending.set(false);
+            drain();
+        }
+
+        private void drain() {
+            while (queued.get() != null && sending.compareAndSet(false, true)) {
+                String message = queued.getAndSet(null);
+                if (message != null) {
+                    sseWriter.execute(() -> write(message));
+                    return;
+                }
+                sending.set(false);
+            }
+        }
+
+        @Override
+        public void close() {
+            emitter.complete();
+        }
+    }
+
+    /**
+     * 连接的发送端：WebSocket基于异步发送实现，SSE基于SseEmitter和写出线程实现
+     */
+    public interface PushSink {
+
+        /**
+         * 发送一条文本消息；连接积压、消息被丢弃时返回false
+         */
+        boolean send(String message) throws IOException;
+
+        /**
+         * 关闭连接
+         */
+        void close();
+    }
+
+    /**
+     * 推送端点：连接集合、逐连接消息调度与计数器
+     */
+    public static final class PushEndpoint {
+        private final PushEndpointConfig config;
+        private final long intervalNanos;
+        private final Set<PushConnection> connections = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger connectionCount = new AtomicInteger();
+        private final AtomicInteger peakConnections = new AtomicInteger();
+        private final LongAdder accepted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder messagesSent = new LongAdder();
+        private final LongAdder bytesSent = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder received = new LongAdder();
+        private final LongAdder receivedBytes = new LongAdder();
+        private long seq;
+
+        PushEndpoint(PushEndpointConfig config) {
+            this.config = config;
+            this.intervalNanos = Math.max(0, config.getMessageIntervalMs()) * 1_000_000L;
+        }
+
+        public PushEndpointConfig getConfig() {
+            return config;
+        }
+
+        /**
+         * 向到期的连接发送逐连接消息，同一轮到期的连接共享同一条消息；
+         * 落后超过一个间隔的连接不补发，从当前时刻重新计算下次到期
+         */
+        void tick(PushService owner) {
+            long now = System.nanoTime();
+            String message = null;
+            for (PushConnection connection : connections) {
+                if (now - connection.nextDueNanos < 0) {
+                    continue;
+                }
+                if (message == null) {
+                    message = renderMessage("message", config.getName(), ++seq, System.currentTimeMillis(),
+                                            config.getMessageSize());
+                }
+                owner.deliver(connection, message, null);
+                long next = connection.nextDueNanos + intervalNanos;
+                connection.nextDueNanos = next - now <= 0 ? now + intervalNanos : next;
+            }
+        }
+
+        EndpointStats getStats() {
+            return new EndpointStats(config.getName(), config.getProtocol(), connectionCount.get(),
+                                     config.getMaxConnections(), peakConnections.get(), accepted.sum(),
+                                     rejected.sum(), messagesSent.sum(), bytesSent.sum(), dropped.sum(),
+                                     received.sum(), receivedBytes.sum());
+        }
+    }
+
+    /**
+     * 广播组
+     */
+    private final class PushGroup {
+        private final PushGroupConfig config;
+        private final Set<PushConnection> members = ConcurrentHashMap.newKeySet();
+        private final LongAdder broadcasts = new LongAdder();
+        private final LongAdder deliveries = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private long seq;
+
+        PushGroup(PushGroupConfig config) {
+            this.config = config;
+        }
+
+        /**
+         * 生成一条广播消息并发送给所有成员
+         */
+        void broadcast() {
+            if (members.isEmpty()) {
+                return;
+            }
+            String message = renderMessage("broadcast", config.getName(), ++seq, System.currentTimeMillis(),
+                                           config.getMessageSize());
+            broadcasts.increment();
+            for (PushConnection member : members) {
+                deliver(member, message, this);
+            }
+        }
+
+        GroupStats getStats() {
+            return new GroupStats(config.getName(), members.size(), broadcasts.sum(), deliveries.sum(),
+                                  dropped.sum());
+        }
+    }
+
+    /**
+     * 一个推送连接
+     */
+    public static final class PushConnection {
+        private final PushEndpoint endpoint;
+        private final PushSink sink;
+        private final List<PushGroup> groups;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        /**
+         * 下次逐连接消息的到期时刻（只在端点的定时任务中修改）
+         */
+        private volatile long nextDueNanos;
+
+        PushConnection(PushEndpoint endpoint, PushSink sink, List<PushGroup> groups) {
+            this.endpoint = endpoint;
+            this.sink = sink;
+            this.groups = groups;
+            this.nextDueNanos = System.nanoTime() + endpoint.intervalNanos;
+        }
+    }
+
+    /**
+     * 推送统计信息
+     */
+    public static class PushStats {
+        private final List<EndpointStats> endpoints;
+        private final List<GroupStats> groups;
+
+        public PushStats(List<EndpointStats> endpoints, List<GroupStats> groups) {
+            this.endpoints = endpoints;
+            this.groups = groups;
+        }
+
+        // Getters
+        public List<EndpointStats> getEndpoints() { return endpoints; }
+        public List<GroupStats> getGroups() { return groups; }
+    }
+
+    /**
+     * 推送端点统计信息
+     */
+    public static class EndpointStats {
+        private final String name;
+        private final PushProtocol protocol;
+        private final int connections;
+        private final int maxConnections;
+        private final int peakConnections;
+        private final long accepted;
+        private final long rejected;
+        private final long messagesSent;
+        private final long bytesSent;
+        private final long dropped;
+        private final long received;
+        private final long receivedBytes;
+
+        public EndpointStats(String name, PushProtocol protocol, int connections, int maxConnections,
+                             int peakConnections, long accepted, long rejected, long messagesSent, long bytesSent,
+                             long dropped, long received, long receivedBytes) {
+            this.name = name;
+            this.protocol = protocol;
+            this.connections = connections;
+            this.maxConnections = maxConnections;
+            this.peakConnections = peakConnections;
+            this.accepted = accepted;
+            this.rejected = rejected;
+            this.messagesSent = messagesSent;
+            this.bytesSent = bytesSent;
+            this.dropped = dropped;
+            this.received = received;
+            this.receivedBytes = receivedBytes;
+        }
+
+        // Getters
+        public String getName() { return name; }
+        public PushProtocol getProtocol() { return protocol; }
+        public int getConnections() { return connections; }
+        public int getMaxConnections() { return maxConnections; }
+        public int getPeakConnections() { return peakConnections; }
+        public long getAccepted() { return accepted; }
+        public long getRejected() { return rejected; }
+        public long getMessagesSent() { return messagesSent; }
+        public long getBytesSent() { return bytesSent; }
+        public long getDropped() { return dropped; }
+        public long getReceived() { return received; }
+        public long getReceivedBytes() { return receivedBytes; }
+    }
+
+    /**
+     * 广播组统计信息
+     */
+    public static class GroupStats {
+        private final String name;
+        private final int members;
+        private final long broadcasts;
+        private final long deliveries;
+        private final long dropped;
+
+        public GroupStats(String name, int members, long broadcasts, long deliveries, long dropped) {
+            this.name = name;
+            this.members = members;
+            this.broadcasts = broadcasts;
+            this.deliveries = deliveries;
+            this.dropped = dropped;
+        }
+
+        // Getters
+        public String getName() { return name; }
+        public int getMembers() { return members; }
+        public long getBroadcasts() { return broadcasts; }
+        public long getDeliveries() { return deliveries; }
+        public long getDropped() { return dropped; }
+    }
+}
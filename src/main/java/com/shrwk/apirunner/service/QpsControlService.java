@@ -2,13 +2,17 @@ package com.shrwk.apirunner.service;
 
 import com.shrwk.apirunner.config.ApiConfig;
 import com.shrwk.apirunner.config.QpsControlMode;
+import com.shrwk.apirunner.jfr.CpuBurnEvent;
+import com.shrwk.apirunner.jfr.JfrSupport;
+import com.shrwk.apirunner.jfr.ThrottleEvent;
+import com.shrwk.apirunner.model.RequestCostConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -27,63 +31,211 @@ public class QpsControlService {
     @Autowired
     private ApiConfig apiConfig;
 
+    @Autowired
+    private CounterExpiryScheduler counterExpiryScheduler;
+
+    @Autowired
+    private ResourceLoadService resourceLoadService;
+
     /**
-     * URL对应的QPS统计器
+     * URL对应的QPS统计器（无访问超时后由时间轮清理）
      */
-    private final ConcurrentHashMap<String, QpsCounter> qpsCounters = new ConcurrentHashMap<>();
+    private ExpiringRegistry<QpsCounter> qpsCounters;
 
     /**
      * 全局锁，用于同步QPS控制
      */
     private final ReentrantLock globalLock = new ReentrantLock();
 
+    /**
+     * 只计算不执行（离线模拟实例）：照常计算延迟与消耗时间，但不实际等待或消耗资源
+     */
+    private boolean dryRun;
+
+    /**
+     * 当前线程只计算不执行（预热线程），不影响同时到达的真实请求
+     */
+    private final ThreadLocal<Boolean> threadDryRun = new ThreadLocal<>();
+
+    /**
+     * 处于只计算不执行模式的线程数，为0时请求路径不读取ThreadLocal
+     */
+    private final AtomicInteger dryRunThreads = new AtomicInteger();
+
+    /**
+     * 计数器窗口使用的时间来源
+     */
+    private TimeSource timeSource = TimeSource.SYSTEM;
+
+    /**
+     * 创建离线模拟使用的实例：使用给定的时间来源，只计算不执行，计数器不做过期清理
+     */
+    public static QpsControlService createOffline(ApiConfig apiConfig, TimeSource timeSource) {
+        QpsControlService service = new QpsControlService();
+        service.apiConfig = apiConfig;
+        service.timeSource = timeSource;
+        service.dryRun = true;
+        service.qpsCounters = new ExpiringRegistry<>("模拟QPS计数器", apiConfig.getCounterExpiryMs(),
+                                                     apiConfig.getCounterExpiryTickMs());
+        return service;
+    }
+
     @PostConstruct
     public void init() {
+        qpsCounters = counterExpiryScheduler.createRegistry("QPS计数器");
         logger.info("QPS控制服务初始化完成，默认QPS: {}, 误差容忍度: {}%, 控制方式: {}", 
                    apiConfig.getDefaultQps(), apiConfig.getQpsTolerance(), apiConfig.getQpsControlMode());
     }
 
+    /**
+     * 控制QPS，确保不超过目标值（使用全局控制方式）
+     */
+    public long controlQps(String url, int targetQps) {
+        return controlQps(url, url, targetQps, null);
+    }
+
+    /**
+     * 控制QPS，确保不超过目标值（每个请求计1）
+     */
+    public long controlQps(String url, String pattern, int targetQps, QpsControlMode mode) {
+        return controlQps(url, pattern, targetQps, mode, RequestCostConfig.MILLIS_PER_UNIT);
+    }
+
     /**
      * 控制QPS，确保不超过目标值
+     * 超出目标的部分按控制方式转换为延迟、CPU、内存分配或磁盘IO的消耗时间，mode为空时使用全局配置；
+     * pattern用于JFR事件按URL模式归类；costMillis为本次请求的成本（千分之一单位），
+     * 目标QPS按成本扣减，计算出的时间按本次请求的成本放大；返回计算出的延迟或消耗时间（毫秒）
      */
-    public void controlQps(String url, int targetQps) {
+    public long controlQps(String url, String pattern, int targetQps, QpsControlMode mode, long costMillis) {
         if (!apiConfig.isQpsControlEnabled()) {
-            return;
+            return 0;
         }
 
-        QpsCounter counter = qpsCounters.computeIfAbsent(url, k -> new QpsCounter(url, targetQps));
+        // 先查已有计数器，只有创建时才需要捕获targetQps的Lambda
+        QpsCounter counter = qpsCounters.get(url);
+        if (counter == null) {
+            counter = qpsCounters.getOrCreate(url, k -> new QpsCounter(k, targetQps, timeSource));
+        }
         
         // 检查是否需要控制QPS
+        long computedMs = 0;
         if (counter.shouldControl()) {
-            if (apiConfig.getQpsControlMode() == QpsControlMode.DELAY) {
-                // 延迟方式控制QPS
-                long delayMs = calculateDelay(counter, targetQps);
-                if (delayMs > 0) {
-                    try {
-                        Thread.sleep(delayMs);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        logger.warn("QPS控制延迟被中断: {}", e.getMessage());
+            boolean dryRun = isDryRun();
+            ThrottleEvent event = JfrSupport.isRecording() ? new ThrottleEvent() : null;
+            double currentQps = 0;
+            if (event != null) {
+                currentQps = counter.getCurrentCostRate();
+                event.begin();
+            }
+
+            QpsControlMode effectiveMode = mode != null ? mode : apiConfig.getQpsControlMode();
+            switch (effectiveMode) {
+                case DELAY:
+                    // 延迟方式控制QPS
+                    computedMs = calculateDelay(counter, targetQps, costMillis);
+                    if (computedMs > 0 && !dryRun) {
+                        try {
+                            Thread.sleep(computedMs);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            logger.warn("QPS控制延迟被中断: {}", e.getMessage());
+                        }
                     }
-                }
-            } else {
-                // CPU消耗方式控制QPS
-                long cpuTimeMs = calculateCpuTime(counter, targetQps);
-                if (cpuTimeMs > 0) {
-                    consumeCpu(cpuTimeMs);
-                }
+                    break;
+                case ALLOC:
+                    // 内存分配方式控制QPS
+                    computedMs = calculateConsumeTime(counter, targetQps, costMillis, "内存分配");
+                    if (computedMs > 0 && !dryRun) {
+                        resourceLoadService.consumeAlloc(computedMs);
+                    }
+                    break;
+                case IO:
+                    // 磁盘IO方式控制QPS
+                    computedMs = calculateConsumeTime(counter, targetQps, costMillis, "磁盘IO");
+                    if (computedMs > 0 && !dryRun) {
+                        resourceLoadService.consumeIo(computedMs);
+                    }
+                    break;
+                default:
+                    // CPU消耗方式控制QPS
+                    computedMs = calculateConsumeTime(counter, targetQps, costMillis, "CPU消耗");
+                    if (computedMs > 0 && !dryRun) {
+                        consumeCpu(pattern, computedMs);
+                    }
+                    break;
+            }
+
+            if (event != null) {
+                event.record(pattern, url, effectiveMode.name(), currentQps, targetQps, computedMs);
             }
         }
         
-        // 记录请求
-        counter.recordRequest();
+        // 记录请求及其成本
+        counter.recordRequest(costMillis);
+        return computedMs;
     }
 
     /**
-     * 计算需要延迟的时间
+     * 设置当前线程的只计算不执行模式（预热使用），必须在同一线程上成对调用
      */
-    private long calculateDelay(QpsCounter counter, int targetQps) {
-        double currentQps = counter.getCurrentQps();
+    public void setThreadDryRun(boolean enabled) {
+        boolean current = threadDryRun.get() != null;
+        if (enabled && !current) {
+            threadDryRun.set(Boolean.TRUE);
+            dryRunThreads.incrementAndGet();
+        } else if (!enabled && current) {
+            threadDryRun.remove();
+            dryRunThreads.decrementAndGet();
+        }
+    }
+
+    /**
+     * 本次调用是否只计算不执行
+     */
+    private boolean isDryRun() {
+        return dryRun || (dryRunThreads.get() > 0 && threadDryRun.get() != null);
+    }
+
+    /**
+     * 施加固定的附加延迟（不受QPS控制开关影响）
+     */
+    public void applyFixedDelay(long delayMs) {
+        if (delayMs <= 0 || isDryRun()) {
+            return;
+        }
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("附加延迟被中断: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 按微秒消耗CPU（不受QPS控制开关影响），用于请求级的CPU消耗覆盖
+     */
+    public void burnCpuMicros(long micros) {
+        if (micros <= 0 || isDryRun()) {
+            return;
+        }
+        long deadline = System.nanoTime() + micros * 1000L;
+        double sink = 0;
+        while (System.nanoTime() < deadline) {
+            for (int i = 0; i < 256; i++) {
+                sink += Math.sqrt(i * i + 1);
+            }
+        }
+        if (sink < 0) {
+            logger.debug("CPU消耗结果: {}", sink);
+        }
+    }
+
+    /**
+     * 计算需要延迟的时间（按成本速率比较目标，按本次请求的成本放大）
+     */
+    private long calculateDelay(QpsCounter counter, int targetQps, long costMillis) {
+        double currentQps = counter.getCurrentCostRate();
         double targetQpsDouble = targetQps;
         
         // 如果当前QPS在容忍范围内，不需要延迟
@@ -93,66 +245,83 @@ public class QpsControlService {
         }
 
         // 计算需要的延迟时间
-        double delaySeconds = (currentQps - targetQpsDouble) / (targetQpsDouble * targetQpsDouble);
+        double delaySeconds = (currentQps - targetQpsDouble) / (targetQpsDouble * targetQpsDouble)
+                * costMillis / RequestCostConfig.MILLIS_PER_UNIT;
         long delayMs = Math.round(delaySeconds * 1000);
         
         // 限制最大延迟时间，避免响应过慢
         delayMs = Math.min(delayMs, 1000);
         
-        logger.debug("URL: {}, 当前QPS: {:.2f}, 目标QPS: {}, 延迟: {}ms", 
-                    counter.getUrl(), currentQps, targetQps, delayMs);
+        if (logger.isDebugEnabled()) {
+            logger.debug("URL: {}, 当前QPS: {:.2f}, 目标QPS: {}, 延迟: {}ms", 
+                        counter.getUrl(), currentQps, targetQps, delayMs);
+        }
         
         return delayMs;
     }
 
     /**
-     * 计算需要消耗的CPU时间
+     * 计算需要消耗资源（CPU、内存分配、磁盘IO）的时间（按成本速率比较目标，按本次请求的成本放大）
      */
-    private long calculateCpuTime(QpsCounter counter, int targetQps) {
-        double currentQps = counter.getCurrentQps();
+    private long calculateConsumeTime(QpsCounter counter, int targetQps, long costMillis, String resource) {
+        double currentQps = counter.getCurrentCostRate();
         double targetQpsDouble = targetQps;
         
-        // 如果当前QPS在容忍范围内，不需要消耗CPU
+        // 如果当前QPS在容忍范围内，不需要消耗资源
         double tolerance = apiConfig.getQpsTolerance() / 100.0;
         if (currentQps <= targetQpsDouble * (1 + tolerance)) {
             return 0;
         }
 
-        // 计算需要消耗的CPU时间（毫秒）
-        double cpuTimeSeconds = (currentQps - targetQpsDouble) / (targetQpsDouble * targetQpsDouble);
-        long cpuTimeMs = Math.round(cpuTimeSeconds * 1000);
+        // 计算需要消耗资源的时间（毫秒）
+        double consumeSeconds = (currentQps - targetQpsDouble) / (targetQpsDouble * targetQpsDouble)
+                * costMillis / RequestCostConfig.MILLIS_PER_UNIT;
+        long consumeMs = Math.round(consumeSeconds * 1000);
         
-        // 限制最大CPU消耗时间，避免响应过慢
-        cpuTimeMs = Math.min(cpuTimeMs, 500);
+        // 限制最大消耗时间，避免响应过慢
+        consumeMs = Math.min(consumeMs, 500);
         
-        logger.debug("URL: {}, 当前QPS: {:.2f}, 目标QPS: {}, CPU消耗时间: {}ms", 
-                    counter.getUrl(), currentQps, targetQps, cpuTimeMs);
+        if (logger.isDebugEnabled()) {
+            logger.debug("URL: {}, 当前QPS: {:.2f}, 目标QPS: {}, {}时间: {}ms", 
+                        counter.getUrl(), currentQps, targetQps, resource, consumeMs);
+        }
         
-        return cpuTimeMs;
+        return consumeMs;
     }
 
     /**
      * 消耗CPU时间
      */
-    private void consumeCpu(long cpuTimeMs) {
+    private void consumeCpu(String pattern, long cpuTimeMs) {
         if (cpuTimeMs <= 0) {
             return;
         }
         
+        CpuBurnEvent event = JfrSupport.isRecording() ? new CpuBurnEvent() : null;
+        if (event != null) {
+            event.begin();
+        }
         long startTime = System.currentTimeMillis();
         long targetEndTime = startTime + cpuTimeMs;
         
         // 通过循环消耗CPU时间
         int loopCount = apiConfig.getCpuLoopCount();
+        long rounds = 0;
         while (System.currentTimeMillis() < targetEndTime) {
             // 执行一些无意义的计算来消耗CPU
             for (int i = 0; i < loopCount; i++) {
                 Math.sqrt(i * i + 1);
             }
+            rounds++;
+        }
+        if (event != null) {
+            event.record(pattern, cpuTimeMs, rounds);
         }
         
-        long actualTime = System.currentTimeMillis() - startTime;
-        logger.debug("CPU消耗完成，目标时间: {}ms, 实际时间: {}ms", cpuTimeMs, actualTime);
+        if (logger.isDebugEnabled()) {
+            long actualTime = System.currentTimeMillis() - startTime;
+            logger.debug("CPU消耗完成，目标时间: {}ms, 实际时间: {}ms", cpuTimeMs, actualTime);
+        }
     }
 
     /**
@@ -161,52 +330,43 @@ public class QpsControlService {
     public QpsStats getQpsStats(String url) {
         QpsCounter counter = qpsCounters.get(url);
         if (counter == null) {
-            return new QpsStats(url, 0, 0, 0);
+            return new QpsStats(url, 0, 0, 0, 0, 0);
         }
         return counter.getStats();
     }
 
-    /**
-     * 清理过期的QPS统计器
-     */
-    public void cleanupExpiredCounters() {
-        long currentTime = System.currentTimeMillis();
-        qpsCounters.entrySet().removeIf(entry -> {
-            QpsCounter counter = entry.getValue();
-            return currentTime - counter.getLastAccessTime() > 300000; // 5分钟无访问则清理
-        });
-    }
-
     /**
      * QPS计数器内部类
      */
-    private static class QpsCounter {
+    private static class QpsCounter implements ExpiringRegistry.Expirable {
         private final String url;
         private final int targetQps;
+        private final TimeSource timeSource;
         private final AtomicLong requestCount = new AtomicLong(0);
-        private final AtomicLong lastResetTime = new AtomicLong(System.currentTimeMillis());
-        private volatile long lastAccessTime = System.currentTimeMillis();
+        private final AtomicLong costMillis = new AtomicLong(0);
+        private final AtomicLong lastResetTime;
+        private volatile long lastAccessTime;
+        private volatile boolean retired;
         
         private static final long WINDOW_MS = 1000; // 1秒窗口
 
-        public QpsCounter(int targetQps) {
-            this.url = "unknown";
-            this.targetQps = targetQps;
-        }
-        
-        public QpsCounter(String url, int targetQps) {
+        public QpsCounter(String url, int targetQps, TimeSource timeSource) {
             this.url = url;
             this.targetQps = targetQps;
+            this.timeSource = timeSource;
+            this.lastResetTime = new AtomicLong(timeSource.currentTimeMillis());
+            this.lastAccessTime = lastResetTime.get();
         }
 
         public boolean shouldControl() {
-            long currentTime = System.currentTimeMillis();
+            long currentTime = timeSource.currentTimeMillis();
             long lastReset = lastResetTime.get();
             
             // 如果时间窗口已过，重置计数器
             if (currentTime - lastReset >= WINDOW_MS) {
                 if (lastResetTime.compareAndSet(lastReset, currentTime)) {
                     requestCount.set(0);
+                    costMillis.set(0);
                 }
             }
             
@@ -214,32 +374,56 @@ public class QpsControlService {
             return true;
         }
 
-        public void recordRequest() {
+        public void recordRequest(long cost) {
             requestCount.incrementAndGet();
+            costMillis.addAndGet(cost);
         }
 
         public double getCurrentQps() {
-            long currentTime = System.currentTimeMillis();
-            long lastReset = lastResetTime.get();
-            long elapsed = currentTime - lastReset;
-            
-            if (elapsed < WINDOW_MS) {
-                elapsed = WINDOW_MS;
-            }
-            
-            return (double) requestCount.get() * 1000 / elapsed;
+            return (double) requestCount.get() * 1000 / windowElapsed();
         }
 
+        /**
+         * 当前窗口的成本速率（单位/秒），每个请求计1时等于当前QPS
+         */
+        public double getCurrentCostRate() {
+            return (double) costMillis.get() / windowElapsed();
+        }
+
+        private long windowElapsed() {
+            long elapsed = timeSource.currentTimeMillis() - lastResetTime.get();
+            return Math.max(elapsed, WINDOW_MS);
+        }
+
+        @Override
+        public String getKey() {
+            return url;
+        }
+
+        @Override
         public long getLastAccessTime() {
             return lastAccessTime;
         }
+
+        @Override
+        public boolean tryRetire() {
+            // QPS计数器没有进行中的状态，窗口计数丢失不影响正确性
+            retired = true;
+            return true;
+        }
+
+        @Override
+        public boolean isRetired() {
+            return retired;
+        }
         
         public String getUrl() {
             return url;
         }
 
         public QpsStats getStats() {
-            return new QpsStats(url, targetQps, requestCount.get(), getCurrentQps());
+            return new QpsStats(url, targetQps, requestCount.get(), getCurrentQps(),
+                    (double) costMillis.get() / RequestCostConfig.MILLIS_PER_UNIT, getCurrentCostRate());
         }
     }
 
@@ -251,12 +435,17 @@ public class QpsControlService {
         private final int targetQps;
         private final long totalRequests;
         private final double currentQps;
+        private final double totalCost;
+        private final double currentCostRate;
 
-        public QpsStats(String url, int targetQps, long totalRequests, double currentQps) {
+        public QpsStats(String url, int targetQps, long totalRequests, double currentQps,
+                        double totalCost, double currentCostRate) {
             this.url = url;
             this.targetQps = targetQps;
             this.totalRequests = totalRequests;
             this.currentQps = currentQps;
+            this.totalCost = totalCost;
+            this.currentCostRate = currentCostRate;
         }
 
         // Getters
@@ -264,5 +453,7 @@ public class QpsControlService {
         public int getTargetQps() { return targetQps; }
         public long getTotalRequests() { return totalRequests; }
         public double getCurrentQps() { return currentQps; }
+        public double getTotalCost() { return totalCost; }
+        public double getCurrentCostRate() { return currentCostRate; }
     }
 }
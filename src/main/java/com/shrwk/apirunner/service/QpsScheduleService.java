@@ -0,0 +1,439 @@
+package com.shrwk.apirunner.service;
+
+import com.shrwk.apirunner.model.QpsScheduleConfig;
+import com.shrwk.apirunner.model.ScheduleSegment;
+import com.shrwk.apirunner.model.UrlConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QPS计划服务
+ * 将URL模式的计划预计算为按秒索引的目标QPS/延迟数组，后台定时任务推进当前秒，
+ * 请求路径每次请求查找一次已编译的计划并读取其volatile字段。
+ * 计划在启动时编译（读取CSV等文件IO不在请求线程上进行），配置对象被替换后由定时线程重新编译
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+@Lazy(false)
+public class QpsScheduleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QpsScheduleService.class);
+
+    /**
+     * 计划最大长度（秒），避免错误配置占用过多内存
+     */
+    private static final int MAX_SCHEDULE_SECONDS = 7 * 24 * 3600;
+
+    /**
+     * 当前秒推进间隔（毫秒）
+     */
+    private static final long TICK_MS = 100;
+
+    /**
+     * URL模式对应的计划状态
+     */
+    private final ConcurrentHashMap<String, ScheduleState> states = new ConcurrentHashMap<>();
+
+    /**
+     * 已提交到定时线程、尚未完成编译的URL模式
+     */
+    private final Set<String> compiling = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private UrlValidationService urlValidationService;
+
+    @Autowired
+    private VirtualServiceRegistry virtualServiceRegistry;
+
+    /**
+     * 计划推进定时器
+     */
+    private ScheduledExecutorService tickExecutor;
+
+    @PostConstruct
+    public void init() {
+        tickExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "qps-schedule-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        tickExecutor.scheduleAtFixedRate(this::refreshAll, TICK_MS, TICK_MS, TimeUnit.MILLISECONDS);
+        compileAll(urlValidationService.getAllUrlConfigs());
+        compileAll(virtualServiceRegistry.getAllUrlConfigs());
+        logger.info("QPS计划服务初始化完成");
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (tickExecutor != null) {
+            tickExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 请求路径使用：每次请求调用一次，返回已编译的计划，尚未编译时返回null（本次请求不按计划控制）。
+     * 不在请求线程上编译；配置了autoStart的计划在首次请求时开始计时
+     */
+    ScheduleState current(UrlConfig urlConfig) {
+        ScheduleState state = states.get(urlConfig.getStatsKey());
+        if (state == null || state.config != urlConfig.getSchedule()) {
+            compileLater(urlConfig);
+            // 配置被替换时，新计划编译完成前继续使用原计划
+            if (state == null) {
+                return null;
+            }
+        }
+        if (state.autoStartPending) {
+            state.autoStart();
+        }
+        return state;
+    }
+
+    /**
+     * 从头开始计划
+     */
+    public ScheduleStatus start(UrlConfig urlConfig) {
+        ScheduleState state = getState(urlConfig);
+        state.start();
+        logger.info("QPS计划开始: {}", urlConfig.getPattern());
+        return state.getStatus();
+    }
+
+    /**
+     * 暂停计划，保持当前秒的值
+     */
+    public ScheduleStatus pause(UrlConfig urlConfig) {
+        ScheduleState state = getState(urlConfig);
+        state.pause();
+        logger.info("QPS计划暂停: {}", urlConfig.getPattern());
+        return state.getStatus();
+    }
+
+    /**
+     * 从暂停位置继续计划
+     */
+    public ScheduleStatus resume(UrlConfig urlConfig) {
+        ScheduleState state = getState(urlConfig);
+        state.resume();
+        logger.info("QPS计划继续: {}", urlConfig.getPattern());
+        return state.getStatus();
+    }
+
+    /**
+     * 跳转到计划的指定秒
+     */
+    public ScheduleStatus jump(UrlConfig urlConfig, int second) {
+        ScheduleState state = getState(urlConfig);
+        state.jump(second);
+        logger.info("QPS计划跳转: {} -> {}秒", urlConfig.getPattern(), second);
+        return state.getStatus();
+    }
+
+    /**
+     * 获取计划状态
+     */
+    public ScheduleStatus getStatus(UrlConfig urlConfig) {
+        return getState(urlConfig).getStatus();
+    }
+
+    /**
+     * 获取或编译计划状态（管理接口与定时线程使用），配置对象被替换后重新编译；
+     * 编译在映射锁之外进行，并发编译同一配置时保留先发布的一份
+     */
+    private ScheduleState getState(UrlConfig urlConfig) {
+        QpsScheduleConfig config = urlConfig.getSchedule();
+        String key = urlConfig.getStatsKey();
+        ScheduleState state = states.get(key);
+        if (state != null && state.config == config) {
+            return state;
+        }
+        ScheduleState compiled = compile(key, config);
+        return states.compute(key, (pattern, existing) ->
+                existing != null && existing.config == config ? existing : compiled);
+    }
+
+    private void compileAll(List<UrlConfig> urlConfigs) {
+        for (UrlConfig urlConfig : urlConfigs) {
+            if (urlConfig.isScheduleEnabled()) {
+                getState(urlConfig);
+            }
+        }
+    }
+
+    /**
+     * 在定时线程上编译计划，同一URL模式只提交一次
+     */
+    private void compileLater(UrlConfig urlConfig) {
+        String key = urlConfig.getStatsKey();
+        if (!compiling.add(key)) {
+            return;
+        }
+        tickExecutor.execute(() -> {
+            try {
+                getState(urlConfig);
+            } catch (RuntimeException e) {
+                logger.error("QPS计划编译失败: {}", urlConfig.getPattern(), e);
+            } finally {
+                compiling.remove(key);
+            }
+        });
+    }
+
+    private void refreshAll() {
+        for (ScheduleState state : states.values()) {
+            state.refresh();
+        }
+    }
+
+    /**
+     * 将计划预计算为按秒索引的数组
+     */
+    private ScheduleState compile(String pattern, QpsScheduleConfig config) {
+        int[] qps;
+        int[] latency;
+        if (config.getCsvPath() != null && !config.getCsvPath().trim().isEmpty()) {
+            int[][] curve = loadCsv(config.getCsvPath());
+            qps = curve[0];
+            latency = curve[1];
+        } else {
+            // 按long累加，各段时长之和超出int范围时也能正确截断
+            long total = 0;
+            for (ScheduleSegment segment : config.getSegments()) {
+                total += Math.max(0, segment.getDurationSeconds());
+            }
+            int length = (int) Math.min(total, MAX_SCHEDULE_SECONDS);
+            qps = new int[length];
+            latency = new int[length];
+            boolean hasLatency = false;
+            int second = 0;
+            for (ScheduleSegment segment : config.getSegments()) {
+                for (int offset = 0; offset < segment.getDurationSeconds() && second < length; offset++, second++) {
+                    qps[second] = segment.qpsAt(offset);
+                    latency[second] = segment.latencyAt(offset);
+                    hasLatency |= latency[second] >= 0;
+                }
+            }
+            if (!hasLatency) {
+                latency = null;
+            }
+        }
+        logger.info("QPS计划编译完成: {}, 长度: {}秒, 循环: {}", pattern, qps.length, config.isLoop());
+        ScheduleState state = new ScheduleState(pattern, config, qps, latency);
+        state.autoStartPending = config.isAutoStart();
+        return state;
+    }
+
+    /**
+     * 读取CSV曲线（秒,QPS[,延迟毫秒]），采样点之间线性插值
+     */
+    private int[][] loadCsv(String csvPath) {
+        TreeMap<Integer, double[]> points = new TreeMap<>();
+        boolean hasLatency = false;
+        try {
+            for (String line : Files.readAllLines(Paths.get(csvPath), StandardCharsets.UTF_8)) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#") || !Character.isDigit(trimmed.charAt(0))) {
+                    continue;
+                }
+                String[] columns = trimmed.split(",");
+                int second = Integer.parseInt(columns[0].trim());
+                double qps = Double.parseDouble(columns[1].trim());
+                double latency = columns.length > 2 ? Double.parseDouble(columns[2].trim()) : -1;
+                hasLatency |= latency >= 0;
+                points.put(second, new double[]{qps, latency});
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("QPS计划CSV读取失败: {}", csvPath, e);
+            return new int[][]{new int[0], null};
+        }
+        if (points.isEmpty()) {
+            return new int[][]{new int[0], null};
+        }
+
+        int length = Math.min(points.lastKey() + 1, MAX_SCHEDULE_SECONDS);
+        int[] qps = new int[length];
+        int[] latency = hasLatency ? new int[length] : null;
+        List<Integer> seconds = new ArrayList<>(points.keySet());
+        for (int i = 0; i < seconds.size(); i++) {
+            int from = seconds.get(i);
+            int to = i + 1 < seconds.size() ? seconds.get(i + 1) : from + 1;
+            double[] fromPoint = points.get(from);
+            double[] toPoint = i + 1 < seconds.size() ? points.get(to) : fromPoint;
+            for (int second = Math.max(0, i == 0 ? 0 : from); second < to && second < length; second++) {
+                double ratio = second <= from ? 0.0 : (double) (second - from) / (to - from);
+                qps[second] = (int) Math.round(fromPoint[0] + (toPoint[0] - fromPoint[0]) * ratio);
+                if (latency != null) {
+                    latency[second] = fromPoint[1] < 0 ? -1
+                            : (int) Math.round(fromPoint[1] + (Math.max(0, toPoint[1]) - fromPoint[1]) * ratio);
+                }
+            }
+        }
+        return new int[][]{qps, latency};
+    }
+
+    /**
+     * 计划运行状态内部类
+     * 计时字段由synchronized方法维护，当前值通过volatile字段发布给请求线程
+     */
+    static final class ScheduleState {
+        private final String pattern;
+        private final QpsScheduleConfig config;
+        private final int[] qpsBySecond;
+        private final int[] latencyBySecond;
+        private boolean running;
+        private long startNanos;
+        private long pausedElapsedNanos;
+        private volatile int currentSecond = -1;
+        private volatile int currentQps = -1;
+        private volatile int currentLatencyMs = -1;
+        private volatile boolean autoStartPending;
+
+        ScheduleState(String pattern, QpsScheduleConfig config, int[] qpsBySecond, int[] latencyBySecond) {
+            this.pattern = pattern;
+            this.config = config;
+            this.qpsBySecond = qpsBySecond;
+            this.latencyBySecond = latencyBySecond;
+        }
+
+        /**
+         * 当前秒的目标QPS，计划未开始时返回fallback
+         */
+        int targetQps(int fallback) {
+            int qps = currentQps;
+            return qps >= 0 ? qps : fallback;
+        }
+
+        /**
+         * 当前秒的附加延迟（毫秒），未配置延迟时返回-1
+         */
+        int latencyMs() {
+            return currentLatencyMs;
+        }
+
+        /**
+         * 首次请求时开始计时，之前已通过管理接口开始或控制过时不再重新开始
+         */
+        synchronized void autoStart() {
+            if (autoStartPending) {
+                start();
+            }
+        }
+
+        synchronized void start() {
+            autoStartPending = false;
+            startNanos = System.nanoTime();
+            pausedElapsedNanos = 0;
+            running = true;
+            refresh();
+        }
+
+        synchronized void pause() {
+            autoStartPending = false;
+            if (running) {
+                pausedElapsedNanos = System.nanoTime() - startNanos;
+                running = false;
+            }
+        }
+
+        synchronized void resume() {
+            autoStartPending = false;
+            if (!running) {
+                startNanos = System.nanoTime() - pausedElapsedNanos;
+                running = true;
+            }
+            refresh();
+        }
+
+        synchronized void jump(int second) {
+            autoStartPending = false;
+            long elapsed = TimeUnit.SECONDS.toNanos(Math.max(0, second));
+            if (running) {
+                startNanos = System.nanoTime() - elapsed;
+            } else {
+                pausedElapsedNanos = elapsed;
+                // 跳转后即使处于暂停状态也立即生效
+                publish(second);
+            }
+            refresh();
+        }
+
+        synchronized void refresh() {
+            if (running) {
+                publish((int) TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos));
+            }
+        }
+
+        private void publish(int elapsedSecond) {
+            if (qpsBySecond.length == 0) {
+                return;
+            }
+            int index = config.isLoop() ? elapsedSecond % qpsBySecond.length
+                                        : Math.min(elapsedSecond, qpsBySecond.length - 1);
+            if (index == currentSecond) {
+                return;
+            }
+            currentSecond = index;
+            currentQps = qpsBySecond[index];
+            currentLatencyMs = latencyBySecond != null ? latencyBySecond[index] : -1;
+        }
+
+        synchronized ScheduleStatus getStatus() {
+            long elapsed = running ? System.nanoTime() - startNanos : pausedElapsedNanos;
+            return new ScheduleStatus(pattern, running, TimeUnit.NANOSECONDS.toSeconds(elapsed),
+                                      qpsBySecond.length, config.isLoop(), currentQps, currentLatencyMs);
+        }
+    }
+
+    /**
+     * QPS计划状态信息
+     */
+    public static class ScheduleStatus {
+        private final String pattern;
+        private final boolean running;
+        private final long elapsedSeconds;
+        private final int lengthSeconds;
+        private final boolean loop;
+        private final int currentQps;
+        private final int currentLatencyMs;
+
+        public ScheduleStatus(String pattern, boolean running, long elapsedSeconds, int lengthSeconds,
+                              boolean loop, int currentQps, int currentLatencyMs) {
+            this.pattern = pattern;
+            this.running = running;
+            this.elapsedSeconds = elapsedSeconds;
+            this.lengthSeconds = lengthSeconds;
+            this.loop = loop;
+            this.currentQps = currentQps;
+            this.currentLatencyMs = currentLatencyMs;
+        }
+
+        // Getters
+        public String getPattern() { return pattern; }
+        public boolean isRunning() { return running; }
+        public long getElapsedSeconds() { return elapsedSeconds; }
+        public int getLengthSeconds() { return lengthSeconds; }
+        public boolean isLoop() { return loop; }
+        public int getCurrentQps() { return currentQps; }
+        public int getCurrentLatencyMs() { return currentLatencyMs; }
+    }
+}
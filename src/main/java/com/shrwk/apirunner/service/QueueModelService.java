@@ -0,0 +1,347 @@
+package com.shrwk.apirunner.service;
+
+import com.shrwk.apirunner.config.ApiConfig;
+import com.shrwk.apirunner.model.QueueModelConfig;
+import com.shrwk.apirunner.model.UrlConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 排队模型服务
+ * 将URL模式模拟为虚拟多服务台队列（M/M/c/K等），请求分配到最早空闲的虚拟服务台，
+ * 响应由定时器在服务完成时刻释放，不占用阻塞线程
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+public class QueueModelService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueueModelService.class);
+
+    @Autowired
+    private ApiConfig apiConfig;
+
+    /**
+     * URL模式对应的虚拟队列
+     */
+    private final ConcurrentHashMap<String, VirtualQueue> queues = new ConcurrentHashMap<>();
+
+    /**
+     * 响应释放定时器
+     */
+    private ScheduledThreadPoolExecutor releaseTimer;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger(0);
+        releaseTimer = new ScheduledThreadPoolExecutor(Math.max(1, apiConfig.getQueueModelTimerThreads()), r -> {
+            Thread thread = new Thread(r, "queue-model-release-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        releaseTimer.setRemoveOnCancelPolicy(true);
+        logger.info("排队模型服务初始化完成，释放定时器线程数: {}", releaseTimer.getCorePoolSize());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (releaseTimer != null) {
+            releaseTimer.shutdownNow();
+        }
+    }
+
+    /**
+     * 提交请求到虚拟队列
+     * 分配成功时在服务完成时刻执行onRelease并返回true，队列已满时返回false
+     */
+    public boolean submit(UrlConfig urlConfig, ReleaseListener onRelease) {
+        QueueModelConfig config = urlConfig.getQueueModel();
+        VirtualQueue queue = queues.get(urlConfig.getStatsKey());
+        if (queue == null) {
+            queue = queues.computeIfAbsent(urlConfig.getStatsKey(), VirtualQueue::new);
+        }
+
+        long now = System.nanoTime();
+        long serviceNanos = sampleServiceTimeNanos(config);
+        long finishNanos = queue.schedule(config, now, serviceNanos);
+        if (finishNanos < 0) {
+            return false;
+        }
+
+        queue.inSystem.incrementAndGet();
+        long delayNanos = finishNanos - now;
+        if (delayNanos <= 0) {
+            queue.release(onRelease);
+        } else {
+            VirtualQueue target = queue;
+            releaseTimer.schedule(() -> target.release(onRelease), delayNanos, TimeUnit.NANOSECONDS);
+        }
+        return true;
+    }
+
+    /**
+     * 按配置的分布采样一次服务时间（纳秒）
+     */
+    long sampleServiceTimeNanos(QueueModelConfig config) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double mean = config.getMeanServiceTimeMs();
+        double ms;
+        switch (config.getDistribution()) {
+            case CONSTANT:
+                ms = mean;
+                break;
+            case UNIFORM:
+                ms = config.getMinServiceTimeMs()
+                        + random.nextDouble() * (config.getMaxServiceTimeMs() - config.getMinServiceTimeMs());
+                break;
+            case LOGNORMAL:
+                double variance = config.getStdDevServiceTimeMs() * config.getStdDevServiceTimeMs();
+                double sigma2 = Math.log(1 + variance / (mean * mean));
+                double mu = Math.log(mean) - sigma2 / 2;
+                ms = Math.exp(mu + Math.sqrt(sigma2) * random.nextGaussian());
+                break;
+            case EXPONENTIAL:
+            default:
+                ms = -mean * Math.log(1 - random.nextDouble());
+                break;
+        }
+        return (long) (Math.max(0.0, ms) * 1_000_000);
+    }
+
+    /**
+     * 获取指定URL模式的排队模型统计
+     */
+    public QueueModelStats getStats(String pattern) {
+        VirtualQueue queue = queues.get(pattern);
+        return queue != null ? queue.getStats() : null;
+    }
+
+    /**
+     * 获取所有排队模型统计
+     */
+    public List<QueueModelStats> getAllStats() {
+        List<QueueModelStats> result = new ArrayList<>(queues.size());
+        for (VirtualQueue queue : queues.values()) {
+            result.add(queue.getStats());
+        }
+        return result;
+    }
+
+    /**
+     * 虚拟多服务台队列内部类
+     * 服务台空闲时刻保存在最小堆中，FIFO下各请求的开始服务时刻单调不减，
+     * 因此等待中的请求只需一个按开始时刻排列的环形数组即可统计队列长度
+     */
+    private static class VirtualQueue {
+        private final String pattern;
+        private long[] serverFreeAt = new long[0];
+        private long[] waitingStarts = new long[0];
+        private int waitingHead;
+        private int waitingSize;
+        private final LongAdder served = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final LongAdder totalServiceNanos = new LongAdder();
+        private final long createdNanos = System.nanoTime();
+        private volatile int servers;
+
+        /**
+         * 已分配服务台但尚未释放响应的请求数（排队中+服务中）
+         */
+        private final AtomicInteger inSystem = new AtomicInteger(0);
+
+        VirtualQueue(String pattern) {
+            this.pattern = pattern;
+        }
+
+        /**
+         * 为请求分配虚拟服务台，返回服务完成时刻，队列已满返回-1
+         */
+        synchronized long schedule(QueueModelConfig config, long now, long serviceNanos) {
+            if (serverFreeAt.length != Math.max(1, config.getServers())) {
+                resizeServers(Math.max(1, config.getServers()), now);
+            }
+            if (waitingStarts.length != Math.max(1, config.getQueueCapacity())) {
+                resizeWaiting(Math.max(1, config.getQueueCapacity()));
+            }
+
+            // 移除已经开始服务的等待记录
+            while (waitingSize > 0 && waitingStarts[waitingHead] <= now) {
+                waitingHead = (waitingHead + 1) % waitingStarts.length;
+                waitingSize--;
+            }
+
+            long start = Math.max(now, serverFreeAt[0]);
+            if (start > now) {
+                if (waitingSize >= config.getQueueCapacity()) {
+                    rejected.increment();
+                    return -1;
+                }
+                waitingStarts[(waitingHead + waitingSize) % waitingStarts.length] = start;
+                waitingSize++;
+            }
+
+            long finish = start + serviceNanos;
+            serverFreeAt[0] = finish;
+            siftDown(serverFreeAt);
+
+            served.increment();
+            totalWaitNanos.add(start - now);
+            totalServiceNanos.add(serviceNanos);
+            return finish;
+        }
+
+        /**
+         * 释放响应：FIFO多服务台队列中服务台不会在有请求等待时空闲，忙碌服务台数即min(系统内请求数, 服务台数)
+         */
+        void release(ReleaseListener listener) {
+            int current = inSystem.get();
+            try {
+                listener.onRelease(current, Math.min(current, servers));
+            } finally {
+                inSystem.decrementAndGet();
+            }
+        }
+
+        private void resizeServers(int count, long now) {
+            long[] resized = new long[count];
+            for (int i = 0; i < count; i++) {
+                resized[i] = now;
+            }
+            // 缩容或扩容时保留尚未空闲的服务台，避免丢失进行中的服务
+            long[] old = serverFreeAt;
+            Arrays.sort(old);
+            for (int i = 0; i < Math.min(count, old.length); i++) {
+                resized[i] = Math.max(now, old[old.length - 1 - i]);
+            }
+            Arrays.sort(resized);
+            serverFreeAt = resized;
+            servers = count;
+        }
+
+        private void resizeWaiting(int capacity) {
+            long[] resized = new long[capacity];
+            int keep = Math.min(capacity, waitingSize);
+            for (int i = 0; i < keep; i++) {
+                resized[i] = waitingStarts[(waitingHead + i) % waitingStarts.length];
+            }
+            waitingStarts = resized;
+            waitingHead = 0;
+            waitingSize = keep;
+        }
+
+        private static void siftDown(long[] heap) {
+            int index = 0;
+            int size = heap.length;
+            long value = heap[0];
+            while (true) {
+                int child = 2 * index + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (heap[child] >= value) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = value;
+        }
+
+        synchronized QueueModelStats getStats() {
+            long now = System.nanoTime();
+            int busy = 0;
+            for (long freeAt : serverFreeAt) {
+                if (freeAt > now) {
+                    busy++;
+                }
+            }
+            int waiting = 0;
+            for (int i = 0; i < waitingSize; i++) {
+                if (waitingStarts[(waitingHead + i) % waitingStarts.length] > now) {
+                    waiting++;
+                }
+            }
+            long servedCount = served.sum();
+            long serviceNanos = totalServiceNanos.sum();
+            double elapsedNanos = Math.max(1, now - createdNanos);
+            return new QueueModelStats(
+                pattern,
+                servers,
+                busy,
+                waiting,
+                servedCount,
+                rejected.sum(),
+                servedCount > 0 ? totalWaitNanos.sum() / 1_000_000.0 / servedCount : 0.0,
+                servedCount > 0 ? serviceNanos / 1_000_000.0 / servedCount : 0.0,
+                servers > 0 ? Math.min(1.0, serviceNanos / (elapsedNanos * servers)) : 0.0
+            );
+        }
+    }
+
+    /**
+     * 服务完成回调
+     * 参数为释放时刻虚拟队列中的请求数（含本请求）与忙碌的虚拟服务台数
+     */
+    @FunctionalInterface
+    public interface ReleaseListener {
+        void onRelease(int inSystem, int busyServers);
+    }
+
+    /**
+     * 排队模型统计信息
+     */
+    public static class QueueModelStats {
+        private final String pattern;
+        private final int servers;
+        private final int busyServers;
+        private final int waiting;
+        private final long served;
+        private final long rejected;
+        private final double avgWaitMs;
+        private final double avgServiceMs;
+        private final double utilization;
+
+        public QueueModelStats(String pattern, int servers, int busyServers, int waiting, long served,
+                               long rejected, double avgWaitMs, double avgServiceMs, double utilization) {
+            this.pattern = pattern;
+            this.servers = servers;
+            this.busyServers = busyServers;
+            this.waiting = waiting;
+            this.served = served;
+            this.rejected = rejected;
+            this.avgWaitMs = avgWaitMs;
+            this.avgServiceMs = avgServiceMs;
+            this.utilization = utilization;
+        }
+
+        // Getters
+        public String getPattern() { return pattern; }
+        public int getServers() { return servers; }
+        public int getBusyServers() { return busyServers; }
+        public int getWaiting() { return waiting; }
+        public long getServed() { return served; }
+        public long getRejected() { return rejected; }
+        public double getAvgWaitMs() { return avgWaitMs; }
+        public double getAvgServiceMs() { return avgServiceMs; }
+        public double getUtilization() { return utilization; }
+    }
+}
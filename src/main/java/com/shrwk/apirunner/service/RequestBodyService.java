@@ -0,0 +1,236 @@
+package com.shrwk.apirunner.service;
+
+import com.shrwk.apirunner.config.BodyMode;
+import com.shrwk.apirunner.model.UrlConfig;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * 请求体处理服务
+ * 为DISCARD/CHECKSUM/ECHO模式提供线程复用的读取缓冲区、校验算法和按URL模式的字节计数。
+ * 请求体只经过固定大小的缓冲区，不在堆上完整保存；校验使用CRC32C，运行时没有CRC32C（Java 8）时使用CRC32
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+public class RequestBodyService {
+
+    /**
+     * 读取缓冲区大小
+     */
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 每个线程复用的读取缓冲区
+     */
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() -> new byte[BUFFER_SIZE]);
+
+    /**
+     * CRC32C的构造器（Java 9起才有），运行时不存在时为null；通过反射创建，保证在Java 8上编译和运行
+     */
+    private static final Constructor<? extends Checksum> CRC32C_CONSTRUCTOR = loadCrc32cConstructor();
+
+    /**
+     * URL模式对应的请求体计数
+     */
+    private final ConcurrentHashMap<String, PatternBodies> patterns = new ConcurrentHashMap<>();
+
+    /**
+     * 当前线程的读取缓冲区，在本线程下次使用前有效
+     */
+    public static byte[] buffer() {
+        return BUFFER.get();
+    }
+
+    /**
+     * 读完请求体并丢弃，checksum不为空时同时更新校验值，返回读取的字节数
+     */
+    public long drain(InputStream in, Checksum checksum) throws IOException {
+        byte[] buffer = BUFFER.get();
+        long total = 0;
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            if (checksum != null) {
+                checksum.update(buffer, 0, n);
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * 创建请求体校验对象
+     */
+    public Checksum newChecksum() {
+        if (CRC32C_CONSTRUCTOR != null) {
+            try {
+                return CRC32C_CONSTRUCTOR.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("创建CRC32C失败", e);
+            }
+        }
+        return new CRC32();
+    }
+
+    /**
+     * 当前使用的校验算法
+     */
+    public String getChecksumAlgorithm() {
+        return CRC32C_CONSTRUCTOR != null ? "CRC32C" : "CRC32";
+    }
+
+    /**
+     * 记录读完并丢弃的请求体
+     */
+    public void recordDrained(UrlConfig urlConfig, long bytes) {
+        PatternBodies counters = counters(urlConfig);
+        counters.requests.increment();
+        counters.bytesRead.add(bytes);
+    }
+
+    /**
+     * 记录计算了校验值的请求体，verified表示请求带有期望的校验值
+     */
+    public void recordChecksum(UrlConfig urlConfig, long bytes, boolean verified, boolean matched) {
+        PatternBodies counters = counters(urlConfig);
+        counters.requests.increment();
+        counters.bytesRead.add(bytes);
+        if (verified) {
+            counters.checksumsVerified.increment();
+            if (!matched) {
+                counters.checksumMismatches.increment();
+            }
+        }
+    }
+
+    /**
+     * 记录回显完成的请求体
+     */
+    public void recordEchoed(UrlConfig urlConfig, long bytes) {
+        PatternBodies counters = counters(urlConfig);
+        counters.requests.increment();
+        counters.bytesRead.add(bytes);
+        counters.bytesEchoed.add(bytes);
+    }
+
+    /**
+     * 记录读取或回显中途出错（客户端断开、超时）的请求体，bytes为已处理的字节数
+     */
+    public void recordAborted(UrlConfig urlConfig, long bytes, boolean echo) {
+        PatternBodies counters = counters(urlConfig);
+        counters.aborted.increment();
+        counters.bytesRead.add(bytes);
+        if (echo) {
+            counters.bytesEchoed.add(bytes);
+        }
+    }
+
+    /**
+     * 获取指定URL模式的请求体统计
+     */
+    public BodyStats getStats(String pattern) {
+        PatternBodies counters = patterns.get(pattern);
+        return counters != null ? counters.getStats() : null;
+    }
+
+    /**
+     * 获取所有请求体统计
+     */
+    public List<BodyStats> getAllStats() {
+        List<BodyStats> result = new ArrayList<>(patterns.size());
+        for (PatternBodies counters : patterns.values()) {
+            result.add(counters.getStats());
+        }
+        return result;
+    }
+
+    private PatternBodies counters(UrlConfig urlConfig) {
+        PatternBodies counters = patterns.get(urlConfig.getStatsKey());
+        if (counters == null) {
+            counters = patterns.computeIfAbsent(urlConfig.getStatsKey(), PatternBodies::new);
+        }
+        counters.mode = urlConfig.getBodyMode();
+        return counters;
+    }
+
+    private static Constructor<? extends Checksum> loadCrc32cConstructor() {
+        try {
+            return Class.forName("java.util.zip.CRC32C").asSubclass(Checksum.class).getDeclaredConstructor();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * 单个URL模式的请求体计数器
+     */
+    private class PatternBodies {
+        private final String pattern;
+        private volatile BodyMode mode;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder bytesRead = new LongAdder();
+        private final LongAdder bytesEchoed = new LongAdder();
+        private final LongAdder checksumsVerified = new LongAdder();
+        private final LongAdder checksumMismatches = new LongAdder();
+        private final LongAdder aborted = new LongAdder();
+
+        PatternBodies(String pattern) {
+            this.pattern = pattern;
+        }
+
+        BodyStats getStats() {
+            return new BodyStats(pattern, mode, requests.sum(), bytesRead.sum(), bytesEchoed.sum(),
+                                 checksumsVerified.sum(), checksumMismatches.sum(), aborted.sum(),
+                                 getChecksumAlgorithm());
+        }
+    }
+
+    /**
+     * 请求体统计信息
+     */
+    public static class BodyStats {
+        private final String pattern;
+        private final BodyMode mode;
+        private final long requests;
+        private final long bytesRead;
+        private final long bytesEchoed;
+        private final long checksumsVerified;
+        private final long checksumMismatches;
+        private final long aborted;
+        private final String checksumAlgorithm;
+
+        public BodyStats(String pattern, BodyMode mode, long requests, long bytesRead, long bytesEchoed,
+                         long checksumsVerified, long checksumMismatches, long aborted, String checksumAlgorithm) {
+            this.pattern = pattern;
+            this.mode = mode;
+            this.requests = requests;
+            this.bytesRead = bytesRead;
+            this.bytesEchoed = bytesEchoed;
+            this.checksumsVerified = checksumsVerified;
+            this.checksumMismatches = checksumMismatches;
+            this.aborted = aborted;
+            this.checksumAlgorithm = checksumAlgorithm;
+        }
+
+        // Getters
+        public String getPattern() { return pattern; }
+        public BodyMode getMode() { return mode; }
+        public long getRequests() { return requests; }
+        public long getBytesRead() { return bytesRead; }
+        public long getBytesEchoed() { return bytesEchoed; }
+        public long getChecksumsVerified() { return checksumsVerified; }
+        public long getChecksumMismatches() { return checksumMismatches; }
+        public long getAborted() { return aborted; }
+        public String getChecksumAlgorithm() { return checksumAlgorithm; }
+    }
+}
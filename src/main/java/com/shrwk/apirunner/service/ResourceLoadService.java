@@ -0,0 +1,326 @@
+package com.shrwk.apirunner.service;
+
+import com.shrwk.apirunner.config.ApiConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 资源消耗服务
+ * 为ALLOC和IO两种QPS控制方式消耗指定的时间：
+ * ALLOC分配并保留工作集直到其生命周期结束，模拟GC受限的后端，保留总量有上限，到期的工作集由后台定时释放；
+ * IO对临时文件做同步写入或随机读取，模拟磁盘受限的后端
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+public class ResourceLoadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceLoadService.class);
+
+    private static final String DEFAULT_SCRATCH_FILE = "api-runner-io.dat";
+
+    /**
+     * 获取物理内存大小的方法名，按顺序尝试
+     */
+    private static final String[] PHYSICAL_MEMORY_METHODS = {"getTotalMemorySize", "getTotalPhysicalMemorySize"};
+
+    @Autowired
+    private ApiConfig apiConfig;
+
+    /**
+     * 仍在生命周期内的工作集，按分配时间排序
+     */
+    private final ConcurrentLinkedQueue<WorkingSet> retained = new ConcurrentLinkedQueue<>();
+    private final AtomicLong retainedBytes = new AtomicLong();
+    private final AtomicBoolean retainCapLogged = new AtomicBoolean();
+
+    /**
+     * 定时释放到期工作集的线程，首次使用ALLOC时创建
+     */
+    private volatile ScheduledExecutorService expirer;
+
+    /**
+     * 防止分配被JIT消除
+     */
+    private volatile int allocSink;
+
+    private final Object scratchLock = new Object();
+    private volatile FileChannel scratchChannel;
+    private RandomAccessFile scratchFile;
+    private long scratchBlocks;
+
+    private final ThreadLocal<ByteBuffer> ioBuffers = new ThreadLocal<>();
+
+    /**
+     * 通过内存分配消耗时间
+     * 先分配一个工作集并保留到生命周期结束（保留总量达到上限时不保留），剩余时间持续分配短命对象
+     */
+    public void consumeAlloc(long allocTimeMs) {
+        if (allocTimeMs <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long deadline = now + allocTimeMs;
+        startExpirer();
+
+        int objectBytes = Math.max(16, apiConfig.getAllocObjectBytes());
+        int objectCount = Math.max(1, apiConfig.getAllocBytesPerRequest() / objectBytes);
+        long bytes = (long) objectCount * objectBytes;
+        byte[][] objects = new byte[objectCount][];
+        for (int i = 0; i < objectCount; i++) {
+            objects[i] = touch(new byte[objectBytes]);
+        }
+        long maxRetained = maxRetainedBytes();
+        if (retainedBytes.addAndGet(bytes) <= maxRetained) {
+            retained.add(new WorkingSet(now + apiConfig.getAllocLifetimeMs(), objects, bytes));
+        } else {
+            retainedBytes.addAndGet(-bytes);
+            if (retainCapLogged.compareAndSet(false, true)) {
+                logger.warn("ALLOC保留的工作集达到上限 {} 字节，新的工作集不再保留", maxRetained);
+            }
+        }
+
+        int sink = 0;
+        while (System.currentTimeMillis() < deadline) {
+            for (int i = 0; i < objectCount; i++) {
+                sink += touch(new byte[objectBytes]).length;
+            }
+        }
+        allocSink = sink;
+    }
+
+    /**
+     * 通过磁盘IO消耗时间
+     * 在临时文件上按块随机写入并fsync，或随机读取，直到时间用完（至少一次）
+     */
+    public void consumeIo(long ioTimeMs) {
+        if (ioTimeMs <= 0) {
+            return;
+        }
+        long deadline = System.currentTimeMillis() + ioTimeMs;
+        FileChannel channel = scratchChannel();
+        if (channel == null) {
+            return;
+        }
+
+        int blockBytes = apiConfig.getIoBlockBytes();
+        ByteBuffer buffer = ioBuffers.get();
+        if (buffer == null || buffer.capacity() != blockBytes) {
+            buffer = ByteBuffer.allocateDirect(blockBytes);
+            ioBuffers.set(buffer);
+        }
+
+        boolean write = apiConfig.isIoSyncWrites();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            do {
+                long position = random.nextLong(scratchBlocks) * blockBytes;
+                buffer.clear();
+                if (write) {
+                    buffer.putLong(0, random.nextLong());
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer, position + buffer.position());
+                    }
+                    channel.force(false);
+                } else {
+                    while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) {
+                        // 读满一个块
+                    }
+                }
+            } while (System.currentTimeMillis() < deadline);
+        } catch (IOException e) {
+            logger.warn("IO消耗失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 当前保留的工作集大小（字节）
+     */
+    public long getRetainedBytes() {
+        return retainedBytes.get();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (expirer != null) {
+            expirer.shutdownNow();
+        }
+        retained.clear();
+        retainedBytes.set(0);
+        synchronized (scratchLock) {
+            if (scratchFile != null) {
+                try {
+                    scratchFile.close();
+                } catch (IOException e) {
+                    logger.warn("关闭IO临时文件失败: {}", e.getMessage());
+                }
+                scratchFile = null;
+                scratchChannel = null;
+            }
+        }
+    }
+
+    /**
+     * 保留工作集的总量上限，未配置时为最大堆的四分之一
+     */
+    private long maxRetainedBytes() {
+        long configured = apiConfig.getAllocMaxRetainedBytes();
+        return configured > 0 ? configured : Runtime.getRuntime().maxMemory() / 4;
+    }
+
+    /**
+     * 按保留时间的一半（10ms到100ms之间）定时释放到期的工作集，空闲时不会因等待下一个请求而一直保留
+     */
+    private void startExpirer() {
+        if (expirer != null) {
+            return;
+        }
+        synchronized (retained) {
+            if (expirer != null) {
+                return;
+            }
+            ScheduledExecutorService created = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "alloc-expirer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long periodMs = Math.max(10, Math.min(100, apiConfig.getAllocLifetimeMs() / 2));
+            created.scheduleAtFixedRate(() -> expireWorkingSets(System.currentTimeMillis()), periodMs, periodMs,
+                                        TimeUnit.MILLISECONDS);
+            expirer = created;
+        }
+    }
+
+    private void expireWorkingSets(long now) {
+        WorkingSet head;
+        while ((head = retained.peek()) != null && head.expiresAt <= now) {
+            if (retained.remove(head)) {
+                retainedBytes.addAndGet(-head.bytes);
+            }
+        }
+    }
+
+    private static byte[] touch(byte[] object) {
+        object[0] = 1;
+        object[object.length - 1] = 1;
+        return object;
+    }
+
+    /**
+     * 首次使用时创建并填充临时文件，避免稀疏文件的读取不落盘
+     */
+    private FileChannel scratchChannel() {
+        FileChannel channel = scratchChannel;
+        if (channel != null) {
+            return channel;
+        }
+        synchronized (scratchLock) {
+            if (scratchChannel != null) {
+                return scratchChannel;
+            }
+            String configured = apiConfig.getIoScratchPath();
+            File path = configured == null || configured.trim().isEmpty()
+                    ? new File(System.getProperty("java.io.tmpdir"), DEFAULT_SCRATCH_FILE)
+                    : new File(configured);
+            int blockBytes = apiConfig.getIoBlockBytes();
+            long blocks = Math.max(1, apiConfig.getIoScratchFileBytes() / blockBytes);
+            try {
+                RandomAccessFile raf = new RandomAccessFile(path, "rw");
+                FileChannel created = raf.getChannel();
+                if (created.size() < blocks * blockBytes) {
+                    fill(created, blocks * blockBytes);
+                }
+                scratchFile = raf;
+                scratchBlocks = blocks;
+                scratchChannel = created;
+                logger.info("IO临时文件: {}, 大小: {} 字节, 块大小: {}, 同步写入: {}",
+                           path.getAbsolutePath(), blocks * blockBytes, blockBytes, apiConfig.isIoSyncWrites());
+                long physicalBytes = physicalMemoryBytes();
+                if (!apiConfig.isIoSyncWrites() && blocks * blockBytes < physicalBytes) {
+                    logger.warn("IO临时文件小于物理内存（{} 字节），随机读取会命中页缓存而不落盘；"
+                                + "调大 io-scratch-file-bytes 或使用 io-sync-writes: true", physicalBytes);
+                }
+            } catch (IOException e) {
+                logger.error("创建IO临时文件失败: {}", path.getAbsolutePath(), e);
+            }
+            return scratchChannel;
+        }
+    }
+
+    /**
+     * 物理内存大小，无法获取时返回0
+     * 通过反射调用com.sun.management接口：优先使用Java 14起的getTotalMemorySize，
+     * 旧版本回退到已废弃的getTotalPhysicalMemorySize，非HotSpot运行时没有该接口
+     */
+    private static long physicalMemoryBytes() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        try {
+            Class<?> type = Class.forName("com.sun.management.OperatingSystemMXBean");
+            if (!type.isInstance(os)) {
+                return 0;
+            }
+            for (String name : PHYSICAL_MEMORY_METHODS) {
+                try {
+                    Method method = type.getMethod(name);
+                    return ((Number) method.invoke(os)).longValue();
+                } catch (NoSuchMethodException e) {
+                    // 尝试下一个方法名
+                }
+            }
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            logger.debug("无法获取物理内存大小", e);
+        }
+        return 0;
+    }
+
+    private static void fill(FileChannel channel, long size) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocateDirect(1024 * 1024);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (chunk.remaining() >= 8) {
+            chunk.putLong(random.nextLong());
+        }
+        for (long position = 0; position < size; position += chunk.capacity()) {
+            chunk.clear();
+            chunk.limit((int) Math.min(chunk.capacity(), size - position));
+            while (chunk.hasRemaining()) {
+                channel.write(chunk, position + chunk.position());
+            }
+        }
+        channel.force(true);
+    }
+
+    /**
+     * 保留中的工作集
+     */
+    private static class WorkingSet {
+        private final long expiresAt;
+        private final byte[][] objects;
+        private final long bytes;
+
+        WorkingSet(long expiresAt, byte[][] objects, long bytes) {
+            this.expiresAt = expiresAt;
+            this.objects = objects;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.shrwk.apirunner.service;
+
+import com.shrwk.apirunner.config.ApiConfig;
+import com.shrwk.apirunner.model.UrlConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.context.annotation.Lazy;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 响应模板服务
+ * 加载URL配置中的模板文件并定期检查修改时间，文件变化后重新编译并原子替换；
+ * 编译失败（如引用了模式中不存在的捕获）时记录错误并保留原模板。
+ * 也支持通过管理接口直接设置模板
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+@Lazy(false)
+public class ResponseTemplateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseTemplateService.class);
+
+    @Autowired
+    private ApiConfig apiConfig;
+
+    @Autowired
+    private UrlValidationService urlValidationService;
+
+    @Autowired
+    private VirtualServiceRegistry virtualServiceRegistry;
+
+    /**
+     * 已加载模板文件的版本（修改时间与大小），只由检查线程访问
+     */
+    private final Map<UrlConfig, String> loadedVersions = new IdentityHashMap<>();
+
+    private ScheduledExecutorService reloadExecutor;
+
+    @PostConstruct
+    public void init() {
+        reloadChanged();
+        long interval = apiConfig.getTemplateReloadIntervalMs();
+        if (interval > 0) {
+            reloadExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "template-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+            reloadExecutor.scheduleWithFixedDelay(this::reloadChanged, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (reloadExecutor != null) {
+            reloadExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * 直接设置URL配置的模板，null或空串表示恢复默认响应；模板无效时抛出IllegalArgumentException
+     */
+    public void setTemplate(UrlConfig urlConfig, String template) {
+        urlConfig.setResponseTemplate(template == null || template.isEmpty() ? null : template);
+        logger.info("响应模板已更新: {}", urlConfig.getStatsKey());
+    }
+
+    /**
+     * 重新加载修改过的模板文件
+     */
+    synchronized void reloadChanged() {
+        for (UrlConfig urlConfig : allUrlConfigs()) {
+            String path = urlConfig.getResponseTemplateFile();
+            if (path == null || path.isEmpty()) {
+                continue;
+            }
+            File file = new File(path);
+            String version = file.lastModified() + ":" + file.length();
+            if (version.equals(loadedVersions.get(urlConfig))) {
+                continue;
+            }
+            try {
+                String template = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+                urlConfig.setResponseTemplate(template);
+                logger.info("响应模板已加载: {} <- {}", urlConfig.getStatsKey(), file);
+            } catch (IOException | IllegalArgumentException e) {
+                logger.error("响应模板加载失败，保留原模板: {} <- {}: {}", urlConfig.getStatsKey(), file, e.getMessage());
+            }
+            loadedVersions.put(urlConfig, version);
+        }
+    }
+
+    private List<UrlConfig> allUrlConfigs() {
+        List<UrlConfig> configs = new ArrayList<>(urlValidationService.getAllUrlConfigs());
+        configs.addAll(virtualServiceRegistry.getAllUrlConfigs());
+        return configs;
+    }
+}
@@ -0,0 +1,427 @@
+package com.shrwk.apirunner.service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 运行报告文件格式（大端序，只追加）
+ * 文件头16字节：魔数、版本、创建时间；之后为若干数据块，每块覆盖一个刷新周期：
+ * 块头28字节（压缩长度、原始长度、压缩数据CRC32、首秒、末秒），块体为Deflate压缩的列式数据。
+ * 块内按URL模式分组，每个模式依次写出各列，每列首值与后续差值都以zigzag变长整数编码；
+ * 平稳运行时差值多为0，再经Deflate压缩后每行只占几个字节。
+ * 读取时跳过时间范围外的块，末尾不完整或校验失败的块（进程异常退出）被忽略
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public final class RunReportFormat {
+
+    /**
+     * 魔数（"ARRP"）
+     */
+    public static final int MAGIC = 0x41525250;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int BLOCK_HEADER_SIZE = 28;
+
+    /**
+     * 每行的列数（不含URL模式）
+     */
+    public static final int COLUMNS = 10;
+
+    public static final String CSV_HEADER =
+            "time,epochSecond,pattern,qps,concurrency,level,throttleMicros,rejected,p50Micros,p90Micros,p99Micros,maxMicros\n";
+
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private RunReportFormat() {
+    }
+
+    /**
+     * 行数据的列值：epochSecond、qps、concurrency、level、throttleMicros、rejected、p50、p90、p99、max
+     */
+    public static long[] toColumns(TimeSeriesService.TimeSeriesPoint point) {
+        return new long[]{
+            point.getEpochSecond(), point.getQps(), point.getConcurrency(), point.getLevel(),
+            point.getThrottleMicros(), point.getRejected(), point.getP50Micros(), point.getP90Micros(),
+            point.getP99Micros(), point.getMaxMicros()
+        };
+    }
+
+    /**
+     * 文件头
+     */
+    public static byte[] encodeHeader(long createdEpochSecond) {
+        byte[] header = new byte[HEADER_SIZE];
+        putInt(header, 0, MAGIC);
+        putInt(header, 4, VERSION);
+        putLong(header, 8, createdEpochSecond);
+        return header;
+    }
+
+    /**
+     * 编码一个数据块（块头+压缩块体），rows为按模式分组、组内按时间排序的行
+     */
+    public static byte[] encodeBlock(Map<String, List<long[]>> rows, Deflater deflater) {
+        long firstEpoch = Long.MAX_VALUE;
+        long lastEpoch = Long.MIN_VALUE;
+        VarintBuffer payload = new VarintBuffer(4096);
+        payload.writeVarLong(rows.size());
+        for (Map.Entry<String, List<long[]>> entry : rows.entrySet()) {
+            List<long[]> patternRows = entry.getValue();
+            byte[] pattern = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            payload.writeVarLong(pattern.length);
+            payload.write(pattern, 0, pattern.length);
+            payload.writeVarLong(patternRows.size());
+            for (int column = 0; column < COLUMNS; column++) {
+                long previous = 0;
+                for (long[] row : patternRows) {
+                    payload.writeVarLong(zigzag(row[column] - previous));
+                    previous = row[column];
+                }
+            }
+            firstEpoch = Math.min(firstEpoch, patternRows.get(0)[0]);
+            lastEpoch = Math.max(lastEpoch, patternRows.get(patternRows.size() - 1)[0]);
+        }
+
+        deflater.reset();
+        deflater.setInput(payload.array(), 0, payload.size());
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(payload.size() / 4 + 64);
+        byte[] chunk = new byte[8192];
+        while (!deflater.finished()) {
+            int length = deflater.deflate(chunk);
+            compressed.write(chunk, 0, length);
+        }
+        byte[] body = compressed.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+        byte[] block = new byte[BLOCK_HEADER_SIZE + body.length];
+        putInt(block, 0, body.length);
+        putInt(block, 4, payload.size());
+        putInt(block, 8, (int) crc.getValue());
+        putLong(block, 12, firstEpoch);
+        putLong(block, 20, lastEpoch);
+        System.arraycopy(body, 0, block, BLOCK_HEADER_SIZE, body.length);
+        return block;
+    }
+
+    /**
+     * 行回调：pattern与列值
+     */
+    public interface RowHandler {
+        void row(String pattern, long[] columns) throws IOException;
+    }
+
+    /**
+     * 读取[fromEpoch, toEpoch]范围内的行，pattern为空时读取所有模式；返回读取的行数
+     */
+    public static long read(File file, long fromEpoch, long toEpoch, String pattern, RowHandler handler)
+            throws IOException {
+        long count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 65536))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("不是有效的运行报告文件: " + file);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException("不支持的运行报告版本: " + version);
+            }
+            in.readLong();
+
+            Inflater inflater = new Inflater();
+            try {
+                while (true) {
+                    int compressedLength;
+                    int rawLength;
+                    int crc;
+                    long firstEpoch;
+                    long lastEpoch;
+                    byte[] body;
+                    try {
+                        compressedLength = in.readInt();
+                        rawLength = in.readInt();
+                        crc = in.readInt();
+                        firstEpoch = in.readLong();
+                        lastEpoch = in.readLong();
+                        if (compressedLength < 0 || rawLength < 0) {
+                            break;
+                        }
+                        if (lastEpoch < fromEpoch || firstEpoch > toEpoch) {
+                            skipFully(in, compressedLength);
+                            continue;
+                        }
+                        body = new byte[compressedLength];
+                        in.readFully(body);
+                    } catch (EOFException e) {
+                        // 文件末尾或写入中断的块
+                        break;
+                    }
+
+                    CRC32 check = new CRC32();
+                    check.update(body, 0, body.length);
+                    if ((int) check.getValue() != crc) {
+                        break;
+                    }
+                    byte[] raw = new byte[rawLength];
+                    inflater.reset();
+                    inflater.setInput(body);
+                    try {
+                        if (inflater.inflate(raw) != rawLength) {
+                            break;
+                        }
+                    } catch (DataFormatException e) {
+                        break;
+                    }
+                    count += decodeBlock(raw, fromEpoch, toEpoch, pattern, handler);
+                }
+            } finally {
+                inflater.end();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 解码一个块，各模式的行按时间归并后回调
+     */
+    private static long decodeBlock(byte[] raw, long fromEpoch, long toEpoch, String pattern, RowHandler handler)
+            throws IOException {
+        VarintReader reader = new VarintReader(raw);
+        int patterns = (int) reader.readVarLong();
+        List<String> names = new ArrayList<>(patterns);
+        List<long[][]> columnsByPattern = new ArrayList<>(patterns);
+        for (int p = 0; p < patterns; p++) {
+            int length = (int) reader.readVarLong();
+            String name = new String(raw, reader.position, length, StandardCharsets.UTF_8);
+            reader.position += length;
+            int rowCount = (int) reader.readVarLong();
+            long[][] columns = new long[COLUMNS][rowCount];
+            for (int column = 0; column < COLUMNS; column++) {
+                long previous = 0;
+                for (int row = 0; row < rowCount; row++) {
+                    previous += unzigzag(reader.readVarLong());
+                    columns[column][row] = previous;
+                }
+            }
+            if (pattern == null || pattern.equals(name)) {
+                names.add(name);
+                columnsByPattern.add(columns);
+            }
+        }
+
+        long count = 0;
+        int[] cursors = new int[names.size()];
+        while (true) {
+            int next = -1;
+            long nextEpoch = Long.MAX_VALUE;
+            for (int p = 0; p < cursors.length; p++) {
+                long[] epochs = columnsByPattern.get(p)[0];
+                if (cursors[p] < epochs.length && epochs[cursors[p]] < nextEpoch) {
+                    next = p;
+                    nextEpoch = epochs[cursors[p]];
+                }
+            }
+            if (next < 0) {
+                return count;
+            }
+            int row = cursors[next]++;
+            if (nextEpoch < fromEpoch || nextEpoch > toEpoch) {
+                continue;
+            }
+            long[][] columns = columnsByPattern.get(next);
+            long[] values = new long[COLUMNS];
+            for (int column = 0; column < COLUMNS; column++) {
+                values[column] = columns[column][row];
+            }
+            handler.row(names.get(next), values);
+            count++;
+        }
+    }
+
+    /**
+     * 扫描文件，返回最后一个完整且校验通过的块的结束位置；进程异常退出后据此截断残缺的尾部
+     */
+    public static long validLength(File file) throws IOException {
+        long valid = HEADER_SIZE;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 65536))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("不是有效的运行报告文件: " + file);
+            }
+            in.readInt();
+            in.readLong();
+            while (true) {
+                try {
+                    int compressedLength = in.readInt();
+                    in.readInt();
+                    int crc = in.readInt();
+                    in.readLong();
+                    in.readLong();
+                    if (compressedLength < 0) {
+                        break;
+                    }
+                    byte[] body = new byte[compressedLength];
+                    in.readFully(body);
+                    CRC32 check = new CRC32();
+                    check.update(body, 0, body.length);
+                    if ((int) check.getValue() != crc) {
+                        break;
+                    }
+                    valid += BLOCK_HEADER_SIZE + compressedLength;
+                } catch (EOFException e) {
+                    break;
+                }
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * 一行CSV
+     */
+    public static void appendCsv(StringBuilder builder, String pattern, long[] columns) {
+        builder.append(formatTime(columns[0])).append(',').append(columns[0]).append(',');
+        if (pattern.indexOf(',') >= 0 || pattern.indexOf('"') >= 0) {
+            builder.append('"').append(pattern.replace("\"", "\"\"")).append('"');
+        } else {
+            builder.append(pattern);
+        }
+        for (int column = 1; column < COLUMNS; column++) {
+            builder.append(',').append(columns[column]);
+        }
+        builder.append('\n');
+    }
+
+    /**
+     * 解析时间参数：epoch秒或本地时间 yyyy-MM-dd'T'HH:mm:ss；为空时返回默认值
+     */
+    public static long parseTime(String value, long defaultValue) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        String trimmed = value.trim();
+        if (trimmed.matches("-?\\d+")) {
+            return Long.parseLong(trimmed);
+        }
+        return LocalDateTime.parse(trimmed, TIME_FORMAT).atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    public static String formatTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0,
+                ZoneId.systemDefault().getRules().getOffset(Instant.ofEpochSecond(epochSecond)))
+                .format(TIME_FORMAT);
+    }
+
+    /**
+     * 按模式分组（保持首次出现顺序），组内按时间排序
+     */
+    public static Map<String, List<long[]>> groupByPattern(List<TimeSeriesService.TimeSeriesPoint> points) {
+        Map<String, List<long[]>> rows = new LinkedHashMap<>();
+        for (TimeSeriesService.TimeSeriesPoint point : points) {
+            rows.computeIfAbsent(point.getPattern(), k -> new ArrayList<>()).add(toColumns(point));
+        }
+        for (List<long[]> patternRows : rows.values()) {
+            patternRows.sort((a, b) -> Long.compare(a[0], b[0]));
+        }
+        return rows;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void skipFully(DataInputStream in, int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private static void putInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    private static void putLong(byte[] target, int offset, long value) {
+        putInt(target, offset, (int) (value >>> 32));
+        putInt(target, offset + 4, (int) value);
+    }
+
+    /**
+     * 可增长的变长整数写缓冲
+     */
+    private static final class VarintBuffer extends ByteArrayOutputStream {
+
+        VarintBuffer(int size) {
+            super(size);
+        }
+
+        void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+
+    /**
+     * 变长整数读取
+     */
+    private static final class VarintReader {
+        private final byte[] data;
+        private int position;
+
+        VarintReader(byte[] data) {
+            this.data = data;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= data.length) {
+                    throw new EOFException("块数据不完整");
+                }
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("变长整数过长");
+        }
+    }
+}
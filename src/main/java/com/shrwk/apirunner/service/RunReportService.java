@@ -0,0 +1,260 @@
+package com.shrwk.apirunner.service;
+
+import com.shrwk.apirunner.config.ApiConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.context.annotation.Lazy;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * 运行报告服务
+ * 接收时间序列服务的每秒采样点，由独立的写入线程按周期压缩成列式数据块追加到报告文件，
+ * 定期强制落盘；请求线程不参与。长时间压测结束后可按时间范围与URL模式导出CSV
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+@Lazy(false)
+public class RunReportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunReportService.class);
+
+    @Autowired
+    private ApiConfig apiConfig;
+
+    @Autowired
+    private TimeSeriesService timeSeriesService;
+
+    /**
+     * 待写入的采样点（采样线程放入，写入线程取出）
+     */
+    private final ConcurrentLinkedQueue<List<TimeSeriesService.TimeSeriesPoint>> pending = new ConcurrentLinkedQueue<>();
+
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+
+    private File file;
+    private FileChannel channel;
+    private ScheduledExecutorService writeExecutor;
+    private long lastFsyncMillis;
+
+    /**
+     * 累计写入的块数与行数
+     */
+    private long blocksWritten;
+    private long rowsWritten;
+
+    @PostConstruct
+    public void init() {
+        if (!apiConfig.isRunReportEnabled()) {
+            logger.info("运行报告已禁用");
+            return;
+        }
+        if (!apiConfig.isTimeseriesEnabled()) {
+            logger.warn("时间序列统计已禁用，运行报告依赖按秒采样，运行报告已禁用");
+            return;
+        }
+        file = new File(apiConfig.getRunReportPath());
+        try {
+            open();
+        } catch (IOException e) {
+            logger.error("运行报告文件打开失败，运行报告已禁用: {}", file, e);
+            return;
+        }
+        timeSeriesService.addSampleListener(pending::add);
+
+        writeExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "run-report-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, apiConfig.getRunReportFlushSeconds());
+        writeExecutor.scheduleAtFixedRate(this::flushQuietly, period, period, TimeUnit.SECONDS);
+        logger.info("运行报告已启用: {}，写入周期: {}秒，落盘周期: {}秒", file.getAbsolutePath(), period,
+                   apiConfig.getRunReportFsyncSeconds());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (writeExecutor != null) {
+            writeExecutor.shutdownNow();
+        }
+        synchronized (this) {
+            if (channel != null) {
+                try {
+                    writeBlock(true);
+                    channel.close();
+                } catch (IOException e) {
+                    logger.warn("运行报告关闭失败: {}", e.getMessage());
+                }
+                channel = null;
+            }
+            deflater.end();
+        }
+    }
+
+    /**
+     * 打开报告文件：新文件写入文件头，已有文件截断异常退出留下的残缺尾部后继续追加
+     */
+    private void open() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("无法创建目录: " + parent);
+        }
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                   StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            writeFully(ByteBuffer.wrap(RunReportFormat.encodeHeader(System.currentTimeMillis() / 1000)));
+        } else {
+            long valid = RunReportFormat.validLength(file);
+            if (valid < channel.size()) {
+                logger.warn("运行报告尾部不完整，截断 {} 字节", channel.size() - valid);
+                channel.truncate(valid);
+            }
+            channel.position(valid);
+        }
+        channel.force(true);
+        lastFsyncMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * 立即写出已采集的数据（导出前调用，保证导出包含最新数据）
+     */
+    public synchronized void flush() throws IOException {
+        if (channel != null) {
+            writeBlock(false);
+        }
+    }
+
+    /**
+     * 是否启用
+     */
+    public boolean isEnabled() {
+        return channel != null;
+    }
+
+    /**
+     * 报告文件
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * 导出[fromEpoch, toEpoch]范围内的数据为CSV，逐行写出到writer，不在内存中保存整个导出；
+     * pattern为空时导出所有模式，返回导出的行数。需要包含最新数据时先调用flush
+     */
+    public long exportCsv(long fromEpoch, long toEpoch, String pattern, Writer writer) throws IOException {
+        StringBuilder line = new StringBuilder(128);
+        writer.write(RunReportFormat.CSV_HEADER);
+        return RunReportFormat.read(file, fromEpoch, toEpoch, pattern, (name, columns) -> {
+            line.setLength(0);
+            RunReportFormat.appendCsv(line, name, columns);
+            writer.append(line);
+        });
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.error("运行报告写入失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 把待写入的采样点编码为一个块追加到文件，省略没有任何流量的行；达到落盘周期时强制落盘
+     */
+    private void writeBlock(boolean forceSync) throws IOException {
+        List<TimeSeriesService.TimeSeriesPoint> points = new ArrayList<>();
+        List<TimeSeriesService.TimeSeriesPoint> sample;
+        while ((sample = pending.poll()) != null) {
+            for (TimeSeriesService.TimeSeriesPoint point : sample) {
+                if (point.getQps() > 0 || point.getRejected() > 0 || point.getConcurrency() > 0) {
+                    points.add(point);
+                }
+            }
+        }
+        if (!points.isEmpty()) {
+            byte[] block = RunReportFormat.encodeBlock(RunReportFormat.groupByPattern(points), deflater);
+            writeFully(ByteBuffer.wrap(block));
+            blocksWritten++;
+            rowsWritten += points.size();
+            if (logger.isDebugEnabled()) {
+                logger.debug("运行报告写入 {} 行，{} 字节", points.size(), block.length);
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        if (forceSync || now - lastFsyncMillis >= apiConfig.getRunReportFsyncSeconds() * 1000L) {
+            channel.force(false);
+            lastFsyncMillis = now;
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * 写入统计
+     */
+    public synchronized ReportStats getStats() {
+        long size = 0;
+        if (file != null && file.exists()) {
+            try {
+                size = Files.size(file.toPath());
+            } catch (IOException e) {
+                logger.debug("读取运行报告大小失败: {}", e.getMessage());
+            }
+        }
+        return new ReportStats(channel != null, file != null ? file.getAbsolutePath() : null, size,
+                               blocksWritten, rowsWritten);
+    }
+
+    /**
+     * 运行报告写入统计
+     */
+    public static class ReportStats {
+        private final boolean enabled;
+        private final String path;
+        private final long fileBytes;
+        private final long blocksWritten;
+        private final long rowsWritten;
+
+        public ReportStats(boolean enabled, String path, long fileBytes, long blocksWritten, long rowsWritten) {
+            this.enabled = enabled;
+            this.path = path;
+            this.fileBytes = fileBytes;
+            this.blocksWritten = blocksWritten;
+            this.rowsWritten = rowsWritten;
+        }
+
+        // Getters
+        public boolean isEnabled() { return enabled; }
+        public String getPath() { return path; }
+        public long getFileBytes() { return fileBytes; }
+        public long getBlocksWritten() { return blocksWritten; }
+        public long getRowsWritten() { return rowsWritten; }
+    }
+}
@@ -0,0 +1,131 @@
+package com.shrwk.apirunner.service;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * 共享统计区文件布局（大端序）
+ * 头部64字节，之后为固定大小的槽位，每个URL模式占用一个槽位；
+ * 槽位以版本号作为顺序锁：写入期间为奇数，读取方读到前后版本一致且为偶数时数据有效。
+ * 映射缓冲区的读写都是普通访问，写入方与读取方通过storeFence/loadFence保证版本号与数据之间的顺序
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public final class SharedStatsLayout {
+
+    /**
+     * 魔数（"ARSM"）
+     */
+    public static final int MAGIC = 0x4152534D;
+    public static final short VERSION = 1;
+
+    public static final int HEADER_SIZE = 64;
+    public static final int SLOT_SIZE = 128;
+
+    // 头部偏移
+    public static final int HEADER_MAGIC = 0;
+    public static final int HEADER_VERSION = 4;
+    public static final int HEADER_SLOT_SIZE = 8;
+    public static final int HEADER_SLOT_COUNT = 12;
+    public static final int HEADER_USED_SLOTS = 16;
+    public static final int HEADER_RUNNING = 20;
+    public static final int HEADER_PID = 24;
+    public static final int HEADER_START_TIME = 32;
+    public static final int HEADER_UPDATE_TIME = 40;
+
+    // 槽位内偏移
+    public static final int SLOT_SEQUENCE = 0;
+    public static final int SLOT_REQUESTS = 8;
+    public static final int SLOT_REJECTED = 16;
+    public static final int SLOT_THROTTLE_NANOS = 24;
+    public static final int SLOT_CONCURRENCY = 32;
+    public static final int SLOT_LEVEL = 36;
+    public static final int SLOT_QPS = 40;
+    public static final int SLOT_PATTERN_LENGTH = 44;
+    public static final int SLOT_PATTERN = 48;
+    public static final int MAX_PATTERN_BYTES = SLOT_SIZE - SLOT_PATTERN;
+
+    /**
+     * Unsafe.storeFence/loadFence，通过反射绑定，避免编译期依赖sun.misc（--release 8下不可见）；
+     * 运行时没有可用的Unsafe时为null，共享统计区不可用
+     */
+    private static final MethodHandle STORE_FENCE = fence("storeFence");
+    private static final MethodHandle LOAD_FENCE = fence("loadFence");
+
+    private SharedStatsLayout() {
+    }
+
+    /**
+     * 计算文件大小
+     */
+    public static int fileSize(int slotCount) {
+        return HEADER_SIZE + slotCount * SLOT_SIZE;
+    }
+
+    /**
+     * 槽位起始偏移
+     */
+    public static int slotOffset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    /**
+     * 解析文件路径，为空时使用临时目录下按端口区分的默认文件（api-runner-stats-端口.dat），
+     * 同一台机器上的多个实例默认互不覆盖
+     */
+    public static File resolvePath(String path, String instanceId) {
+        if (path == null || path.trim().isEmpty()) {
+            return new File(System.getProperty("java.io.tmpdir"), "api-runner-stats-" + instanceId + ".dat");
+        }
+        return new File(path.trim());
+    }
+
+    /**
+     * 运行时是否提供内存屏障，不提供时不能读写共享统计区
+     */
+    public static boolean isAvailable() {
+        return STORE_FENCE != null && LOAD_FENCE != null;
+    }
+
+    /**
+     * 写入屏障：之前的写入不会被重排到之后的写入之后（Java 8没有VarHandle，使用Unsafe）
+     */
+    public static void storeFence() {
+        invoke(STORE_FENCE);
+    }
+
+    /**
+     * 读取屏障：之前的读取不会被重排到之后的读取之后
+     */
+    public static void loadFence() {
+        invoke(LOAD_FENCE);
+    }
+
+    private static void invoke(MethodHandle fence) {
+        if (fence == null) {
+            throw new IllegalStateException("Unsafe不可用，共享统计区不可用");
+        }
+        try {
+            fence.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("内存屏障调用失败", e);
+        }
+    }
+
+    private static MethodHandle fence(String name) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            return MethodHandles.lookup().findVirtual(unsafeClass, name, MethodType.methodType(void.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            // 由使用方通过isAvailable()检查后禁用共享统计区，类初始化本身不失败
+            return null;
+        }
+    }
+}
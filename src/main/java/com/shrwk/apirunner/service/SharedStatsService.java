@@ -0,0 +1,223 @@
+package com.shrwk.apirunner.service;
+
+import com.shrwk.apirunner.config.ApiConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 内存映射共享统计区
+ * 定时把各URL模式的累计计数器写入内存映射文件，外部进程直接读取文件即可观测，
+ * 不经过HTTP与Spring MVC，也不受/actuator/*等模式的限流影响。
+ * 文件只由发布线程写入，请求线程仍只更新时间序列服务中的无锁累加器
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+@Lazy(false)
+public class SharedStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedStatsService.class);
+
+    @Autowired
+    private ApiConfig apiConfig;
+
+    @Autowired
+    private TimeSeriesService timeSeriesService;
+
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    /**
+     * 发布定时器
+     */
+    private ScheduledExecutorService publishExecutor;
+
+    private RandomAccessFile file;
+    private FileLock lock;
+    private MappedByteBuffer buffer;
+    private int slotCount;
+
+    /**
+     * URL模式对应的槽位，只由发布线程访问
+     */
+    private final Map<String, Integer> slots = new HashMap<>();
+    private boolean overflowLogged;
+
+    @PostConstruct
+    public void init() {
+        if (!apiConfig.isSharedStatsEnabled()) {
+            logger.info("共享统计区已禁用");
+            return;
+        }
+        if (!SharedStatsLayout.isAvailable()) {
+            logger.error("运行时无法获取Unsafe内存屏障，共享统计区不启用");
+            return;
+        }
+        File path = SharedStatsLayout.resolvePath(apiConfig.getSharedStatsPath(),
+                serverPort > 0 ? String.valueOf(serverPort) : String.valueOf(currentPid()));
+        slotCount = Math.max(1, apiConfig.getSharedStatsSlots());
+        try {
+            file = new RandomAccessFile(path, "rw");
+            // 文件被其他运行中的实例持有时不清空，避免覆盖其统计
+            lock = file.getChannel().tryLock();
+            if (lock == null) {
+                logger.error("共享统计文件正被其他实例使用，共享统计区不启用，路径: {}", path);
+                closeFile();
+                return;
+            }
+            file.setLength(0);
+            file.setLength(SharedStatsLayout.fileSize(slotCount));
+            buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, SharedStatsLayout.fileSize(slotCount));
+        } catch (IOException | OverlappingFileLockException e) {
+            logger.error("共享统计区映射失败，路径: {}", path, e);
+            closeFile();
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        buffer.putShort(SharedStatsLayout.HEADER_VERSION, SharedStatsLayout.VERSION);
+        buffer.putInt(SharedStatsLayout.HEADER_SLOT_SIZE, SharedStatsLayout.SLOT_SIZE);
+        buffer.putInt(SharedStatsLayout.HEADER_SLOT_COUNT, slotCount);
+        buffer.putInt(SharedStatsLayout.HEADER_USED_SLOTS, 0);
+        buffer.putInt(SharedStatsLayout.HEADER_RUNNING, 1);
+        buffer.putLong(SharedStatsLayout.HEADER_PID, currentPid());
+        buffer.putLong(SharedStatsLayout.HEADER_START_TIME, now);
+        buffer.putLong(SharedStatsLayout.HEADER_UPDATE_TIME, now);
+        SharedStatsLayout.storeFence();
+        // 魔数最后写入，读取方据此判断头部已初始化
+        buffer.putInt(SharedStatsLayout.HEADER_MAGIC, SharedStatsLayout.MAGIC);
+
+        publishExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "shared-stats-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(10, apiConfig.getSharedStatsIntervalMs());
+        publishExecutor.scheduleAtFixedRate(() -> {
+            try {
+                publish();
+            } catch (Exception e) {
+                logger.error("共享统计区发布失败", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("共享统计区已启用，路径: {}, 槽位: {}, 刷新间隔: {}ms", path, slotCount, interval);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (publishExecutor != null) {
+            publishExecutor.shutdownNow();
+            try {
+                publishExecutor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (buffer != null) {
+            buffer.putInt(SharedStatsLayout.HEADER_RUNNING, 0);
+            buffer.putLong(SharedStatsLayout.HEADER_UPDATE_TIME, System.currentTimeMillis());
+        }
+        closeFile();
+    }
+
+    /**
+     * 把所有模式的计数器写入各自槽位
+     */
+    private void publish() {
+        for (TimeSeriesService.PatternCounters counters : timeSeriesService.readCounters()) {
+            int slot = slotFor(counters.getPattern());
+            if (slot < 0) {
+                continue;
+            }
+            int base = SharedStatsLayout.slotOffset(slot);
+            long sequence = buffer.getLong(base + SharedStatsLayout.SLOT_SEQUENCE);
+            buffer.putLong(base + SharedStatsLayout.SLOT_SEQUENCE, sequence + 1);
+            SharedStatsLayout.storeFence();
+            buffer.putLong(base + SharedStatsLayout.SLOT_REQUESTS, counters.getTotalRequests());
+            buffer.putLong(base + SharedStatsLayout.SLOT_REJECTED, counters.getTotalRejected());
+            buffer.putLong(base + SharedStatsLayout.SLOT_THROTTLE_NANOS, counters.getTotalThrottleNanos());
+            buffer.putInt(base + SharedStatsLayout.SLOT_CONCURRENCY, counters.getInFlight());
+            buffer.putInt(base + SharedStatsLayout.SLOT_LEVEL, counters.getLevel());
+            buffer.putInt(base + SharedStatsLayout.SLOT_QPS, counters.getQps());
+            SharedStatsLayout.storeFence();
+            buffer.putLong(base + SharedStatsLayout.SLOT_SEQUENCE, sequence + 2);
+        }
+        buffer.putLong(SharedStatsLayout.HEADER_UPDATE_TIME, System.currentTimeMillis());
+    }
+
+    /**
+     * 获取或分配模式的槽位，槽位用尽时返回-1
+     */
+    private int slotFor(String pattern) {
+        Integer slot = slots.get(pattern);
+        if (slot != null) {
+            return slot;
+        }
+        if (slots.size() >= slotCount) {
+            if (!overflowLogged) {
+                logger.warn("共享统计区槽位已用尽({})，模式 {} 及之后的新模式不会发布", slotCount, pattern);
+                overflowLogged = true;
+            }
+            return -1;
+        }
+        byte[] name = pattern.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(name.length, SharedStatsLayout.MAX_PATTERN_BYTES);
+        int index = slots.size();
+        int base = SharedStatsLayout.slotOffset(index);
+        for (int i = 0; i < length; i++) {
+            buffer.put(base + SharedStatsLayout.SLOT_PATTERN + i, name[i]);
+        }
+        buffer.putShort(base + SharedStatsLayout.SLOT_PATTERN_LENGTH, (short) length);
+        SharedStatsLayout.storeFence();
+        // 已用槽位数在槽位名称写完后更新，读取方只读取已用范围内的槽位
+        buffer.putInt(SharedStatsLayout.HEADER_USED_SLOTS, index + 1);
+        slots.put(pattern, index);
+        return index;
+    }
+
+    private void closeFile() {
+        if (file != null) {
+            try {
+                // 关闭文件同时释放文件锁
+                file.close();
+            } catch (IOException e) {
+                logger.warn("关闭共享统计文件失败", e);
+            }
+            file = null;
+            lock = null;
+        }
+    }
+
+    private static long currentPid() {
+        // Java 8没有ProcessHandle，运行时名称形如"pid@hostname"
+        String name = ManagementFactory.getRuntimeMXBean().getName();
+        int at = name.indexOf('@');
+        try {
+            return Long.parseLong(at > 0 ? name.substring(0, at) : name);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.shrwk.apirunner.service;
+
+import com.shrwk.apirunner.model.UrlConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 全量统计快照服务
+ * 一次遍历所有URL模式的计数器组装快照，不对请求线程加锁；
+ * 支持相对同一客户端上次快照的增量，以及JSON/CSV/二进制编码
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+public class StatsSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatsSnapshotService.class);
+
+    /**
+     * 二进制编码魔数（"ARSS"）
+     */
+    private static final int BINARY_MAGIC = 0x41525353;
+
+    /**
+     * 二进制编码版本
+     */
+    private static final short BINARY_VERSION = 1;
+
+    /**
+     * 最多保留的增量客户端数量
+     */
+    private static final int MAX_DELTA_CLIENTS = 256;
+
+    @Autowired
+    private TimeSeriesService timeSeriesService;
+
+    @Autowired
+    private AdaptiveLimitService adaptiveLimitService;
+
+    @Autowired
+    private UrlValidationService urlValidationService;
+
+    @Autowired
+    private VirtualServiceRegistry virtualServiceRegistry;
+
+    /**
+     * 快照序号
+     */
+    private final AtomicLong sequence = new AtomicLong(0);
+
+    /**
+     * 增量客户端的上次累计值：客户端 -> (URL模式 -> [请求数, 拒绝数])
+     */
+    private final ConcurrentHashMap<String, Map<String, long[]>> deltaBaselines = new ConcurrentHashMap<>();
+
+    /**
+     * 获取所有活跃模式的快照，deltaClient不为空时返回相对该客户端上次快照的增量，并省略无变化的模式
+     */
+    public StatsSnapshot takeSnapshot(String deltaClient) {
+        Map<String, UrlConfig> configs = new HashMap<>();
+        for (UrlConfig config : urlValidationService.getAllUrlConfigs()) {
+            configs.put(config.getStatsKey(), config);
+        }
+        for (UrlConfig config : virtualServiceRegistry.getAllUrlConfigs()) {
+            configs.put(config.getStatsKey(), config);
+        }
+
+        long timestamp = System.currentTimeMillis();
+        List<TimeSeriesService.PatternCounters> counters = timeSeriesService.readCounters();
+
+        Map<String, long[]> baseline = null;
+        Map<String, long[]> nextBaseline = null;
+        if (deltaClient != null) {
+            baseline = deltaBaselines.get(deltaClient);
+            nextBaseline = new HashMap<>(counters.size() * 2);
+        }
+
+        List<PatternSnapshot> patterns = new ArrayList<>(counters.size());
+        for (TimeSeriesService.PatternCounters counter : counters) {
+            long requests = counter.getTotalRequests();
+            long rejected = counter.getTotalRejected();
+            if (nextBaseline != null) {
+                nextBaseline.put(counter.getPattern(), new long[]{requests, rejected});
+                long[] previous = baseline != null ? baseline.get(counter.getPattern()) : null;
+                if (previous != null) {
+                    requests -= previous[0];
+                    rejected -= previous[1];
+                    if (requests == 0 && rejected == 0 && counter.getInFlight() == 0) {
+                        continue;
+                    }
+                }
+            }
+
+            UrlConfig config = configs.get(counter.getPattern());
+            patterns.add(new PatternSnapshot(
+                counter.getPattern(),
+                counter.getQps(),
+                counter.getInFlight(),
+                counter.getLevel(),
+                config != null ? config.getConcurrent() : 0,
+                adaptiveLimitService.getCurrentLimit(counter.getPattern()),
+                requests,
+                rejected
+            ));
+        }
+
+        if (nextBaseline != null) {
+            if (baseline == null && deltaBaselines.size() >= MAX_DELTA_CLIENTS) {
+                logger.warn("增量快照客户端数量超过{}，清空基线", MAX_DELTA_CLIENTS);
+                deltaBaselines.clear();
+            }
+            deltaBaselines.put(deltaClient, nextBaseline);
+        }
+        return new StatsSnapshot(sequence.incrementAndGet(), timestamp, deltaClient != null, patterns);
+    }
+
+    /**
+     * 编码为CSV
+     */
+    public String toCsv(StatsSnapshot snapshot) {
+        StringBuilder builder = new StringBuilder(64 + snapshot.getPatterns().size() * 64);
+        builder.append("# sequence=").append(snapshot.getSequence())
+               .append(",timestamp=").append(snapshot.getTimestamp())
+               .append(",delta=").append(snapshot.isDelta()).append('\n');
+        builder.append("pattern,qps,concurrency,level,maxConcurrent,adaptiveLimit,requests,rejected\n");
+        for (PatternSnapshot pattern : snapshot.getPatterns()) {
+            builder.append(pattern.getPattern()).append(',')
+                   .append(pattern.getQps()).append(',')
+                   .append(pattern.getConcurrency()).append(',')
+                   .append(pattern.getLevel()).append(',')
+                   .append(pattern.getMaxConcurrent()).append(',')
+                   .append(pattern.getAdaptiveLimit()).append(',')
+                   .append(pattern.getRequests()).append(',')
+                   .append(pattern.getRejected()).append('\n');
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 编码为紧凑二进制（大端序）
+     * 头部：magic(int) version(short) flags(byte, bit0=增量) sequence(long) timestamp(long) count(int)
+     * 每个模式：patternLength(short) pattern(UTF-8) qps(int) concurrency(int) level(int)
+     * maxConcurrent(int) adaptiveLimit(int) requests(long) rejected(long)
+     */
+    public byte[] toBinary(StatsSnapshot snapshot) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(32 + snapshot.getPatterns().size() * 64);
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            out.writeInt(BINARY_MAGIC);
+            out.writeShort(BINARY_VERSION);
+            out.writeByte(snapshot.isDelta() ? 1 : 0);
+            out.writeLong(snapshot.getSequence());
+            out.writeLong(snapshot.getTimestamp());
+            out.writeInt(snapshot.getPatterns().size());
+            for (PatternSnapshot pattern : snapshot.getPatterns()) {
+                byte[] name = pattern.getPattern().getBytes(StandardCharsets.UTF_8);
+                out.writeShort(name.length);
+                out.write(name);
+                out.writeInt(pattern.getQps());
+                out.writeInt(pattern.getConcurrency());
+                out.writeInt(pattern.getLevel());
+                out.writeInt(pattern.getMaxConcurrent());
+                out.writeInt(pattern.getAdaptiveLimit());
+                out.writeLong(pattern.getRequests());
+                out.writeLong(pattern.getRejected());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 全量统计快照
+     */
+    public static class StatsSnapshot {
+        private final long sequence;
+        private final long timestamp;
+        private final boolean delta;
+        private final List<PatternSnapshot> patterns;
+
+        public StatsSnapshot(long sequence, long timestamp, boolean delta, List<PatternSnapshot> patterns) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.delta = delta;
+            this.patterns = patterns;
+        }
+
+        // Getters
+        public long getSequence() { return sequence; }
+        public long getTimestamp() { return timestamp; }
+        public boolean isDelta() { return delta; }
+        public List<PatternSnapshot> getPatterns() { return patterns; }
+    }
+
+    /**
+     * 单个模式的快照
+     */
+    public static class PatternSnapshot {
+        private final String pattern;
+        private final int qps;
+        private final int concurrency;
+        private final int level;
+        private final int maxConcurrent;
+        private final int adaptiveLimit;
+        private final long requests;
+        private final long rejected;
+
+        public PatternSnapshot(String pattern, int qps, int concurrency, int level, int maxConcurrent,
+                               int adaptiveLimit, long requests, long rejected) {
+            this.pattern = pattern;
+            this.qps = qps;
+            this.concurrency = concurrency;
+            this.level = level;
+            this.maxConcurrent = maxConcurrent;
+            this.adaptiveLimit = adaptiveLimit;
+            this.requests = requests;
+            this.rejected = rejected;
+        }
+
+        // Getters
+        public String getPattern() { return pattern; }
+        public int getQps() { return qps; }
+        public int getConcurrency() { return concurrency; }
+        public int getLevel() { return level; }
+        public int getMaxConcurrent() { return maxConcurrent; }
+        public int getAdaptiveLimit() { return adaptiveLimit; }
+        public long getRequests() { return requests; }
+        public long getRejected() { return rejected; }
+    }
+}
@@ -0,0 +1,468 @@
+package com.shrwk.apirunner.service;
+
+import com.shrwk.apirunner.config.ApiConfig;
+import com.shrwk.apirunner.config.StreamFormat;
+import com.shrwk.apirunner.model.StreamingConfig;
+import com.shrwk.apirunner.model.UrlConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 流式响应服务
+ * 按URL配置的首字节时间、分块大小、分块数量和分块间隔分多次写出响应。
+ * 所有流共享少量调度线程：每个分块到期时由调度线程写出并安排下一个分块，
+ * 流在两个分块之间不占用任何线程，大量并发的慢速流只占用各自的连接和少量状态。
+ * 分块到期时刻按流开始时刻计算（ttfb + i * interval），调度延迟不会逐块累积。
+ * 调度线程不会阻塞在慢客户端上：写出端未就绪（上一块尚未写完）时不写出，等写出端可写后再重新调度，
+ * 等待的时间计入分块延迟。
+ * 故障注入的慢速写出与挂起同样以流的形式调度，单独计数，不计入URL模式的流式响应统计
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+public class StreamingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StreamingService.class);
+
+    @Autowired
+    private ApiConfig apiConfig;
+
+    /**
+     * URL模式对应的流统计
+     */
+    private final ConcurrentHashMap<String, PatternStreams> patterns = new ConcurrentHashMap<>();
+
+    /**
+     * 故障注入流的计数（不对外输出）
+     */
+    private final PatternStreams faultStreams = new PatternStreams("faults");
+
+    /**
+     * 分块调度器
+     */
+    private ScheduledThreadPoolExecutor pacer;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger(0);
+        pacer = new ScheduledThreadPoolExecutor(Math.max(1, apiConfig.getStreamingTimerThreads()), r -> {
+            Thread thread = new Thread(r, "stream-pacer-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pacer.setRemoveOnCancelPolicy(true);
+        logger.info("流式响应服务初始化完成，分块调度线程数: {}", pacer.getCorePoolSize());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (pacer != null) {
+            pacer.shutdownNow();
+        }
+    }
+
+    /**
+     * 创建一个流（请求已通过准入和QPS控制），onFinish在流结束（写完或中断）时执行且只执行一次；
+     * 创建后必须调用start或cancel
+     */
+    public Stream create(UrlConfig urlConfig, long requestStartNanos, Runnable onFinish) {
+        PatternStreams counters = patterns.get(urlConfig.getStatsKey());
+        if (counters == null) {
+            counters = patterns.computeIfAbsent(urlConfig.getStatsKey(), PatternStreams::new);
+        }
+        counters.active.incrementAndGet();
+        counters.started.increment();
+        StreamingConfig config = urlConfig.getStreaming();
+        return new Stream(config.getFormat() != null ? config.getFormat() : StreamFormat.NDJSON,
+                          config.getChunkSize(), config.getChunkCount(), config.getTtfbMs(), config.getIntervalMs(),
+                          false, counters, requestStartNanos, onFinish);
+    }
+
+    /**
+     * 创建慢速写出流：响应体在startBody时给出，按chunkBytes分块、每intervalMs写出一块
+     */
+    public Stream createDrip(int chunkBytes, long intervalMs, long requestStartNanos, Runnable onFinish) {
+        faultStreams.active.incrementAndGet();
+        faultStreams.started.increment();
+        return new Stream(null, chunkBytes, 0, 0, intervalMs, false, faultStreams, requestStartNanos, onFinish);
+    }
+
+    /**
+     * 创建挂起流：不写出任何内容，hangMs到期后断开连接
+     */
+    public Stream createHang(long hangMs, long requestStartNanos, Runnable onFinish) {
+        faultStreams.active.incrementAndGet();
+        faultStreams.started.increment();
+        return new Stream(null, 1, 0, hangMs, 0, true, faultStreams, requestStartNanos, onFinish);
+    }
+
+    /**
+     * 开始写出：第一个分块在首字节时间到期时写出
+     */
+    public void start(Stream stream, StreamSink sink) {
+        stream.sink = sink;
+        schedule(stream, stream.dueNanos(0) - System.nanoTime());
+    }
+
+    /**
+     * 开始慢速写出给定的响应体（createDrip创建的流）
+     */
+    public void startBody(Stream stream, byte[] body, StreamSink sink) {
+        stream.body = body;
+        stream.chunkCount = (body.length + stream.chunkSize - 1) / stream.chunkSize;
+        start(stream, sink);
+    }
+
+    /**
+     * 写出端由未就绪变为可写时调用：重新调度等待中的流，没有等待的流忽略
+     */
+    public void resume(Stream stream) {
+        if (stream.waiting.compareAndSet(true, false)) {
+            schedule(stream, 0);
+        }
+    }
+
+    /**
+     * 中断流（客户端断开、容器超时或写出端启动失败），已结束的流忽略
+     */
+    public void cancel(Stream stream) {
+        finish(stream, true);
+    }
+
+    private void schedule(Stream stream, long delayNanos) {
+        try {
+            pacer.schedule(stream, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            finish(stream, true);
+        }
+    }
+
+    /**
+     * 写出到期的分块并安排下一个分块，在调度线程上执行
+     */
+    private void sendNext(Stream stream) {
+        if (stream.finished.get()) {
+            return;
+        }
+        if (stream.chunkCount == 0) {
+            // 挂起到期或空响应体
+            finish(stream, false);
+            return;
+        }
+        if (!awaitWritable(stream)) {
+            return;
+        }
+        int index = stream.sent;
+        long lagNanos = Math.max(0, System.nanoTime() - stream.dueNanos(index));
+        byte[] chunk;
+        if (stream.body != null) {
+            int from = index * stream.chunkSize;
+            chunk = Arrays.copyOfRange(stream.body, from, Math.min(stream.body.length, from + stream.chunkSize));
+        } else {
+            chunk = renderChunk(stream.format, index, stream.chunkCount, stream.chunkSize,
+                                System.currentTimeMillis());
+        }
+        try {
+            stream.sink.write(chunk);
+        } catch (IOException | RuntimeException e) {
+            logger.debug("流式响应写出失败（客户端可能已断开）: {}", e.getMessage());
+            finish(stream, true);
+            return;
+        }
+
+        PatternStreams counters = stream.counters;
+        counters.chunks.increment();
+        counters.bytes.add(chunk.length);
+        counters.lagNanos.add(lagNanos);
+        counters.maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+        if (index == 0) {
+            counters.firstChunks.increment();
+            counters.ttfbNanos.add(System.nanoTime() - stream.requestStartNanos);
+        }
+
+        stream.sent = index + 1;
+        if (stream.sent >= stream.chunkCount) {
+            finish(stream, false);
+        } else {
+            schedule(stream, stream.dueNanos(stream.sent) - System.nanoTime());
+        }
+    }
+
+    /**
+     * 写出端未就绪时记录一次写出阻塞并返回false，由resume在可写后重新调度；
+     * 检查期间resume已经重新调度时同样返回false，由重新调度的任务写出
+     */
+    private boolean awaitWritable(Stream stream) {
+        stream.waiting.set(true);
+        if (!stream.sink.isReady()) {
+            stream.counters.stalls.increment();
+            return false;
+        }
+        return stream.waiting.compareAndSet(true, false);
+    }
+
+    private void finish(Stream stream, boolean aborted) {
+        if (!stream.finished.compareAndSet(false, true)) {
+            return;
+        }
+        PatternStreams counters = stream.counters;
+        counters.active.decrementAndGet();
+        if (aborted) {
+            counters.aborted.increment();
+        } else {
+            counters.completed.increment();
+        }
+        try {
+            stream.onFinish.run();
+        } finally {
+            StreamSink sink = stream.sink;
+            if (sink != null) {
+                if (stream.resetAtEnd && !aborted) {
+                    sink.reset();
+                } else {
+                    sink.complete();
+                }
+            }
+        }
+    }
+
+    /**
+     * 生成一个分块：JSON格式为 {"seq":i,"total":n,"timestamp":t,"data":"xxx"}，按data填充到大致chunkSize字节；
+     * NDJSON每块末尾换行，JSON_ARRAY首块带"["、其余带","、末块带"]"，TEXT为以换行结尾的chunkSize字节文本
+     */
+    static byte[] renderChunk(StreamFormat format, int index, int count, int chunkSize, long timestamp) {
+        if (format == StreamFormat.TEXT) {
+            byte[] chunk = new byte[Math.max(1, chunkSize)];
+            Arrays.fill(chunk, (byte) 'x');
+            chunk[chunk.length - 1] = '\n';
+            return chunk;
+        }
+        StringBuilder head = new StringBuilder(64);
+        if (format == StreamFormat.JSON_ARRAY) {
+            head.append(index == 0 ? '[' : ',');
+        }
+        head.append("{\"seq\":").append(index)
+            .append(",\"total\":").append(count)
+            .append(",\"timestamp\":").append(timestamp)
+            .append(",\"data\":\"");
+        String tail;
+        if (format == StreamFormat.JSON_ARRAY) {
+            tail = index == count - 1 ? "\"}]" : "\"}";
+        } else {
+            tail = "\"}\n";
+        }
+        int padding = Math.max(0, chunkSize - head.length() - tail.length());
+        byte[] chunk = new byte[head.length() + padding + tail.length()];
+        byte[] headBytes = head.toString().getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(headBytes, 0, chunk, 0, headBytes.length);
+        Arrays.fill(chunk, headBytes.length, headBytes.length + padding, (byte) 'x');
+        byte[] tailBytes = tail.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(tailBytes, 0, chunk, headBytes.length + padding, tailBytes.length);
+        return chunk;
+    }
+
+    /**
+     * 获取指定URL模式的流式响应统计
+     */
+    public StreamStats getStats(String pattern) {
+        PatternStreams counters = patterns.get(pattern);
+        return counters != null ? counters.getStats() : null;
+    }
+
+    /**
+     * 获取所有流式响应统计
+     */
+    public List<StreamStats> getAllStats() {
+        List<StreamStats> result = new ArrayList<>(patterns.size());
+        for (PatternStreams counters : patterns.values()) {
+            result.add(counters.getStats());
+        }
+        return result;
+    }
+
+    /**
+     * 流的写出端：基于Servlet非阻塞I/O实现，快速通道与MVC共用
+     */
+    public interface StreamSink {
+
+        /**
+         * 是否可以写出下一个分块；返回false时写出端在可写后调用resume
+         */
+        boolean isReady();
+
+        /**
+         * 写出一个分块并在可写时刷新到连接，不阻塞调用线程
+         */
+        void write(byte[] chunk) throws IOException;
+
+        /**
+         * 结束响应
+         */
+        void complete();
+
+        /**
+         * 不结束响应直接断开连接（挂起到期）
+         */
+        void reset();
+    }
+
+    /**
+     * 一个进行中的流，配置在创建时确定，之后的配置变更不影响已开始的流
+     */
+    public final class Stream implements Runnable {
+        private final StreamFormat format;
+        private final int chunkSize;
+        private final long readyNanos;
+        private final long ttfbNanos;
+        private final long intervalNanos;
+        private final boolean resetAtEnd;
+        private final long requestStartNanos;
+        private final PatternStreams counters;
+        private final Runnable onFinish;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final AtomicBoolean waiting = new AtomicBoolean();
+        private volatile StreamSink sink;
+
+        /**
+         * 分块数量；慢速写出流在startBody时按响应体长度确定，之后不再修改
+         */
+        private int chunkCount;
+
+        /**
+         * 慢速写出的响应体，为空时按format生成分块
+         */
+        private byte[] body;
+
+        /**
+         * 已写出的分块数（只在调度线程上按顺序修改）
+         */
+        private volatile int sent;
+
+        Stream(StreamFormat format, int chunkSize, int chunkCount, long ttfbMs, long intervalMs, boolean resetAtEnd,
+               PatternStreams counters, long requestStartNanos, Runnable onFinish) {
+            this.format = format;
+            this.chunkSize = Math.max(1, chunkSize);
+            this.chunkCount = format != null ? Math.max(1, chunkCount) : Math.max(0, chunkCount);
+            this.readyNanos = System.nanoTime();
+            this.ttfbNanos = Math.max(0, ttfbMs) * 1_000_000L;
+            this.intervalNanos = Math.max(0, intervalMs) * 1_000_000L;
+            this.resetAtEnd = resetAtEnd;
+            this.requestStartNanos = requestStartNanos;
+            this.counters = counters;
+            this.onFinish = onFinish;
+        }
+
+        long dueNanos(int index) {
+            return readyNanos + ttfbNanos + index * intervalNanos;
+        }
+
+        /**
+         * 响应的Content-Type
+         */
+        public String getContentType() {
+            return format != null ? format.getContentType() : null;
+        }
+
+        @Override
+        public void run() {
+            sendNext(this);
+        }
+    }
+
+    /**
+     * 单个URL模式的流计数器
+     */
+    private static class PatternStreams {
+        private final String pattern;
+        private final AtomicInteger active = new AtomicInteger();
+        private final LongAdder started = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder aborted = new LongAdder();
+        private final LongAdder chunks = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder firstChunks = new LongAdder();
+        private final LongAdder ttfbNanos = new LongAdder();
+        private final LongAdder lagNanos = new LongAdder();
+        private final AtomicLong maxLagNanos = new AtomicLong();
+        private final LongAdder stalls = new LongAdder();
+
+        PatternStreams(String pattern) {
+            this.pattern = pattern;
+        }
+
+        StreamStats getStats() {
+            long ttfbSamples = firstChunks.sum();
+            long chunkCount = chunks.sum();
+            return new StreamStats(pattern, active.get(), started.sum(), completed.sum(), aborted.sum(), chunkCount,
+                                   bytes.sum(),
+                                   ttfbSamples > 0 ? ttfbNanos.sum() / 1_000_000.0 / ttfbSamples : 0.0,
+                                   chunkCount > 0 ? lagNanos.sum() / 1_000_000.0 / chunkCount : 0.0,
+                                   maxLagNanos.get() / 1_000_000.0, stalls.sum());
+        }
+    }
+
+    /**
+     * 流式响应统计信息
+     */
+    public static class StreamStats {
+        private final String pattern;
+        private final int activeStreams;
+        private final long started;
+        private final long completed;
+        private final long aborted;
+        private final long chunksSent;
+        private final long bytesSent;
+        private final double avgTtfbMs;
+        private final double avgChunkLagMs;
+        private final double maxChunkLagMs;
+        private final long writeStalls;
+
+        public StreamStats(String pattern, int activeStreams, long started, long completed, long aborted,
+                           long chunksSent, long bytesSent, double avgTtfbMs, double avgChunkLagMs,
+                           double maxChunkLagMs, long writeStalls) {
+            this.pattern = pattern;
+            this.activeStreams = activeStreams;
+            this.started = started;
+            this.completed = completed;
+            this.aborted = aborted;
+            this.chunksSent = chunksSent;
+            this.bytesSent = bytesSent;
+            this.avgTtfbMs = avgTtfbMs;
+            this.avgChunkLagMs = avgChunkLagMs;
+            this.maxChunkLagMs = maxChunkLagMs;
+            this.writeStalls = writeStalls;
+        }
+
+        // Getters
+        public String getPattern() { return pattern; }
+        public int getActiveStreams() { return activeStreams; }
+        public long getStarted() { return started; }
+        public long getCompleted() { return completed; }
+        public long getAborted() { return aborted; }
+        public long getChunksSent() { return chunksSent; }
+        public long getBytesSent() { return bytesSent; }
+        public double getAvgTtfbMs() { return avgTtfbMs; }
+        public double getAvgChunkLagMs() { return avgChunkLagMs; }
+        public double getMaxChunkLagMs() { return maxChunkLagMs; }
+        public long getWriteStalls() { return writeStalls; }
+    }
+}
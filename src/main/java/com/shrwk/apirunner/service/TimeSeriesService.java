@@ -0,0 +1,608 @@
+package com.shrwk.apirunner.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shrwk.apirunner.config.ApiConfig;
+import com.shrwk.apirunner.model.UrlConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 运行时统计时间序列服务
+ * 每个URL模式一组预分配的原始类型环形数组，按秒记录QPS、并发、活跃级别、限流耗时、拒绝数和延迟分位数，
+ * 支持批量读取和SSE实时推送（在写出线程上发送，慢速订阅者只保留最新一条，不阻塞采样线程）。
+ * 禁用时不记录延迟分布、不保留按秒序列，但仍维护快照、/api/stats/qps和共享统计区使用的累计计数器与当前QPS
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+public class TimeSeriesService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimeSeriesService.class);
+
+    /**
+     * SSE写出线程数（订阅者通常只有少量监控页面）
+     */
+    private static final int SSE_WRITER_THREADS = 2;
+
+    @Autowired
+    private ApiConfig apiConfig;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * URL模式对应的时间序列
+     */
+    private final ConcurrentHashMap<String, PatternSeries> seriesMap = new ConcurrentHashMap<>();
+
+    /**
+     * 单个模式的累计计数器读数
+     */
+    public static class PatternCounters {
+        private final String pattern;
+        private final int qps;
+        private final int inFlight;
+        private final int level;
+        private final long totalRequests;
+        private final long totalRejected;
+        private final long totalThrottleNanos;
+
+        public PatternCounters(String pattern, int qps, int inFlight, int level, long totalRequests, long totalRejected,
+                               long totalThrottleNanos) {
+            this.pattern = pattern;
+            this.qps = qps;
+            this.inFlight = inFlight;
+            this.level = level;
+            this.totalRequests = totalRequests;
+            this.totalRejected = totalRejected;
+            this.totalThrottleNanos = totalThrottleNanos;
+        }
+
+        // Getters
+        public String getPattern() { return pattern; }
+        public int getQps() { return qps; }
+        public int getInFlight() { return inFlight; }
+        public int getLevel() { return level; }
+        public long getTotalRequests() { return totalRequests; }
+        public long getTotalRejected() { return totalRejected; }
+        public long getTotalThrottleNanos() { return totalThrottleNanos; }
+    }
+
+    /**
+     * SSE订阅者
+     */
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    /**
+     * 采样监听器（在采样线程上调用，用于持久化等后台处理）
+     */
+    private final List<Consumer<List<TimeSeriesPoint>>> sampleListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 暂停采样（预热期间），暂停时不产生采样点，也不推送给订阅者和监听器
+     */
+    private volatile boolean samplingPaused;
+
+    /**
+     * 每秒采样定时器
+     */
+    private ScheduledExecutorService sampleExecutor;
+
+    /**
+     * SSE写出线程池，没有订阅者时线程超时退出
+     */
+    private ThreadPoolExecutor sseWriter;
+
+    @PostConstruct
+    public void init() {
+        sampleExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "timeseries-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger writerIndex = new AtomicInteger(0);
+        sseWriter = new ThreadPoolExecutor(SSE_WRITER_THREADS, SSE_WRITER_THREADS, 60, TimeUnit.SECONDS,
+                                           new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "timeseries-sse-writer-" + writerIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        sseWriter.allowCoreThreadTimeOut(true);
+        long delay = 1000 - System.currentTimeMillis() % 1000;
+        sampleExecutor.scheduleAtFixedRate(this::sampleAll, delay, 1000, TimeUnit.MILLISECONDS);
+        if (apiConfig.isTimeseriesEnabled()) {
+            logger.info("时间序列统计已启用，保留时长: {}秒", apiConfig.getTimeseriesRetentionSeconds());
+        } else {
+            logger.info("时间序列统计已禁用，只维护统计快照与共享统计区使用的累计计数器");
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (sampleExecutor != null) {
+            sampleExecutor.shutdownNow();
+        }
+        if (sseWriter != null) {
+            sseWriter.shutdownNow();
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    /**
+     * 记录一次被接纳的请求（进入处理中）
+     */
+    public void recordAdmitted(UrlConfig urlConfig) {
+        seriesFor(urlConfig.getStatsKey()).inFlight.incrementAndGet();
+    }
+
+    /**
+     * 撤销一次接纳（请求在接纳后被拒绝，未进入处理）
+     */
+    public void cancelAdmitted(UrlConfig urlConfig) {
+        seriesFor(urlConfig.getStatsKey()).inFlight.decrementAndGet();
+    }
+
+    /**
+     * 记录一次完成的请求，与recordAdmitted成对调用；时间序列禁用时只更新累计计数器与当前秒的请求数
+     */
+    public void recordRequest(UrlConfig urlConfig, int concurrency, int level, long latencyNanos, long throttleNanos) {
+        PatternSeries series = seriesFor(urlConfig.getStatsKey());
+        series.inFlight.decrementAndGet();
+        series.totalRequests.increment();
+        series.requests.increment();
+        series.totalThrottleNanos.add(throttleNanos);
+        series.lastLevel = level;
+        if (!apiConfig.isTimeseriesEnabled()) {
+            return;
+        }
+        series.throttleNanos.add(throttleNanos);
+        series.latency.record(latencyNanos);
+        if (concurrency > series.peakConcurrency.get()) {
+            series.peakConcurrency.accumulateAndGet(concurrency, Math::max);
+        }
+    }
+
+    /**
+     * 记录一次被拒绝（429/503）的请求
+     */
+    public void recordRejected(UrlConfig urlConfig) {
+        PatternSeries series = seriesFor(urlConfig.getStatsKey());
+        series.totalRejected.increment();
+        if (apiConfig.isTimeseriesEnabled()) {
+            series.rejected.increment();
+        }
+    }
+
+    /**
+     * 批量读取最近seconds秒的时间序列，pattern为空时返回所有模式
+     */
+    public List<TimeSeriesData> getSeries(String pattern, int seconds) {
+        List<TimeSeriesData> result = new ArrayList<>();
+        if (pattern != null) {
+            PatternSeries series = seriesMap.get(pattern);
+            if (series != null) {
+                result.add(series.read(seconds));
+            }
+            return result;
+        }
+        for (PatternSeries series : seriesMap.values()) {
+            result.add(series.read(seconds));
+        }
+        return result;
+    }
+
+    /**
+     * 一次遍历读取所有模式的累计计数器，不阻塞请求线程
+     */
+    public List<PatternCounters> readCounters() {
+        List<PatternCounters> result = new ArrayList<>(seriesMap.size());
+        for (PatternSeries series : seriesMap.values()) {
+            result.add(new PatternCounters(series.pattern, series.lastQps, series.inFlight.get(), series.lastLevel,
+                                           series.totalRequests.sum(), series.totalRejected.sum(),
+                                           series.totalThrottleNanos.sum()));
+        }
+        return result;
+    }
+
+    /**
+     * 订阅实时推送，pattern为空时推送所有模式
+     */
+    public SseEmitter subscribe(String pattern) {
+        // 超时0表示由容器保持连接直到客户端断开
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(pattern, emitter);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        logger.info("时间序列SSE订阅: {}, 当前订阅数: {}", pattern != null ? pattern : "全部", subscribers.size());
+        return emitter;
+    }
+
+    private PatternSeries seriesFor(String pattern) {
+        PatternSeries series = seriesMap.get(pattern);
+        if (series == null) {
+            // 禁用时不保留按秒序列，环形数组只占一个槽位
+            int capacity = apiConfig.isTimeseriesEnabled() ? Math.max(1, apiConfig.getTimeseriesRetentionSeconds()) : 1;
+            series = seriesMap.computeIfAbsent(pattern, k -> new PatternSeries(k, capacity));
+        }
+        return series;
+    }
+
+    /**
+     * 清空所有模式的时间序列与累计值（预热结束后调用）；
+     * 在原序列上清零而不移除，处理中的请求完成时仍递减同一个处理中计数
+     */
+    public void reset() {
+        for (PatternSeries series : seriesMap.values()) {
+            series.reset();
+        }
+    }
+
+    /**
+     * 暂停或恢复每秒采样
+     */
+    public void setSamplingPaused(boolean samplingPaused) {
+        this.samplingPaused = samplingPaused;
+    }
+
+    /**
+     * 注册采样监听器，每秒收到一次所有模式的采样点（只读，不得修改）
+     */
+    public void addSampleListener(Consumer<List<TimeSeriesPoint>> listener) {
+        sampleListeners.add(listener);
+    }
+
+    /**
+     * 每秒对所有模式采样一次并推送给订阅者；时间序列禁用时只更新当前QPS
+     */
+    private void sampleAll() {
+        if (samplingPaused) {
+            return;
+        }
+        if (!apiConfig.isTimeseriesEnabled()) {
+            for (PatternSeries series : seriesMap.values()) {
+                series.lastQps = (int) series.requests.sumThenReset();
+            }
+            return;
+        }
+        long epochSecond = System.currentTimeMillis() / 1000;
+        List<TimeSeriesPoint> points = new ArrayList<>(seriesMap.size());
+        for (PatternSeries series : seriesMap.values()) {
+            try {
+                points.add(series.sample(epochSecond));
+            } catch (Exception e) {
+                logger.error("时间序列采样失败: {}", series.pattern, e);
+            }
+        }
+        if (!subscribers.isEmpty()) {
+            publish(points);
+        }
+        for (Consumer<List<TimeSeriesPoint>> listener : sampleListeners) {
+            try {
+                listener.accept(points);
+            } catch (Exception e) {
+                logger.error("时间序列采样监听器失败: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 推送采样点，每个订阅范围只序列化一次；发送交给写出线程，采样线程不等待
+     */
+    private void publish(List<TimeSeriesPoint> points) {
+        Map<String, String> payloads = new HashMap<>();
+        for (Subscriber subscriber : subscribers) {
+            String key = subscriber.pattern != null ? subscriber.pattern : "";
+            String payload = payloads.get(key);
+            if (payload == null) {
+                payload = serialize(subscriber.pattern, points);
+                payloads.put(key, payload);
+            }
+            subscriber.send(payload);
+        }
+    }
+
+    private String serialize(String pattern, List<TimeSeriesPoint> points) {
+        List<TimeSeriesPoint> selected = points;
+        if (pattern != null) {
+            selected = new ArrayList<>(1);
+            for (TimeSeriesPoint point : points) {
+                if (pattern.equals(point.getPattern())) {
+                    selected.add(point);
+                }
+            }
+        }
+        try {
+            return objectMapper.writeValueAsString(selected);
+        } catch (JsonProcessingException e) {
+            logger.error("时间序列序列化失败: {}", e.getMessage());
+            return "[]";
+        }
+    }
+
+    /**
+     * 单个URL模式的时间序列
+     * 累加器由请求线程无锁写入，环形数组只由采样线程写入，读取与采样互斥
+     */
+    private static class PatternSeries {
+        private final String pattern;
+
+        // 当前秒的累加器
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final LongAdder throttleNanos = new LongAdder();
+        private final AtomicInteger peakConcurrency = new AtomicInteger(0);
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private volatile int lastLevel;
+
+        // 累计计数器
+        private final LongAdder totalRequests = new LongAdder();
+        private final LongAdder totalRejected = new LongAdder();
+        private final LongAdder totalThrottleNanos = new LongAdder();
+        private final AtomicInteger inFlight = new AtomicInteger(0);
+        private volatile int lastQps;
+        private final long[] bucketScratch = new long[LatencyHistogram.BUCKETS];
+
+        // 预分配的环形数组
+        private final long[] epochSeconds;
+        private final int[] qps;
+        private final int[] concurrency;
+        private final int[] level;
+        private final long[] throttleMicros;
+        private final int[] rejects;
+        private final int[] p50Micros;
+        private final int[] p90Micros;
+        private final int[] p99Micros;
+        private final int[] maxMicros;
+        private int head;
+        private int size;
+
+        PatternSeries(String pattern, int capacity) {
+            this.pattern = pattern;
+            this.epochSeconds = new long[capacity];
+            this.qps = new int[capacity];
+            this.concurrency = new int[capacity];
+            this.level = new int[capacity];
+            this.throttleMicros = new long[capacity];
+            this.rejects = new int[capacity];
+            this.p50Micros = new int[capacity];
+            this.p90Micros = new int[capacity];
+            this.p99Micros = new int[capacity];
+            this.maxMicros = new int[capacity];
+        }
+
+        synchronized TimeSeriesPoint sample(long epochSecond) {
+            long total = latency.drainTo(bucketScratch);
+            int slot = (head + size) % epochSeconds.length;
+            if (size == epochSeconds.length) {
+                head = (head + 1) % epochSeconds.length;
+            } else {
+                size++;
+            }
+            epochSeconds[slot] = epochSecond;
+            qps[slot] = (int) requests.sumThenReset();
+            lastQps = qps[slot];
+            rejects[slot] = (int) rejected.sumThenReset();
+            throttleMicros[slot] = throttleNanos.sumThenReset() / 1000;
+            concurrency[slot] = peakConcurrency.getAndSet(0);
+            level[slot] = lastLevel;
+            p50Micros[slot] = (int) LatencyHistogram.percentileMicros(bucketScratch, total, 0.50);
+            p90Micros[slot] = (int) LatencyHistogram.percentileMicros(bucketScratch, total, 0.90);
+            p99Micros[slot] = (int) LatencyHistogram.percentileMicros(bucketScratch, total, 0.99);
+            maxMicros[slot] = (int) LatencyHistogram.percentileMicros(bucketScratch, total, 1.0);
+            return new TimeSeriesPoint(pattern, epochSecond, qps[slot], concurrency[slot], level[slot],
+                                       throttleMicros[slot], rejects[slot], p50Micros[slot], p90Micros[slot],
+                                       p99Micros[slot], maxMicros[slot]);
+        }
+
+        /**
+         * 清零序列与累计值，处理中计数保持不变
+         */
+        synchronized void reset() {
+            latency.drainTo(bucketScratch);
+            requests.reset();
+            rejected.reset();
+            throttleNanos.reset();
+            peakConcurrency.set(0);
+            totalRequests.reset();
+            totalRejected.reset();
+            totalThrottleNanos.reset();
+            lastQps = 0;
+            lastLevel = 0;
+            head = 0;
+            size = 0;
+        }
+
+        synchronized TimeSeriesData read(int seconds) {
+            int count = seconds > 0 ? Math.min(seconds, size) : size;
+            int start = head + size - count;
+            TimeSeriesData data = new TimeSeriesData(pattern, count);
+            for (int i = 0; i < count; i++) {
+                int slot = (start + i) % epochSeconds.length;
+                data.epochSeconds[i] = epochSeconds[slot];
+                data.qps[i] = qps[slot];
+                data.concurrency[i] = concurrency[slot];
+                data.level[i] = level[slot];
+                data.throttleMicros[i] = throttleMicros[slot];
+                data.rejected[i] = rejects[slot];
+                data.p50Micros[i] = p50Micros[slot];
+                data.p90Micros[i] = p90Micros[slot];
+                data.p99Micros[i] = p99Micros[slot];
+                data.maxMicros[i] = maxMicros[slot];
+            }
+            return data;
+        }
+    }
+
+    /**
+     * SSE订阅者
+     * 与推送服务的SSE写出端相同：同一时刻最多一条在发送中、一条在排队，
+     * 订阅者跟不上每秒的采样时，排队的旧采样点被新的替换（丢弃）
+     */
+    private final class Subscriber {
+        private final String pattern;
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final AtomicReference<String> queued = new AtomicReference<>();
+
+        Subscriber(String pattern, SseEmitter emitter) {
+            this.pattern = pattern;
+            this.emitter = emitter;
+        }
+
+        void send(String payload) {
+            if (sending.compareAndSet(false, true)) {
+                sseWriter.execute(() -> write(payload));
+                return;
+            }
+            queued.set(payload);
+            // 排队期间上一条可能刚好发送完成
+            drain();
+        }
+
+        /**
+         * 写出失败后保持发送中状态并移除订阅者，不再写出
+         */
+        private void write(String payload) {
+            try {
+                emitter.send(SseEmitter.event().name("timeseries").data(payload));
+            } catch (IOException | RuntimeException e) {
+                subscribers.remove(this);
+                logger.debug("时间序列SSE订阅断开: {}", e.getMessage());
+                emitter.complete();
+                return;
+            }
+            sending.set(false);
+            drain();
+        }
+
+        private void drain() {
+            while (queued.get() != null && sending.compareAndSet(false, true)) {
+                String payload = queued.getAndSet(null);
+                if (payload != null) {
+                    sseWriter.execute(() -> write(payload));
+                    return;
+                }
+                sending.set(false);
+            }
+        }
+    }
+
+    /**
+     * 单秒采样点（SSE推送）
+     */
+    public static class TimeSeriesPoint {
+        private final String pattern;
+        private final long epochSecond;
+        private final int qps;
+        private final int concurrency;
+        private final int level;
+        private final long throttleMicros;
+        private final int rejected;
+        private final int p50Micros;
+        private final int p90Micros;
+        private final int p99Micros;
+        private final int maxMicros;
+
+        public TimeSeriesPoint(String pattern, long epochSecond, int qps, int concurrency, int level,
+                               long throttleMicros, int rejected, int p50Micros, int p90Micros,
+                               int p99Micros, int maxMicros) {
+            this.pattern = pattern;
+            this.epochSecond = epochSecond;
+            this.qps = qps;
+            this.concurrency = concurrency;
+            this.level = level;
+            this.throttleMicros = throttleMicros;
+            this.rejected = rejected;
+            this.p50Micros = p50Micros;
+            this.p90Micros = p90Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        // Getters
+        public String getPattern() { return pattern; }
+        public long getEpochSecond() { return epochSecond; }
+        public int getQps() { return qps; }
+        public int getConcurrency() { return concurrency; }
+        public int getLevel() { return level; }
+        public long getThrottleMicros() { return throttleMicros; }
+        public int getRejected() { return rejected; }
+        public int getP50Micros() { return p50Micros; }
+        public int getP90Micros() { return p90Micros; }
+        public int getP99Micros() { return p99Micros; }
+        public int getMaxMicros() { return maxMicros; }
+    }
+
+    /**
+     * 批量时间序列数据（按列存放）
+     */
+    public static class TimeSeriesData {
+        private final String pattern;
+        private final long[] epochSeconds;
+        private final int[] qps;
+        private final int[] concurrency;
+        private final int[] level;
+        private final long[] throttleMicros;
+        private final int[] rejected;
+        private final int[] p50Micros;
+        private final int[] p90Micros;
+        private final int[] p99Micros;
+        private final int[] maxMicros;
+
+        public TimeSeriesData(String pattern, int length) {
+            this.pattern = pattern;
+            this.epochSeconds = new long[length];
+            this.qps = new int[length];
+            this.concurrency = new int[length];
+            this.level = new int[length];
+            this.throttleMicros = new long[length];
+            this.rejected = new int[length];
+            this.p50Micros = new int[length];
+            this.p90Micros = new int[length];
+            this.p99Micros = new int[length];
+            this.maxMicros = new int[length];
+        }
+
+        // Getters
+        public String getPattern() { return pattern; }
+        public long[] getEpochSeconds() { return epochSeconds; }
+        public int[] getQps() { return qps; }
+        public int[] getConcurrency() { return concurrency; }
+        public int[] getLevel() { return level; }
+        public long[] getThrottleMicros() { return throttleMicros; }
+        public int[] getRejected() { return rejected; }
+        public int[] getP50Micros() { return p50Micros; }
+        public int[] getP90Micros() { return p90Micros; }
+        public int[] getP99Micros() { return p99Micros; }
+        public int[] getMaxMicros() { return maxMicros; }
+    }
+}
@@ -0,0 +1,21 @@
+package com.shrwk.apirunner.service;
+
+/**
+ * 时间来源
+ * QPS与并发控制通过它读取当前时间，运行时使用系统时钟，离线模拟时替换为由事件驱动的虚拟时钟
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public interface TimeSource {
+
+    /**
+     * 系统时钟
+     */
+    TimeSource SYSTEM = System::currentTimeMillis;
+
+    /**
+     * 当前时间（毫秒）
+     */
+    long currentTimeMillis();
+}
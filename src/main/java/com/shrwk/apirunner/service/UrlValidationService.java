@@ -32,6 +32,11 @@ public class UrlValidationService {
      */
     private final List<UrlConfig> urlConfigs = new ArrayList<>();
 
+    /**
+     * 请求路径上遍历用的配置快照，配置增删时整体替换，遍历时不创建迭代器
+     */
+    private volatile UrlConfig[] matchOrder = new UrlConfig[0];
+
     @PostConstruct
     public void init() {
         // 初始化默认配置
@@ -57,31 +62,20 @@ public class UrlValidationService {
         
         // 健康检查接口
         urlConfigs.add(new UrlConfig("/actuator/*", 100, 10, "监控接口"));
+        refreshMatchOrder();
     }
 
     /**
      * 验证URL是否在允许列表中
      */
     public boolean isUrlAllowed(String url) {
-        if (url == null || url.trim().isEmpty()) {
-            return false;
-        }
-
-        // 移除查询参数
-        String cleanUrl = url.split("\\?")[0];
-        
-        // 检查是否匹配任何配置的模式
-        Optional<UrlConfig> matchedConfig = urlConfigs.stream()
-                .filter(UrlConfig::isEnabled)
-                .filter(config -> config.matches(cleanUrl))
-                .findFirst();
-
-        if (matchedConfig.isPresent()) {
-            logger.debug("URL '{}' 匹配模式 '{}'", cleanUrl, matchedConfig.get().getPattern());
+        UrlConfig matchedConfig = findUrlConfig(url);
+        if (matchedConfig != null) {
+            logger.debug("URL '{}' 匹配模式 '{}'", url, matchedConfig.getPattern());
             return true;
         }
 
-        logger.debug("URL '{}' 不在允许列表中", cleanUrl);
+        logger.debug("URL '{}' 不在允许列表中", url);
         return false;
     }
 
@@ -89,16 +83,32 @@ public class UrlValidationService {
      * 获取URL对应的配置
      */
     public Optional<UrlConfig> getUrlConfig(String url) {
-        if (url == null || url.trim().isEmpty()) {
-            return Optional.empty();
+        return Optional.ofNullable(findUrlConfig(url));
+    }
+
+    /**
+     * 获取URL对应的配置，未匹配时返回null
+     * 请求路径使用：忽略查询参数时不截取子串，也不创建Optional、流和Lambda
+     */
+    public UrlConfig findUrlConfig(String url) {
+        if (url == null || url.isEmpty()) {
+            return null;
         }
 
-        String cleanUrl = url.split("\\?")[0];
-        
-        return urlConfigs.stream()
-                .filter(UrlConfig::isEnabled)
-                .filter(config -> config.matches(cleanUrl))
-                .findFirst();
+        // 忽略查询参数
+        int length = url.indexOf('?');
+        if (length < 0) {
+            length = url.length();
+        }
+
+        UrlConfig[] configs = matchOrder;
+        for (int i = 0; i < configs.length; i++) {
+            UrlConfig config = configs[i];
+            if (config.isEnabled() && config.matches(url, length)) {
+                return config;
+            }
+        }
+        return null;
     }
 
     /**
@@ -114,6 +124,7 @@ public class UrlValidationService {
     public void addUrlConfig(UrlConfig urlConfig) {
         if (urlConfig != null && urlConfig.getPattern() != null) {
             urlConfigs.add(urlConfig);
+            refreshMatchOrder();
             logger.info("添加新的URL配置: {}", urlConfig.getPattern());
         }
     }
@@ -122,7 +133,11 @@ public class UrlValidationService {
      * 移除URL配置
      */
     public boolean removeUrlConfig(String pattern) {
-        return urlConfigs.removeIf(config -> pattern.equals(config.getPattern()));
+        boolean removed = urlConfigs.removeIf(config -> pattern.equals(config.getPattern()));
+        if (removed) {
+            refreshMatchOrder();
+        }
+        return removed;
     }
 
     /**
@@ -153,4 +168,8 @@ public class UrlValidationService {
         }
         return false;
     }
+
+    private void refreshMatchOrder() {
+        matchOrder = urlConfigs.toArray(new UrlConfig[0]);
+    }
 }
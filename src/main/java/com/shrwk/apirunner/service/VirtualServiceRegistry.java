@@ -0,0 +1,166 @@
+package com.shrwk.apirunner.service;
+
+import com.shrwk.apirunner.config.ApiConfig;
+import com.shrwk.apirunner.model.UrlConfig;
+import com.shrwk.apirunner.model.VirtualServiceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 虚拟服务注册表
+ * 按本地端口把请求分派到对应的虚拟服务；每个虚拟服务有独立的URL配置，
+ * 计数器与统计键以服务名为前缀，同一进程内的多个虚拟服务互不影响。
+ * 主端口上的请求不属于任何虚拟服务，使用默认URL配置和不带前缀的键
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+public class VirtualServiceRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualServiceRegistry.class);
+
+    @Autowired
+    private ApiConfig apiConfig;
+
+    /**
+     * 按端口升序排列的端口与虚拟服务，用于二分查找
+     */
+    private int[] ports = new int[0];
+    private VirtualService[] servicesByPort = new VirtualService[0];
+
+    private final Map<String, VirtualService> servicesByName = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        List<VirtualService> services = new ArrayList<>();
+        for (VirtualServiceConfig config : apiConfig.getVirtualServices()) {
+            if (config.getName() == null || config.getName().trim().isEmpty() || config.getPort() <= 0) {
+                throw new IllegalArgumentException("虚拟服务必须配置名称和端口: " + config.getName());
+            }
+            if (servicesByName.containsKey(config.getName())) {
+                throw new IllegalArgumentException("虚拟服务名称重复: " + config.getName());
+            }
+            for (VirtualService existing : services) {
+                if (existing.getPort() == config.getPort()) {
+                    throw new IllegalArgumentException("虚拟服务端口重复: " + config.getPort());
+                }
+            }
+            VirtualService service = new VirtualService(config);
+            services.add(service);
+            servicesByName.put(config.getName(), service);
+            logger.info("虚拟服务 {} 监听端口 {}，共 {} 个URL模式", config.getName(), config.getPort(),
+                       config.getUrls().size());
+        }
+
+        services.sort((a, b) -> Integer.compare(a.getPort(), b.getPort()));
+        ports = new int[services.size()];
+        servicesByPort = new VirtualService[services.size()];
+        for (int i = 0; i < services.size(); i++) {
+            ports[i] = services.get(i).getPort();
+            servicesByPort[i] = services.get(i);
+        }
+    }
+
+    /**
+     * 按本地端口查找虚拟服务，主端口返回null
+     */
+    public VirtualService resolve(int localPort) {
+        if (ports.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(ports, localPort);
+        return index >= 0 ? servicesByPort[index] : null;
+    }
+
+    /**
+     * 按名称查找虚拟服务
+     */
+    public VirtualService getService(String name) {
+        return servicesByName.get(name);
+    }
+
+    /**
+     * 所有虚拟服务（按端口排序）
+     */
+    public List<VirtualService> getServices() {
+        return Arrays.asList(servicesByPort);
+    }
+
+    /**
+     * 所有虚拟服务的URL配置
+     */
+    public List<UrlConfig> getAllUrlConfigs() {
+        List<UrlConfig> result = new ArrayList<>();
+        for (VirtualService service : servicesByPort) {
+            result.addAll(service.getUrls());
+        }
+        return result;
+    }
+
+    /**
+     * 虚拟服务
+     */
+    public static class VirtualService {
+        private final String name;
+        private final int port;
+        private final String description;
+        private final String keyPrefix;
+        private final UrlValidationService urlValidation = new UrlValidationService();
+
+        public VirtualService(VirtualServiceConfig config) {
+            this.name = config.getName();
+            this.port = config.getPort();
+            this.description = config.getDescription();
+            this.keyPrefix = name + ":";
+            for (UrlConfig urlConfig : config.getUrls()) {
+                urlConfig.setService(name);
+                urlValidation.addUrlConfig(urlConfig);
+            }
+        }
+
+        /**
+         * 验证URL是否在该服务的允许列表中
+         */
+        public boolean isUrlAllowed(String url) {
+            return urlValidation.isUrlAllowed(url);
+        }
+
+        /**
+         * 获取该服务中URL对应的配置
+         */
+        public Optional<UrlConfig> getUrlConfig(String url) {
+            return urlValidation.getUrlConfig(url);
+        }
+
+        /**
+         * 获取该服务中URL对应的配置，未匹配时返回null
+         */
+        public UrlConfig findUrlConfig(String url) {
+            return urlValidation.findUrlConfig(url);
+        }
+
+        /**
+         * 带服务名前缀的计数器键
+         */
+        public String qualify(String key) {
+            return keyPrefix.concat(key);
+        }
+
+        // Getters
+        public String getName() { return name; }
+        public int getPort() { return port; }
+        public String getDescription() { return description; }
+        public List<UrlConfig> getUrls() { return urlValidation.getAllUrlConfigs(); }
+    }
+}
@@ -0,0 +1,228 @@
+package com.shrwk.apirunner.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shrwk.apirunner.config.ApiConfig;
+import com.shrwk.apirunner.model.ConcurrentLevelConfig;
+import com.shrwk.apirunner.model.UrlConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 启动预热服务
+ * 在进程内对每个URL模式反复执行完整的请求处理（路由、准入、级别选择、QPS控制计算、响应构建与JSON序列化），
+ * 直到JIT编译耗时连续几轮不再增长或达到次数/时间上限，然后清零预热产生的统计；
+ * 预热线程上的QPS控制只计算不执行（同时到达的真实请求照常限流），时间序列暂停采样，预热数据不会进入运行报告。
+ * 预热作为ApplicationRunner同步执行：此时Tomcat已经启动，但应用尚未就绪，
+ * /actuator/health/readiness 保持DOWN，预热结束后由Spring Boot切换为UP
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@Service
+public class WarmupService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupService.class);
+
+    /**
+     * 每轮对每个目标执行的次数
+     */
+    private static final int ROUND_ITERATIONS = 1000;
+
+    /**
+     * 一轮内JIT编译耗时增长不超过该值（毫秒）视为稳定
+     */
+    private static final long STABLE_COMPILE_MS = 2;
+
+    /**
+     * 预热URL中代替通配符的路径段，预热使用独立的计数器键，不与真实流量的计数器混在一起
+     */
+    private static final String WARMUP_SEGMENT = "__warmup__";
+
+    private static final String[] METHODS = {"GET", "POST"};
+
+    @Autowired
+    private ApiConfig apiConfig;
+
+    @Autowired
+    private MockRequestService mockRequestService;
+
+    @Autowired
+    private UrlValidationService urlValidationService;
+
+    @Autowired
+    private VirtualServiceRegistry virtualServiceRegistry;
+
+    @Autowired
+    private QpsControlService qpsControlService;
+
+    @Autowired
+    private ConcurrentControlService concurrentControlService;
+
+    @Autowired
+    private AdaptiveLimitService adaptiveLimitService;
+
+    @Autowired
+    private TimeSeriesService timeSeriesService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile boolean completed;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!apiConfig.isWarmupEnabled()) {
+            completed = true;
+            return;
+        }
+        List<WarmupTarget> targets = collectTargets();
+        logger.info("开始预热，共 {} 个URL模式，每个最多 {} 次，最长 {} 秒", targets.size(),
+                   apiConfig.getWarmupMaxIterations(), apiConfig.getWarmupMaxSeconds());
+
+        long start = System.currentTimeMillis();
+        long deadline = start + apiConfig.getWarmupMaxSeconds() * 1000L;
+        CompilationMXBean compilation = ManagementFactory.getCompilationMXBean();
+        boolean compileTimeSupported = compilation != null && compilation.isCompilationTimeMonitoringSupported();
+        long compileStart = compileTimeSupported ? compilation.getTotalCompilationTime() : 0;
+        long lastCompileMs = compileStart;
+        int stableRounds = 0;
+        long iterations = 0;
+        String stopReason = "达到次数上限";
+
+        qpsControlService.setThreadDryRun(true);
+        timeSeriesService.setSamplingPaused(true);
+        try {
+            while (iterations < apiConfig.getWarmupMaxIterations()) {
+                for (WarmupTarget target : targets) {
+                    runRound(target);
+                }
+                iterations += ROUND_ITERATIONS;
+
+                if (compileTimeSupported) {
+                    long compileMs = compilation.getTotalCompilationTime();
+                    stableRounds = compileMs - lastCompileMs <= STABLE_COMPILE_MS ? stableRounds + 1 : 0;
+                    lastCompileMs = compileMs;
+                    if (stableRounds >= apiConfig.getWarmupStableRounds()) {
+                        stopReason = "JIT编译已稳定";
+                        break;
+                    }
+                }
+                if (System.currentTimeMillis() >= deadline) {
+                    stopReason = "达到时间上限";
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            stopReason = "预热出错: " + e.getMessage();
+            logger.error("预热失败", e);
+        } finally {
+            qpsControlService.setThreadDryRun(false);
+            resetStats();
+            timeSeriesService.setSamplingPaused(false);
+            completed = true;
+        }
+
+        logger.info("预热完成（{}），每个模式 {} 次，耗时 {}ms，JIT编译耗时 {}ms", stopReason, iterations,
+                   System.currentTimeMillis() - start,
+                   compileTimeSupported ? lastCompileMs - compileStart : -1);
+    }
+
+    /**
+     * 预热是否已完成（未启用时始终为true）
+     */
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * 每个可预热的URL配置对应一个目标；排队模型和流式响应由定时器异步完成，不参与预热
+     */
+    private List<WarmupTarget> collectTargets() {
+        List<WarmupTarget> targets = new ArrayList<>();
+        for (UrlConfig urlConfig : urlValidationService.getAllUrlConfigs()) {
+            String url = sampleUrl(urlConfig);
+            if (urlConfig == urlValidationService.findUrlConfig(url)) {
+                addTarget(targets, urlConfig, url, 0);
+            }
+        }
+        for (VirtualServiceRegistry.VirtualService service : virtualServiceRegistry.getServices()) {
+            for (UrlConfig urlConfig : service.getUrls()) {
+                String url = sampleUrl(urlConfig);
+                if (urlConfig == service.findUrlConfig(url)) {
+                    addTarget(targets, urlConfig, url, service.getPort());
+                }
+            }
+        }
+        return targets;
+    }
+
+    private void addTarget(List<WarmupTarget> targets, UrlConfig urlConfig, String url, int port) {
+        if (urlConfig.isQueueModelEnabled()) {
+            logger.debug("排队模型不参与预热: {}", urlConfig.getStatsKey());
+            return;
+        }
+        if (urlConfig.isStreamingEnabled()) {
+            logger.debug("流式响应不参与预热: {}", urlConfig.getStatsKey());
+            return;
+        }
+        if (urlConfig.isFaultInjectionConfigured()) {
+            logger.debug("故障注入不参与预热: {}", urlConfig.getStatsKey());
+            return;
+        }
+        targets.add(new WarmupTarget(urlConfig, url, port));
+    }
+
+    private static String sampleUrl(UrlConfig urlConfig) {
+        return urlConfig.getPattern().replace("*", WARMUP_SEGMENT);
+    }
+
+    /**
+     * 对一个目标执行一轮：完整处理请求并序列化响应，同时按每个配置的并发级别做级别选择
+     */
+    private void runRound(WarmupTarget target) throws Exception {
+        List<ConcurrentLevelConfig> levels = target.urlConfig.getConcurrentLevels();
+        for (int i = 0; i < ROUND_ITERATIONS; i++) {
+            MockRequestService.MockResult result = mockRequestService.handle(METHODS[i & 1], target.url,
+                                                                             target.port);
+            if (!result.isPending()) {
+                objectMapper.writeValueAsBytes(result.getBody());
+            }
+            if (levels != null && !levels.isEmpty()) {
+                target.urlConfig.findBestMatchingLevel(levels.get(i % levels.size()).getConcurrentLevel());
+            }
+        }
+    }
+
+    /**
+     * 清零预热产生的统计：时间序列、全局响应时间与自适应限制；预热URL的计数器键与真实流量不同，随过期清理
+     */
+    private void resetStats() {
+        timeSeriesService.reset();
+        concurrentControlService.resetTotals();
+        adaptiveLimitService.reset();
+    }
+
+    /**
+     * 预热目标
+     */
+    private static class WarmupTarget {
+        private final UrlConfig urlConfig;
+        private final String url;
+        private final int port;
+
+        WarmupTarget(UrlConfig urlConfig, String url, int port) {
+            this.urlConfig = urlConfig;
+            this.url = url;
+            this.port = port;
+        }
+    }
+}
@@ -0,0 +1,471 @@
+package com.shrwk.apirunner.tool;
+
+import ch.qos.logback.classic.Level;
+import com.shrwk.apirunner.config.ApiConfig;
+import com.shrwk.apirunner.config.ServiceTimeDistribution;
+import com.shrwk.apirunner.model.ConcurrentLevelConfig;
+import com.shrwk.apirunner.model.RequestCostConfig;
+import com.shrwk.apirunner.model.UrlConfig;
+import com.shrwk.apirunner.service.ConcurrentControlService;
+import com.shrwk.apirunner.service.LatencyHistogram;
+import com.shrwk.apirunner.service.QpsControlService;
+import com.shrwk.apirunner.service.TimeSource;
+import com.shrwk.apirunner.service.UrlValidationService;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * 离线离散事件模拟器
+ * 在虚拟时钟上用真实的UrlConfig级别选择、ConcurrentControlService并发准入和QpsControlService限流计算
+ * 回放给定的负载曲线，预测配置生效后的并发级别分布、实际QPS、429比例和延迟分布，不需要启动服务或真实压测。
+ * 到达为按负载曲线变化速率的泊松过程，每个请求的延迟 = QPS控制计算出的延迟/消耗时间 + 按分布采样的后端服务时间，
+ * 并发计数保持到请求完成
+ *
+ * 用法：java -cp target/api-runner-1.0.0.jar -Dloader.main=com.shrwk.apirunner.tool.ConfigSimulator \
+ *      org.springframework.boot.loader.PropertiesLauncher 配置文件 URL 负载曲线 [选项...]
+ *
+ * 负载曲线：逗号分隔的段，"速率@秒数"为恒定负载，"起始-结束@秒数"为线性爬坡，如 200@600,200-1200@3600
+ * 选项：--service-ms 平均服务时间（默认20）、--distribution 服务时间分布（默认EXPONENTIAL）、
+ *      --stddev-ms 标准差（仅LOGNORMAL，默认等于均值）、--interval 时间线间隔秒数（默认60，0表示不输出）、--seed 随机种子
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class ConfigSimulator {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final UrlConfig urlConfig;
+    private final String url;
+    private final List<double[]> profile;
+    private final ServiceTimeDistribution distribution;
+    private final double serviceMs;
+    private final double stddevMs;
+    private final long intervalSeconds;
+    private final SplittableRandom random;
+
+    private final VirtualClock clock = new VirtualClock();
+    private final QpsControlService qpsControlService;
+    private final ConcurrentControlService concurrentControlService;
+
+    /**
+     * 进行中请求的完成时刻（纳秒，最小堆）
+     */
+    private long[] departures = new long[1024];
+    private int departureCount;
+
+    /**
+     * 并发级别（未匹配为最后一项）及其准入请求数
+     */
+    private final List<ConcurrentLevelConfig> levels;
+    private final long[] levelAdmitted;
+
+    private final LatencyHistogram intervalLatency = new LatencyHistogram();
+    private final long[] totalBuckets = new long[LatencyHistogram.BUCKETS];
+    private final long[] intervalBuckets = new long[LatencyHistogram.BUCKETS];
+
+    private long offered;
+    private long admitted;
+    private long rejected;
+    private long completed;
+    private long events;
+    private long maxLatencyNanos;
+
+    private long intervalOffered;
+    private long intervalAdmitted;
+    private long intervalRejected;
+    private long intervalCompleted;
+    private long intervalConcurrencySum;
+    private long intervalMaxLatencyNanos;
+    private long[] intervalLevelAdmitted;
+
+    public ConfigSimulator(ApiConfig apiConfig, UrlConfig urlConfig, String url, List<double[]> profile,
+                           ServiceTimeDistribution distribution, double serviceMs, double stddevMs,
+                           long intervalSeconds, long seed) {
+        this.urlConfig = urlConfig;
+        this.url = url;
+        this.profile = profile;
+        this.distribution = distribution;
+        this.serviceMs = serviceMs;
+        this.stddevMs = stddevMs;
+        this.intervalSeconds = intervalSeconds;
+        this.random = new SplittableRandom(seed);
+        this.qpsControlService = QpsControlService.createOffline(apiConfig, clock);
+        this.concurrentControlService = ConcurrentControlService.createOffline(apiConfig, clock);
+
+        List<ConcurrentLevelConfig> configured = urlConfig.getConcurrentLevels();
+        this.levels = configured != null && !configured.isEmpty() ? new ArrayList<>(configured)
+                : new ArrayList<>(Collections.singletonList(urlConfig.findBestMatchingLevel(0)));
+        this.levelAdmitted = new long[levels.size() + 1];
+        this.intervalLevelAdmitted = new long[levels.size() + 1];
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("用法: ConfigSimulator 配置文件 URL 负载曲线 [--service-ms 20] "
+                    + "[--distribution EXPONENTIAL] [--stddev-ms N] [--interval 60] [--seed 1]");
+            System.exit(1);
+        }
+        // 被拒绝的请求会输出WARN日志，模拟时关闭
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(Level.ERROR);
+
+        double serviceMs = 20;
+        double stddevMs = -1;
+        ServiceTimeDistribution distribution = ServiceTimeDistribution.EXPONENTIAL;
+        long intervalSeconds = 60;
+        long seed = 1;
+        for (int i = 3; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--service-ms":
+                    serviceMs = Double.parseDouble(value);
+                    break;
+                case "--distribution":
+                    distribution = ServiceTimeDistribution.valueOf(value.toUpperCase(Locale.ROOT));
+                    break;
+                case "--stddev-ms":
+                    stddevMs = Double.parseDouble(value);
+                    break;
+                case "--interval":
+                    intervalSeconds = Long.parseLong(value);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("未知选项: " + args[i]);
+            }
+        }
+
+        ApiConfig apiConfig = new ApiConfig();
+        UrlValidationService urlValidation = new UrlValidationService();
+        for (UrlConfig config : loadConfig(args[0], apiConfig)) {
+            urlValidation.addUrlConfig(config);
+        }
+        UrlConfig urlConfig = urlValidation.findUrlConfig(args[1]);
+        if (urlConfig == null) {
+            System.err.println("配置文件中没有匹配的URL模式: " + args[1]);
+            System.exit(1);
+        }
+        if (urlConfig.isQueueModelEnabled() || urlConfig.isAdaptiveLimitEnabled() || urlConfig.isScheduleEnabled()) {
+            System.out.println("注意: 排队模型、自适应并发限制和QPS计划不参与模拟，只模拟并发级别、并发上限和QPS控制");
+        }
+        if (urlConfig.getConcurrent() <= 0) {
+            System.out.println("注意: 未配置concurrent（并发上限为0），所有请求都会返回429001");
+        }
+
+        ConfigSimulator simulator = new ConfigSimulator(apiConfig, urlConfig, args[1], parseProfile(args[2]),
+                distribution, serviceMs, stddevMs >= 0 ? stddevMs : serviceMs, intervalSeconds, seed);
+        System.out.printf("模式: %s, 并发上限: %d, 控制方式: %s, 服务时间: %s %.1fms%n", urlConfig.getPattern(),
+                urlConfig.getConcurrent(), urlConfig.getQpsControlMode() != null ? urlConfig.getQpsControlMode()
+                                                                                : apiConfig.getQpsControlMode(),
+                distribution, serviceMs);
+        long wallStart = System.nanoTime();
+        simulator.run();
+        simulator.printSummary(System.nanoTime() - wallStart);
+    }
+
+    /**
+     * 按运行时相同的绑定规则读取配置文件：顶层urls为URL配置列表，api段（可选）覆盖全局配置
+     */
+    static List<UrlConfig> loadConfig(String path, ApiConfig apiConfig) throws IOException {
+        Binder binder = new Binder(ConfigurationPropertySources.from(
+                new YamlPropertySourceLoader().load(path, new FileSystemResource(path))));
+        binder.bind("api", Bindable.ofInstance(apiConfig));
+        return binder.bind("urls", Bindable.listOf(UrlConfig.class)).orElse(Collections.emptyList());
+    }
+
+    /**
+     * 解析负载曲线，每段为{起始速率, 结束速率, 秒数}
+     */
+    static List<double[]> parseProfile(String spec) {
+        List<double[]> segments = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] rateAndDuration = part.trim().split("@");
+            if (rateAndDuration.length != 2) {
+                throw new IllegalArgumentException("负载曲线段格式应为 速率@秒数 或 起始-结束@秒数: " + part);
+            }
+            String[] rates = rateAndDuration[0].split("-");
+            double from = Double.parseDouble(rates[0]);
+            double to = rates.length > 1 ? Double.parseDouble(rates[1]) : from;
+            double seconds = Double.parseDouble(rateAndDuration[1]);
+            if (from < 0 || to < 0 || seconds <= 0) {
+                throw new IllegalArgumentException("负载曲线段的速率不能为负、时长必须为正: " + part);
+            }
+            segments.add(new double[]{from, to, seconds});
+        }
+        return segments;
+    }
+
+    /**
+     * 运行模拟：按时间顺序处理到达与完成事件，直到负载曲线结束
+     */
+    public void run() {
+        long segmentStart = 0;
+        long nextInterval = intervalSeconds > 0 ? intervalSeconds * NANOS_PER_SECOND : Long.MAX_VALUE;
+        if (intervalSeconds > 0) {
+            System.out.printf("%8s %10s %10s %8s %10s %9s %9s %9s %12s%n", "time-s", "offered/s", "admitted/s",
+                    "429-%", "achieved/s", "avg-conc", "p50-ms", "p99-ms", "level");
+        }
+        for (double[] segment : profile) {
+            long segmentNanos = (long) (segment[2] * NANOS_PER_SECOND);
+            long segmentEnd = segmentStart + segmentNanos;
+            long now = segmentStart;
+            while (true) {
+                // 按当前时刻的速率抽取下一个到达间隔
+                double rate = segment[0] + (segment[1] - segment[0]) * (now - segmentStart) / segmentNanos;
+                long arrival = rate > 0 ? now + (long) (-Math.log(1 - random.nextDouble()) / rate * NANOS_PER_SECOND)
+                                        : now + 1_000_000;
+                long next = Math.min(arrival, segmentEnd);
+                while (departureCount > 0 && departures[0] <= next) {
+                    long departure = popDeparture();
+                    while (departure >= nextInterval) {
+                        printInterval(nextInterval);
+                        nextInterval += intervalSeconds * NANOS_PER_SECOND;
+                    }
+                    clock.nanos = departure;
+                    concurrentControlService.releaseConcurrent(url);
+                    completed++;
+                    intervalCompleted++;
+                    events++;
+                }
+                while (next >= nextInterval) {
+                    printInterval(nextInterval);
+                    nextInterval += intervalSeconds * NANOS_PER_SECOND;
+                }
+                if (arrival >= segmentEnd) {
+                    break;
+                }
+                now = arrival;
+                if (rate > 0) {
+                    arrive(now);
+                }
+            }
+            segmentStart = segmentEnd;
+        }
+        clock.nanos = segmentStart;
+    }
+
+    /**
+     * 处理一个到达事件，顺序与MockRequestService一致：读取当前并发、选择级别、并发准入、QPS控制
+     */
+    private void arrive(long now) {
+        clock.nanos = now;
+        events++;
+        offered++;
+        intervalOffered++;
+        int currentConcurrent = concurrentControlService.getCurrentConcurrent(url);
+        intervalConcurrencySum += currentConcurrent;
+        ConcurrentLevelConfig activeLevel = urlConfig.findBestMatchingLevel(currentConcurrent);
+        int targetQps = activeLevel != null ? activeLevel.getTargetQps() : urlConfig.getQps();
+
+        if (!concurrentControlService.checkConcurrentLimit(url, urlConfig.getStatsKey(), urlConfig.getConcurrent())) {
+            rejected++;
+            intervalRejected++;
+            return;
+        }
+        long costMillis = urlConfig.isCostEnabled() ? urlConfig.getCost().costMillis("GET", null)
+                                                    : RequestCostConfig.MILLIS_PER_UNIT;
+        long throttleMs = qpsControlService.controlQps(url, urlConfig.getStatsKey(), targetQps,
+                                                       urlConfig.getQpsControlMode(), costMillis);
+        long latencyNanos = throttleMs * 1_000_000L + sampleServiceNanos();
+        pushDeparture(now + latencyNanos);
+        intervalLatency.record(latencyNanos);
+        maxLatencyNanos = Math.max(maxLatencyNanos, latencyNanos);
+        intervalMaxLatencyNanos = Math.max(intervalMaxLatencyNanos, latencyNanos);
+        admitted++;
+        intervalAdmitted++;
+        intervalLevelAdmitted[levelIndex(activeLevel)]++;
+    }
+
+    /**
+     * 按分布采样后端服务时间（纳秒），参数含义与排队模型相同
+     */
+    private long sampleServiceNanos() {
+        double ms;
+        switch (distribution) {
+            case CONSTANT:
+                ms = serviceMs;
+                break;
+            case UNIFORM:
+                ms = random.nextDouble() * 2 * serviceMs;
+                break;
+            case LOGNORMAL:
+                double sigma2 = Math.log(1 + stddevMs * stddevMs / (serviceMs * serviceMs));
+                double mu = Math.log(serviceMs) - sigma2 / 2;
+                ms = Math.exp(mu + Math.sqrt(sigma2) * nextGaussian());
+                break;
+            case EXPONENTIAL:
+            default:
+                ms = -serviceMs * Math.log(1 - random.nextDouble());
+                break;
+        }
+        return (long) (Math.max(0.0, ms) * 1_000_000);
+    }
+
+    /**
+     * Box-Muller标准正态采样（SplittableRandom没有nextGaussian）
+     */
+    private double nextGaussian() {
+        double u = 1 - random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private void printInterval(long intervalEnd) {
+        long total = intervalLatency.drainTo(intervalBuckets);
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+            totalBuckets[i] += intervalBuckets[i];
+        }
+        int dominant = 0;
+        for (int i = 0; i < intervalLevelAdmitted.length; i++) {
+            levelAdmitted[i] += intervalLevelAdmitted[i];
+            if (intervalLevelAdmitted[i] > intervalLevelAdmitted[dominant]) {
+                dominant = i;
+            }
+        }
+        double seconds = intervalSeconds > 0 ? intervalSeconds : 1;
+        System.out.printf("%8d %10.1f %10.1f %8.2f %10.1f %9.1f %9.1f %9.1f %12s%n",
+                intervalEnd / NANOS_PER_SECOND,
+                intervalOffered / seconds,
+                intervalAdmitted / seconds,
+                intervalOffered > 0 ? intervalRejected * 100.0 / intervalOffered : 0.0,
+                intervalCompleted / seconds,
+                intervalOffered > 0 ? (double) intervalConcurrencySum / intervalOffered : 0.0,
+                percentileMillis(intervalBuckets, total, 0.50, intervalMaxLatencyNanos),
+                percentileMillis(intervalBuckets, total, 0.99, intervalMaxLatencyNanos),
+                intervalLevelAdmitted[dominant] > 0 ? levelName(dominant) : "-");
+        intervalOffered = 0;
+        intervalAdmitted = 0;
+        intervalRejected = 0;
+        intervalCompleted = 0;
+        intervalConcurrencySum = 0;
+        intervalMaxLatencyNanos = 0;
+        intervalLevelAdmitted = new long[intervalLevelAdmitted.length];
+    }
+
+    /**
+     * 分位数（毫秒）：直方图给出的是桶的上界，不超过观测到的最大延迟
+     */
+    private static double percentileMillis(long[] buckets, long total, double percentile, long maxNanos) {
+        return Math.min(LatencyHistogram.percentileMicros(buckets, total, percentile) / 1000.0, maxNanos / 1e6);
+    }
+
+    /**
+     * 输出汇总：实际QPS、429比例、延迟分位数和各并发级别的准入占比
+     */
+    public void printSummary(long wallNanos) {
+        // 不输出时间线时，剩余的区间统计在这里并入总计
+        intervalLatency.drainTo(intervalBuckets);
+        long total = 0;
+        for (int i = 0; i < LatencyHistogram.BUCKETS; i++) {
+            totalBuckets[i] += intervalBuckets[i];
+            total += totalBuckets[i];
+        }
+        for (int i = 0; i < intervalLevelAdmitted.length; i++) {
+            levelAdmitted[i] += intervalLevelAdmitted[i];
+        }
+
+        double seconds = (double) clock.nanos / NANOS_PER_SECOND;
+        System.out.println();
+        System.out.printf("模拟时长: %.0fs, 事件数: %d, 耗时: %.2fs（%.2f百万事件/秒）%n", seconds, events,
+                wallNanos / 1e9, events / (wallNanos / 1e3));
+        System.out.printf("到达: %d, 准入: %d, 429: %d（%.2f%%）, 完成: %d%n", offered, admitted, rejected,
+                offered > 0 ? rejected * 100.0 / offered : 0.0, completed);
+        System.out.printf("平均提供负载: %.1f req/s, 平均实际QPS: %.1f req/s%n", offered / seconds, completed / seconds);
+        System.out.printf("延迟(ms): p50=%.1f p90=%.1f p99=%.1f p999=%.1f max=%.1f%n",
+                percentileMillis(totalBuckets, total, 0.50, maxLatencyNanos),
+                percentileMillis(totalBuckets, total, 0.90, maxLatencyNanos),
+                percentileMillis(totalBuckets, total, 0.99, maxLatencyNanos),
+                percentileMillis(totalBuckets, total, 0.999, maxLatencyNanos),
+                maxLatencyNanos / 1e6);
+        System.out.println();
+        System.out.printf("%12s %10s %12s %8s%n", "level", "targetQps", "admitted", "share-%");
+        for (int i = 0; i < levelAdmitted.length; i++) {
+            if (i == levels.size() && levelAdmitted[i] == 0) {
+                continue;
+            }
+            System.out.printf("%12s %10s %12d %8.2f%n", levelName(i),
+                    i < levels.size() ? String.valueOf(levels.get(i).getTargetQps())
+                                      : String.valueOf(urlConfig.getQps()),
+                    levelAdmitted[i], admitted > 0 ? levelAdmitted[i] * 100.0 / admitted : 0.0);
+        }
+    }
+
+    /**
+     * 级别在列表中的下标（按引用比较），未匹配时为最后一项
+     */
+    private int levelIndex(ConcurrentLevelConfig level) {
+        for (int i = 0; i < levels.size(); i++) {
+            if (levels.get(i) == level) {
+                return i;
+            }
+        }
+        return levels.size();
+    }
+
+    private String levelName(int index) {
+        return index < levels.size() ? "c=" + levels.get(index).getConcurrentLevel() : "unmatched";
+    }
+
+    private void pushDeparture(long time) {
+        if (departureCount == departures.length) {
+            long[] grown = new long[departures.length * 2];
+            System.arraycopy(departures, 0, grown, 0, departureCount);
+            departures = grown;
+        }
+        int index = departureCount++;
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (departures[parent] <= time) {
+                break;
+            }
+            departures[index] = departures[parent];
+            index = parent;
+        }
+        departures[index] = time;
+    }
+
+    private long popDeparture() {
+        long result = departures[0];
+        long last = departures[--departureCount];
+        int index = 0;
+        int half = departureCount >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < departureCount && departures[child + 1] < departures[child]) {
+                child++;
+            }
+            if (last <= departures[child]) {
+                break;
+            }
+            departures[index] = departures[child];
+            index = child;
+        }
+        departures[index] = last;
+        return result;
+    }
+
+    /**
+     * 由事件推进的虚拟时钟
+     */
+    private static class VirtualClock implements TimeSource {
+        private long nanos;
+
+        @Override
+        public long currentTimeMillis() {
+            return nanos / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.shrwk.apirunner.tool;
+
+import com.shrwk.apirunner.service.LatencyHistogram;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 简单的闭环HTTP压测工具
+ * 固定线程数持续发送请求（保持连接），统计吞吐量与延迟分位数，用于对比MVC与快速通道等不同处理路径
+ *
+ * 用法：java -cp target/classes com.shrwk.apirunner.tool.HttpBenchmark URL [线程数] [持续秒数] [预热秒数]
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class HttpBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("用法: HttpBenchmark URL [线程数] [持续秒数] [预热秒数]");
+            System.exit(1);
+        }
+        URL url = new URL(args[0]);
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+
+        System.out.printf("预热 %d 秒...%n", warmupSeconds);
+        run(url, threads, warmupSeconds);
+        Result result = run(url, threads, seconds);
+
+        long[] buckets = new long[LatencyHistogram.BUCKETS];
+        long total = result.histogram.drainTo(buckets);
+        System.out.printf("url=%s threads=%d seconds=%d%n", url, threads, seconds);
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n",
+                          total, result.errors.sum(), total / (double) seconds);
+        System.out.printf("latency p50=%dus p90=%dus p99=%dus p999=%dus%n",
+                          LatencyHistogram.percentileMicros(buckets, total, 0.50),
+                          LatencyHistogram.percentileMicros(buckets, total, 0.90),
+                          LatencyHistogram.percentileMicros(buckets, total, 0.99),
+                          LatencyHistogram.percentileMicros(buckets, total, 0.999));
+    }
+
+    private static Result run(URL url, int threads, int seconds) throws InterruptedException {
+        Result result = new Result();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                byte[] buffer = new byte[8192];
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+                            int status = connection.getResponseCode();
+                            InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+                            if (in != null) {
+                                // 读完响应体以复用连接
+                                while (in.read(buffer) >= 0) {
+                                    // 丢弃
+                                }
+                                in.close();
+                            }
+                            if (status >= 400) {
+                                result.errors.increment();
+                            }
+                            result.histogram.record(System.nanoTime() - start);
+                        } catch (Exception e) {
+                            result.errors.increment();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "benchmark-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+        return result;
+    }
+
+    private static class Result {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+}
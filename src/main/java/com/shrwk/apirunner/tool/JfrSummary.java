@@ -0,0 +1,172 @@
+package com.shrwk.apirunner.tool;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * JFR录制汇总工具
+ * 读取包含API Runner自定义事件的JFR文件，按URL模式汇总准入、并发级别选择、QPS控制与CPU消耗，
+ * 用于区分延迟来自准入拒绝、级别选择、延迟等待还是CPU消耗
+ *
+ * 用法：java -cp target/classes com.shrwk.apirunner.tool.JfrSummary 录制文件.jfr
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class JfrSummary {
+
+    private static final String ADMISSION = "com.shrwk.apirunner.Admission";
+    private static final String LEVEL_SELECTION = "com.shrwk.apirunner.LevelSelection";
+    private static final String THROTTLE = "com.shrwk.apirunner.Throttle";
+    private static final String CPU_BURN = "com.shrwk.apirunner.CpuBurn";
+
+    /**
+     * 每个模式最多列出的并发级别数
+     */
+    private static final int TOP_LEVELS = 3;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("用法: JfrSummary <录制文件.jfr>");
+            System.exit(1);
+        }
+        Path path = Paths.get(args[0]);
+        if (!Files.exists(path)) {
+            System.err.println("录制文件不存在: " + path);
+            System.exit(1);
+        }
+
+        Map<String, PatternSummary> summaries = new TreeMap<>();
+        long events = 0;
+        try (RecordingFile file = new RecordingFile(path)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                String type = event.getEventType().getName();
+                if (!type.startsWith("com.shrwk.apirunner.")) {
+                    continue;
+                }
+                events++;
+                String pattern = event.getString("pattern");
+                PatternSummary summary = summaries.computeIfAbsent(pattern != null ? pattern : "-",
+                        k -> new PatternSummary());
+                switch (type) {
+                    case ADMISSION:
+                        summary.recordAdmission(event);
+                        break;
+                    case LEVEL_SELECTION:
+                        summary.recordLevel(event);
+                        break;
+                    case THROTTLE:
+                        summary.recordThrottle(event);
+                        break;
+                    case CPU_BURN:
+                        summary.recordCpuBurn(event);
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+
+        if (events == 0) {
+            System.out.println("录制中没有API Runner事件: " + path);
+            return;
+        }
+        System.out.printf("%-28s %9s %8s %8s %8s  %-24s %9s %9s %9s %9s %9s %10s%n",
+                          "pattern", "admitted", "rejected", "avg-conc", "max-conc", "levels(level:count)",
+                          "throttled", "avg-calc", "max-calc", "avg-act", "max-act", "cpu-ms");
+        for (Map.Entry<String, PatternSummary> entry : summaries.entrySet()) {
+            entry.getValue().print(entry.getKey());
+        }
+        System.out.println("（calc为计算的延迟，act为实际耗时，单位毫秒；throttled为计算延迟大于0的次数/总次数）");
+    }
+
+    /**
+     * 单个URL模式的汇总
+     */
+    private static class PatternSummary {
+        private long admitted;
+        private long rejected;
+        private long concurrencySum;
+        private int maxConcurrency;
+        private final Map<Integer, Long> levels = new TreeMap<>();
+        private long throttles;
+        private long throttled;
+        private long computedMsSum;
+        private long computedMsMax;
+        private long actualNanosSum;
+        private long actualNanosMax;
+        private long cpuBurnNanos;
+
+        void recordAdmission(RecordedEvent event) {
+            if (event.getBoolean("admitted")) {
+                admitted++;
+            } else {
+                rejected++;
+            }
+            int concurrency = event.getInt("concurrency");
+            concurrencySum += concurrency;
+            maxConcurrency = Math.max(maxConcurrency, concurrency);
+        }
+
+        void recordLevel(RecordedEvent event) {
+            levels.merge(event.getInt("level"), 1L, Long::sum);
+        }
+
+        void recordThrottle(RecordedEvent event) {
+            throttles++;
+            long computedMs = event.getLong("computedDelay");
+            if (computedMs > 0) {
+                throttled++;
+            }
+            computedMsSum += computedMs;
+            computedMsMax = Math.max(computedMsMax, computedMs);
+            long actualNanos = event.getDuration().toNanos();
+            actualNanosSum += actualNanos;
+            actualNanosMax = Math.max(actualNanosMax, actualNanos);
+        }
+
+        void recordCpuBurn(RecordedEvent event) {
+            cpuBurnNanos += event.getDuration().toNanos();
+        }
+
+        void print(String pattern) {
+            long decisions = admitted + rejected;
+            System.out.printf("%-28s %9d %8d %8.1f %8d  %-24s %9s %9.2f %9d %9.2f %9.2f %10.1f%n",
+                              pattern, admitted, rejected,
+                              decisions > 0 ? concurrencySum / (double) decisions : 0.0, maxConcurrency,
+                              topLevels(), throttled + "/" + throttles,
+                              throttles > 0 ? computedMsSum / (double) throttles : 0.0, computedMsMax,
+                              throttles > 0 ? actualNanosSum / 1_000_000.0 / throttles : 0.0,
+                              actualNanosMax / 1_000_000.0, cpuBurnNanos / 1_000_000.0);
+        }
+
+        private String topLevels() {
+            if (levels.isEmpty()) {
+                return "-";
+            }
+            List<Map.Entry<Integer, Long>> entries = new ArrayList<>(levels.entrySet());
+            entries.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < Math.min(TOP_LEVELS, entries.size()); i++) {
+                if (builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(entries.get(i).getKey()).append(':').append(entries.get(i).getValue());
+            }
+            if (entries.size() > TOP_LEVELS) {
+                builder.append(" ...");
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.shrwk.apirunner.tool;
+
+import com.shrwk.apirunner.service.RunReportFormat;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * 运行报告导出工具
+ * 不依赖运行中的进程，直接读取运行报告文件，把指定时间范围内的按秒统计导出为CSV
+ *
+ * 用法：java -cp target/classes com.shrwk.apirunner.tool.RunReportCli 报告文件 [起始时间] [结束时间] [URL模式] [输出文件]
+ * 时间为epoch秒或本地时间（yyyy-MM-dd'T'HH:mm:ss），"-"表示不限；未指定输出文件时写到标准输出
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class RunReportCli {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 5) {
+            System.err.println("用法: RunReportCli <报告文件> [起始时间|-] [结束时间|-] [URL模式|-] [输出文件]");
+            System.exit(1);
+        }
+        File file = new File(args[0]);
+        if (!file.exists()) {
+            System.err.println("报告文件不存在: " + file);
+            System.exit(1);
+        }
+        long from = RunReportFormat.parseTime(argument(args, 1), Long.MIN_VALUE);
+        long to = RunReportFormat.parseTime(argument(args, 2), Long.MAX_VALUE);
+        String pattern = argument(args, 3);
+        String output = argument(args, 4);
+
+        Writer writer = output != null
+                ? Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        StringBuilder line = new StringBuilder(128);
+        long rows;
+        try {
+            writer.write(RunReportFormat.CSV_HEADER);
+            rows = RunReportFormat.read(file, from, to, pattern, (name, columns) -> {
+                line.setLength(0);
+                RunReportFormat.appendCsv(line, name, columns);
+                writer.append(line);
+            });
+        } finally {
+            writer.flush();
+            if (output != null) {
+                writer.close();
+            }
+        }
+        System.err.printf("导出 %d 行（报告文件 %d 字节）%n", rows, file.length());
+    }
+
+    private static String argument(String[] args, int index) {
+        if (args.length <= index || "-".equals(args[index]) || args[index].isEmpty()) {
+            return null;
+        }
+        return args[index];
+    }
+}
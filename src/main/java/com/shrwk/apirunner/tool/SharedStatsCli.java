@@ -0,0 +1,186 @@
+package com.shrwk.apirunner.tool;
+
+import com.shrwk.apirunner.service.SharedStatsLayout;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 共享统计区命令行读取工具
+ * 只读映射共享统计文件，按间隔打印各URL模式的累计值与相邻两次读取之间的增量，不占用服务端任何资源
+ *
+ * 用法：java -cp target/classes com.shrwk.apirunner.tool.SharedStatsCli [文件路径|--port=端口] [间隔毫秒] [--once]
+ * 未指定文件路径时读取临时目录下对应端口（默认8080）的默认文件
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class SharedStatsCli {
+
+    /**
+     * 读取槽位时版本号不一致的最大重试次数
+     */
+    private static final int MAX_RETRIES = 100;
+
+    /**
+     * 未指定文件路径与端口时定位默认文件使用的端口
+     */
+    private static final int DEFAULT_PORT = 8080;
+
+    public static void main(String[] args) throws Exception {
+        String path = null;
+        String port = String.valueOf(DEFAULT_PORT);
+        long intervalMs = 1000;
+        boolean once = false;
+        for (String arg : args) {
+            if ("--once".equals(arg)) {
+                once = true;
+            } else if (arg.startsWith("--port=")) {
+                port = arg.substring("--port=".length());
+            } else if (arg.matches("\\d+")) {
+                intervalMs = Long.parseLong(arg);
+            } else {
+                path = arg;
+            }
+        }
+
+        if (!SharedStatsLayout.isAvailable()) {
+            System.err.println("运行时无法获取Unsafe内存屏障，无法读取共享统计区");
+            System.exit(1);
+        }
+
+        File file = SharedStatsLayout.resolvePath(path, port);
+        if (!file.exists()) {
+            System.err.println("共享统计文件不存在: " + file);
+            System.exit(1);
+        }
+
+        MappedByteBuffer buffer;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        }
+        if (buffer.capacity() < SharedStatsLayout.HEADER_SIZE
+                || buffer.getInt(SharedStatsLayout.HEADER_MAGIC) != SharedStatsLayout.MAGIC) {
+            System.err.println("不是有效的共享统计文件: " + file);
+            System.exit(1);
+        }
+        if (buffer.getShort(SharedStatsLayout.HEADER_VERSION) != SharedStatsLayout.VERSION) {
+            System.err.println("不支持的共享统计文件版本: " + buffer.getShort(SharedStatsLayout.HEADER_VERSION));
+            System.exit(1);
+        }
+
+        Map<String, SlotValues> previous = new HashMap<>();
+        long previousTime = 0;
+        while (true) {
+            long now = System.nanoTime();
+            Map<String, SlotValues> current = readSlots(buffer);
+            print(buffer, current, previous, previousTime > 0 ? (now - previousTime) / 1_000_000_000.0 : 0);
+            if (once) {
+                return;
+            }
+            previous = current;
+            previousTime = now;
+            Thread.sleep(intervalMs);
+        }
+    }
+
+    /**
+     * 读取所有已用槽位
+     */
+    private static Map<String, SlotValues> readSlots(MappedByteBuffer buffer) throws IOException {
+        int used = Math.min(buffer.getInt(SharedStatsLayout.HEADER_USED_SLOTS),
+                            buffer.getInt(SharedStatsLayout.HEADER_SLOT_COUNT));
+        // 已用槽位数在槽位名称写完后发布
+        SharedStatsLayout.loadFence();
+        Map<String, SlotValues> result = new HashMap<>(used * 2);
+        for (int slot = 0; slot < used; slot++) {
+            SlotValues values = readSlot(buffer, SharedStatsLayout.slotOffset(slot));
+            if (values != null) {
+                result.put(values.pattern, values);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 按顺序锁读取单个槽位，写入中或读取期间被修改时重试
+     */
+    private static SlotValues readSlot(MappedByteBuffer buffer, int base) {
+        for (int attempt = 0; attempt < MAX_RETRIES; attempt++) {
+            long before = buffer.getLong(base + SharedStatsLayout.SLOT_SEQUENCE);
+            if ((before & 1) != 0) {
+                Thread.yield();
+                continue;
+            }
+            SharedStatsLayout.loadFence();
+            SlotValues values = new SlotValues();
+            int length = buffer.getShort(base + SharedStatsLayout.SLOT_PATTERN_LENGTH);
+            byte[] name = new byte[Math.max(0, Math.min(length, SharedStatsLayout.MAX_PATTERN_BYTES))];
+            for (int i = 0; i < name.length; i++) {
+                name[i] = buffer.get(base + SharedStatsLayout.SLOT_PATTERN + i);
+            }
+            values.pattern = new String(name, StandardCharsets.UTF_8);
+            values.requests = buffer.getLong(base + SharedStatsLayout.SLOT_REQUESTS);
+            values.rejected = buffer.getLong(base + SharedStatsLayout.SLOT_REJECTED);
+            values.throttleNanos = buffer.getLong(base + SharedStatsLayout.SLOT_THROTTLE_NANOS);
+            values.concurrency = buffer.getInt(base + SharedStatsLayout.SLOT_CONCURRENCY);
+            values.level = buffer.getInt(base + SharedStatsLayout.SLOT_LEVEL);
+            values.qps = buffer.getInt(base + SharedStatsLayout.SLOT_QPS);
+            SharedStatsLayout.loadFence();
+            if (buffer.getLong(base + SharedStatsLayout.SLOT_SEQUENCE) == before) {
+                return values;
+            }
+        }
+        return null;
+    }
+
+    private static void print(MappedByteBuffer buffer, Map<String, SlotValues> current,
+                              Map<String, SlotValues> previous, double elapsedSeconds) {
+        SimpleDateFormat format = new SimpleDateFormat("HH:mm:ss");
+        boolean running = buffer.getInt(SharedStatsLayout.HEADER_RUNNING) == 1;
+        long updated = buffer.getLong(SharedStatsLayout.HEADER_UPDATE_TIME);
+        System.out.printf("%s pid=%d %s updated=%s%n",
+                          format.format(new Date()),
+                          buffer.getLong(SharedStatsLayout.HEADER_PID),
+                          running ? "running" : "stopped",
+                          format.format(new Date(updated)));
+        System.out.printf("%-24s %12s %10s %6s %6s %6s %10s %8s %12s%n",
+                          "pattern", "requests", "req/s", "qps", "conc", "level", "rejected", "rej/s", "throttle-ms/s");
+        for (SlotValues values : current.values()) {
+            SlotValues last = previous.get(values.pattern);
+            String requestRate = "-";
+            String rejectRate = "-";
+            String throttleRate = "-";
+            if (last != null && elapsedSeconds > 0) {
+                requestRate = String.format("%.1f", (values.requests - last.requests) / elapsedSeconds);
+                rejectRate = String.format("%.1f", (values.rejected - last.rejected) / elapsedSeconds);
+                throttleRate = String.format("%.1f", (values.throttleNanos - last.throttleNanos) / 1_000_000.0 / elapsedSeconds);
+            }
+            System.out.printf("%-24s %12d %10s %6d %6d %6d %10d %8s %12s%n",
+                              values.pattern, values.requests, requestRate, values.qps, values.concurrency,
+                              values.level, values.rejected, rejectRate, throttleRate);
+        }
+        System.out.println();
+    }
+
+    /**
+     * 单个槽位的读数
+     */
+    private static class SlotValues {
+        private String pattern;
+        private long requests;
+        private long rejected;
+        private long throttleNanos;
+        private int concurrency;
+        private int level;
+        private int qps;
+    }
+}
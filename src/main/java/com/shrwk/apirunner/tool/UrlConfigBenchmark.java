@@ -0,0 +1,76 @@
+package com.shrwk.apirunner.tool;
+
+import ch.qos.logback.classic.Level;
+import com.shrwk.apirunner.model.UrlConfig;
+import com.shrwk.apirunner.service.UrlValidationService;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * URL配置编译开销测试
+ * 按模式数量测量UrlConfig正则编译与注册的耗时（启动成本），以及按顺序匹配时未命中查找的耗时（请求成本）
+ *
+ * 用法：java -cp target/api-runner-1.0.0.jar -Dloader.main=com.shrwk.apirunner.tool.UrlConfigBenchmark \
+ *      org.springframework.boot.loader.PropertiesLauncher [模式数量...]
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+public class UrlConfigBenchmark {
+
+    /**
+     * 每轮查找的模式匹配总次数上限
+     */
+    private static final int MATCH_BUDGET = 2_000_000;
+
+    public static void main(String[] args) {
+        // 注册每个模式都会输出INFO日志，测试时关闭
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME))
+                .setLevel(Level.WARN);
+
+        int[] counts = args.length > 0 ? new int[args.length] : new int[]{5, 50, 500, 5000};
+        for (int i = 0; i < args.length; i++) {
+            counts[i] = Integer.parseInt(args[i]);
+        }
+
+        // 预热正则引擎与匹配路径
+        measure(1000, false);
+
+        System.out.printf("%8s %14s %14s %18s%n", "patterns", "compile-ms", "register-ms", "miss-lookup-us");
+        for (int count : counts) {
+            measure(count, true);
+        }
+    }
+
+    private static void measure(int count, boolean print) {
+        long start = System.nanoTime();
+        List<UrlConfig> configs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            configs.add(new UrlConfig("/api/mock" + i + "/*", 100, 10, "benchmark"));
+        }
+        long compiled = System.nanoTime();
+
+        UrlValidationService service = new UrlValidationService();
+        for (UrlConfig config : configs) {
+            service.addUrlConfig(config);
+        }
+        long registered = System.nanoTime();
+
+        // 未命中需要遍历所有模式，是最坏情况
+        int lookups = Math.max(100, MATCH_BUDGET / count);
+        long lookupStart = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            service.getUrlConfig("/api/unknown/" + (i & 1023));
+        }
+        long lookupEnd = System.nanoTime();
+
+        if (print) {
+            System.out.printf("%8d %14.2f %14.2f %18.2f%n", count,
+                              (compiled - start) / 1_000_000.0,
+                              (registered - compiled) / 1_000_000.0,
+                              (lookupEnd - lookupStart) / 1000.0 / lookups);
+        }
+    }
+}
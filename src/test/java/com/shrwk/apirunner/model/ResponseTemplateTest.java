@@ -0,0 +1,109 @@
+package com.shrwk.apirunner.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 响应模板测试
+ * 覆盖命名捕获与内置变量的渲染、JSON字符串转义、UTF-8编码（含代理对与不成对的代理项）和编译错误
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+class ResponseTemplateTest {
+
+    @Test
+    void rendersCapturesAndBuiltIns() {
+        UrlConfig config = new UrlConfig("/user/{id}/orders/{order}", 100, 10, null);
+        config.setResponseTemplate("{\"user\": {{id}}, \"order\": \"{{ order }}\", \"url\": \"{{url}}\", "
+                                   + "\"method\": \"{{method}}\", \"at\": {{timestamp}}}");
+
+        assertEquals("{\"user\": 42, \"order\": \"a-7\", \"url\": \"/user/42/orders/a-7\", "
+                     + "\"method\": \"GET\", \"at\": 1700000000123}",
+                     render(config, "/user/42/orders/a-7", "GET", 1_700_000_000_123L));
+    }
+
+    @Test
+    void timestampEdgeValues() {
+        ResponseTemplate template = ResponseTemplate.compile("{{timestamp}}", Collections.<String>emptyList());
+
+        assertEquals("0", text(template.render("/", 1, "GET", 0, new int[0])));
+        assertEquals("-42", text(template.render("/", 1, "GET", -42, new int[0])));
+        assertEquals(Long.toString(Long.MAX_VALUE), text(template.render("/", 1, "GET", Long.MAX_VALUE, new int[0])));
+    }
+
+    @Test
+    void escapesQuotesBackslashesAndControlCharacters() {
+        ResponseTemplate template = ResponseTemplate.compile("\"{{url}}\"", Collections.<String>emptyList());
+        String url = "/a\"b\\c\nd\te\u001f";
+
+        assertEquals("\"/a\\\"b\\\\c\\u000ad\\u0009e\\u001f\"",
+                     text(template.render(url, url.length(), "GET", 0, new int[0])));
+    }
+
+    @Test
+    void encodesSurrogatePairsAsFourByteUtf8() {
+        UrlConfig config = new UrlConfig("/emoji/{name}", 100, 10, null);
+        config.setResponseTemplate("[{{name}}]");
+        String url = "/emoji/é中😀";
+
+        byte[] rendered = renderBytes(config, url, "GET", 0);
+
+        assertArrayEquals(("[é中😀]").getBytes(StandardCharsets.UTF_8), rendered);
+        assertArrayEquals(new byte[]{(byte) 0xF0, (byte) 0x9F, (byte) 0x98, (byte) 0x80},
+                          Arrays.copyOfRange(rendered, 6, 10));
+    }
+
+    @Test
+    void loneSurrogatesBecomeQuestionMarks() {
+        ResponseTemplate template = ResponseTemplate.compile("{{url}}", Collections.<String>emptyList());
+        String[] urls = {"/a\ud83d", "/a\ud83db", "/a\ude00b", "/\ude00\ud83d"};
+        for (String url : urls) {
+            byte[] rendered = template.render(url, url.length(), "GET", 0, new int[0]).toByteArray();
+            assertArrayEquals(url.getBytes(StandardCharsets.UTF_8), rendered, url);
+        }
+    }
+
+    @Test
+    void pairSplitByCaptureBoundIsNotCombined() {
+        ResponseTemplate template = ResponseTemplate.compile("{{url}}", Collections.<String>emptyList());
+        String url = "/x😀";
+
+        assertArrayEquals("/x?".getBytes(StandardCharsets.UTF_8),
+                          template.render(url, 3, "GET", 0, new int[0]).toByteArray());
+    }
+
+    @Test
+    void compileRejectsUnknownVariablesAndUnclosedSlots() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> ResponseTemplate.compile("{{nope}}", Collections.singletonList("id")));
+        assertThrows(IllegalArgumentException.class,
+                     () -> ResponseTemplate.compile("{\"id\": {{id}", Collections.singletonList("id")));
+
+        UrlConfig config = new UrlConfig("/user/{id}", 100, 10, null);
+        config.setResponseTemplate("{{id}}");
+        assertThrows(IllegalArgumentException.class, () -> config.setResponseTemplate("{{name}}"));
+        assertEquals("{{id}}", config.getResponseTemplate());
+    }
+
+    private static String render(UrlConfig config, String url, String method, long timestamp) {
+        return new String(renderBytes(config, url, method, timestamp), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] renderBytes(UrlConfig config, String url, String method, long timestamp) {
+        int[] bounds = new int[config.getCaptureCount() * 2];
+        assertEquals(true, config.extractCaptures(url, url.length(), bounds), url);
+        return config.getCompiledTemplate().render(url, url.length(), method, timestamp, bounds).toByteArray();
+    }
+
+    private static String text(ResponseTemplate.Buffer buffer) {
+        return new String(buffer.getData(), 0, buffer.getLength(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,94 @@
+package com.shrwk.apirunner.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * URL模式匹配测试
+ * 覆盖命名捕获与'*'相邻时的回溯、捕获不跨越'/'，以及与编译后正则的一致性
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+class UrlConfigTest {
+
+    @Test
+    void starBeforeCaptureLeavesLastCharacterToCapture() {
+        UrlConfig config = new UrlConfig("/api/*{id}", 100, 10, null);
+
+        assertArrayEquals(new int[]{7, 8}, captures(config, "/api/abc"));
+        assertArrayEquals(new int[]{9, 10}, captures(config, "/api/x/y/z"));
+        assertEquals(null, captures(config, "/api/"));
+        assertEquals(null, captures(config, "/api/x/"));
+    }
+
+    @Test
+    void captureBeforeStarTakesWholeSegment() {
+        UrlConfig config = new UrlConfig("/api/{id}*", 100, 10, null);
+
+        assertArrayEquals(new int[]{5, 8}, captures(config, "/api/abc"));
+        assertArrayEquals(new int[]{5, 6}, captures(config, "/api/a/b/c"));
+        assertEquals(null, captures(config, "/api//b"));
+    }
+
+    @Test
+    void starAndCaptureAcrossSegments() {
+        UrlConfig config = new UrlConfig("/api/*/{id}", 100, 10, null);
+
+        assertArrayEquals(new int[]{9, 11}, captures(config, "/api/a/b/42"));
+        assertArrayEquals(new int[]{8, 9}, captures(config, "/api//b/c"));
+        assertEquals(null, captures(config, "/api/a/"));
+        assertEquals(null, captures(config, "/api/42"));
+    }
+
+    @Test
+    void adjacentCapturesBacktrackLongestFirst() {
+        UrlConfig config = new UrlConfig("/files/{name}.{ext}", 100, 10, null);
+        assertArrayEquals(new int[]{7, 18, 19, 21}, captures(config, "/files/archive.tar.gz"));
+        assertEquals(null, captures(config, "/files/archive"));
+        assertEquals(null, captures(config, "/files/a/b.c"));
+
+        UrlConfig pair = new UrlConfig("/api/{a}{b}", 100, 10, null);
+        assertArrayEquals(new int[]{5, 7, 7, 8}, captures(pair, "/api/xyz"));
+        assertEquals(null, captures(pair, "/api/x"));
+    }
+
+    @Test
+    void extractionHonoursLength() {
+        UrlConfig config = new UrlConfig("/user/{id}", 100, 10, null);
+        String url = "/user/42/extra";
+
+        int[] bounds = new int[2];
+        assertTrue(config.extractCaptures(url, 8, bounds));
+        assertArrayEquals(new int[]{6, 8}, bounds);
+        assertTrue(config.matches(url, 8));
+        assertFalse(config.matches(url));
+    }
+
+    @Test
+    void matchesAgreesWithCompiledPattern() {
+        String[] patterns = {"/api/*{id}", "/api/{id}*", "/api/*/{id}", "/files/{name}.{ext}", "/api/{a}{b}",
+                             "/api/*", "/api/*/detail", "/a/*/b/*", "/user/{id}/orders/{order}"};
+        String[] urls = {"/api/", "/api/abc", "/api/x/y", "/api/x/", "/api//b", "/api/a/detail", "/api/detail",
+                         "/files/a.b.c", "/files/.x", "/a/b/b/c", "/a//b/", "/user/7/orders/9", "/user//orders/9",
+                         "/user/7/orders/9/x", ""};
+        for (String pattern : patterns) {
+            UrlConfig config = new UrlConfig(pattern, 100, 10, null);
+            for (String url : urls) {
+                assertEquals(config.getCompiledPattern().matcher(url).matches(), config.matches(url),
+                             pattern + " 与 " + url);
+            }
+        }
+    }
+
+    private static int[] captures(UrlConfig config, String url) {
+        int[] bounds = new int[config.getCaptureCount() * 2];
+        boolean matched = config.extractCaptures(url, url.length(), bounds);
+        assertEquals(config.getCompiledPattern().matcher(url).matches(), matched, config.getPattern() + " 与 " + url);
+        return matched ? bounds : null;
+    }
+}
@@ -0,0 +1,113 @@
+package com.shrwk.apirunner.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 模拟接口请求路径的分配预算测试
+ * 预热后用ThreadMXBean统计单次请求在当前线程上分配的字节数，超过预算即失败。
+ * 预算只覆盖路由、准入、QPS控制和响应对象本身，可通过 -Dtest.allocation-budget-bytes 调整。
+ * 使用独立的上下文并关闭时间序列、共享统计区与运行报告，避免后台采样线程与其他测试的上下文影响编译结果；
+ * 测量期间安装一个不做判断的TurboFilter，使请求路径上的日志调用产生的分配每次都能暴露出来
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+@SpringBootTest(properties = {
+        "api.qps-control-mode=DELAY",
+        "api.timeseries-enabled=false",
+        "api.shared-stats-enabled=false",
+        "api.run-report-enabled=false"
+})
+class MockRequestAllocationTest {
+
+    private static final String REQUEST_URI = "/api/product/42";
+    private static final int WARMUP_REQUESTS = 200_000;
+    private static final int MEASURED_REQUESTS = 50_000;
+    private static final int ROUNDS = 5;
+
+    @Autowired
+    private MockRequestService mockRequestService;
+
+    @Autowired
+    private UrlValidationService urlValidationService;
+
+    @Value("${test.allocation-budget-bytes:128}")
+    private long budgetBytes;
+
+    private com.sun.management.ThreadMXBean threadMXBean;
+
+    private final TurboFilter neutralFilter = new TurboFilter() {
+        @Override
+        public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+                                  Throwable t) {
+            return FilterReply.NEUTRAL;
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadMXBean.isThreadAllocatedMemorySupported());
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        loggerContext().addTurboFilter(neutralFilter);
+
+        // 目标QPS远高于测试速率，QPS控制只做判断不施加延迟
+        urlValidationService.updateUrlConfig("/api/product/*", Integer.MAX_VALUE / 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        loggerContext().getTurboFilterList().remove(neutralFilter);
+    }
+
+    @Test
+    void requestPathStaysWithinAllocationBudget() {
+        long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            handle();
+        }
+
+        // 取多轮中的最小值，排除偶发的TLAB与计数器扩容
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < MEASURED_REQUESTS; i++) {
+                handle();
+            }
+            long after = threadMXBean.getThreadAllocatedBytes(threadId);
+            best = Math.min(best, (after - before) / MEASURED_REQUESTS);
+        }
+
+        assertTrue(best <= budgetBytes,
+                "每次请求分配 " + best + " 字节，超过预算 " + budgetBytes + " 字节");
+    }
+
+    private static LoggerContext loggerContext() {
+        return (LoggerContext) LoggerFactory.getILoggerFactory();
+    }
+
+    private void handle() {
+        MockRequestService.MockResult result = mockRequestService.handle("GET", REQUEST_URI, 0);
+        assertEquals(HttpStatus.OK, result.getStatus());
+    }
+}
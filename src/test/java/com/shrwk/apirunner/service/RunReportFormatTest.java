@@ -0,0 +1,145 @@
+package com.shrwk.apirunner.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 运行报告文件格式测试
+ * 覆盖编码与解码的往返（跨块按时间归并、负差值、按模式与时间范围过滤），
+ * 以及进程异常退出留下的残缺尾部和校验失败的块
+ *
+ * @author API Runner Team
+ * @since 1.0.0
+ */
+class RunReportFormatTest {
+
+    private static final long START = 1_700_000_000L;
+
+    @TempDir
+    File tempDir;
+
+    private final Deflater deflater = new Deflater();
+
+    @Test
+    void roundTripMergesPatternsByTime() throws IOException {
+        Map<String, List<long[]>> first = new LinkedHashMap<>();
+        first.put("/api/user/*", rows(row(START, 500, 50, 3, 1L << 40, 0, 120, 900, 16383, 70000),
+                                      row(START + 1, 480, 12, 2, 0, 7, 95, 800, 12000, 65000)));
+        first.put("svc:/a,\"b\"/*", rows(row(START, 0, 0, 0, 0, 3, 0, 0, 0, 0)));
+        Map<String, List<long[]>> second = new LinkedHashMap<>();
+        second.put("/api/user/*", rows(row(START + 2, 1, 1, 1, 5, 0, 1, 1, 1, 1)));
+        File file = writeReport(encode(first), encode(second));
+
+        List<String> names = new ArrayList<>();
+        List<long[]> values = new ArrayList<>();
+        long count = RunReportFormat.read(file, Long.MIN_VALUE, Long.MAX_VALUE, null, (name, columns) -> {
+            names.add(name);
+            values.add(columns);
+        });
+
+        assertEquals(4, count);
+        assertEquals(Arrays.asList("/api/user/*", "svc:/a,\"b\"/*", "/api/user/*", "/api/user/*"), names);
+        assertArrayEquals(first.get("/api/user/*").get(0), values.get(0));
+        assertArrayEquals(first.get("svc:/a,\"b\"/*").get(0), values.get(1));
+        assertArrayEquals(first.get("/api/user/*").get(1), values.get(2));
+        assertArrayEquals(second.get("/api/user/*").get(0), values.get(3));
+    }
+
+    @Test
+    void readFiltersByPatternAndTimeRange() throws IOException {
+        Map<String, List<long[]>> block = new LinkedHashMap<>();
+        block.put("/a/*", rows(row(START, 1), row(START + 1, 2), row(START + 2, 3)));
+        block.put("/b/*", rows(row(START + 1, 9)));
+        File file = writeReport(encode(block));
+
+        List<Long> qps = new ArrayList<>();
+        long count = RunReportFormat.read(file, START + 1, START + 2, "/a/*", (name, columns) -> qps.add(columns[1]));
+
+        assertEquals(2, count);
+        assertEquals(Arrays.asList(2L, 3L), qps);
+        assertEquals(0, RunReportFormat.read(file, START + 10, Long.MAX_VALUE, null, (name, columns) -> { }));
+    }
+
+    @Test
+    void tornTailIsIgnoredAndTruncatable() throws IOException {
+        byte[] complete = encode(single(row(START, 10)));
+        byte[] torn = encode(single(row(START + 1, 20)));
+        for (int cut : new int[]{3, RunReportFormat.BLOCK_HEADER_SIZE, torn.length - 1}) {
+            File file = writeReport(complete, Arrays.copyOf(torn, cut));
+
+            List<Long> qps = new ArrayList<>();
+            RunReportFormat.read(file, Long.MIN_VALUE, Long.MAX_VALUE, null, (name, columns) -> qps.add(columns[1]));
+
+            assertEquals(Arrays.asList(10L), qps, "截断到" + cut + "字节的尾块应被忽略");
+            assertEquals(RunReportFormat.HEADER_SIZE + complete.length, RunReportFormat.validLength(file));
+        }
+    }
+
+    @Test
+    void blockWithCrcMismatchStopsReading() throws IOException {
+        byte[] good = encode(single(row(START, 10)));
+        byte[] corrupt = encode(single(row(START + 1, 20)));
+        byte[] after = encode(single(row(START + 2, 30)));
+        corrupt[RunReportFormat.BLOCK_HEADER_SIZE] ^= 0x01;
+        File file = writeReport(good, corrupt, after);
+
+        List<Long> qps = new ArrayList<>();
+        long count = RunReportFormat.read(file, Long.MIN_VALUE, Long.MAX_VALUE, null,
+                                          (name, columns) -> qps.add(columns[1]));
+
+        assertEquals(1, count);
+        assertEquals(Arrays.asList(10L), qps);
+        assertEquals(RunReportFormat.HEADER_SIZE + good.length, RunReportFormat.validLength(file));
+    }
+
+    @Test
+    void csvQuotesPatternsWithSeparators() {
+        StringBuilder line = new StringBuilder();
+        RunReportFormat.appendCsv(line, "svc:/a,\"b\"/*", row(START, 1));
+
+        String expected = RunReportFormat.formatTime(START) + "," + START + ",\"svc:/a,\"\"b\"\"/*\",1,0,0,0,0,0,0,0,0\n";
+        assertEquals(expected, line.toString());
+    }
+
+    private byte[] encode(Map<String, List<long[]>> rows) {
+        return RunReportFormat.encodeBlock(rows, deflater);
+    }
+
+    private File writeReport(byte[]... blocks) throws IOException {
+        File file = File.createTempFile("report", ".dat", tempDir);
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(RunReportFormat.encodeHeader(START));
+            for (byte[] block : blocks) {
+                out.write(block);
+            }
+        }
+        return file;
+    }
+
+    private static Map<String, List<long[]>> single(long[] row) {
+        Map<String, List<long[]>> rows = new LinkedHashMap<>();
+        rows.put("/api/x/*", rows(row));
+        return rows;
+    }
+
+    private static List<long[]> rows(long[]... rows) {
+        return new ArrayList<>(Arrays.asList(rows));
+    }
+
+    private static long[] row(long... values) {
+        return Arrays.copyOf(values, RunReportFormat.COLUMNS);
+    }
+}
@@ -17,6 +17,15 @@ if errorlevel 1 (
     exit /b 1
 )
 
+REM 参数 --fast 启用延迟初始化的快速启动配置（CDS归档仅由start.sh生成）
+set PROFILE_ARG=
+if "%1"=="--fast" (
+    set PROFILE_ARG=--spring.profiles.active=fast-start
+    shift
+)
+
+if exist target\api-runner-1.0.0.jar goto run
+
 REM 检查Maven是否安装
 mvn -version >nul 2>&1
 if errorlevel 1 (
@@ -25,18 +34,16 @@ if errorlevel 1 (
     exit /b 1
 )
 
-echo 正在编译项目...
-call mvn clean compile
+echo 正在打包项目...
+call mvn -q -DskipTests package
 
 if errorlevel 1 (
-    echo 编译失败，请检查代码
+    echo 打包失败，请检查代码
     pause
     exit /b 1
 )
 
-echo 编译成功，正在启动服务...
-echo.
-
-call mvn spring-boot:run
+:run
+java %JAVA_OPTS% -jar target\api-runner-1.0.0.jar %PROFILE_ARG% %1 %2 %3 %4 %5 %6 %7 %8 %9
 
 pause
@@ -1,14 +1,19 @@
 #!/bin/bash
 
-echo "========================================"
-echo "API Runner - 接口压测服务"
-echo "========================================"
-echo
+# 用法: bash start.sh [--fast] [Spring Boot参数...]
+#   --fast  快速启动：使用类数据共享(AppCDS)归档与延迟初始化，首次运行时自动生成归档
+# 例如: bash start.sh --fast --server.port=9001
 
-echo "正在启动服务..."
-echo "服务地址: http://localhost:8080"
-echo "监控地址: http://localhost:8080/actuator"
-echo
+APP_JAR=target/api-runner-1.0.0.jar
+FAST_DIR=target/fast-start
+MAIN_CLASS=com.shrwk.apirunner.ApiRunnerApplication
+TRAIN_PORT=${TRAIN_PORT:-0}
+
+FAST=false
+if [ "$1" == "--fast" ]; then
+    FAST=true
+    shift
+fi
 
 # 检查Java是否安装
 if ! command -v java &> /dev/null; then
@@ -16,21 +21,79 @@ if ! command -v java &> /dev/null; then
     exit 1
 fi
 
-# 检查Maven是否安装
-if ! command -v mvn &> /dev/null; then
-    echo "错误: 未找到Maven环境，请先安装Maven"
-    exit 1
+# 源码有更新或尚未打包时重新打包
+if [ ! -f "$APP_JAR" ] || [ -n "$(find src pom.xml -newer "$APP_JAR" -print -quit 2>/dev/null)" ]; then
+    if ! command -v mvn &> /dev/null; then
+        echo "错误: 未找到Maven环境，请先安装Maven"
+        exit 1
+    fi
+    echo "正在打包项目..."
+    mvn -q -DskipTests package || { echo "打包失败，请检查代码"; exit 1; }
 fi
 
-echo "正在编译项目..."
-mvn clean compile
+if [ "$FAST" != true ]; then
+    exec java $JAVA_OPTS -jar "$APP_JAR" "$@"
+fi
 
-if [ $? -ne 0 ]; then
-    echo "编译失败，请检查代码"
-    exit 1
+# 并行启动的多个实例（如CI）共用同一个快速启动目录：准备过程加锁，
+# 展开与归档都先生成到临时位置再移动到位，其他实例不会看到不完整的目录或归档
+mkdir -p "$(dirname "$FAST_DIR")"
+exec 9> "$FAST_DIR.lock"
+if command -v flock &> /dev/null; then
+    flock 9
 fi
 
-echo "编译成功，正在启动服务..."
-echo
+# 展开可执行jar：CDS只能归档来自jar文件的类，且不支持Spring Boot嵌套jar
+if [ ! -f "$FAST_DIR/app.jar" ] || [ "$APP_JAR" -nt "$FAST_DIR/app.jar" ]; then
+    echo "正在准备快速启动目录..."
+    PREPARE_DIR="$FAST_DIR.tmp.$$"
+    rm -rf "$PREPARE_DIR" && mkdir -p "$PREPARE_DIR"
+    (cd "$PREPARE_DIR" && unzip -q "$OLDPWD/$APP_JAR" && jar cf app.jar -C BOOT-INF/classes .) \
+        || { rm -rf "$PREPARE_DIR"; exit 1; }
+    rm -rf "$FAST_DIR" && mv "$PREPARE_DIR" "$FAST_DIR" || exit 1
+fi
+# 按classpath.idx固定类路径顺序，生成与使用归档时类路径必须一致
+CLASSPATH="$FAST_DIR/app.jar:$(sed -n 's|^- "\(.*\)"$|'"$FAST_DIR"'/\1|p' "$FAST_DIR/BOOT-INF/classpath.idx" | paste -sd: -)"
+ARCHIVE="$FAST_DIR/app.jsa"
+PROFILE_ARG=--spring.profiles.active=fast-start
+
+# 动态CDS归档需要JDK 13+，低版本只使用延迟初始化
+if ! java -XX:+PrintFlagsFinal -version 2>/dev/null | grep -q ArchiveClassesAtExit; then
+    echo "当前JDK不支持动态CDS归档，仅启用延迟初始化"
+    ARCHIVE=
+elif [ ! -f "$ARCHIVE" ]; then
+    # 训练运行默认使用随机端口（TRAIN_PORT=0），从日志中读取实际端口，避免与其他实例冲突
+    TRAIN_LOG="$FAST_DIR/train.$$.log"
+    echo "正在生成CDS归档（训练运行）..."
+    java -XX:ArchiveClassesAtExit="$ARCHIVE.tmp.$$" -Xlog:cds=off -Xlog:cds+dynamic=off -cp "$CLASSPATH" \
+         $MAIN_CLASS $PROFILE_ARG --server.port=$TRAIN_PORT --logging.file.name="$TRAIN_LOG" > /dev/null 2>&1 &
+    TRAIN_PID=$!
+    # 请求一次模拟接口，使请求处理路径上的类也进入归档
+    for i in $(seq 120); do
+        PORT=$TRAIN_PORT
+        if [ "$PORT" == 0 ]; then
+            PORT=$(sed -n 's/.*Tomcat started on port(s): \([0-9]*\).*/\1/p' "$TRAIN_LOG" 2>/dev/null | head -1)
+        fi
+        [ -n "$PORT" ] && curl -sf -o /dev/null "http://localhost:$PORT/api/user/1" && break
+        kill -0 $TRAIN_PID 2>/dev/null || break
+        sleep 0.5
+    done
+    kill -TERM $TRAIN_PID 2>/dev/null
+    wait $TRAIN_PID 2>/dev/null
+    rm -f "$TRAIN_LOG"
+    if [ -f "$ARCHIVE.tmp.$$" ]; then
+        mv "$ARCHIVE.tmp.$$" "$ARCHIVE"
+    else
+        echo "CDS归档生成失败，仅启用延迟初始化"
+        ARCHIVE=
+    fi
+fi
 
-mvn spring-boot:run
+# 释放锁，不把锁文件描述符带入应用进程
+exec 9>&-
+
+if [ -z "$ARCHIVE" ]; then
+    exec java $JAVA_OPTS -cp "$CLASSPATH" $MAIN_CLASS $PROFILE_ARG "$@"
+fi
+exec java $JAVA_OPTS -XX:SharedArchiveFile="$ARCHIVE" -Xlog:cds=off -Xlog:cds+dynamic=off \
+     -cp "$CLASSPATH" $MAIN_CLASS $PROFILE_ARG "$@"
@@ -0,0 +1,46 @@
+#!/bin/bash
+
+# 启动耗时测试：测量从启动进程到模拟接口首次返回成功响应的时间
+# 用法: bash startup-bench.sh [每种模式的次数]
+
+RUNS=${1:-5}
+PORT=${PORT:-18090}
+URL="http://localhost:$PORT/api/user/1"
+
+# 先打包并生成快速启动归档，避免计入首次准备时间
+bash start.sh --fast --server.port=$PORT > /dev/null 2>&1 &
+PREPARE_PID=$!
+until curl -sf -o /dev/null "$URL"; do
+    kill -0 $PREPARE_PID 2>/dev/null || { echo "服务启动失败"; exit 1; }
+    sleep 0.2
+done
+kill -TERM $PREPARE_PID && wait $PREPARE_PID 2>/dev/null
+
+measure() {
+    local start pid
+    start=$(date +%s%N)
+    bash start.sh "$@" --server.port=$PORT > /dev/null 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        kill -0 $pid 2>/dev/null || { echo "服务启动失败: start.sh $*" >&2; exit 1; }
+        sleep 0.01
+    done
+    echo $(( ($(date +%s%N) - start) / 1000000 ))
+    kill -TERM $pid && wait $pid 2>/dev/null
+}
+
+for mode in default fast; do
+    total=0
+    times=""
+    for i in $(seq "$RUNS"); do
+        if [ "$mode" == fast ]; then
+            t=$(measure --fast)
+        else
+            t=$(measure)
+        fi
+        [ -n "$t" ] || exit 1
+        times="$times ${t}ms"
+        total=$((total + t))
+    done
+    echo "$mode: 平均 $((total / RUNS))ms ($times )"
+done
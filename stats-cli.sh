@@ -0,0 +1,11 @@
+#!/bin/bash
+
+# 读取共享内存统计区
+# 用法: ./stats-cli.sh [文件路径|--port=端口] [间隔毫秒] [--once]
+
+if [ ! -d target/classes ]; then
+    echo "正在编译项目..."
+    mvn -q compile || exit 1
+fi
+
+java -cp target/classes com.shrwk.apirunner.tool.SharedStatsCli "$@"